@@ -0,0 +1,75 @@
+package com.ctoblue.plan91.benchmark;
+
+import com.ctoblue.plan91.application.usecase.analytics.DailyCompletionSeries;
+import com.ctoblue.plan91.application.usecase.analytics.GetChartDataUseCase;
+import com.ctoblue.plan91.application.usecase.analytics.GetHabitAnalyticsUseCase;
+import com.ctoblue.plan91.application.usecase.analytics.GetHeatmapDataUseCase;
+import com.ctoblue.plan91.application.usecase.analytics.GetPractitionerStatisticsUseCase;
+import com.ctoblue.plan91.application.usecase.analytics.TimeBuckets;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Average time of the analytics read paths over {@link SyntheticDataset}, excluding the database.
+ *
+ * <p>Run with {@code ./mvnw -Pbenchmarks test-compile exec:exec}. Each benchmark is reported per
+ * routinesPerPractitioner/yearsOfHistory combination.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AnalyticsBenchmark {
+
+    @Benchmark
+    public GetChartDataUseCase.LineChartData completionTrend(SyntheticDataset dataset) {
+        return dataset.chartData.getCompletionTrendData(
+                dataset.practitionerId, dataset.today.minusYears(dataset.yearsOfHistory), dataset.today);
+    }
+
+    @Benchmark
+    public GetChartDataUseCase.BarChartData habitComparison(SyntheticDataset dataset) {
+        return dataset.chartData.getHabitComparisonData(dataset.practitionerId);
+    }
+
+    @Benchmark
+    public GetChartDataUseCase.BarChartData weeklyAggregation(SyntheticDataset dataset) {
+        return dataset.chartData.getWeeklyAggregationData(dataset.practitionerId, GetChartDataUseCase.MAX_WEEKS);
+    }
+
+    @Benchmark
+    public GetChartDataUseCase.BarChartData monthlyAggregation(SyntheticDataset dataset) {
+        return dataset.chartData.getAggregationData(dataset.practitionerId, TimeBuckets.Granularity.MONTH,
+                dataset.today.minusYears(dataset.yearsOfHistory), dataset.today);
+    }
+
+    @Benchmark
+    public GetHeatmapDataUseCase.HeatmapData heatmapRecords(SyntheticDataset dataset) {
+        return dataset.heatmapData.execute(
+                dataset.practitionerId, dataset.today.minusYears(dataset.yearsOfHistory), dataset.today);
+    }
+
+    @Benchmark
+    public DailyCompletionSeries heatmapSeries(SyntheticDataset dataset) {
+        return dataset.heatmapData.loadSeries(
+                dataset.practitionerId, dataset.today.minusYears(dataset.yearsOfHistory), dataset.today);
+    }
+
+    @Benchmark
+    public GetPractitionerStatisticsUseCase.PractitionerStatistics practitionerStatistics(SyntheticDataset dataset) {
+        return dataset.practitionerStatistics.execute(dataset.practitionerId);
+    }
+
+    @Benchmark
+    public GetHabitAnalyticsUseCase.HabitAnalyticsSummary habitAnalytics(SyntheticDataset dataset) {
+        return dataset.habitAnalytics.execute(dataset.practitionerId);
+    }
+}
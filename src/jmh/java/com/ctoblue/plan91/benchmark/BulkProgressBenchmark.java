@@ -0,0 +1,96 @@
+package com.ctoblue.plan91.benchmark;
+
+import com.ctoblue.plan91.domain.habit.HabitId;
+import com.ctoblue.plan91.domain.habitpractitioner.HabitPractitionerId;
+import com.ctoblue.plan91.domain.routine.DayOfWeek;
+import com.ctoblue.plan91.domain.routine.RecurrenceRule;
+import com.ctoblue.plan91.domain.routine.Routine;
+import com.ctoblue.plan91.domain.routine.RoutineId;
+import com.ctoblue.plan91.domain.routine.service.BulkProgressEvaluator;
+import com.ctoblue.plan91.domain.routine.service.ProgressReport;
+import com.ctoblue.plan91.domain.routine.service.RoutineProgressService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * Throughput of bulk progress evaluation in routines per second, for one chunk of
+ * {@link #ROUTINES} routines, comparing a single thread with a fork-join pool.
+ *
+ * <p>Run with {@code ./mvnw -Pbenchmarks test-compile exec:exec -Djmh.includes=BulkProgressBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(java.util.concurrent.TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BulkProgressBenchmark {
+
+    private static final int ROUTINES = 500;
+    private static final double COMPLETION_RATE = 0.85;
+
+    @Param({"1", "4"})
+    public int parallelism;
+
+    private List<BulkProgressEvaluator.RoutineEntries> batch;
+    private LocalDate asOf;
+    private ForkJoinPool pool;
+    private BulkProgressEvaluator evaluator;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(91);
+        asOf = LocalDate.now();
+        List<RecurrenceRule> rules = List.of(
+                RecurrenceRule.daily(),
+                RecurrenceRule.weekdays(),
+                RecurrenceRule.specificDays(Set.of(DayOfWeek.MONDAY, DayOfWeek.WEDNESDAY, DayOfWeek.FRIDAY)),
+                RecurrenceRule.nthDayOfMonth(DayOfWeek.SATURDAY, 1));
+
+        batch = new ArrayList<>(ROUTINES);
+        for (int i = 0; i < ROUTINES; i++) {
+            LocalDate start = asOf.minusDays(random.nextInt(91));
+            Routine routine = Routine.start(HabitId.generate(), HabitPractitionerId.generate(),
+                    rules.get(i % rules.size()), start);
+            int[] entryDays = IntStream.rangeClosed((int) start.toEpochDay(), (int) asOf.toEpochDay())
+                    .filter(day -> random.nextDouble() < COMPLETION_RATE)
+                    .toArray();
+            batch.add(new BulkProgressEvaluator.RoutineEntries(routine, entryDays));
+        }
+
+        pool = new ForkJoinPool(parallelism);
+        evaluator = new BulkProgressEvaluator(new RoutineProgressService(), pool);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROUTINES)
+    public Map<RoutineId, ProgressReport> evaluateChunk() {
+        return evaluator.evaluate(batch, asOf);
+    }
+}
@@ -0,0 +1,141 @@
+package com.ctoblue.plan91.benchmark;
+
+import com.ctoblue.plan91.adapter.out.persistence.entity.PractitionerDailyCompletionEntity;
+import com.ctoblue.plan91.adapter.out.persistence.entity.PractitionerDailyCompletionId;
+import com.ctoblue.plan91.adapter.out.persistence.entity.RoutineEntity;
+import com.ctoblue.plan91.adapter.out.persistence.repository.HabitEntryJpaRepository;
+import com.ctoblue.plan91.adapter.out.persistence.repository.PractitionerDailyCompletionJpaRepository;
+import com.ctoblue.plan91.adapter.out.persistence.repository.RoutineJpaRepository;
+import com.ctoblue.plan91.domain.routine.RoutineStatus;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Proxy;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.UUID;
+
+/**
+ * In-memory stand-ins for the JPA repositories used by the analytics use cases.
+ *
+ * <p>Each repository is a dynamic proxy that answers the query methods the analytics
+ * read paths call, computing the same aggregates the SQL would over the synthetic
+ * dataset. Any other method throws, so a use case that starts calling a new query
+ * fails the benchmark instead of silently measuring nothing.
+ */
+final class InMemoryRepositories {
+
+    private InMemoryRepositories() {
+    }
+
+    static RoutineJpaRepository routines(SyntheticDataset.Data data) {
+        return proxy(RoutineJpaRepository.class, (proxy, method, args) -> switch (method.getName()) {
+            case "existsByPractitionerId" -> data.practitionerId().equals(args[0]) && !data.routines().isEmpty();
+            case "findByPractitionerId" -> owned(data, args[0]) ? data.routines() : List.of();
+            case "findSummariesByPractitionerId" -> owned(data, args[0]) ? summaries(data.routines()) : List.of();
+            default -> objectMethod(proxy, method.getName(), args, "RoutineJpaRepository");
+        });
+    }
+
+    static HabitEntryJpaRepository entries(SyntheticDataset.Data data) {
+        return proxy(HabitEntryJpaRepository.class, (proxy, method, args) -> switch (method.getName()) {
+            case "summarizeActivity" -> summarizeActivity(data, (UUID) args[0],
+                    (LocalDate) args[1], (LocalDate) args[2], (LocalDate) args[3]);
+            default -> objectMethod(proxy, method.getName(), args, "HabitEntryJpaRepository");
+        });
+    }
+
+    static PractitionerDailyCompletionJpaRepository dailyCompletions(SyntheticDataset.Data data) {
+        return proxy(PractitionerDailyCompletionJpaRepository.class, (proxy, method, args) -> switch (method.getName()) {
+            case "findByPractitionerAndDateRange" -> owned(data, args[0])
+                    ? rollupRows(data, (LocalDate) args[1], (LocalDate) args[2])
+                    : List.of();
+            default -> objectMethod(proxy, method.getName(), args, "PractitionerDailyCompletionJpaRepository");
+        });
+    }
+
+    private static boolean owned(SyntheticDataset.Data data, Object practitionerId) {
+        return data.practitionerId().equals(practitionerId);
+    }
+
+    private static List<RoutineJpaRepository.RoutineSummary> summaries(List<RoutineEntity> routines) {
+        List<RoutineJpaRepository.RoutineSummary> summaries = new ArrayList<>(routines.size());
+        for (RoutineEntity r : routines) {
+            summaries.add(new Summary(
+                    r.getHabit().getId(),
+                    r.getHabit().getName(),
+                    r.getStatus(),
+                    r.getStartDate(),
+                    r.getStreak().getCurrentStreak(),
+                    r.getStreak().getLongestStreak(),
+                    r.getStreak().getTotalCompletions()
+            ));
+        }
+        return summaries;
+    }
+
+    private static HabitEntryJpaRepository.ActivityCounts summarizeActivity(
+            SyntheticDataset.Data data, UUID practitionerId,
+            LocalDate last7DaysStart, LocalDate last30DaysStart, LocalDate today) {
+        if (!data.practitionerId().equals(practitionerId)) {
+            return new Activity(0, 0, 0);
+        }
+        long last7 = sum(data.dailyCompletions().subMap(last7DaysStart, true, today, true));
+        long last30 = sum(data.dailyCompletions().subMap(last30DaysStart, true, today, true));
+        return new Activity(last7, last30, data.dailyCompletions().size());
+    }
+
+    private static long sum(Map<LocalDate, Integer> counts) {
+        long total = 0;
+        for (int count : counts.values()) {
+            total += count;
+        }
+        return total;
+    }
+
+    private static List<PractitionerDailyCompletionEntity> rollupRows(
+            SyntheticDataset.Data data, LocalDate startDate, LocalDate endDate) {
+        NavigableMap<LocalDate, Integer> window = data.dailyCompletions().subMap(startDate, true, endDate, true);
+        List<PractitionerDailyCompletionEntity> rows = new ArrayList<>(window.size());
+        for (Map.Entry<LocalDate, Integer> day : window.entrySet()) {
+            rows.add(new PractitionerDailyCompletionEntity(
+                    new PractitionerDailyCompletionId(data.practitionerId(), day.getKey()), day.getValue()));
+        }
+        return rows;
+    }
+
+    private static Object objectMethod(Object proxy, String name, Object[] args, String repository) {
+        return switch (name) {
+            case "toString" -> "InMemory" + repository;
+            case "hashCode" -> System.identityHashCode(proxy);
+            case "equals" -> proxy == args[0];
+            default -> throw new UnsupportedOperationException(repository + "." + name + " is not stubbed");
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, handler);
+    }
+
+    private record Summary(UUID habitId, String habitName, RoutineStatus status, LocalDate startDate,
+                           int currentStreak, int longestStreak, int totalCompletions)
+            implements RoutineJpaRepository.RoutineSummary {
+        public UUID getHabitId() { return habitId; }
+        public String getHabitName() { return habitName; }
+        public RoutineStatus getStatus() { return status; }
+        public LocalDate getStartDate() { return startDate; }
+        public int getCurrentStreak() { return currentStreak; }
+        public int getLongestStreak() { return longestStreak; }
+        public int getTotalCompletions() { return totalCompletions; }
+    }
+
+    private record Activity(long last7Days, long last30Days, long totalDaysPracticed)
+            implements HabitEntryJpaRepository.ActivityCounts {
+        public long getLast7Days() { return last7Days; }
+        public long getLast30Days() { return last30Days; }
+        public long getTotalDaysPracticed() { return totalDaysPracticed; }
+    }
+}
@@ -0,0 +1,138 @@
+package com.ctoblue.plan91.benchmark;
+
+import com.ctoblue.plan91.adapter.out.persistence.entity.HabitEntity;
+import com.ctoblue.plan91.adapter.out.persistence.entity.HabitStreakEmbeddable;
+import com.ctoblue.plan91.adapter.out.persistence.entity.RoutineEntity;
+import com.ctoblue.plan91.application.usecase.analytics.GetChartDataUseCase;
+import com.ctoblue.plan91.application.usecase.analytics.GetHabitAnalyticsUseCase;
+import com.ctoblue.plan91.application.usecase.analytics.GetHeatmapDataUseCase;
+import com.ctoblue.plan91.application.usecase.analytics.GetPractitionerStatisticsUseCase;
+import com.ctoblue.plan91.application.usecase.analytics.PractitionerSnapshotLoader;
+import com.ctoblue.plan91.domain.habit.TrackingType;
+import com.ctoblue.plan91.domain.routine.RoutineStatus;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.UUID;
+
+/**
+ * One practitioner's synthetic history, wired into the analytics use cases
+ * through {@link InMemoryRepositories}.
+ *
+ * <p>Routines are 91 days long and spread evenly over the history, so their count and
+ * the years of history can be varied independently. About 80% of days are completed.
+ * Generation is seeded, so every fork measures the same data.
+ */
+@State(Scope.Benchmark)
+public class SyntheticDataset {
+
+    private static final int ROUTINE_DAYS = 91;
+    private static final int HABITS = 12;
+    private static final double COMPLETION_RATE = 0.8;
+
+    @Param({"5", "20", "80"})
+    public int routinesPerPractitioner;
+
+    @Param({"1", "3"})
+    public int yearsOfHistory;
+
+    String practitionerId;
+    LocalDate today;
+
+    GetChartDataUseCase chartData;
+    GetHeatmapDataUseCase heatmapData;
+    GetPractitionerStatisticsUseCase practitionerStatistics;
+    GetHabitAnalyticsUseCase habitAnalytics;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        today = LocalDate.now();
+        Data data = generate(routinesPerPractitioner, yearsOfHistory, today, new Random(91));
+        practitionerId = data.practitionerId().toString();
+
+        var routineRepository = InMemoryRepositories.routines(data);
+        var entryRepository = InMemoryRepositories.entries(data);
+        var dailyCompletionRepository = InMemoryRepositories.dailyCompletions(data);
+        var snapshotLoader = new PractitionerSnapshotLoader(routineRepository, entryRepository);
+
+        chartData = new GetChartDataUseCase(routineRepository, entryRepository, dailyCompletionRepository);
+        heatmapData = new GetHeatmapDataUseCase(routineRepository, dailyCompletionRepository);
+        practitionerStatistics = new GetPractitionerStatisticsUseCase(snapshotLoader);
+        habitAnalytics = new GetHabitAnalyticsUseCase(snapshotLoader);
+    }
+
+    /**
+     * Generated rows for one practitioner.
+     *
+     * @param practitionerId the practitioner
+     * @param routines routine rows, habits attached
+     * @param dailyCompletions completed entries per day (days with none are absent)
+     */
+    record Data(UUID practitionerId, List<RoutineEntity> routines, NavigableMap<LocalDate, Integer> dailyCompletions) {}
+
+    static Data generate(int routineCount, int years, LocalDate today, Random random) {
+        UUID practitionerId = new UUID(random.nextLong(), random.nextLong());
+
+        List<HabitEntity> habits = new ArrayList<>(HABITS);
+        for (int h = 0; h < HABITS; h++) {
+            habits.add(HabitEntity.builder()
+                    .id(new UUID(random.nextLong(), random.nextLong()))
+                    .name("Habit " + h)
+                    .trackingType(TrackingType.BOOLEAN)
+                    .build());
+        }
+
+        LocalDate historyStart = today.minusYears(years);
+        long span = Math.max(1, today.toEpochDay() - historyStart.toEpochDay() - ROUTINE_DAYS / 2);
+
+        List<RoutineEntity> routines = new ArrayList<>(routineCount);
+        NavigableMap<LocalDate, Integer> dailyCompletions = new TreeMap<>();
+
+        for (int i = 0; i < routineCount; i++) {
+            LocalDate start = historyStart.plusDays(span * i / routineCount);
+            LocalDate end = start.plusDays(ROUTINE_DAYS - 1);
+            LocalDate last = end.isAfter(today) ? today : end;
+
+            int total = 0;
+            int current = 0;
+            int longest = 0;
+            LocalDate lastCompletion = null;
+            for (LocalDate day = start; !day.isAfter(last); day = day.plusDays(1)) {
+                if (random.nextDouble() < COMPLETION_RATE) {
+                    total++;
+                    current++;
+                    longest = Math.max(longest, current);
+                    lastCompletion = day;
+                    dailyCompletions.merge(day, 1, Integer::sum);
+                } else {
+                    current = 0;
+                }
+            }
+
+            routines.add(RoutineEntity.builder()
+                    .id(new UUID(random.nextLong(), random.nextLong()))
+                    .habit(habits.get(i % HABITS))
+                    .startDate(start)
+                    .expectedEndDate(end)
+                    .status(end.isBefore(today) ? RoutineStatus.COMPLETED : RoutineStatus.ACTIVE)
+                    .streak(HabitStreakEmbeddable.builder()
+                            .currentStreak(current)
+                            .longestStreak(longest)
+                            .totalCompletions(total)
+                            .lastCompletionDate(lastCompletion)
+                            .build())
+                    .build());
+        }
+
+        return new Data(practitionerId, routines, dailyCompletions);
+    }
+}
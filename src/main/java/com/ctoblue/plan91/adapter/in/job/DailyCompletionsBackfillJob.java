@@ -0,0 +1,48 @@
+package com.ctoblue.plan91.adapter.in.job;
+
+import com.ctoblue.plan91.adapter.out.persistence.repository.HabitPractitionerJpaRepository;
+import com.ctoblue.plan91.application.usecase.analytics.RebuildDailyCompletionsUseCase;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * One-off job that backfills the practitioner_daily_completions rollup from habit_entries.
+ *
+ * <p>Runs at startup when {@code plan91.jobs.backfill-daily-completions=true}.
+ * Each practitioner is rebuilt in its own transaction so a large table is never locked as a whole.
+ */
+@Component
+@ConditionalOnProperty(name = "plan91.jobs.backfill-daily-completions", havingValue = "true")
+public class DailyCompletionsBackfillJob implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(DailyCompletionsBackfillJob.class);
+
+    private final HabitPractitionerJpaRepository practitionerRepository;
+    private final RebuildDailyCompletionsUseCase rebuildDailyCompletionsUseCase;
+
+    public DailyCompletionsBackfillJob(
+            HabitPractitionerJpaRepository practitionerRepository,
+            RebuildDailyCompletionsUseCase rebuildDailyCompletionsUseCase) {
+        this.practitionerRepository = practitionerRepository;
+        this.rebuildDailyCompletionsUseCase = rebuildDailyCompletionsUseCase;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        List<UUID> practitionerIds = practitionerRepository.findAllIds();
+        int days = 0;
+
+        for (UUID practitionerId : practitionerIds) {
+            days += rebuildDailyCompletionsUseCase.execute(practitionerId);
+        }
+
+        log.info("Backfilled daily completions: {} practitioners, {} days", practitionerIds.size(), days);
+    }
+}
@@ -0,0 +1,48 @@
+package com.ctoblue.plan91.adapter.in.job;
+
+import com.ctoblue.plan91.application.usecase.routine.EvaluateRoutineProgressUseCase;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+
+/**
+ * Job that evaluates compliance and on-track status of every active routine.
+ *
+ * <p>Runs at startup when {@code plan91.jobs.routine-progress-report=true}. Routines that are
+ * off track are logged one per line; the summary line reports throughput in routines/second.
+ */
+@Component
+@ConditionalOnProperty(name = "plan91.jobs.routine-progress-report", havingValue = "true")
+public class RoutineProgressReportJob implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(RoutineProgressReportJob.class);
+
+    private final EvaluateRoutineProgressUseCase evaluateRoutineProgressUseCase;
+
+    public RoutineProgressReportJob(EvaluateRoutineProgressUseCase evaluateRoutineProgressUseCase) {
+        this.evaluateRoutineProgressUseCase = evaluateRoutineProgressUseCase;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        LocalDate today = LocalDate.now();
+
+        EvaluateRoutineProgressUseCase.BulkProgressSummary summary = evaluateRoutineProgressUseCase.execute(
+                today,
+                (routineId, report) -> {
+                    if (!report.onTrack()) {
+                        log.info("Routine {} off track: {} missed, {}% compliance",
+                                routineId.value(), report.missedCount(), Math.round(report.complianceRate()));
+                    }
+                });
+
+        log.info("Evaluated routine progress: {} routines, {} on track, {} ms ({} routines/s)",
+                summary.routines(), summary.onTrack(), summary.elapsed().toMillis(),
+                Math.round(summary.routinesPerSecond()));
+    }
+}
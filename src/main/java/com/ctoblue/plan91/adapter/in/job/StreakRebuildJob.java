@@ -0,0 +1,41 @@
+package com.ctoblue.plan91.adapter.in.job;
+
+import com.ctoblue.plan91.application.usecase.routine.RebuildStreaksUseCase;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * One-off job that recomputes every routine's streak from its entries.
+ *
+ * <p>Runs at startup when {@code plan91.jobs.rebuild-streaks=true}. Use it to repair streaks
+ * left wrong by backfilled completions or imports; routines already correct are not written.
+ * Active routines that miss more than their one strike are logged for review, not abandoned.
+ */
+@Component
+@ConditionalOnProperty(name = "plan91.jobs.rebuild-streaks", havingValue = "true")
+public class StreakRebuildJob implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(StreakRebuildJob.class);
+
+    private final RebuildStreaksUseCase rebuildStreaksUseCase;
+
+    public StreakRebuildJob(RebuildStreaksUseCase rebuildStreaksUseCase) {
+        this.rebuildStreaksUseCase = rebuildStreaksUseCase;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        RebuildStreaksUseCase.RebuildSummary summary = rebuildStreaksUseCase.execute();
+
+        log.info("Rebuilt streaks: {} routines, {} repaired, {} completed, {} ms",
+                summary.routines(), summary.repaired(), summary.completed(), summary.elapsed().toMillis());
+        if (!summary.strikesExhausted().isEmpty()) {
+            log.warn("{} active routines miss more than one expected day and were left ACTIVE: {}",
+                    summary.strikesExhausted().size(), summary.strikesExhausted());
+        }
+    }
+}
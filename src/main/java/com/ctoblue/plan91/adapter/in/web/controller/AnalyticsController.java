@@ -2,10 +2,14 @@ package com.ctoblue.plan91.adapter.in.web.controller;
 
 import com.ctoblue.plan91.application.usecase.analytics.*;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDate;
+import java.util.List;
 
 /**
  * REST controller for analytics and statistics.
@@ -19,9 +23,18 @@ import java.time.LocalDate;
  *   <li>GET /api/analytics/charts/completion-trend - Completion trend chart data</li>
  *   <li>GET /api/analytics/charts/habit-comparison - Habit comparison chart data</li>
  *   <li>GET /api/analytics/charts/weekly-aggregation - Weekly aggregation chart data</li>
+ *   <li>GET /api/analytics/charts/aggregation - Completions per day, week, month or quarter</li>
  *   <li>GET /api/analytics/charts/numeric-progress/{routineId} - Numeric progress chart data</li>
  *   <li>GET /api/analytics/heatmap - Activity heatmap data</li>
+ *   <li>GET /api/analytics/cache/stats - Analytics cache counters</li>
  * </ul>
+ *
+ * <p>Practitioner-scoped results are served through {@link AnalyticsCache}.
+ * The completion-trend and heatmap endpoints cache daily counts and stream the JSON
+ * with {@link DailySeriesJsonWriter}; {@code format=compact} returns run-length encoded counts.
+ *
+ * <p>Reads (except cache stats) carry an ETag and Last-Modified from {@link ConditionalReads};
+ * a matching If-None-Match returns 304 without touching the cache or the database.
  */
 @RestController
 @RequestMapping("/api/analytics")
@@ -31,29 +44,45 @@ public class AnalyticsController {
     private final GetHabitAnalyticsUseCase getHabitAnalyticsUseCase;
     private final GetChartDataUseCase getChartDataUseCase;
     private final GetHeatmapDataUseCase getHeatmapDataUseCase;
+    private final PractitionerSnapshotLoader snapshotLoader;
+    private final AnalyticsCache analyticsCache;
+    private final DailySeriesJsonWriter seriesWriter;
+    private final ConditionalReads conditionalReads;
 
     public AnalyticsController(
             GetPractitionerStatisticsUseCase getPractitionerStatisticsUseCase,
             GetHabitAnalyticsUseCase getHabitAnalyticsUseCase,
             GetChartDataUseCase getChartDataUseCase,
-            GetHeatmapDataUseCase getHeatmapDataUseCase) {
+            GetHeatmapDataUseCase getHeatmapDataUseCase,
+            PractitionerSnapshotLoader snapshotLoader,
+            AnalyticsCache analyticsCache,
+            DailySeriesJsonWriter seriesWriter,
+            ConditionalReads conditionalReads) {
         this.getPractitionerStatisticsUseCase = getPractitionerStatisticsUseCase;
         this.getHabitAnalyticsUseCase = getHabitAnalyticsUseCase;
         this.getChartDataUseCase = getChartDataUseCase;
         this.getHeatmapDataUseCase = getHeatmapDataUseCase;
+        this.snapshotLoader = snapshotLoader;
+        this.analyticsCache = analyticsCache;
+        this.seriesWriter = seriesWriter;
+        this.conditionalReads = conditionalReads;
     }
 
     /**
      * Gets overall statistics for a practitioner.
      *
      * @param practitionerId the practitioner's ID
+     * @param request the current request, for conditional GET
      * @return practitioner statistics
      */
     @GetMapping("/practitioners/{practitionerId}/statistics")
     public ResponseEntity<GetPractitionerStatisticsUseCase.PractitionerStatistics> getPractitionerStatistics(
-            @PathVariable String practitionerId) {
-        GetPractitionerStatisticsUseCase.PractitionerStatistics stats =
-                getPractitionerStatisticsUseCase.execute(practitionerId);
+            @PathVariable String practitionerId,
+            WebRequest request) {
+        if (conditionalReads.notModified(request, practitionerId)) {
+            return null;
+        }
+        GetPractitionerStatisticsUseCase.PractitionerStatistics stats = statistics(practitionerId);
         return ResponseEntity.ok(stats);
     }
 
@@ -61,13 +90,17 @@ public class AnalyticsController {
      * Gets habit-based analytics for a practitioner.
      *
      * @param practitionerId the practitioner's ID
+     * @param request the current request, for conditional GET
      * @return habit analytics
      */
     @GetMapping("/practitioners/{practitionerId}/habits")
     public ResponseEntity<GetHabitAnalyticsUseCase.HabitAnalyticsSummary> getHabitAnalytics(
-            @PathVariable String practitionerId) {
-        GetHabitAnalyticsUseCase.HabitAnalyticsSummary analytics =
-                getHabitAnalyticsUseCase.execute(practitionerId);
+            @PathVariable String practitionerId,
+            WebRequest request) {
+        if (conditionalReads.notModified(request, practitionerId)) {
+            return null;
+        }
+        GetHabitAnalyticsUseCase.HabitAnalyticsSummary analytics = habitAnalytics(practitionerId);
         return ResponseEntity.ok(analytics);
     }
 
@@ -75,19 +108,23 @@ public class AnalyticsController {
      * Gets dashboard summary combining key statistics and recent activity.
      *
      * @param practitionerId the practitioner's ID
+     * @param request the current request, for conditional GET
      * @return dashboard summary
      */
     @GetMapping("/practitioners/{practitionerId}/dashboard")
     public ResponseEntity<DashboardSummary> getDashboardSummary(
-            @PathVariable String practitionerId) {
-        // Combine multiple analytics into a single dashboard view
-        GetPractitionerStatisticsUseCase.PractitionerStatistics stats =
-                getPractitionerStatisticsUseCase.execute(practitionerId);
-
-        GetHabitAnalyticsUseCase.HabitAnalyticsSummary habitAnalytics =
-                getHabitAnalyticsUseCase.execute(practitionerId);
-
-        DashboardSummary summary = new DashboardSummary(stats, habitAnalytics);
+            @PathVariable String practitionerId,
+            WebRequest request) {
+        if (conditionalReads.notModified(request, practitionerId)) {
+            return null;
+        }
+        // Combine multiple analytics into a single dashboard view, sharing one snapshot
+        DashboardSummary summary = analyticsCache.get(practitionerId, "dashboard", List.of(), () -> {
+            PractitionerSnapshot snapshot = snapshotLoader.load(practitionerId);
+            return new DashboardSummary(
+                    getPractitionerStatisticsUseCase.execute(snapshot),
+                    getHabitAnalyticsUseCase.execute(snapshot));
+        });
         return ResponseEntity.ok(summary);
     }
 
@@ -97,13 +134,22 @@ public class AnalyticsController {
      * @param practitionerId the practitioner's ID
      * @param startDate the start date (optional, defaults to 30 days ago)
      * @param endDate the end date (optional, defaults to today)
-     * @return chart data
+     * @param format full (labels and data, default) or compact (run-length encoded counts)
+     * @param request the current request, for conditional GET
+     * @return chart data, streamed
      */
     @GetMapping("/charts/completion-trend")
-    public ResponseEntity<GetChartDataUseCase.LineChartData> getCompletionTrend(
+    public ResponseEntity<StreamingResponseBody> getCompletionTrend(
             @RequestParam String practitionerId,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
-            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(defaultValue = "full") String format,
+            WebRequest request) {
+        if (conditionalReads.notModified(request, practitionerId)) {
+            return null;
+        }
+
+        DailySeriesJsonWriter.Format layout = DailySeriesJsonWriter.Format.parse(format);
 
         if (startDate == null) {
             startDate = LocalDate.now().minusDays(30);
@@ -112,22 +158,33 @@ public class AnalyticsController {
             endDate = LocalDate.now();
         }
 
-        GetChartDataUseCase.LineChartData chartData =
-                getChartDataUseCase.getCompletionTrendData(practitionerId, startDate, endDate);
-        return ResponseEntity.ok(chartData);
+        LocalDate from = startDate;
+        LocalDate to = endDate;
+        DailyCompletionSeries series = analyticsCache.get(
+                practitionerId, "completion-trend", List.of(from, to),
+                () -> getChartDataUseCase.getCompletionTrendSeries(practitionerId, from, to));
+        return streamJson(layout == DailySeriesJsonWriter.Format.COMPACT
+                ? out -> seriesWriter.writeCompact(series, out)
+                : out -> seriesWriter.writeTrend(series, out));
     }
 
     /**
      * Gets habit comparison chart data for bar charts.
      *
      * @param practitionerId the practitioner's ID
+     * @param request the current request, for conditional GET
      * @return chart data
      */
     @GetMapping("/charts/habit-comparison")
     public ResponseEntity<GetChartDataUseCase.BarChartData> getHabitComparison(
-            @RequestParam String practitionerId) {
-        GetChartDataUseCase.BarChartData chartData =
-                getChartDataUseCase.getHabitComparisonData(practitionerId);
+            @RequestParam String practitionerId,
+            WebRequest request) {
+        if (conditionalReads.notModified(request, practitionerId)) {
+            return null;
+        }
+        GetChartDataUseCase.BarChartData chartData = analyticsCache.get(
+                practitionerId, "habit-comparison", List.of(),
+                () -> getChartDataUseCase.getHabitComparisonData(practitionerId));
         return ResponseEntity.ok(chartData);
     }
 
@@ -135,15 +192,67 @@ public class AnalyticsController {
      * Gets weekly aggregation chart data.
      *
      * @param practitionerId the practitioner's ID
-     * @param weeks number of weeks to include (default 8)
+     * @param weeks number of weeks to include (default 8, at most 104)
+     * @param request the current request, for conditional GET
      * @return chart data
      */
     @GetMapping("/charts/weekly-aggregation")
     public ResponseEntity<GetChartDataUseCase.BarChartData> getWeeklyAggregation(
             @RequestParam String practitionerId,
-            @RequestParam(defaultValue = "8") int weeks) {
-        GetChartDataUseCase.BarChartData chartData =
-                getChartDataUseCase.getWeeklyAggregationData(practitionerId, weeks);
+            @RequestParam(defaultValue = "8") int weeks,
+            WebRequest request) {
+        if (conditionalReads.notModified(request, practitionerId)) {
+            return null;
+        }
+        GetChartDataUseCase.BarChartData chartData = analyticsCache.get(
+                practitionerId, "weekly-aggregation", List.of(weeks),
+                () -> getChartDataUseCase.getWeeklyAggregationData(practitionerId, weeks));
+        return ResponseEntity.ok(chartData);
+    }
+
+    /**
+     * Gets completion totals bucketed by day, week, month or quarter.
+     *
+     * @param practitionerId the practitioner's ID
+     * @param granularity day, week, month or quarter (default week)
+     * @param startDate the start date (optional, defaults to 12 buckets before endDate)
+     * @param endDate the end date (optional, defaults to today)
+     * @param request the current request, for conditional GET
+     * @return chart data
+     */
+    @GetMapping("/charts/aggregation")
+    public ResponseEntity<GetChartDataUseCase.BarChartData> getAggregation(
+            @RequestParam String practitionerId,
+            @RequestParam(defaultValue = "week") String granularity,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            WebRequest request) {
+        if (conditionalReads.notModified(request, practitionerId)) {
+            return null;
+        }
+
+        TimeBuckets.Granularity bucketSize = TimeBuckets.Granularity.parse(granularity);
+
+        if (endDate == null) {
+            endDate = LocalDate.now();
+        }
+        if (startDate == null) {
+            startDate = switch (bucketSize) {
+                case DAY -> endDate.minusDays(11);
+                case WEEK -> endDate.minusWeeks(12).plusDays(1);
+                case MONTH -> endDate.minusMonths(11).withDayOfMonth(1);
+                case QUARTER -> {
+                    LocalDate quarterStart = endDate.minusMonths(33).withDayOfMonth(1);
+                    yield quarterStart.minusMonths((quarterStart.getMonthValue() - 1) % 3);
+                }
+            };
+        }
+
+        LocalDate from = startDate;
+        LocalDate to = endDate;
+        GetChartDataUseCase.BarChartData chartData = analyticsCache.get(
+                practitionerId, "aggregation", List.of(bucketSize, from, to),
+                () -> getChartDataUseCase.getAggregationData(practitionerId, bucketSize, from, to));
         return ResponseEntity.ok(chartData);
     }
 
@@ -151,11 +260,16 @@ public class AnalyticsController {
      * Gets numeric progress chart data for routines with numeric tracking.
      *
      * @param routineId the routine's ID
+     * @param request the current request, for conditional GET
      * @return chart data
      */
     @GetMapping("/charts/numeric-progress/{routineId}")
     public ResponseEntity<GetChartDataUseCase.LineChartData> getNumericProgress(
-            @PathVariable String routineId) {
+            @PathVariable String routineId,
+            WebRequest request) {
+        if (conditionalReads.routineNotModified(request, routineId)) {
+            return null;
+        }
         GetChartDataUseCase.LineChartData chartData =
                 getChartDataUseCase.getNumericProgressData(routineId);
         return ResponseEntity.ok(chartData);
@@ -167,24 +281,62 @@ public class AnalyticsController {
      * @param practitionerId the practitioner's ID
      * @param startDate the start date (optional)
      * @param endDate the end date (optional)
-     * @return heatmap data
+     * @param format full (one record per day, default) or compact (run-length encoded counts)
+     * @param request the current request, for conditional GET
+     * @return heatmap data, streamed
      */
     @GetMapping("/heatmap")
-    public ResponseEntity<GetHeatmapDataUseCase.HeatmapData> getHeatmap(
+    public ResponseEntity<StreamingResponseBody> getHeatmap(
             @RequestParam String practitionerId,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
-            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(defaultValue = "full") String format,
+            WebRequest request) {
+        if (conditionalReads.notModified(request, practitionerId)) {
+            return null;
+        }
 
-        GetHeatmapDataUseCase.HeatmapData heatmapData;
+        DailySeriesJsonWriter.Format layout = DailySeriesJsonWriter.Format.parse(format);
+        DailyCompletionSeries series;
 
         if (startDate != null && endDate != null) {
-            heatmapData = getHeatmapDataUseCase.execute(practitionerId, startDate, endDate);
+            series = analyticsCache.get(practitionerId, "heatmap", List.of(startDate, endDate),
+                    () -> getHeatmapDataUseCase.loadSeries(practitionerId, startDate, endDate));
         } else {
             // Default to past year
-            heatmapData = getHeatmapDataUseCase.getPastYearHeatmap(practitionerId);
+            series = analyticsCache.get(practitionerId, "heatmap", List.of(),
+                    () -> getHeatmapDataUseCase.loadPastYearSeries(practitionerId));
         }
 
-        return ResponseEntity.ok(heatmapData);
+        return streamJson(layout == DailySeriesJsonWriter.Format.COMPACT
+                ? out -> seriesWriter.writeCompact(series, out)
+                : out -> seriesWriter.writeHeatmap(series, out));
+    }
+
+    /**
+     * Gets analytics cache counters, for sizing the cache.
+     *
+     * @return cache statistics
+     */
+    @GetMapping("/cache/stats")
+    public ResponseEntity<AnalyticsCache.CacheStats> getCacheStats() {
+        return ResponseEntity.ok(analyticsCache.stats());
+    }
+
+    private ResponseEntity<StreamingResponseBody> streamJson(StreamingResponseBody body) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body);
+    }
+
+    private GetPractitionerStatisticsUseCase.PractitionerStatistics statistics(String practitionerId) {
+        return analyticsCache.get(practitionerId, "statistics", List.of(),
+                () -> getPractitionerStatisticsUseCase.execute(practitionerId));
+    }
+
+    private GetHabitAnalyticsUseCase.HabitAnalyticsSummary habitAnalytics(String practitionerId) {
+        return analyticsCache.get(practitionerId, "habits", List.of(),
+                () -> getHabitAnalyticsUseCase.execute(practitionerId));
     }
 
     // DTOs
@@ -0,0 +1,107 @@
+package com.ctoblue.plan91.adapter.in.web.controller;
+
+import com.ctoblue.plan91.application.usecase.analytics.PractitionerDataVersions;
+import com.ctoblue.plan91.application.usecase.routine.QueryRoutinesUseCase;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.context.request.WebRequest;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Conditional GET support for practitioner data reads.
+ *
+ * <p>The ETag is strong and combines the practitioner's {@link PractitionerDataVersions data version}
+ * with today's date, since several views are relative to "today". Last-Modified is the later of
+ * the last change and midnight. Checks run before any use case, so a matching If-None-Match
+ * (or If-Modified-Since) costs no queries beyond, for routine-keyed reads, a cached owner lookup.
+ *
+ * <p>Usage in a handler:
+ * <pre>
+ * if (conditionalReads.notModified(request, practitionerId)) {
+ *     return null;   // 304 already written
+ * }
+ * </pre>
+ */
+@Component
+public class ConditionalReads {
+
+    private static final int MAX_ROUTINE_OWNERS = 10_000;
+
+    private final PractitionerDataVersions dataVersions;
+    private final QueryRoutinesUseCase queryRoutinesUseCase;
+
+    // Routines never change owner, so this only needs bounding
+    private final Map<String, UUID> routineOwners = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, UUID> eldest) {
+            return size() > MAX_ROUTINE_OWNERS;
+        }
+    };
+
+    public ConditionalReads(PractitionerDataVersions dataVersions, QueryRoutinesUseCase queryRoutinesUseCase) {
+        this.dataVersions = dataVersions;
+        this.queryRoutinesUseCase = queryRoutinesUseCase;
+    }
+
+    /**
+     * Sets validators for a practitioner-scoped read and checks the request's preconditions.
+     *
+     * @param request the current request
+     * @param practitionerId the practitioner whose data the response is built from
+     * @return true if the client's copy is current and a 304 has been prepared
+     */
+    public boolean notModified(WebRequest request, String practitionerId) {
+        return notModified(request, UUID.fromString(practitionerId));
+    }
+
+    /**
+     * Same as {@link #notModified(WebRequest, String)} for a read keyed by routine.
+     * Unknown routines are never "not modified", so the handler reports them as usual.
+     *
+     * @param request the current request
+     * @param routineId the routine the response is built from
+     * @return true if the client's copy is current and a 304 has been prepared
+     */
+    public boolean routineNotModified(WebRequest request, String routineId) {
+        Optional<UUID> owner = routineOwner(routineId);
+        return owner.isPresent() && notModified(request, owner.get());
+    }
+
+    private boolean notModified(WebRequest request, UUID practitionerId) {
+        PractitionerDataVersions.Version version = dataVersions.current(practitionerId);
+        LocalDate today = LocalDate.now();
+        long midnight = today.atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli();
+
+        String etag = "\"" + dataVersions.epoch() + "-" + version.number() + "-" + today.toEpochDay() + "\"";
+        long lastModified = Math.max(version.changedAt().toEpochMilli(), midnight);
+
+        // Let browsers keep the response but revalidate it every time
+        if (request instanceof ServletWebRequest servletRequest && servletRequest.getResponse() != null) {
+            servletRequest.getResponse().setHeader(HttpHeaders.CACHE_CONTROL, "private, no-cache");
+        }
+        return request.checkNotModified(etag, lastModified);
+    }
+
+    private Optional<UUID> routineOwner(String routineId) {
+        synchronized (routineOwners) {
+            UUID owner = routineOwners.get(routineId);
+            if (owner != null) {
+                return Optional.of(owner);
+            }
+        }
+        Optional<UUID> owner = queryRoutinesUseCase.findPractitionerId(routineId);
+        owner.ifPresent(id -> {
+            synchronized (routineOwners) {
+                routineOwners.put(routineId, id);
+            }
+        });
+        return owner;
+    }
+}
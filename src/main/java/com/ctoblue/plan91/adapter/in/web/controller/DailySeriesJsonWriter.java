@@ -0,0 +1,236 @@
+package com.ctoblue.plan91.adapter.in.web.controller;
+
+import com.ctoblue.plan91.application.usecase.analytics.DailyCompletionSeries;
+import com.ctoblue.plan91.domain.shared.EpochDays;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.util.Locale;
+
+/**
+ * Writes heatmap and completion-trend responses straight from a {@link DailyCompletionSeries}
+ * with Jackson's streaming generator.
+ *
+ * <p>Dates are produced by stepping day/month/year counters from the series start, and
+ * the weekday from the epoch day, so no per-day objects or formatted strings are created.
+ * The {@code full} format has the same JSON shape as
+ * {@code GetHeatmapDataUseCase.HeatmapData} and {@code GetChartDataUseCase.LineChartData}.
+ *
+ * <p>The {@code compact} format run-length encodes the counts:
+ * <pre>
+ * {"startDate":"2026-01-01","days":365,"totalCompletions":42,"maxCompletions":3,
+ *  "runs":[0,12,1,2,0,351]}
+ * </pre>
+ * {@code runs} holds (count, length) pairs covering the days in order.
+ */
+@Component
+public class DailySeriesJsonWriter {
+
+    private static final char[][] MONTH_NAMES = {
+            "Jan".toCharArray(), "Feb".toCharArray(), "Mar".toCharArray(), "Apr".toCharArray(),
+            "May".toCharArray(), "Jun".toCharArray(), "Jul".toCharArray(), "Aug".toCharArray(),
+            "Sep".toCharArray(), "Oct".toCharArray(), "Nov".toCharArray(), "Dec".toCharArray()
+    };
+
+    /**
+     * Response layout.
+     */
+    public enum Format {
+        FULL, COMPACT;
+
+        /**
+         * Parses a format name, ignoring case.
+         *
+         * @param value the name, e.g. "compact"
+         * @return the format
+         * @throws IllegalArgumentException if the name is unknown
+         */
+        public static Format parse(String value) {
+            if (value == null || value.isBlank()) {
+                throw new IllegalArgumentException("Format cannot be null or blank");
+            }
+            try {
+                return valueOf(value.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unknown format: " + value);
+            }
+        }
+    }
+
+    private final JsonFactory jsonFactory;
+
+    public DailySeriesJsonWriter(ObjectMapper objectMapper) {
+        this.jsonFactory = objectMapper.getFactory();
+    }
+
+    /**
+     * Writes a heatmap: {@code {"days":[{"date","count","intensity","dayOfWeek"}...],
+     * "totalCompletions","maxCompletions"}}.
+     *
+     * @param series the daily counts
+     * @param out the response body
+     * @throws IOException if writing fails
+     */
+    public void writeHeatmap(DailyCompletionSeries series, OutputStream out) throws IOException {
+        try (JsonGenerator gen = createGenerator(out)) {
+            gen.writeStartObject();
+            gen.writeArrayFieldStart("days");
+
+            DateCursor date = new DateCursor(series.startDate());
+            long epochDay = series.firstEpochDay();
+            for (int i = 0; i < series.length(); i++, epochDay++, date.next()) {
+                gen.writeStartObject();
+                gen.writeFieldName("date");
+                gen.writeString(date.isoChars(), 0, 10);
+                gen.writeNumberField("count", series.countAt(i));
+                gen.writeNumberField("intensity", series.intensityAt(i));
+                gen.writeNumberField("dayOfWeek", EpochDays.isoDayOfWeek(epochDay));
+                gen.writeEndObject();
+            }
+
+            gen.writeEndArray();
+            gen.writeNumberField("totalCompletions", series.totalCompletions());
+            gen.writeNumberField("maxCompletions", series.maxCompletions());
+            gen.writeEndObject();
+        }
+    }
+
+    /**
+     * Writes a completion trend: {@code {"labels":["Jan 01",...],"data":[...]}}.
+     *
+     * @param series the daily counts
+     * @param out the response body
+     * @throws IOException if writing fails
+     */
+    public void writeTrend(DailyCompletionSeries series, OutputStream out) throws IOException {
+        try (JsonGenerator gen = createGenerator(out)) {
+            gen.writeStartObject();
+
+            gen.writeArrayFieldStart("labels");
+            DateCursor date = new DateCursor(series.startDate());
+            for (int i = 0; i < series.length(); i++, date.next()) {
+                gen.writeString(date.labelChars(), 0, 6);
+            }
+            gen.writeEndArray();
+
+            gen.writeArrayFieldStart("data");
+            for (int i = 0; i < series.length(); i++) {
+                gen.writeNumber(series.countAt(i));
+            }
+            gen.writeEndArray();
+
+            gen.writeEndObject();
+        }
+    }
+
+    /**
+     * Writes the run-length encoded form shared by both endpoints.
+     *
+     * @param series the daily counts
+     * @param out the response body
+     * @throws IOException if writing fails
+     */
+    public void writeCompact(DailyCompletionSeries series, OutputStream out) throws IOException {
+        try (JsonGenerator gen = createGenerator(out)) {
+            gen.writeStartObject();
+            gen.writeFieldName("startDate");
+            gen.writeString(new DateCursor(series.startDate()).isoChars(), 0, 10);
+            gen.writeNumberField("days", series.length());
+            gen.writeNumberField("totalCompletions", series.totalCompletions());
+            gen.writeNumberField("maxCompletions", series.maxCompletions());
+
+            gen.writeArrayFieldStart("runs");
+            int i = 0;
+            while (i < series.length()) {
+                int count = series.countAt(i);
+                int runStart = i;
+                while (i < series.length() && series.countAt(i) == count) {
+                    i++;
+                }
+                gen.writeNumber(count);
+                gen.writeNumber(i - runStart);
+            }
+            gen.writeEndArray();
+
+            gen.writeEndObject();
+        }
+    }
+
+    private JsonGenerator createGenerator(OutputStream out) throws IOException {
+        // The servlet container owns the stream; only flush it
+        return jsonFactory.createGenerator(out)
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    }
+
+    /**
+     * Calendar date that advances one day at a time, rendering into reused buffers.
+     */
+    static final class DateCursor {
+
+        private final char[] iso = new char[10];     // yyyy-MM-dd
+        private final char[] label = new char[6];    // MMM dd
+        private int year;
+        private int month;
+        private int day;
+        private int monthLength;
+
+        DateCursor(LocalDate start) {
+            this.year = start.getYear();
+            this.month = start.getMonthValue();
+            this.day = start.getDayOfMonth();
+            this.monthLength = start.lengthOfMonth();
+            iso[4] = '-';
+            iso[7] = '-';
+            label[3] = ' ';
+        }
+
+        void next() {
+            if (++day > monthLength) {
+                day = 1;
+                if (++month > 12) {
+                    month = 1;
+                    year++;
+                }
+                monthLength = monthLength(year, month);
+            }
+        }
+
+        char[] isoChars() {
+            int y = year;
+            for (int i = 3; i >= 0; i--) {
+                iso[i] = (char) ('0' + y % 10);
+                y /= 10;
+            }
+            twoDigits(iso, 5, month);
+            twoDigits(iso, 8, day);
+            return iso;
+        }
+
+        char[] labelChars() {
+            char[] name = MONTH_NAMES[month - 1];
+            label[0] = name[0];
+            label[1] = name[1];
+            label[2] = name[2];
+            twoDigits(label, 4, day);
+            return label;
+        }
+
+        private static void twoDigits(char[] buffer, int offset, int value) {
+            buffer[offset] = (char) ('0' + value / 10);
+            buffer[offset + 1] = (char) ('0' + value % 10);
+        }
+
+        private static int monthLength(int year, int month) {
+            return switch (month) {
+                case 2 -> (year % 4 == 0 && (year % 100 != 0 || year % 400 == 0)) ? 29 : 28;
+                case 4, 6, 9, 11 -> 30;
+                default -> 31;
+            };
+        }
+    }
+}
@@ -1,36 +1,75 @@
 package com.ctoblue.plan91.adapter.in.web.controller;
 
+import com.ctoblue.plan91.adapter.in.web.dto.BatchCompleteEntryRequest;
+import com.ctoblue.plan91.adapter.in.web.dto.BatchCompleteEntryResponse;
 import com.ctoblue.plan91.adapter.in.web.dto.CompleteEntryRequest;
 import com.ctoblue.plan91.adapter.in.web.dto.HabitEntryDto;
+import com.ctoblue.plan91.adapter.in.web.dto.SyncEntryRequest;
 import com.ctoblue.plan91.adapter.in.web.mapper.HabitEntryDtoMapper;
 import com.ctoblue.plan91.adapter.out.persistence.entity.HabitEntryEntity;
+import com.ctoblue.plan91.application.usecase.routine.CompleteEntriesUseCase;
 import com.ctoblue.plan91.application.usecase.routine.CompleteEntryCommand;
 import com.ctoblue.plan91.application.usecase.routine.CompleteEntryUseCase;
+import com.ctoblue.plan91.application.usecase.routine.SyncEntriesUseCase;
+import com.ctoblue.plan91.application.usecase.routine.SyncEntriesUseCase.SyncResult;
+import com.ctoblue.plan91.application.usecase.routine.SyncEntryCommand;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
 /**
  * REST controller for habit entry management.
  *
  * <p>Endpoints:
  * <ul>
  *   <li>POST /api/entries - Complete a habit entry</li>
+ *   <li>POST /api/entries/batch - Complete several habit entries, reporting each one</li>
+ *   <li>POST /api/entries/sync - Replay an offline client's queued completions (NDJSON in and out)</li>
  * </ul>
+ *
+ * <p>A completion that kept losing to concurrent writers of the same routine, after the use
+ * case's own retries, is answered 409 Conflict so the client can resend it.
  */
 @RestController
 @RequestMapping("/api/entries")
 public class HabitEntryController {
 
     private final CompleteEntryUseCase completeEntryUseCase;
+    private final CompleteEntriesUseCase completeEntriesUseCase;
+    private final SyncEntriesUseCase syncEntriesUseCase;
     private final HabitEntryDtoMapper habitEntryDtoMapper;
+    private final ObjectReader syncLineReader;
+    private final ObjectWriter syncResultWriter;
 
     public HabitEntryController(
             CompleteEntryUseCase completeEntryUseCase,
-            HabitEntryDtoMapper habitEntryDtoMapper) {
+            CompleteEntriesUseCase completeEntriesUseCase,
+            SyncEntriesUseCase syncEntriesUseCase,
+            HabitEntryDtoMapper habitEntryDtoMapper,
+            ObjectMapper objectMapper) {
         this.completeEntryUseCase = completeEntryUseCase;
+        this.completeEntriesUseCase = completeEntriesUseCase;
+        this.syncEntriesUseCase = syncEntriesUseCase;
         this.habitEntryDtoMapper = habitEntryDtoMapper;
+        this.syncLineReader = objectMapper.readerFor(SyncEntryRequest.class);
+        this.syncResultWriter = objectMapper.writerFor(SyncResult.class);
     }
 
     /**
@@ -46,4 +85,95 @@ public class HabitEntryController {
         HabitEntryDto dto = habitEntryDtoMapper.toDto(entry);
         return ResponseEntity.status(HttpStatus.CREATED).body(dto);
     }
+
+    /**
+     * Completes several habit entries in one transaction.
+     *
+     * <p>Items that cannot be completed are reported in the response without failing the others,
+     * so the status is 200 even when some items failed.
+     *
+     * @param request the completions
+     * @return one result per requested entry, in request order
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<BatchCompleteEntryResponse> completeEntries(@Valid @RequestBody BatchCompleteEntryRequest request) {
+        List<CompleteEntryCommand> commands = habitEntryDtoMapper.toCommands(request.entries());
+        List<CompleteEntriesUseCase.EntryResult> results = completeEntriesUseCase.execute(commands);
+        return ResponseEntity.ok(habitEntryDtoMapper.toBatchResponse(results));
+    }
+
+    /**
+     * Replays completions queued by an offline client.
+     *
+     * <p>The body is one JSON completion per line ({@code idempotencyKey}, {@code routineId},
+     * {@code date}, {@code value}, {@code notes}). Lines are read and synced in chunks of
+     * {@link SyncEntriesUseCase#CHUNK_SIZE}, one transaction each, and one result line is
+     * written back per completion as each chunk commits, so memory stays bounded however
+     * long the queue is. A malformed line ends the sync after the lines before it.
+     *
+     * @param body the NDJSON request body
+     * @param response the NDJSON response, one {@link SyncResult} per line
+     * @throws IOException if reading or writing fails
+     */
+    @PostMapping(value = "/sync", consumes = MediaType.APPLICATION_NDJSON_VALUE,
+            produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void syncEntries(InputStream body, HttpServletResponse response) throws IOException {
+        response.setStatus(HttpStatus.OK.value());
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        OutputStream out = response.getOutputStream();
+
+        List<SyncEntryCommand> chunk = new ArrayList<>(SyncEntriesUseCase.CHUNK_SIZE);
+        try (MappingIterator<SyncEntryRequest> lines = syncLineReader.readValues(body)) {
+            while (lines.hasNextValue()) {
+                chunk.add(habitEntryDtoMapper.toSyncCommand(lines.nextValue()));
+                if (chunk.size() == SyncEntriesUseCase.CHUNK_SIZE) {
+                    syncChunk(chunk, out);
+                    chunk.clear();
+                }
+            }
+        } catch (JsonProcessingException e) {
+            if (!chunk.isEmpty()) {
+                syncChunk(chunk, out);
+            }
+            writeLine(SyncResult.chunkFailed(null, "Malformed line: " + e.getOriginalMessage()), out);
+            out.flush();
+            return;
+        }
+        if (!chunk.isEmpty()) {
+            syncChunk(chunk, out);
+        }
+    }
+
+    /**
+     * Syncs one chunk and writes its results. A chunk that fails as a whole (e.g. the same
+     * queue synced twice at once) is reported per line, so the client resends just those.
+     */
+    private void syncChunk(List<SyncEntryCommand> chunk, OutputStream out) throws IOException {
+        List<SyncResult> results;
+        try {
+            results = syncEntriesUseCase.execute(chunk);
+        } catch (DataAccessException | IllegalArgumentException e) {
+            results = chunk.stream()
+                    .map(command -> SyncResult.chunkFailed(command.idempotencyKey(), "Chunk not synced, resend"))
+                    .toList();
+        }
+        for (SyncResult result : results) {
+            writeLine(result, out);
+        }
+        out.flush();
+    }
+
+    /**
+     * Answers a version conflict that outlasted the retries with 409 instead of a server error.
+     */
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<Map<String, String>> handleConflict(OptimisticLockingFailureException e) {
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(Map.of("message", "The routine was updated at the same time, please try again"));
+    }
+
+    private void writeLine(SyncResult result, OutputStream out) throws IOException {
+        out.write(syncResultWriter.writeValueAsBytes(result));
+        out.write('\n');
+    }
 }
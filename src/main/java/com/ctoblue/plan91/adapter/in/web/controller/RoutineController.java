@@ -15,6 +15,7 @@ import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.time.LocalDate;
 import java.util.List;
@@ -30,7 +31,12 @@ import java.util.stream.Collectors;
  *   <li>GET /api/routines - Get routines for a practitioner</li>
  *   <li>GET /api/routines/active - Get active routines</li>
  *   <li>GET /api/routines/date/{date} - Get routines scheduled for a date</li>
+ *   <li>GET /api/routines/{id}/calendar?yearMonth= - Calendar for one month</li>
+ *   <li>GET /api/routines/{id}/calendar?from=&amp;to= - Calendar for a date range</li>
  * </ul>
+ *
+ * <p>Reads carry an ETag and Last-Modified from {@link ConditionalReads};
+ * a matching If-None-Match returns 304 without touching the database.
  */
 @RestController
 @RequestMapping("/api/routines")
@@ -41,18 +47,21 @@ public class RoutineController {
     private final GetCalendarDataUseCase getCalendarDataUseCase;
     private final GetRoutineAnalyticsUseCase getRoutineAnalyticsUseCase;
     private final RoutineDtoMapper routineDtoMapper;
+    private final ConditionalReads conditionalReads;
 
     public RoutineController(
             StartRoutineUseCase startRoutineUseCase,
             QueryRoutinesUseCase queryRoutinesUseCase,
             GetCalendarDataUseCase getCalendarDataUseCase,
             GetRoutineAnalyticsUseCase getRoutineAnalyticsUseCase,
-            RoutineDtoMapper routineDtoMapper) {
+            RoutineDtoMapper routineDtoMapper,
+            ConditionalReads conditionalReads) {
         this.startRoutineUseCase = startRoutineUseCase;
         this.queryRoutinesUseCase = queryRoutinesUseCase;
         this.getCalendarDataUseCase = getCalendarDataUseCase;
         this.getRoutineAnalyticsUseCase = getRoutineAnalyticsUseCase;
         this.routineDtoMapper = routineDtoMapper;
+        this.conditionalReads = conditionalReads;
     }
 
     /**
@@ -73,10 +82,14 @@ public class RoutineController {
      * Gets a routine by ID.
      *
      * @param id the routine's ID
+     * @param request the current request, for conditional GET
      * @return the routine
      */
     @GetMapping("/{id}")
-    public ResponseEntity<RoutineDto> getRoutine(@PathVariable String id) {
+    public ResponseEntity<RoutineDto> getRoutine(@PathVariable String id, WebRequest request) {
+        if (conditionalReads.routineNotModified(request, id)) {
+            return null;
+        }
         RoutineEntity routine = queryRoutinesUseCase.getRoutineById(id);
         RoutineDto dto = routineDtoMapper.toDto(routine);
         return ResponseEntity.ok(dto);
@@ -86,10 +99,14 @@ public class RoutineController {
      * Gets all routines for a practitioner.
      *
      * @param practitionerId the practitioner's ID
+     * @param request the current request, for conditional GET
      * @return list of routines
      */
     @GetMapping
-    public ResponseEntity<List<RoutineDto>> getAllRoutines(@RequestParam String practitionerId) {
+    public ResponseEntity<List<RoutineDto>> getAllRoutines(@RequestParam String practitionerId, WebRequest request) {
+        if (conditionalReads.notModified(request, practitionerId)) {
+            return null;
+        }
         List<RoutineEntity> routines = queryRoutinesUseCase.getAllRoutines(practitionerId);
         List<RoutineDto> dtos = routines.stream()
                 .map(routineDtoMapper::toDto)
@@ -101,10 +118,14 @@ public class RoutineController {
      * Gets active routines for a practitioner.
      *
      * @param practitionerId the practitioner's ID
+     * @param request the current request, for conditional GET
      * @return list of active routines
      */
     @GetMapping("/active")
-    public ResponseEntity<List<RoutineDto>> getActiveRoutines(@RequestParam String practitionerId) {
+    public ResponseEntity<List<RoutineDto>> getActiveRoutines(@RequestParam String practitionerId, WebRequest request) {
+        if (conditionalReads.notModified(request, practitionerId)) {
+            return null;
+        }
         List<RoutineEntity> routines = queryRoutinesUseCase.getActiveRoutines(practitionerId);
         List<RoutineDto> dtos = routines.stream()
                 .map(routineDtoMapper::toDto)
@@ -117,12 +138,17 @@ public class RoutineController {
      *
      * @param practitionerId the practitioner's ID
      * @param status the routine status
+     * @param request the current request, for conditional GET
      * @return list of routines
      */
     @GetMapping("/status/{status}")
     public ResponseEntity<List<RoutineDto>> getRoutinesByStatus(
             @RequestParam String practitionerId,
-            @PathVariable RoutineStatus status) {
+            @PathVariable RoutineStatus status,
+            WebRequest request) {
+        if (conditionalReads.notModified(request, practitionerId)) {
+            return null;
+        }
         List<RoutineEntity> routines = queryRoutinesUseCase.getRoutinesByStatus(practitionerId, status);
         List<RoutineDto> dtos = routines.stream()
                 .map(routineDtoMapper::toDto)
@@ -135,12 +161,17 @@ public class RoutineController {
      *
      * @param practitionerId the practitioner's ID
      * @param date the date
+     * @param request the current request, for conditional GET
      * @return list of routines
      */
     @GetMapping("/date/{date}")
     public ResponseEntity<List<RoutineDto>> getRoutinesForDate(
             @RequestParam String practitionerId,
-            @PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+            @PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            WebRequest request) {
+        if (conditionalReads.notModified(request, practitionerId)) {
+            return null;
+        }
         List<RoutineEntity> routines = queryRoutinesUseCase.getRoutinesForDate(practitionerId, date);
         List<RoutineDto> dtos = routines.stream()
                 .map(routineDtoMapper::toDto)
@@ -152,10 +183,14 @@ public class RoutineController {
      * Gets analytics data for a routine.
      *
      * @param id the routine's ID
+     * @param request the current request, for conditional GET
      * @return analytics data
      */
     @GetMapping("/{id}/analytics")
-    public ResponseEntity<GetRoutineAnalyticsUseCase.RoutineAnalytics> getAnalytics(@PathVariable String id) {
+    public ResponseEntity<GetRoutineAnalyticsUseCase.RoutineAnalytics> getAnalytics(@PathVariable String id, WebRequest request) {
+        if (conditionalReads.routineNotModified(request, id)) {
+            return null;
+        }
         GetRoutineAnalyticsUseCase.RoutineAnalytics analytics = getRoutineAnalyticsUseCase.execute(id);
         return ResponseEntity.ok(analytics);
     }
@@ -165,13 +200,40 @@ public class RoutineController {
      *
      * @param id the routine's ID
      * @param yearMonth the year-month (e.g., "2026-02")
+     * @param request the current request, for conditional GET
      * @return calendar data
      */
     @GetMapping("/{id}/calendar")
     public ResponseEntity<GetCalendarDataUseCase.CalendarData> getCalendarData(
             @PathVariable String id,
-            @RequestParam String yearMonth) {
+            @RequestParam String yearMonth,
+            WebRequest request) {
+        if (conditionalReads.routineNotModified(request, id)) {
+            return null;
+        }
         GetCalendarDataUseCase.CalendarData data = getCalendarDataUseCase.execute(id, yearMonth);
         return ResponseEntity.ok(data);
     }
+
+    /**
+     * Gets calendar data for a routine over a date range (e.g. its whole 91-day cycle).
+     *
+     * @param id the routine's ID
+     * @param from first day of the range (inclusive)
+     * @param to last day of the range (inclusive)
+     * @param request the current request, for conditional GET
+     * @return calendar data for the range
+     */
+    @GetMapping(value = "/{id}/calendar", params = {"from", "to"})
+    public ResponseEntity<GetCalendarDataUseCase.CalendarRange> getCalendarRange(
+            @PathVariable String id,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            WebRequest request) {
+        if (conditionalReads.routineNotModified(request, id)) {
+            return null;
+        }
+        GetCalendarDataUseCase.CalendarRange data = getCalendarDataUseCase.executeRange(id, from, to);
+        return ResponseEntity.ok(data);
+    }
 }
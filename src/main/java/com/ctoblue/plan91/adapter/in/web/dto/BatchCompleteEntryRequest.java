@@ -0,0 +1,21 @@
+package com.ctoblue.plan91.adapter.in.web.dto;
+
+import com.ctoblue.plan91.application.usecase.routine.CompleteEntriesUseCase;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+/**
+ * DTO for completing several habit entries at once.
+ *
+ * <p>Sent by the dashboard when checking off its "today" list in one request.
+ */
+public record BatchCompleteEntryRequest(
+        @NotEmpty(message = "At least one entry is required")
+        @Size(max = CompleteEntriesUseCase.MAX_BATCH_SIZE, message = "Too many entries in one batch")
+        List<@Valid @NotNull CompleteEntryRequest> entries
+) {
+}
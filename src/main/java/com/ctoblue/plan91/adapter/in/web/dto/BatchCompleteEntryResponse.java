@@ -0,0 +1,29 @@
+package com.ctoblue.plan91.adapter.in.web.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * DTO for the outcome of a batch completion, one result per requested entry.
+ */
+public record BatchCompleteEntryResponse(
+        int completed,
+        int failed,
+        List<Result> results
+) {
+
+    /**
+     * Outcome of one requested entry.
+     *
+     * <p>{@code entry} is set when it was completed, {@code error} when it was not.
+     */
+    public record Result(
+            int index,
+            String routineId,
+            LocalDate date,
+            boolean completed,
+            HabitEntryDto entry,
+            String error
+    ) {
+    }
+}
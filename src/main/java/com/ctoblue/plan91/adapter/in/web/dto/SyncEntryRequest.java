@@ -0,0 +1,18 @@
+package com.ctoblue.plan91.adapter.in.web.dto;
+
+import java.time.LocalDate;
+
+/**
+ * DTO for one line of an offline sync (NDJSON) request.
+ *
+ * <p>Sent by a reconnecting client for each completion it queued while offline.
+ * The idempotency key is generated by the client when the completion is queued.
+ */
+public record SyncEntryRequest(
+        String idempotencyKey,
+        String routineId,
+        LocalDate date,
+        Integer value,
+        String notes
+) {
+}
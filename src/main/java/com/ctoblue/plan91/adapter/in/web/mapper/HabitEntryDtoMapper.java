@@ -1,12 +1,19 @@
 package com.ctoblue.plan91.adapter.in.web.mapper;
 
+import com.ctoblue.plan91.adapter.in.web.dto.BatchCompleteEntryResponse;
 import com.ctoblue.plan91.adapter.in.web.dto.CompleteEntryRequest;
 import com.ctoblue.plan91.adapter.in.web.dto.HabitEntryDto;
+import com.ctoblue.plan91.adapter.in.web.dto.SyncEntryRequest;
 import com.ctoblue.plan91.adapter.out.persistence.entity.HabitEntryEntity;
+import com.ctoblue.plan91.application.usecase.routine.CompleteEntriesUseCase.EntryResult;
 import com.ctoblue.plan91.application.usecase.routine.CompleteEntryCommand;
+import com.ctoblue.plan91.application.usecase.routine.SyncEntryCommand;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * MapStruct mapper for converting between HabitEntryEntity and HabitEntryDto.
  */
@@ -24,4 +31,35 @@ public interface HabitEntryDtoMapper {
      * Converts CompleteEntryRequest to CompleteEntryCommand.
      */
     CompleteEntryCommand toCommand(CompleteEntryRequest request);
+
+    /**
+     * Converts CompleteEntryRequests to CompleteEntryCommands, keeping their order.
+     */
+    List<CompleteEntryCommand> toCommands(List<CompleteEntryRequest> requests);
+
+    /**
+     * Converts one line of an offline sync request to a SyncEntryCommand.
+     */
+    SyncEntryCommand toSyncCommand(SyncEntryRequest request);
+
+    /**
+     * Converts the per-item results of a batch completion to its response.
+     */
+    default BatchCompleteEntryResponse toBatchResponse(List<EntryResult> results) {
+        int completed = 0;
+        List<BatchCompleteEntryResponse.Result> items = new ArrayList<>(results.size());
+        for (EntryResult result : results) {
+            if (result.isCompleted()) {
+                completed++;
+            }
+            items.add(new BatchCompleteEntryResponse.Result(
+                    result.index(),
+                    result.routineId(),
+                    result.date(),
+                    result.isCompleted(),
+                    result.isCompleted() ? toDto(result.entry()) : null,
+                    result.error()));
+        }
+        return new BatchCompleteEntryResponse(completed, results.size() - completed, items);
+    }
 }
@@ -3,14 +3,12 @@ package com.ctoblue.plan91.adapter.in.web.mapper;
 import com.ctoblue.plan91.adapter.in.web.dto.RoutineDto;
 import com.ctoblue.plan91.adapter.in.web.dto.StartRoutineRequest;
 import com.ctoblue.plan91.adapter.out.persistence.entity.RoutineEntity;
+import com.ctoblue.plan91.adapter.out.persistence.mapper.RecurrenceRuleCache;
 import com.ctoblue.plan91.application.usecase.routine.StartRoutineCommand;
-import com.ctoblue.plan91.domain.routine.DayOfWeek;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 
-import java.util.Arrays;
 import java.util.Set;
-import java.util.stream.Collectors;
 
 /**
  * MapStruct mapper for converting between RoutineEntity and RoutineDto.
@@ -45,15 +43,9 @@ public interface RoutineDtoMapper {
     StartRoutineCommand toCommand(StartRoutineRequest request);
 
     /**
-     * Parses comma-separated days string to Set of day names.
+     * Parses comma-separated days string to Set of day names (shared, unmodifiable).
      */
     default Set<String> parseSpecificDays(String specificDays) {
-        if (specificDays == null || specificDays.isBlank()) {
-            return null;
-        }
-        return Arrays.stream(specificDays.split(","))
-                .map(String::trim)
-                .filter(s -> !s.isEmpty())
-                .collect(Collectors.toSet());
+        return RecurrenceRuleCache.dayNames(specificDays);
     }
 }
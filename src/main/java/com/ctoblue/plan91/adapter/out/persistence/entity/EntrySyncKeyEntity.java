@@ -0,0 +1,51 @@
+package com.ctoblue.plan91.adapter.out.persistence.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.springframework.data.domain.Persistable;
+
+import java.util.UUID;
+
+/**
+ * JPA entity for entry_sync_keys table (offline sync idempotency keys).
+ *
+ * <p>Records which entry a client-generated idempotency key created, so a replayed
+ * completion is answered instead of applied twice. The key is assigned by the client,
+ * so new rows report themselves as new and are inserted without a merge SELECT.
+ */
+@Entity
+@Table(name = "entry_sync_keys")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class EntrySyncKeyEntity implements Persistable<UUID> {
+
+    @Id
+    @Column(name = "idempotency_key", updatable = false, nullable = false, columnDefinition = "BINARY(16)")
+    private UUID idempotencyKey;
+
+    @Column(name = "entry_id", updatable = false, nullable = false, columnDefinition = "BINARY(16)")
+    private UUID entryId;
+
+    @Transient
+    @Builder.Default
+    private boolean isNew = true;
+
+    @Override
+    public UUID getId() {
+        return idempotencyKey;
+    }
+
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+
+    @PostLoad
+    @PostPersist
+    protected void markNotNew() {
+        isNew = false;
+    }
+}
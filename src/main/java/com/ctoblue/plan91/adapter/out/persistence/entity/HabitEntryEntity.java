@@ -17,7 +17,7 @@ import java.util.UUID;
 @Entity
 @Table(name = "habit_entries",
         uniqueConstraints = {
-                @UniqueConstraint(name = "uq_habit_entries_routine_date", columnNames = {"routine_id", "date"})
+                @UniqueConstraint(name = HabitEntryEntity.UNIQUE_ROUTINE_DATE, columnNames = {"routine_id", "date"})
         },
         indexes = {
                 @Index(name = "idx_habit_entries_routine", columnList = "routine_id"),
@@ -31,6 +31,11 @@ import java.util.UUID;
 @Builder
 public class HabitEntryEntity {
 
+    /**
+     * Unique constraint allowing one entry per routine and date.
+     */
+    public static final String UNIQUE_ROUTINE_DATE = "uq_habit_entries_routine_date";
+
     @Id
     @GeneratedValue(generator = "UUID")
     @GenericGenerator(name = "UUID", strategy = "org.hibernate.id.UUIDGenerator")
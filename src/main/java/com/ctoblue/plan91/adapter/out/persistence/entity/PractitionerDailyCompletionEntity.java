@@ -0,0 +1,38 @@
+package com.ctoblue.plan91.adapter.out.persistence.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * JPA entity for practitioner_daily_completions table (analytics rollup).
+ *
+ * <p>Holds the number of completed entries a practitioner logged on each day,
+ * across all of their routines. It is a read model only - habit_entries stays
+ * the source of truth and the rollup can be rebuilt from it at any time.
+ */
+@Entity
+@Table(name = "practitioner_daily_completions")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PractitionerDailyCompletionEntity {
+
+    @EmbeddedId
+    private PractitionerDailyCompletionId id;
+
+    @Column(name = "completion_count", nullable = false)
+    private int completionCount;
+
+    public UUID getPractitionerId() {
+        return id.getPractitionerId();
+    }
+
+    public LocalDate getDate() {
+        return id.getDate();
+    }
+}
@@ -0,0 +1,27 @@
+package com.ctoblue.plan91.adapter.out.persistence.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.*;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Composite key for PractitionerDailyCompletionEntity (practitioner + day).
+ */
+@Embeddable
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode
+public class PractitionerDailyCompletionId implements Serializable {
+
+    @Column(name = "practitioner_id", nullable = false, columnDefinition = "BINARY(16)")
+    private UUID practitionerId;
+
+    @Column(name = "date", nullable = false)
+    private LocalDate date;
+}
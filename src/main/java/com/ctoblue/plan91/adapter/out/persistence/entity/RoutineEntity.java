@@ -69,11 +69,23 @@ public class RoutineEntity {
     @Builder.Default
     private HabitStreakEmbeddable streak = new HabitStreakEmbeddable();
 
+    // Completion bitmap (bit n = completed on startDate + n), null when not maintained
+    @Column(name = "completion_bits_low")
+    private Long completionBitsLow;
+
+    @Column(name = "completion_bits_high")
+    private Long completionBitsHigh;
+
     // Status
     @Enumerated(EnumType.STRING)
     @Column(name = "status", nullable = false, length = 20)
     private RoutineStatus status;
 
+    // Optimistic lock, null until first persisted
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
     // Audit timestamps
     @Column(name = "created_at", nullable = false, updatable = false)
     private Instant createdAt;
@@ -0,0 +1,146 @@
+package com.ctoblue.plan91.adapter.out.persistence.mapper;
+
+import com.ctoblue.plan91.domain.routine.DayOfWeek;
+import com.ctoblue.plan91.domain.routine.RecurrenceRule;
+import com.ctoblue.plan91.domain.routine.RecurrenceType;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Shared, immutable {@link RecurrenceRule} instances keyed on what the rule means.
+ *
+ * <p>Only a few hundred distinct rules can exist (7 fixed types, 127 day sets, 28 nth-day
+ * combinations), yet every routine read used to re-parse its comma-separated days into a
+ * new rule. Rules are interned here on first use under a canonical key (type, weekday mask,
+ * nth day, nth week), so stored columns and request day names hit the same instance whatever
+ * the order or spacing of the day names. A day-name column is parsed into its mask once;
+ * past {@link #MAX_ENTRIES} distinct spellings (only reachable with oddly formatted columns)
+ * they are parsed without being cached.
+ */
+public final class RecurrenceRuleCache {
+
+    static final int MAX_ENTRIES = 1024;
+
+    private static final Map<Key, RecurrenceRule> RULES = new ConcurrentHashMap<>();
+    private static final Map<String, Integer> DAY_MASKS = new ConcurrentHashMap<>();
+    private static final Map<String, Set<String>> DAY_NAMES = new ConcurrentHashMap<>();
+
+    private RecurrenceRuleCache() {
+    }
+
+    /**
+     * Returns the rule stored in these columns. Columns that do not apply to the type are ignored.
+     *
+     * @param type the recurrence type
+     * @param specificDays comma-separated day names, for SPECIFIC_DAYS
+     * @param nthDay day name, for NTH_DAY_OF_MONTH
+     * @param nthWeek week of month (1-4), for NTH_DAY_OF_MONTH
+     * @return the shared rule
+     * @throws IllegalArgumentException if a day name is unknown or the rule is invalid
+     */
+    public static RecurrenceRule fromColumns(RecurrenceType type, String specificDays, String nthDay, Integer nthWeek) {
+        int dayMask = type == RecurrenceType.SPECIFIC_DAYS ? columnMask(specificDays) : 0;
+        return intern(type, dayMask, nthDay, nthWeek);
+    }
+
+    /**
+     * Returns the rule for day names given one by one, as in a request.
+     *
+     * @see #fromColumns
+     */
+    public static RecurrenceRule fromDayNames(RecurrenceType type, Collection<String> specificDays, String nthDay, Integer nthWeek) {
+        int dayMask = 0;
+        if (type == RecurrenceType.SPECIFIC_DAYS && specificDays != null) {
+            for (String name : specificDays) {
+                dayMask |= dayBit(name);
+            }
+        }
+        return intern(type, dayMask, nthDay, nthWeek);
+    }
+
+    /**
+     * Returns the day names in a comma-separated column as a shared, unmodifiable set.
+     *
+     * @param specificDays comma-separated day names
+     * @return the names, or null if there are none
+     */
+    public static Set<String> dayNames(String specificDays) {
+        if (specificDays == null || specificDays.isBlank()) {
+            return null;
+        }
+        Set<String> names = DAY_NAMES.get(specificDays);
+        if (names != null) {
+            return names;
+        }
+        names = splitDayNames(specificDays);
+        if (DAY_NAMES.size() < MAX_ENTRIES) {
+            DAY_NAMES.putIfAbsent(specificDays, names);
+        }
+        return names;
+    }
+
+    private static RecurrenceRule intern(RecurrenceType type, int dayMask, String nthDay, Integer nthWeek) {
+        Key key = type == RecurrenceType.NTH_DAY_OF_MONTH
+                ? new Key(type, 0, nthDay == null ? null : DayOfWeek.valueOf(nthDay.trim()), nthWeek)
+                : new Key(type, dayMask, null, null);
+        RecurrenceRule rule = RULES.get(key);
+        return rule != null ? rule : RULES.computeIfAbsent(key, Key::build);
+    }
+
+    /**
+     * Weekday mask (bit 0 = Monday) of a comma-separated day-name column, parsed once per spelling.
+     */
+    private static int columnMask(String specificDays) {
+        if (specificDays == null) {
+            return 0;
+        }
+        Integer mask = DAY_MASKS.get(specificDays);
+        if (mask != null) {
+            return mask;
+        }
+        int parsed = 0;
+        for (String name : splitDayNames(specificDays)) {
+            parsed |= dayBit(name);
+        }
+        if (DAY_MASKS.size() < MAX_ENTRIES) {
+            DAY_MASKS.putIfAbsent(specificDays, parsed);
+        }
+        return parsed;
+    }
+
+    private static int dayBit(String name) {
+        return 1 << DayOfWeek.valueOf(name.trim()).ordinal();
+    }
+
+    private static Set<String> splitDayNames(String specificDays) {
+        return Arrays.stream(specificDays.split(","))
+                .map(String::trim)
+                .filter(s -> !s.isEmpty())
+                .collect(Collectors.toUnmodifiableSet());
+    }
+
+    /**
+     * Canonical form of a rule: components that do not apply to the type are null or zero.
+     */
+    private record Key(RecurrenceType type, int dayMask, DayOfWeek nthDay, Integer nthWeek) {
+
+        RecurrenceRule build() {
+            Set<DayOfWeek> days = null;
+            if (dayMask != 0) {
+                days = EnumSet.noneOf(DayOfWeek.class);
+                for (DayOfWeek day : DayOfWeek.values()) {
+                    if ((dayMask >>> day.ordinal() & 1) != 0) {
+                        days.add(day);
+                    }
+                }
+            }
+            return new RecurrenceRule(type, days, nthDay, nthWeek);
+        }
+    }
+}
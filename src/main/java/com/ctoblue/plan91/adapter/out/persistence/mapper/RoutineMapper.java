@@ -8,8 +8,6 @@ import com.ctoblue.plan91.domain.habitpractitioner.HabitPractitionerId;
 import com.ctoblue.plan91.domain.routine.*;
 import org.mapstruct.*;
 
-import java.util.Arrays;
-import java.util.Set;
 import java.util.stream.Collectors;
 
 /**
@@ -20,6 +18,7 @@ import java.util.stream.Collectors;
  *   <li>Routine (domain) ↔ RoutineEntity (JPA)</li>
  *   <li>RecurrenceRule (value object) ↔ RecurrenceRuleEmbeddable</li>
  *   <li>HabitStreak (value object) ↔ HabitStreakEmbeddable</li>
+ *   <li>CompletionBitmap (value object) ↔ completion_bits_* columns</li>
  * </ul>
  */
 @Mapper(componentModel = "spring", unmappedTargetPolicy = ReportingPolicy.ERROR)
@@ -37,6 +36,9 @@ public interface RoutineMapper {
     @Mapping(target = "recurrenceRule", source = "recurrenceRule")
     @Mapping(target = "streak", source = "streak")
     @Mapping(target = "targetDays", source = "targetDays")
+    @Mapping(target = "completionBitsLow", ignore = true)  // Read model, see setCompletionBitmap
+    @Mapping(target = "completionBitsHigh", ignore = true)
+    @Mapping(target = "version", ignore = true)  // Managed by Hibernate
     RoutineEntity toEntity(Routine routine);
 
     /**
@@ -53,6 +55,20 @@ public interface RoutineMapper {
     @Mapping(target = "targetDays", source = "targetDays")
     Routine toDomain(RoutineEntity entity);
 
+    /**
+     * Copies a routine's mutable state onto a managed entity, so dirty checking writes it
+     * in one UPDATE instead of merging a detached copy.
+     *
+     * @param routine the domain object
+     * @param entity the managed JPA entity
+     */
+    @BeanMapping(ignoreByDefault = true)
+    @Mapping(target = "streak", source = "streak")
+    @Mapping(target = "status", source = "status")
+    @Mapping(target = "completedAt", source = "completedAt")
+    @Mapping(target = "updatedAt", source = "updatedAt")
+    void updateState(Routine routine, @MappingTarget RoutineEntity entity);
+
     // ========================================
     // RecurrenceRule Conversions
     // ========================================
@@ -84,29 +100,15 @@ public interface RoutineMapper {
 
     /**
      * Converts RecurrenceRuleEmbeddable to domain value object.
+     * Returns a shared instance from {@link RecurrenceRuleCache}.
      */
     default RecurrenceRule toRecurrenceRule(RecurrenceRuleEmbeddable embeddable) {
         if (embeddable == null) return null;
 
-        RecurrenceType type = embeddable.getType();
-
-        Set<DayOfWeek> specificDays = null;
-        if (type == RecurrenceType.SPECIFIC_DAYS && embeddable.getSpecificDays() != null) {
-            specificDays = Arrays.stream(embeddable.getSpecificDays().split(","))
-                    .map(String::trim)
-                    .map(DayOfWeek::valueOf)
-                    .collect(Collectors.toSet());
-        }
-
-        DayOfWeek nthDay = null;
-        if (type == RecurrenceType.NTH_DAY_OF_MONTH && embeddable.getNthDay() != null) {
-            nthDay = DayOfWeek.valueOf(embeddable.getNthDay());
-        }
-
-        return new RecurrenceRule(
-                type,
-                specificDays,
-                nthDay,
+        return RecurrenceRuleCache.fromColumns(
+                embeddable.getType(),
+                embeddable.getSpecificDays(),
+                embeddable.getNthDay(),
                 embeddable.getNthWeek()
         );
     }
@@ -150,4 +152,25 @@ public interface RoutineMapper {
                 embeddable.getLastCompletionDate()
         );
     }
+
+    // ========================================
+    // CompletionBitmap Conversions
+    // ========================================
+
+    /**
+     * Reads the completion bitmap stored on an entity.
+     *
+     * @return the bitmap, or null if the routine has none
+     */
+    default CompletionBitmap toCompletionBitmap(RoutineEntity entity) {
+        return CompletionBitmap.ofNullable(entity.getCompletionBitsLow(), entity.getCompletionBitsHigh());
+    }
+
+    /**
+     * Stores a completion bitmap on an entity (null clears it).
+     */
+    default void setCompletionBitmap(RoutineEntity entity, CompletionBitmap bitmap) {
+        entity.setCompletionBitsLow(bitmap != null ? bitmap.low() : null);
+        entity.setCompletionBitsHigh(bitmap != null ? bitmap.high() : null);
+    }
 }
@@ -0,0 +1,14 @@
+package com.ctoblue.plan91.adapter.out.persistence.repository;
+
+import com.ctoblue.plan91.adapter.out.persistence.entity.EntrySyncKeyEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.UUID;
+
+/**
+ * Spring Data JPA repository for EntrySyncKeyEntity (offline sync idempotency keys).
+ */
+@Repository
+public interface EntrySyncKeyJpaRepository extends JpaRepository<EntrySyncKeyEntity, UUID> {
+}
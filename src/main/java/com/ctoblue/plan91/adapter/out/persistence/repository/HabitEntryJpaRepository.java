@@ -7,6 +7,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -101,4 +102,91 @@ public interface HabitEntryJpaRepository extends JpaRepository<HabitEntryEntity,
      * @return list of entries
      */
     List<HabitEntryEntity> findByRoutineIdIn(List<UUID> routineIds);
+
+    // ========================================
+    // Analytics projections (aggregated in SQL)
+    // ========================================
+
+    /**
+     * Summarizes a practitioner's activity in one pass over their entries:
+     * completions since each of two dates, plus the number of distinct days practiced.
+     *
+     * @param practitionerId the practitioner's ID
+     * @param last7DaysStart first day of the short window
+     * @param last30DaysStart first day of the long window
+     * @param today last day of both windows
+     * @return activity counts (zeros if the practitioner has no entries)
+     */
+    @Query("SELECT COALESCE(SUM(CASE WHEN e.date BETWEEN :last7DaysStart AND :today THEN 1 ELSE 0 END), 0) AS last7Days, " +
+            "COALESCE(SUM(CASE WHEN e.date BETWEEN :last30DaysStart AND :today THEN 1 ELSE 0 END), 0) AS last30Days, " +
+            "COUNT(DISTINCT e.date) AS totalDaysPracticed " +
+            "FROM HabitEntryEntity e " +
+            "WHERE e.routine.practitioner.id = :practitionerId AND e.completed = true")
+    ActivityCounts summarizeActivity(
+            @Param("practitionerId") UUID practitionerId,
+            @Param("last7DaysStart") LocalDate last7DaysStart,
+            @Param("last30DaysStart") LocalDate last30DaysStart,
+            @Param("today") LocalDate today
+    );
+
+    /**
+     * Finds the numeric values logged for a routine, ordered by date.
+     * Entries without a value are skipped.
+     *
+     * @param routineId the routine's ID
+     * @return date/value pairs
+     */
+    @Query("SELECT e.date AS date, e.value AS value FROM HabitEntryEntity e " +
+            "WHERE e.routine.id = :routineId AND e.value IS NOT NULL ORDER BY e.date")
+    List<DateValue> findNumericValuesByRoutineId(@Param("routineId") UUID routineId);
+
+    /**
+     * Finds the entry dates of several routines, grouped by routine and ordered by date.
+     *
+     * @param routineIds the routine IDs
+     * @return routine/date pairs
+     */
+    @Query("SELECT e.routine.id AS routineId, e.date AS date FROM HabitEntryEntity e " +
+            "WHERE e.routine.id IN :routineIds ORDER BY e.routine.id, e.date")
+    List<RoutineDate> findDatesByRoutineIdIn(@Param("routineIds") Collection<UUID> routineIds);
+
+    /**
+     * Finds the entries of several routines on any of several dates.
+     * Every routine is matched against every date, so callers keep only the pairs they asked for.
+     *
+     * @param routineIds the routine IDs
+     * @param dates the dates
+     * @return routine/date pairs
+     */
+    @Query("SELECT e.routine.id AS routineId, e.date AS date FROM HabitEntryEntity e " +
+            "WHERE e.routine.id IN :routineIds AND e.date IN :dates")
+    List<RoutineDate> findDatesByRoutineIdInAndDateIn(
+            @Param("routineIds") Collection<UUID> routineIds,
+            @Param("dates") Collection<LocalDate> dates
+    );
+
+    /**
+     * Windowed completion counts for a practitioner.
+     */
+    interface ActivityCounts {
+        long getLast7Days();
+        long getLast30Days();
+        long getTotalDaysPracticed();
+    }
+
+    /**
+     * Date of a routine's entry.
+     */
+    interface RoutineDate {
+        UUID getRoutineId();
+        LocalDate getDate();
+    }
+
+    /**
+     * Numeric value logged on a date.
+     */
+    interface DateValue {
+        LocalDate getDate();
+        Integer getValue();
+    }
 }
@@ -2,8 +2,10 @@ package com.ctoblue.plan91.adapter.out.persistence.repository;
 
 import com.ctoblue.plan91.adapter.out.persistence.entity.HabitPractitionerEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -36,4 +38,12 @@ public interface HabitPractitionerJpaRepository extends JpaRepository<HabitPract
      * @return Optional containing the practitioner if found
      */
     Optional<HabitPractitionerEntity> findByUserId(UUID userId);
+
+    /**
+     * Finds the IDs of all practitioners (for batch jobs).
+     *
+     * @return list of practitioner IDs
+     */
+    @Query("SELECT p.id FROM HabitPractitionerEntity p")
+    List<UUID> findAllIds();
 }
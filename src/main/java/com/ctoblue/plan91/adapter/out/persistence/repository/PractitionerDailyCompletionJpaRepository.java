@@ -0,0 +1,103 @@
+package com.ctoblue.plan91.adapter.out.persistence.repository;
+
+import com.ctoblue.plan91.adapter.out.persistence.entity.PractitionerDailyCompletionEntity;
+import com.ctoblue.plan91.adapter.out.persistence.entity.PractitionerDailyCompletionId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Spring Data JPA repository for PractitionerDailyCompletionEntity (daily completion rollup).
+ */
+@Repository
+public interface PractitionerDailyCompletionJpaRepository
+        extends JpaRepository<PractitionerDailyCompletionEntity, PractitionerDailyCompletionId> {
+
+    /**
+     * Finds the rollup rows for a practitioner between two dates (inclusive).
+     * Days without completions have no row.
+     *
+     * @param practitionerId the practitioner's ID
+     * @param startDate the start date
+     * @param endDate the end date
+     * @return rollup rows ordered by date
+     */
+    @Query("SELECT d FROM PractitionerDailyCompletionEntity d " +
+            "WHERE d.id.practitionerId = :practitionerId " +
+            "AND d.id.date BETWEEN :startDate AND :endDate " +
+            "ORDER BY d.id.date")
+    List<PractitionerDailyCompletionEntity> findByPractitionerAndDateRange(
+            @Param("practitionerId") UUID practitionerId,
+            @Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate
+    );
+
+    /**
+     * Adds one completion to a practitioner's day, creating the row if needed.
+     *
+     * @param practitionerId the practitioner's ID
+     * @param date the completion date
+     * @return number of affected rows
+     */
+    @Modifying
+    @Query(value = "INSERT INTO practitioner_daily_completions (practitioner_id, date, completion_count) " +
+            "VALUES (:practitionerId, :date, 1) " +
+            "ON DUPLICATE KEY UPDATE completion_count = completion_count + 1",
+            nativeQuery = true)
+    int incrementCompletions(
+            @Param("practitionerId") UUID practitionerId,
+            @Param("date") LocalDate date
+    );
+
+    /**
+     * Adds several completions to a practitioner's day, creating the row if needed.
+     *
+     * @param practitionerId the practitioner's ID
+     * @param date the completion date
+     * @param count completions to add
+     * @return number of affected rows
+     */
+    @Modifying
+    @Query(value = "INSERT INTO practitioner_daily_completions (practitioner_id, date, completion_count) " +
+            "VALUES (:practitionerId, :date, :count) " +
+            "ON DUPLICATE KEY UPDATE completion_count = completion_count + :count",
+            nativeQuery = true)
+    int addCompletions(
+            @Param("practitionerId") UUID practitionerId,
+            @Param("date") LocalDate date,
+            @Param("count") int count
+    );
+
+    /**
+     * Removes all rollup rows for a practitioner.
+     *
+     * @param practitionerId the practitioner's ID
+     * @return number of deleted rows
+     */
+    @Modifying
+    @Query(value = "DELETE FROM practitioner_daily_completions WHERE practitioner_id = :practitionerId",
+            nativeQuery = true)
+    int deleteByPractitionerId(@Param("practitionerId") UUID practitionerId);
+
+    /**
+     * Recomputes a practitioner's rollup rows from habit_entries.
+     * Call {@link #deleteByPractitionerId} first in the same transaction.
+     *
+     * @param practitionerId the practitioner's ID
+     * @return number of inserted rows
+     */
+    @Modifying
+    @Query(value = "INSERT INTO practitioner_daily_completions (practitioner_id, date, completion_count) " +
+            "SELECT r.practitioner_id, e.date, COUNT(*) " +
+            "FROM habit_entries e JOIN routines r ON r.id = e.routine_id " +
+            "WHERE r.practitioner_id = :practitionerId AND e.completed = TRUE " +
+            "GROUP BY r.practitioner_id, e.date",
+            nativeQuery = true)
+    int insertFromEntries(@Param("practitionerId") UUID practitionerId);
+}
@@ -2,6 +2,7 @@ package com.ctoblue.plan91.adapter.out.persistence.repository;
 
 import com.ctoblue.plan91.adapter.out.persistence.entity.RoutineEntity;
 import com.ctoblue.plan91.domain.routine.RoutineStatus;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -25,6 +26,26 @@ public interface RoutineJpaRepository extends JpaRepository<RoutineEntity, UUID>
      */
     List<RoutineEntity> findByPractitionerId(UUID practitionerId);
 
+    /**
+     * Finds a lightweight summary (habit, status, start date, streak) of every routine for a practitioner.
+     *
+     * @param practitionerId the practitioner's ID
+     * @return one summary per routine
+     */
+    @Query("SELECT h.id AS habitId, h.name AS habitName, r.status AS status, r.startDate AS startDate, " +
+            "r.streak.currentStreak AS currentStreak, r.streak.longestStreak AS longestStreak, " +
+            "r.streak.totalCompletions AS totalCompletions " +
+            "FROM RoutineEntity r JOIN r.habit h WHERE r.practitioner.id = :practitionerId")
+    List<RoutineSummary> findSummariesByPractitionerId(@Param("practitionerId") UUID practitionerId);
+
+    /**
+     * Checks if a practitioner has any routines.
+     *
+     * @param practitionerId the practitioner's ID
+     * @return true if at least one routine exists
+     */
+    boolean existsByPractitionerId(UUID practitionerId);
+
     /**
      * Finds all active routines for a specific practitioner.
      *
@@ -58,6 +79,15 @@ public interface RoutineJpaRepository extends JpaRepository<RoutineEntity, UUID>
      */
     long countByHabitId(UUID habitId);
 
+    /**
+     * Finds the practitioners that have a routine for a specific habit.
+     *
+     * @param habitId the habit's ID
+     * @return distinct practitioner IDs
+     */
+    @Query("SELECT DISTINCT r.practitioner.id FROM RoutineEntity r WHERE r.habit.id = :habitId")
+    List<UUID> findPractitionerIdsByHabitId(@Param("habitId") UUID habitId);
+
     /**
      * Finds routines that are expected to be completed on a specific date.
      * This is a complex query that would need custom logic for recurrence rules.
@@ -83,4 +113,62 @@ public interface RoutineJpaRepository extends JpaRepository<RoutineEntity, UUID>
      */
     @Query("SELECT r FROM RoutineEntity r JOIN FETCH r.habit JOIN FETCH r.practitioner WHERE r.id = :id")
     java.util.Optional<RoutineEntity> findByIdWithRelations(@Param("id") UUID id);
+
+    /**
+     * Finds the practitioner that owns a routine, without loading the routine.
+     *
+     * @param id the routine's ID
+     * @return the practitioner's ID
+     */
+    @Query("SELECT r.practitioner.id FROM RoutineEntity r WHERE r.id = :id")
+    java.util.Optional<UUID> findPractitionerIdById(@Param("id") UUID id);
+
+    /**
+     * Finds the first page of routines with a status, in ID order (keyset pagination).
+     *
+     * @param status the routine status
+     * @param limit page size
+     * @return up to {@code limit} routines, ordered by ID
+     */
+    List<RoutineEntity> findByStatusOrderByIdAsc(RoutineStatus status, Limit limit);
+
+    /**
+     * Finds the next page of routines with a status after the last ID of the previous page.
+     *
+     * @param status the routine status
+     * @param afterId the last ID already read
+     * @param limit page size
+     * @return up to {@code limit} routines, ordered by ID
+     */
+    List<RoutineEntity> findByStatusAndIdGreaterThanOrderByIdAsc(RoutineStatus status, UUID afterId, Limit limit);
+
+    /**
+     * Finds the first page of all routines, in ID order (keyset pagination).
+     *
+     * @param limit page size
+     * @return up to {@code limit} routines, ordered by ID
+     */
+    List<RoutineEntity> findAllByOrderByIdAsc(Limit limit);
+
+    /**
+     * Finds the next page of all routines after the last ID of the previous page.
+     *
+     * @param afterId the last ID already read
+     * @param limit page size
+     * @return up to {@code limit} routines, ordered by ID
+     */
+    List<RoutineEntity> findByIdGreaterThanOrderByIdAsc(UUID afterId, Limit limit);
+
+    /**
+     * Routine columns needed for practitioner and habit analytics.
+     */
+    interface RoutineSummary {
+        UUID getHabitId();
+        String getHabitName();
+        RoutineStatus getStatus();
+        LocalDate getStartDate();
+        int getCurrentStreak();
+        int getLongestStreak();
+        int getTotalCompletions();
+    }
 }
@@ -0,0 +1,162 @@
+package com.ctoblue.plan91.application.usecase.analytics;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Bounded cache for analytics results, keyed by practitioner, view and parameters.
+ *
+ * <p>Entries expire after a TTL and the least recently used entry is evicted once
+ * the cache is full. Each practitioner has a data version that is bumped by
+ * {@link PractitionerDataChangedEvent} after the writing transaction commits;
+ * entries computed against an older version are never returned, and a result
+ * computed while a change was committing is not stored.
+ *
+ * <p>Keys also include the current date, so views relative to "today" roll over at midnight.
+ */
+@Component
+public class AnalyticsCache {
+
+    private final long ttlNanos;
+    private final int maxEntries;
+    private final LongSupplier nanoClock;
+
+    private final Map<Key, Entry> entries;
+    private final ConcurrentHashMap<UUID, AtomicLong> versions = new ConcurrentHashMap<>();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+
+    @Autowired
+    public AnalyticsCache(
+            @Value("${plan91.analytics.cache.ttl:5m}") Duration ttl,
+            @Value("${plan91.analytics.cache.max-entries:1000}") int maxEntries) {
+        this(ttl, maxEntries, System::nanoTime);
+    }
+
+    AnalyticsCache(Duration ttl, int maxEntries, LongSupplier nanoClock) {
+        this.ttlNanos = ttl.toNanos();
+        this.maxEntries = maxEntries;
+        this.nanoClock = nanoClock;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+                if (size() > AnalyticsCache.this.maxEntries) {
+                    evictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Returns the cached result for the view, computing and storing it on a miss.
+     * The loader runs outside the cache lock.
+     *
+     * @param practitionerId the practitioner the view belongs to
+     * @param view name of the view, e.g. "statistics"
+     * @param params the view's parameters; must have value equality
+     * @param loader computes the result
+     * @return the cached or freshly computed result
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(String practitionerId, String view, List<?> params, Supplier<T> loader) {
+        if (maxEntries <= 0) {
+            return loader.get();
+        }
+
+        UUID id = UUID.fromString(practitionerId);
+        Key key = new Key(id, view, params, LocalDate.now());
+        long version = versionOf(id);
+
+        synchronized (entries) {
+            Entry entry = entries.get(key);
+            if (entry != null) {
+                if (entry.version == version && nanoClock.getAsLong() - entry.storedAt < ttlNanos) {
+                    hits.incrementAndGet();
+                    return (T) entry.value;
+                }
+                entries.remove(key);
+                evictions.incrementAndGet();
+            }
+        }
+
+        misses.incrementAndGet();
+        T value = loader.get();
+
+        synchronized (entries) {
+            // Skip the store if the practitioner's data changed while we were computing
+            if (versionOf(id) == version) {
+                entries.put(key, new Entry(value, version, nanoClock.getAsLong()));
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Drops all cached results for a practitioner.
+     *
+     * @param practitionerId the practitioner's ID
+     */
+    public void invalidate(UUID practitionerId) {
+        versions.computeIfAbsent(practitionerId, id -> new AtomicLong()).incrementAndGet();
+        invalidations.incrementAndGet();
+    }
+
+    /**
+     * Invalidates once the publishing transaction has committed, or immediately
+     * when published outside a transaction.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPractitionerDataChanged(PractitionerDataChangedEvent event) {
+        invalidate(event.practitionerId());
+    }
+
+    /**
+     * @return current counters and size
+     */
+    public CacheStats stats() {
+        int size;
+        synchronized (entries) {
+            size = entries.size();
+        }
+        return new CacheStats(size, maxEntries, hits.get(), misses.get(), evictions.get(), invalidations.get());
+    }
+
+    private long versionOf(UUID practitionerId) {
+        AtomicLong version = versions.get(practitionerId);
+        return version == null ? 0 : version.get();
+    }
+
+    private record Key(UUID practitionerId, String view, List<?> params, LocalDate today) {}
+
+    private record Entry(Object value, long version, long storedAt) {}
+
+    /**
+     * Cache counters. Evictions include expired, outdated and size-evicted entries.
+     */
+    public record CacheStats(
+            int size,
+            int maxEntries,
+            long hits,
+            long misses,
+            long evictions,
+            long invalidations
+    ) {}
+}
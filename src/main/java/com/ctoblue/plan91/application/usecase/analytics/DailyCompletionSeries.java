@@ -0,0 +1,151 @@
+package com.ctoblue.plan91.application.usecase.analytics;
+
+import com.ctoblue.plan91.adapter.out.persistence.entity.PractitionerDailyCompletionEntity;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Completion counts for every day of a date range, held as one {@code int[]}.
+ *
+ * <p>Index {@code i} is {@code startDate + i days}. This is the compact form behind the
+ * heatmap and completion-trend endpoints: it is what gets cached, and the JSON writers
+ * walk it directly instead of building one record per day.
+ *
+ * <p>Immutable.
+ */
+public final class DailyCompletionSeries {
+
+    private static final int[] NO_COUNTS = new int[0];
+
+    private final long firstDay;
+    private final int[] counts;
+    private final int totalCompletions;
+    private final int maxCompletions;
+
+    private DailyCompletionSeries(long firstDay, int[] counts, int totalCompletions, int maxCompletions) {
+        this.firstDay = firstDay;
+        this.counts = counts;
+        this.totalCompletions = totalCompletions;
+        this.maxCompletions = maxCompletions;
+    }
+
+    /**
+     * Creates a series with no days, for practitioners with nothing to show.
+     *
+     * @param startDate the requested start date
+     * @return an empty series
+     */
+    public static DailyCompletionSeries empty(LocalDate startDate) {
+        return new DailyCompletionSeries(startDate.toEpochDay(), NO_COUNTS, 0, 0);
+    }
+
+    /**
+     * Spreads rollup rows over startDate..endDate (inclusive), zero-filling missing days.
+     * Rows outside the range are ignored.
+     *
+     * @param startDate the first day
+     * @param endDate the last day
+     * @param rows daily completion rollup rows
+     * @return the series
+     */
+    public static DailyCompletionSeries of(
+            LocalDate startDate, LocalDate endDate, List<PractitionerDailyCompletionEntity> rows) {
+        long firstDay = startDate.toEpochDay();
+        int length = (int) Math.max(0, endDate.toEpochDay() - firstDay + 1);
+        int[] counts = new int[length];
+
+        int total = 0;
+        int max = 0;
+        boolean any = false;
+        for (PractitionerDailyCompletionEntity row : rows) {
+            long index = row.getDate().toEpochDay() - firstDay;
+            if (index < 0 || index >= length) {
+                continue;
+            }
+            int count = row.getCompletionCount();
+            counts[(int) index] = count;
+            total += count;
+            max = any ? Math.max(max, count) : count;
+            any = true;
+        }
+
+        // Intensity is scaled against the busiest day; 1 when there is no data (as before)
+        return new DailyCompletionSeries(firstDay, counts, total, any ? max : 1);
+    }
+
+    /**
+     * @return the first day of the series
+     */
+    public LocalDate startDate() {
+        return LocalDate.ofEpochDay(firstDay);
+    }
+
+    /**
+     * @return the epoch day of the first day
+     */
+    public long firstEpochDay() {
+        return firstDay;
+    }
+
+    /**
+     * @return number of days in the series
+     */
+    public int length() {
+        return counts.length;
+    }
+
+    /**
+     * @param index day index from the start
+     * @return completions on that day
+     */
+    public int countAt(int index) {
+        return counts[index];
+    }
+
+    /**
+     * @return completions across the whole series
+     */
+    public int totalCompletions() {
+        return totalCompletions;
+    }
+
+    /**
+     * @return completions on the busiest day (1 when there are none)
+     */
+    public int maxCompletions() {
+        return maxCompletions;
+    }
+
+    /**
+     * Intensity level (0-4) of a day, relative to the busiest day.
+     * Similar to GitHub's contribution graph.
+     *
+     * @param index day index from the start
+     * @return intensity level (0-4)
+     */
+    public int intensityAt(int index) {
+        return intensity(counts[index], maxCompletions);
+    }
+
+    /**
+     * Calculates intensity level (0-4) based on completion count.
+     *
+     * @param count completion count for the day
+     * @param max maximum completions in the dataset
+     * @return intensity level (0-4)
+     */
+    static int intensity(int count, int max) {
+        if (count == 0) return 0;
+        if (max == 0) return 0;
+
+        double ratio = (double) count / max;
+
+        if (ratio >= 0.75) return 4;  // Very active
+        if (ratio >= 0.50) return 3;  // Active
+        if (ratio >= 0.25) return 2;  // Moderately active
+        if (ratio > 0) return 1;      // Lightly active
+
+        return 0;  // No activity
+    }
+}
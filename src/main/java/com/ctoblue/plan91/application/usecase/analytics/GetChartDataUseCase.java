@@ -1,9 +1,11 @@
 package com.ctoblue.plan91.application.usecase.analytics;
 
-import com.ctoblue.plan91.adapter.out.persistence.entity.HabitEntryEntity;
+import com.ctoblue.plan91.adapter.out.persistence.entity.PractitionerDailyCompletionEntity;
 import com.ctoblue.plan91.adapter.out.persistence.entity.RoutineEntity;
 import com.ctoblue.plan91.adapter.out.persistence.repository.HabitEntryJpaRepository;
+import com.ctoblue.plan91.adapter.out.persistence.repository.PractitionerDailyCompletionJpaRepository;
 import com.ctoblue.plan91.adapter.out.persistence.repository.RoutineJpaRepository;
+import com.ctoblue.plan91.domain.shared.EpochDays;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -21,19 +23,29 @@ import java.util.stream.Collectors;
 @Service
 public class GetChartDataUseCase {
 
+    /** Upper bound for the weekly aggregation chart. */
+    public static final int MAX_WEEKS = 104;
+
+    /** Upper bound for the aggregation range, in years. */
+    public static final int MAX_RANGE_YEARS = 5;
+
     private final RoutineJpaRepository routineRepository;
     private final HabitEntryJpaRepository entryRepository;
+    private final PractitionerDailyCompletionJpaRepository dailyCompletionRepository;
 
     public GetChartDataUseCase(
             RoutineJpaRepository routineRepository,
-            HabitEntryJpaRepository entryRepository) {
+            HabitEntryJpaRepository entryRepository,
+            PractitionerDailyCompletionJpaRepository dailyCompletionRepository) {
         this.routineRepository = routineRepository;
         this.entryRepository = entryRepository;
+        this.dailyCompletionRepository = dailyCompletionRepository;
     }
 
     /**
      * Gets completion trend data for line charts.
-     * Shows daily completion count over the specified date range.
+     * Shows daily completion count over the specified date range,
+     * read from the daily completion rollup.
      *
      * @param practitionerId the practitioner's ID
      * @param startDate the start date
@@ -42,38 +54,44 @@ public class GetChartDataUseCase {
      */
     @Transactional(readOnly = true)
     public LineChartData getCompletionTrendData(String practitionerId, LocalDate startDate, LocalDate endDate) {
-        UUID id = UUID.fromString(practitionerId);
+        DailyCompletionSeries series = getCompletionTrendSeries(practitionerId, startDate, endDate);
 
-        // Get all routines
-        List<RoutineEntity> routines = routineRepository.findByPractitionerId(id);
-        if (routines.isEmpty()) {
-            return new LineChartData(List.of(), List.of());
-        }
+        // Create date labels and data points
+        List<String> labels = new ArrayList<>(series.length());
+        List<Integer> data = new ArrayList<>(series.length());
 
-        // Get all entries for these routines
-        List<UUID> routineIds = routines.stream().map(RoutineEntity::getId).toList();
-        List<HabitEntryEntity> entries = entryRepository.findByRoutineIdIn(routineIds);
+        long firstDay = series.firstEpochDay();
+        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("MMM dd", Locale.ENGLISH);
 
-        // Group completions by date
-        Map<LocalDate, Long> completionsByDate = entries.stream()
-                .filter(e -> Boolean.TRUE.equals(e.getCompleted()))
-                .filter(e -> !e.getDate().isBefore(startDate) && !e.getDate().isAfter(endDate))
-                .collect(Collectors.groupingBy(HabitEntryEntity::getDate, Collectors.counting()));
+        for (int i = 0; i < series.length(); i++) {
+            labels.add(formatter.format(EpochDays.toDate(firstDay + i)));
+            data.add(series.countAt(i));
+        }
 
-        // Create date labels and data points
-        List<String> labels = new ArrayList<>();
-        List<Integer> data = new ArrayList<>();
+        return new LineChartData(labels, data);
+    }
 
-        LocalDate current = startDate;
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("MMM dd");
+    /**
+     * Gets the completion trend as daily counts, without building labels.
+     * This is the form the completion-trend endpoint caches and streams.
+     *
+     * @param practitionerId the practitioner's ID
+     * @param startDate the start date
+     * @param endDate the end date
+     * @return completion counts per day (empty if the practitioner has no routines)
+     */
+    @Transactional(readOnly = true)
+    public DailyCompletionSeries getCompletionTrendSeries(String practitionerId, LocalDate startDate, LocalDate endDate) {
+        UUID id = UUID.fromString(practitionerId);
 
-        while (!current.isAfter(endDate)) {
-            labels.add(current.format(formatter));
-            data.add(completionsByDate.getOrDefault(current, 0L).intValue());
-            current = current.plusDays(1);
+        // No routines, nothing to chart
+        if (!routineRepository.existsByPractitionerId(id)) {
+            return DailyCompletionSeries.empty(startDate);
         }
 
-        return new LineChartData(labels, data);
+        // Completions per day, read from the rollup for the requested window only
+        return DailyCompletionSeries.of(startDate, endDate,
+                dailyCompletionRepository.findByPractitionerAndDateRange(id, startDate, endDate));
     }
 
     /**
@@ -114,54 +132,51 @@ public class GetChartDataUseCase {
      * Shows total completions per week over the past N weeks.
      *
      * @param practitionerId the practitioner's ID
-     * @param weeks number of weeks to include
+     * @param weeks number of weeks to include, clamped to 1..{@value #MAX_WEEKS}
      * @return chart data for weekly bar chart
      */
     @Transactional(readOnly = true)
     public BarChartData getWeeklyAggregationData(String practitionerId, int weeks) {
-        UUID id = UUID.fromString(practitionerId);
         LocalDate endDate = LocalDate.now();
-        LocalDate startDate = endDate.minusWeeks(weeks);
+        LocalDate startDate = endDate.minusWeeks(Math.clamp(weeks, 1, MAX_WEEKS));
 
-        // Get all routines
-        List<RoutineEntity> routines = routineRepository.findByPractitionerId(id);
-        if (routines.isEmpty()) {
-            return new BarChartData(List.of(), List.of());
-        }
-
-        // Get all entries
-        List<UUID> routineIds = routines.stream().map(RoutineEntity::getId).toList();
-        List<HabitEntryEntity> entries = entryRepository.findByRoutineIdIn(routineIds);
-
-        // Group by week
-        Map<String, Integer> completionsByWeek = new LinkedHashMap<>();
-
-        LocalDate weekStart = startDate;
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("MMM dd");
+        return getAggregationData(practitionerId, TimeBuckets.Granularity.WEEK, startDate, endDate);
+    }
 
-        while (!weekStart.isAfter(endDate)) {
-            LocalDate weekEnd = weekStart.plusDays(6);
-            if (weekEnd.isAfter(endDate)) {
-                weekEnd = endDate;
-            }
+    /**
+     * Gets completion totals per day, week, month or quarter for bar charts.
+     * Weeks are anchored at the start date; months and quarters follow the calendar.
+     * Ranges longer than {@value #MAX_RANGE_YEARS} years are cut to the most recent ones.
+     *
+     * @param practitionerId the practitioner's ID
+     * @param granularity the bucket size
+     * @param startDate the start date
+     * @param endDate the end date
+     * @return chart data with one bar per bucket
+     */
+    @Transactional(readOnly = true)
+    public BarChartData getAggregationData(String practitionerId, TimeBuckets.Granularity granularity,
+                                           LocalDate startDate, LocalDate endDate) {
+        UUID id = UUID.fromString(practitionerId);
 
-            String label = weekStart.format(formatter) + " - " + weekEnd.format(formatter);
-            LocalDate finalWeekStart = weekStart;
-            LocalDate finalWeekEnd = weekEnd;
+        LocalDate earliest = endDate.minusYears(MAX_RANGE_YEARS);
+        if (startDate.isBefore(earliest)) {
+            startDate = earliest;
+        }
 
-            int count = (int) entries.stream()
-                    .filter(e -> Boolean.TRUE.equals(e.getCompleted()))
-                    .filter(e -> !e.getDate().isBefore(finalWeekStart) && !e.getDate().isAfter(finalWeekEnd))
-                    .count();
+        // No routines or empty range, nothing to chart
+        if (endDate.isBefore(startDate) || !routineRepository.existsByPractitionerId(id)) {
+            return new BarChartData(List.of(), List.of());
+        }
 
-            completionsByWeek.put(label, count);
-            weekStart = weekStart.plusWeeks(1);
+        // One pass over the rollup rows; each day lands in its bucket in O(1)
+        TimeBuckets buckets = TimeBuckets.of(granularity, startDate, endDate);
+        for (PractitionerDailyCompletionEntity day :
+                dailyCompletionRepository.findByPractitionerAndDateRange(id, startDate, endDate)) {
+            buckets.add(day.getDate(), day.getCompletionCount());
         }
 
-        return new BarChartData(
-                new ArrayList<>(completionsByWeek.keySet()),
-                new ArrayList<>(completionsByWeek.values())
-        );
+        return new BarChartData(buckets.labels(), buckets.values());
     }
 
     /**
@@ -175,13 +190,8 @@ public class GetChartDataUseCase {
     public LineChartData getNumericProgressData(String routineId) {
         UUID id = UUID.fromString(routineId);
 
-        // Get all entries for this routine
-        List<HabitEntryEntity> entries = entryRepository.findByRoutineIdOrderByDateAsc(id);
-
-        // Filter for entries with numeric values
-        List<HabitEntryEntity> numericEntries = entries.stream()
-                .filter(e -> e.getValue() != null)
-                .toList();
+        // Only date and value of entries that have a numeric value
+        List<HabitEntryJpaRepository.DateValue> numericEntries = entryRepository.findNumericValuesByRoutineId(id);
 
         DateTimeFormatter formatter = DateTimeFormatter.ofPattern("MMM dd");
 
@@ -190,7 +200,7 @@ public class GetChartDataUseCase {
                 .toList();
 
         List<Integer> data = numericEntries.stream()
-                .map(HabitEntryEntity::getValue)
+                .map(HabitEntryJpaRepository.DateValue::getValue)
                 .toList();
 
         return new LineChartData(labels, data);
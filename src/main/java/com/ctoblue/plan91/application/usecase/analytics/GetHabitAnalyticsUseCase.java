@@ -1,11 +1,7 @@
 package com.ctoblue.plan91.application.usecase.analytics;
 
-import com.ctoblue.plan91.adapter.out.persistence.entity.HabitEntryEntity;
-import com.ctoblue.plan91.adapter.out.persistence.entity.RoutineEntity;
-import com.ctoblue.plan91.adapter.out.persistence.repository.HabitEntryJpaRepository;
-import com.ctoblue.plan91.adapter.out.persistence.repository.RoutineJpaRepository;
+import com.ctoblue.plan91.domain.routine.RoutineStatus;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.util.*;
@@ -20,46 +16,52 @@ import java.util.stream.Collectors;
 @Service
 public class GetHabitAnalyticsUseCase {
 
-    private final RoutineJpaRepository routineRepository;
-    private final HabitEntryJpaRepository entryRepository;
+    private final PractitionerSnapshotLoader snapshotLoader;
 
-    public GetHabitAnalyticsUseCase(
-            RoutineJpaRepository routineRepository,
-            HabitEntryJpaRepository entryRepository) {
-        this.routineRepository = routineRepository;
-        this.entryRepository = entryRepository;
+    public GetHabitAnalyticsUseCase(PractitionerSnapshotLoader snapshotLoader) {
+        this.snapshotLoader = snapshotLoader;
     }
 
     /**
      * Gets analytics grouped by habit for a practitioner.
      *
+     * <p>Reads only the routine summaries; entry activity is not needed here.
+     *
      * @param practitionerId the practitioner's ID
      * @return habit-based analytics
      */
-    @Transactional(readOnly = true)
     public HabitAnalyticsSummary execute(String practitionerId) {
-        UUID id = UUID.fromString(practitionerId);
+        return summarize(snapshotLoader.loadRoutines(practitionerId), LocalDate.now());
+    }
 
-        // Get all routines for this practitioner
-        List<RoutineEntity> routines = routineRepository.findByPractitionerId(id);
+    /**
+     * Gets analytics grouped by habit from an already loaded snapshot.
+     *
+     * @param snapshot the practitioner's snapshot
+     * @return habit-based analytics
+     */
+    public HabitAnalyticsSummary execute(PractitionerSnapshot snapshot) {
+        return summarize(snapshot.routines(), snapshot.today());
+    }
 
+    private HabitAnalyticsSummary summarize(List<PractitionerSnapshot.Routine> routines, LocalDate today) {
         // Group routines by habit
-        Map<UUID, List<RoutineEntity>> routinesByHabit = routines.stream()
-                .collect(Collectors.groupingBy(r -> r.getHabit().getId()));
+        Map<UUID, List<PractitionerSnapshot.Routine>> routinesByHabit = routines.stream()
+                .collect(Collectors.groupingBy(PractitionerSnapshot.Routine::habitId));
 
         // Calculate analytics for each habit
         List<HabitStatistics> habitStats = new ArrayList<>();
 
-        for (Map.Entry<UUID, List<RoutineEntity>> entry : routinesByHabit.entrySet()) {
+        for (Map.Entry<UUID, List<PractitionerSnapshot.Routine>> entry : routinesByHabit.entrySet()) {
             UUID habitId = entry.getKey();
-            List<RoutineEntity> habitRoutines = entry.getValue();
+            List<PractitionerSnapshot.Routine> habitRoutines = entry.getValue();
 
             if (!habitRoutines.isEmpty()) {
-                RoutineEntity firstRoutine = habitRoutines.get(0);
                 HabitStatistics stats = calculateHabitStatistics(
                         habitId,
-                        firstRoutine.getHabit().getName(),
-                        habitRoutines
+                        habitRoutines.get(0).habitName(),
+                        habitRoutines,
+                        today
                 );
                 habitStats.add(stats);
             }
@@ -74,30 +76,31 @@ public class GetHabitAnalyticsUseCase {
     private HabitStatistics calculateHabitStatistics(
             UUID habitId,
             String habitName,
-            List<RoutineEntity> routines) {
+            List<PractitionerSnapshot.Routine> routines,
+            LocalDate today) {
 
         int totalRoutines = routines.size();
         int activeRoutines = (int) routines.stream()
-                .filter(r -> r.getStatus().toString().equals("ACTIVE"))
+                .filter(r -> r.status() == RoutineStatus.ACTIVE)
                 .count();
 
         int totalCompletions = routines.stream()
-                .mapToInt(r -> r.getStreak().getTotalCompletions())
+                .mapToInt(PractitionerSnapshot.Routine::totalCompletions)
                 .sum();
 
         int longestStreak = routines.stream()
-                .mapToInt(r -> r.getStreak().getLongestStreak())
+                .mapToInt(PractitionerSnapshot.Routine::longestStreak)
                 .max()
                 .orElse(0);
 
         int currentStreak = routines.stream()
-                .filter(r -> r.getStatus().toString().equals("ACTIVE"))
-                .mapToInt(r -> r.getStreak().getCurrentStreak())
+                .filter(r -> r.status() == RoutineStatus.ACTIVE)
+                .mapToInt(PractitionerSnapshot.Routine::currentStreak)
                 .max()
                 .orElse(0);
 
         // Calculate average completion rate
-        double avgCompletionRate = calculateAverageCompletionRate(routines);
+        double avgCompletionRate = calculateAverageCompletionRate(routines, today);
 
         return new HabitStatistics(
                 habitId.toString(),
@@ -111,19 +114,18 @@ public class GetHabitAnalyticsUseCase {
         );
     }
 
-    private double calculateAverageCompletionRate(List<RoutineEntity> routines) {
+    private double calculateAverageCompletionRate(List<PractitionerSnapshot.Routine> routines, LocalDate today) {
         if (routines.isEmpty()) {
             return 0.0;
         }
 
-        LocalDate today = LocalDate.now();
         double totalRate = 0.0;
         int count = 0;
 
-        for (RoutineEntity routine : routines) {
-            long daysElapsed = java.time.temporal.ChronoUnit.DAYS.between(routine.getStartDate(), today) + 1;
+        for (PractitionerSnapshot.Routine routine : routines) {
+            long daysElapsed = java.time.temporal.ChronoUnit.DAYS.between(routine.startDate(), today) + 1;
             if (daysElapsed > 0 && daysElapsed <= 91) {
-                int completions = routine.getStreak().getTotalCompletions();
+                int completions = routine.totalCompletions();
                 double rate = (completions * 100.0) / daysElapsed;
                 totalRate += rate;
                 count++;
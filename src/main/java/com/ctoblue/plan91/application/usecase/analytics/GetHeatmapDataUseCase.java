@@ -1,95 +1,86 @@
 package com.ctoblue.plan91.application.usecase.analytics;
 
-import com.ctoblue.plan91.adapter.out.persistence.entity.HabitEntryEntity;
-import com.ctoblue.plan91.adapter.out.persistence.entity.RoutineEntity;
-import com.ctoblue.plan91.adapter.out.persistence.repository.HabitEntryJpaRepository;
+import com.ctoblue.plan91.adapter.out.persistence.repository.PractitionerDailyCompletionJpaRepository;
 import com.ctoblue.plan91.adapter.out.persistence.repository.RoutineJpaRepository;
+import com.ctoblue.plan91.domain.shared.EpochDays;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
-import java.util.*;
-import java.util.stream.Collectors;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
 
 /**
  * Use case for generating calendar heatmap data.
  *
  * <p>Epic 08: Analytics & Statistics (PLAN91-091)
  * Generates data for GitHub-style contribution heatmap showing activity intensity.
+ * Reads from the practitioner_daily_completions rollup, bounded to the requested window.
+ *
+ * <p>{@link #loadSeries} returns the counts as a {@link DailyCompletionSeries}; the heatmap
+ * endpoint streams that directly. {@link HeatmapData} is the same data as records.
  */
 @Service
 public class GetHeatmapDataUseCase {
 
     private final RoutineJpaRepository routineRepository;
-    private final HabitEntryJpaRepository entryRepository;
+    private final PractitionerDailyCompletionJpaRepository dailyCompletionRepository;
 
     public GetHeatmapDataUseCase(
             RoutineJpaRepository routineRepository,
-            HabitEntryJpaRepository entryRepository) {
+            PractitionerDailyCompletionJpaRepository dailyCompletionRepository) {
         this.routineRepository = routineRepository;
-        this.entryRepository = entryRepository;
+        this.dailyCompletionRepository = dailyCompletionRepository;
     }
 
     /**
-     * Gets heatmap data for a practitioner showing daily activity intensity.
+     * Loads daily completion counts for the heatmap, without building per-day records.
+     * This is the form the heatmap endpoint caches and streams.
      *
      * @param practitionerId the practitioner's ID
      * @param startDate the start date
      * @param endDate the end date
-     * @return heatmap data
+     * @return completion counts per day (empty if the practitioner has no routines)
      */
     @Transactional(readOnly = true)
-    public HeatmapData execute(String practitionerId, LocalDate startDate, LocalDate endDate) {
+    public DailyCompletionSeries loadSeries(String practitionerId, LocalDate startDate, LocalDate endDate) {
         UUID id = UUID.fromString(practitionerId);
 
-        // Get all routines
-        List<RoutineEntity> routines = routineRepository.findByPractitionerId(id);
-        if (routines.isEmpty()) {
-            return new HeatmapData(List.of(), 0, 0);
+        // No routines, nothing to show
+        if (!routineRepository.existsByPractitionerId(id)) {
+            return DailyCompletionSeries.empty(startDate);
         }
 
-        // Get all entries for these routines
-        List<UUID> routineIds = routines.stream().map(RoutineEntity::getId).toList();
-        List<HabitEntryEntity> entries = entryRepository.findByRoutineIdIn(routineIds);
-
-        // Count completions per day
-        Map<LocalDate, Long> completionsByDate = entries.stream()
-                .filter(e -> Boolean.TRUE.equals(e.getCompleted()))
-                .filter(e -> !e.getDate().isBefore(startDate) && !e.getDate().isAfter(endDate))
-                .collect(Collectors.groupingBy(HabitEntryEntity::getDate, Collectors.counting()));
-
-        // Find max completions for intensity scaling
-        int maxCompletions = completionsByDate.values().stream()
-                .mapToInt(Long::intValue)
-                .max()
-                .orElse(1);
-
-        // Create day records for each date
-        List<DayRecord> days = new ArrayList<>();
-        LocalDate current = startDate;
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd");
-
-        while (!current.isAfter(endDate)) {
-            int count = completionsByDate.getOrDefault(current, 0L).intValue();
-            int intensity = calculateIntensity(count, maxCompletions);
-
-            days.add(new DayRecord(
-                    current.format(formatter),
-                    count,
-                    intensity,
-                    current.getDayOfWeek().getValue()
-            ));
-
-            current = current.plusDays(1);
-        }
+        // Completions per day, read from the rollup for the requested window only
+        return DailyCompletionSeries.of(startDate, endDate,
+                dailyCompletionRepository.findByPractitionerAndDateRange(id, startDate, endDate));
+    }
 
-        // Calculate total completions
-        int totalCompletions = completionsByDate.values().stream()
-                .mapToInt(Long::intValue)
-                .sum();
+    /**
+     * Loads daily completion counts for the past year (52 weeks).
+     *
+     * @param practitionerId the practitioner's ID
+     * @return completion counts per day for the past year
+     */
+    @Transactional(readOnly = true)
+    public DailyCompletionSeries loadPastYearSeries(String practitionerId) {
+        LocalDate endDate = LocalDate.now();
+        LocalDate startDate = endDate.minusWeeks(52);
+        return loadSeries(practitionerId, startDate, endDate);
+    }
 
-        return new HeatmapData(days, totalCompletions, maxCompletions);
+    /**
+     * Gets heatmap data for a practitioner showing daily activity intensity.
+     *
+     * @param practitionerId the practitioner's ID
+     * @param startDate the start date
+     * @param endDate the end date
+     * @return heatmap data
+     */
+    @Transactional(readOnly = true)
+    public HeatmapData execute(String practitionerId, LocalDate startDate, LocalDate endDate) {
+        return toHeatmapData(loadSeries(practitionerId, startDate, endDate));
     }
 
     /**
@@ -100,31 +91,27 @@ public class GetHeatmapDataUseCase {
      */
     @Transactional(readOnly = true)
     public HeatmapData getPastYearHeatmap(String practitionerId) {
-        LocalDate endDate = LocalDate.now();
-        LocalDate startDate = endDate.minusWeeks(52);
-        return execute(practitionerId, startDate, endDate);
+        return toHeatmapData(loadPastYearSeries(practitionerId));
     }
 
     /**
-     * Calculates intensity level (0-4) based on completion count.
-     * Similar to GitHub's contribution graph.
-     *
-     * @param count completion count for the day
-     * @param max maximum completions in the dataset
-     * @return intensity level (0-4)
+     * Expands a series into one record per day.
      */
-    private int calculateIntensity(int count, int max) {
-        if (count == 0) return 0;
-        if (max == 0) return 0;
+    private HeatmapData toHeatmapData(DailyCompletionSeries series) {
+        List<DayRecord> days = new ArrayList<>(series.length());
+        long firstDay = series.firstEpochDay();
 
-        double ratio = (double) count / max;
-
-        if (ratio >= 0.75) return 4;  // Very active
-        if (ratio >= 0.50) return 3;  // Active
-        if (ratio >= 0.25) return 2;  // Moderately active
-        if (ratio > 0) return 1;      // Lightly active
+        for (int i = 0; i < series.length(); i++) {
+            long day = firstDay + i;
+            days.add(new DayRecord(
+                    EpochDays.toDate(day).toString(),
+                    series.countAt(i),
+                    series.intensityAt(i),
+                    EpochDays.isoDayOfWeek(day)
+            ));
+        }
 
-        return 0;  // No activity
+        return new HeatmapData(days, series.totalCompletions(), series.maxCompletions());
     }
 
     // DTOs
@@ -1,17 +1,9 @@
 package com.ctoblue.plan91.application.usecase.analytics;
 
-import com.ctoblue.plan91.adapter.out.persistence.entity.HabitEntryEntity;
-import com.ctoblue.plan91.adapter.out.persistence.entity.RoutineEntity;
-import com.ctoblue.plan91.adapter.out.persistence.repository.HabitEntryJpaRepository;
-import com.ctoblue.plan91.adapter.out.persistence.repository.RoutineJpaRepository;
 import com.ctoblue.plan91.domain.routine.RoutineStatus;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
-import java.time.LocalDate;
 import java.time.temporal.ChronoUnit;
-import java.util.List;
-import java.util.UUID;
 
 /**
  * Use case for getting overall practitioner statistics across all habits.
@@ -21,132 +13,79 @@ import java.util.UUID;
 @Service
 public class GetPractitionerStatisticsUseCase {
 
-    private final RoutineJpaRepository routineRepository;
-    private final HabitEntryJpaRepository entryRepository;
+    private final PractitionerSnapshotLoader snapshotLoader;
 
-    public GetPractitionerStatisticsUseCase(
-            RoutineJpaRepository routineRepository,
-            HabitEntryJpaRepository entryRepository) {
-        this.routineRepository = routineRepository;
-        this.entryRepository = entryRepository;
+    public GetPractitionerStatisticsUseCase(PractitionerSnapshotLoader snapshotLoader) {
+        this.snapshotLoader = snapshotLoader;
     }
 
     /**
      * Gets comprehensive statistics for a practitioner across all their routines.
      *
+     * <p>Always issues exactly two queries, however many routines the practitioner has:
+     * one routine summary query and one aggregate over entries.
+     *
      * @param practitionerId the practitioner's ID
      * @return aggregate statistics
      */
-    @Transactional(readOnly = true)
     public PractitionerStatistics execute(String practitionerId) {
-        UUID id = UUID.fromString(practitionerId);
+        return execute(snapshotLoader.load(practitionerId));
+    }
+
+    /**
+     * Computes statistics from an already loaded snapshot, without touching the database.
+     * All routine-based statistics are computed in a single pass.
+     *
+     * @param snapshot the practitioner's snapshot
+     * @return aggregate statistics
+     */
+    public PractitionerStatistics execute(PractitionerSnapshot snapshot) {
+        int activeRoutinesCount = 0;
+        int completedRoutinesCount = 0;
+        int totalCompletions = 0;
+        int longestStreak = 0;
+        int currentStreak = 0;
+
+        // Overall completion rate inputs (active routines within their cycle)
+        int totalExpected = 0;
+        int totalCompleted = 0;
 
-        // Get all active routines
-        List<RoutineEntity> activeRoutines = routineRepository.findByPractitionerIdAndStatus(id, RoutineStatus.ACTIVE);
+        for (PractitionerSnapshot.Routine routine : snapshot.routines()) {
+            totalCompletions += routine.totalCompletions();
+            longestStreak = Math.max(longestStreak, routine.longestStreak());
 
-        // Get all routines (including completed)
-        List<RoutineEntity> allRoutines = routineRepository.findByPractitionerId(id);
+            if (routine.status() == RoutineStatus.COMPLETED) {
+                completedRoutinesCount++;
+            }
 
-        // Calculate statistics
-        return calculateStatistics(id, activeRoutines, allRoutines);
-    }
+            if (routine.status() == RoutineStatus.ACTIVE) {
+                activeRoutinesCount++;
+                currentStreak = Math.max(currentStreak, routine.currentStreak());
 
-    private PractitionerStatistics calculateStatistics(
-            UUID practitionerId,
-            List<RoutineEntity> activeRoutines,
-            List<RoutineEntity> allRoutines) {
-
-        LocalDate today = LocalDate.now();
-
-        // Active routines count
-        int activeRoutinesCount = activeRoutines.size();
-        int totalRoutinesCount = allRoutines.size();
-        int completedRoutinesCount = (int) allRoutines.stream()
-                .filter(r -> r.getStatus() == RoutineStatus.COMPLETED)
-                .count();
-
-        // Total completions across all routines
-        int totalCompletions = allRoutines.stream()
-                .mapToInt(r -> r.getStreak().getTotalCompletions())
-                .sum();
-
-        // Longest streak across all routines
-        int longestStreak = allRoutines.stream()
-                .mapToInt(r -> r.getStreak().getLongestStreak())
-                .max()
-                .orElse(0);
-
-        // Current active streak (max among active routines)
-        int currentStreak = activeRoutines.stream()
-                .mapToInt(r -> r.getStreak().getCurrentStreak())
-                .max()
-                .orElse(0);
-
-        // Overall completion rate for active routines
-        double overallCompletionRate = calculateOverallCompletionRate(activeRoutines);
-
-        // Recent activity (last 7 days)
-        int last7DaysCompletions = 0;
-        int last30DaysCompletions = 0;
-
-        for (RoutineEntity routine : allRoutines) {
-            List<HabitEntryEntity> entries = entryRepository.findByRoutineIdOrderByDateAsc(routine.getId());
-
-            for (HabitEntryEntity entry : entries) {
-                if (Boolean.TRUE.equals(entry.getCompleted())) {
-                    long daysAgo = ChronoUnit.DAYS.between(entry.getDate(), today);
-                    if (daysAgo <= 7) {
-                        last7DaysCompletions++;
-                    }
-                    if (daysAgo <= 30) {
-                        last30DaysCompletions++;
-                    }
+                long daysElapsed = ChronoUnit.DAYS.between(routine.startDate(), snapshot.today()) + 1;
+                if (daysElapsed > 0 && daysElapsed <= 91) {
+                    totalExpected += (int) daysElapsed;
+                    totalCompleted += routine.totalCompletions();
                 }
             }
         }
 
+        double overallCompletionRate = totalExpected > 0 ? (totalCompleted * 100.0) / totalExpected : 0.0;
+
         // Consistency score
         String consistencyScore = calculateConsistencyScore(overallCompletionRate);
 
-        // Total days practiced (unique dates across all entries)
-        long totalDaysPracticed = entryRepository.findByRoutineIdIn(
-                allRoutines.stream().map(RoutineEntity::getId).toList()
-        ).stream()
-                .filter(e -> Boolean.TRUE.equals(e.getCompleted()))
-                .map(HabitEntryEntity::getDate)
-                .distinct()
-                .count();
-
+        PractitionerSnapshot.Activity activity = snapshot.activity();
         return new PractitionerStatistics(
-                practitionerId.toString(),
-                new RoutinesSummary(activeRoutinesCount, totalRoutinesCount, completedRoutinesCount),
+                snapshot.practitionerId().toString(),
+                new RoutinesSummary(activeRoutinesCount, snapshot.routines().size(), completedRoutinesCount),
                 new StreaksSummary(currentStreak, longestStreak, totalCompletions),
-                new ActivitySummary(last7DaysCompletions, last30DaysCompletions, (int) totalDaysPracticed),
+                new ActivitySummary(activity.last7Days(), activity.last30Days(), activity.totalDaysPracticed()),
                 overallCompletionRate,
                 consistencyScore
         );
     }
 
-    private double calculateOverallCompletionRate(List<RoutineEntity> activeRoutines) {
-        if (activeRoutines.isEmpty()) {
-            return 0.0;
-        }
-
-        LocalDate today = LocalDate.now();
-        int totalExpected = 0;
-        int totalCompleted = 0;
-
-        for (RoutineEntity routine : activeRoutines) {
-            long daysElapsed = ChronoUnit.DAYS.between(routine.getStartDate(), today) + 1;
-            if (daysElapsed > 0 && daysElapsed <= 91) {
-                totalExpected += (int) daysElapsed;
-                totalCompleted += routine.getStreak().getTotalCompletions();
-            }
-        }
-
-        return totalExpected > 0 ? (totalCompleted * 100.0) / totalExpected : 0.0;
-    }
-
     private String calculateConsistencyScore(double completionRate) {
         if (completionRate >= 95) return "A+";
         if (completionRate >= 90) return "A";
@@ -0,0 +1,18 @@
+package com.ctoblue.plan91.application.usecase.analytics;
+
+import java.util.UUID;
+
+/**
+ * Published when a practitioner's routines, entries or habits change in a way
+ * that affects their analytics.
+ *
+ * @param practitionerId the practitioner whose data changed
+ */
+public record PractitionerDataChangedEvent(UUID practitionerId) {
+
+    public PractitionerDataChangedEvent {
+        if (practitionerId == null) {
+            throw new IllegalArgumentException("Practitioner ID cannot be null");
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.ctoblue.plan91.application.usecase.analytics;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-practitioner data version, bumped whenever their routines, entries or habits change.
+ *
+ * <p>Versions are bumped by {@link PractitionerDataChangedEvent} after the writing transaction
+ * commits. They are kept in memory and start again at 0 on restart, so every version also
+ * carries an {@link #epoch()} that is unique to this application instance.
+ *
+ * <p>Read endpoints use the version as an HTTP validator: an unchanged version (on the same
+ * day) means an unchanged response.
+ */
+@Component
+public class PractitionerDataVersions {
+
+    private final Clock clock;
+    private final String epoch;
+    private final Instant startedAt;
+    private final ConcurrentHashMap<UUID, Version> versions = new ConcurrentHashMap<>();
+
+    public PractitionerDataVersions() {
+        this(Clock.systemDefaultZone());
+    }
+
+    PractitionerDataVersions(Clock clock) {
+        this.clock = clock;
+        this.startedAt = clock.instant();
+        this.epoch = Long.toString(startedAt.toEpochMilli(), Character.MAX_RADIX);
+    }
+
+    /**
+     * Current version of a practitioner's data. Practitioners that have not changed since
+     * startup are at version 0, last modified at startup.
+     *
+     * @param practitionerId the practitioner's ID
+     * @return the current version
+     */
+    public Version current(UUID practitionerId) {
+        Version version = versions.get(practitionerId);
+        return version != null ? version : new Version(0, startedAt);
+    }
+
+    /**
+     * Marks a practitioner's data as changed.
+     *
+     * @param practitionerId the practitioner's ID
+     */
+    public void bump(UUID practitionerId) {
+        Instant now = clock.instant();
+        versions.merge(practitionerId, new Version(1, now),
+                (old, ignored) -> new Version(old.number() + 1, now));
+    }
+
+    /**
+     * Bumps once the publishing transaction has committed, or immediately
+     * when published outside a transaction.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPractitionerDataChanged(PractitionerDataChangedEvent event) {
+        bump(event.practitionerId());
+    }
+
+    /**
+     * @return identifier of this application instance, distinguishing versions across restarts
+     */
+    public String epoch() {
+        return epoch;
+    }
+
+    /**
+     * A practitioner's data version.
+     *
+     * @param number increments on every change
+     * @param changedAt when the last change committed
+     */
+    public record Version(long number, Instant changedAt) {}
+}
@@ -0,0 +1,54 @@
+package com.ctoblue.plan91.application.usecase.analytics;
+
+import com.ctoblue.plan91.domain.routine.RoutineStatus;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Immutable view of a practitioner's routines and entry activity, loaded once
+ * by {@link PractitionerSnapshotLoader} and shared by the analytics use cases
+ * composed into a single request.
+ *
+ * @param practitionerId the practitioner's ID
+ * @param today the date the snapshot was taken for
+ * @param routines one row per routine, including completed and abandoned ones
+ * @param activity entry counts relative to {@code today}
+ */
+public record PractitionerSnapshot(
+        UUID practitionerId,
+        LocalDate today,
+        List<Routine> routines,
+        Activity activity
+) {
+
+    public PractitionerSnapshot {
+        if (practitionerId == null || today == null || activity == null) {
+            throw new IllegalArgumentException("Practitioner ID, date and activity cannot be null");
+        }
+        routines = List.copyOf(routines);
+    }
+
+    /**
+     * A routine with its habit.
+     */
+    public record Routine(
+            UUID habitId,
+            String habitName,
+            RoutineStatus status,
+            LocalDate startDate,
+            int currentStreak,
+            int longestStreak,
+            int totalCompletions
+    ) {}
+
+    /**
+     * Completed entries in the last 7 and 30 days, and distinct days practiced overall.
+     */
+    public record Activity(
+            int last7Days,
+            int last30Days,
+            int totalDaysPracticed
+    ) {}
+}
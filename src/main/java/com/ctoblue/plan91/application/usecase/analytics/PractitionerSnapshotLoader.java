@@ -0,0 +1,80 @@
+package com.ctoblue.plan91.application.usecase.analytics;
+
+import com.ctoblue.plan91.adapter.out.persistence.repository.HabitEntryJpaRepository;
+import com.ctoblue.plan91.adapter.out.persistence.repository.RoutineJpaRepository;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Loads a {@link PractitionerSnapshot} with two queries: the routine summaries
+ * (joined with their habit) and one aggregate over entries.
+ *
+ * <p>Callers that compose several analytics views load the snapshot once and
+ * pass it to each use case, so the rows are fetched once per request. Callers that
+ * only need the routines use {@link #loadRoutines} and skip the entry aggregate.
+ */
+@Component
+public class PractitionerSnapshotLoader {
+
+    private final RoutineJpaRepository routineRepository;
+    private final HabitEntryJpaRepository entryRepository;
+
+    public PractitionerSnapshotLoader(
+            RoutineJpaRepository routineRepository,
+            HabitEntryJpaRepository entryRepository) {
+        this.routineRepository = routineRepository;
+        this.entryRepository = entryRepository;
+    }
+
+    /**
+     * Loads the snapshot for today.
+     *
+     * @param practitionerId the practitioner's ID
+     * @return the snapshot
+     */
+    @Transactional(readOnly = true)
+    public PractitionerSnapshot load(String practitionerId) {
+        UUID id = UUID.fromString(practitionerId);
+        LocalDate today = LocalDate.now();
+
+        List<PractitionerSnapshot.Routine> routines = routines(id);
+
+        HabitEntryJpaRepository.ActivityCounts activity = entryRepository.summarizeActivity(
+                id, today.minusDays(7), today.minusDays(30), today);
+
+        return new PractitionerSnapshot(id, today, routines, new PractitionerSnapshot.Activity(
+                (int) activity.getLast7Days(),
+                (int) activity.getLast30Days(),
+                (int) activity.getTotalDaysPracticed()
+        ));
+    }
+
+    /**
+     * Loads only the routine summaries, with one query.
+     *
+     * @param practitionerId the practitioner's ID
+     * @return one row per routine, including completed and abandoned ones
+     */
+    @Transactional(readOnly = true)
+    public List<PractitionerSnapshot.Routine> loadRoutines(String practitionerId) {
+        return routines(UUID.fromString(practitionerId));
+    }
+
+    private List<PractitionerSnapshot.Routine> routines(UUID practitionerId) {
+        return routineRepository.findSummariesByPractitionerId(practitionerId).stream()
+                .map(r -> new PractitionerSnapshot.Routine(
+                        r.getHabitId(),
+                        r.getHabitName(),
+                        r.getStatus(),
+                        r.getStartDate(),
+                        r.getCurrentStreak(),
+                        r.getLongestStreak(),
+                        r.getTotalCompletions()
+                ))
+                .toList();
+    }
+}
@@ -0,0 +1,42 @@
+package com.ctoblue.plan91.application.usecase.analytics;
+
+import com.ctoblue.plan91.adapter.out.persistence.repository.PractitionerDailyCompletionJpaRepository;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.UUID;
+
+/**
+ * Use case for rebuilding a practitioner's daily completion rollup from habit_entries.
+ *
+ * <p>Used to backfill the practitioner_daily_completions table and to repair it
+ * after entries were written outside of CompleteEntryUseCase (e.g. sample data, imports).
+ */
+@Service
+public class RebuildDailyCompletionsUseCase {
+
+    private final PractitionerDailyCompletionJpaRepository dailyCompletionRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public RebuildDailyCompletionsUseCase(
+            PractitionerDailyCompletionJpaRepository dailyCompletionRepository,
+            ApplicationEventPublisher eventPublisher) {
+        this.dailyCompletionRepository = dailyCompletionRepository;
+        this.eventPublisher = eventPublisher;
+    }
+
+    /**
+     * Replaces the practitioner's rollup rows with counts recomputed from their entries.
+     *
+     * @param practitionerId the practitioner's ID
+     * @return number of days with at least one completion
+     */
+    @Transactional
+    public int execute(UUID practitionerId) {
+        dailyCompletionRepository.deleteByPractitionerId(practitionerId);
+        int days = dailyCompletionRepository.insertFromEntries(practitionerId);
+        eventPublisher.publishEvent(new PractitionerDataChangedEvent(practitionerId));
+        return days;
+    }
+}
@@ -0,0 +1,208 @@
+package com.ctoblue.plan91.application.usecase.analytics;
+
+import com.ctoblue.plan91.domain.shared.EpochDays;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Fixed set of time buckets over a date range, filled in a single pass.
+ *
+ * <p>Each date is mapped to its bucket with epoch-day arithmetic, so adding a value
+ * is O(1) regardless of how many buckets there are. Building a chart is therefore
+ * O(buckets + values) instead of re-scanning the values once per bucket.
+ *
+ * <p>Bucket boundaries:
+ * <ul>
+ *   <li>{@code DAY} - one bucket per day</li>
+ *   <li>{@code WEEK} - 7-day buckets anchored at the range start</li>
+ *   <li>{@code MONTH} - calendar months</li>
+ *   <li>{@code QUARTER} - calendar quarters</li>
+ * </ul>
+ * The first and last bucket are clipped to the range.
+ *
+ * <p>Not thread-safe; create one per chart.
+ */
+public final class TimeBuckets {
+
+    private static final DateTimeFormatter DAY_FORMAT = DateTimeFormatter.ofPattern("MMM dd", Locale.ENGLISH);
+    private static final DateTimeFormatter MONTH_FORMAT = DateTimeFormatter.ofPattern("MMM yyyy", Locale.ENGLISH);
+
+    /**
+     * Bucket size.
+     */
+    public enum Granularity {
+        DAY, WEEK, MONTH, QUARTER;
+
+        /**
+         * Parses a granularity name, ignoring case.
+         *
+         * @param value the name, e.g. "week"
+         * @return the granularity
+         * @throws IllegalArgumentException if the name is unknown
+         */
+        public static Granularity parse(String value) {
+            if (value == null || value.isBlank()) {
+                throw new IllegalArgumentException("Granularity cannot be null or blank");
+            }
+            try {
+                return valueOf(value.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unknown granularity: " + value);
+            }
+        }
+    }
+
+    private final Granularity granularity;
+    private final long firstDay;
+    private final long lastDay;
+    private final long firstKey;
+    private final long[] totals;
+
+    private TimeBuckets(Granularity granularity, LocalDate startDate, LocalDate endDate) {
+        this.granularity = granularity;
+        this.firstDay = startDate.toEpochDay();
+        this.lastDay = endDate.toEpochDay();
+        this.firstKey = key(firstDay);
+        this.totals = new long[(int) (key(lastDay) - firstKey + 1)];
+    }
+
+    /**
+     * Creates empty buckets covering startDate to endDate (inclusive).
+     *
+     * @param granularity the bucket size
+     * @param startDate the first day of the range
+     * @param endDate the last day of the range
+     * @return empty buckets
+     * @throws IllegalArgumentException if the range is invalid
+     */
+    public static TimeBuckets of(Granularity granularity, LocalDate startDate, LocalDate endDate) {
+        if (granularity == null) {
+            throw new IllegalArgumentException("Granularity cannot be null");
+        }
+        if (startDate == null || endDate == null) {
+            throw new IllegalArgumentException("Start and end date cannot be null");
+        }
+        if (endDate.isBefore(startDate)) {
+            throw new IllegalArgumentException("End date must not be before start date");
+        }
+        return new TimeBuckets(granularity, startDate, endDate);
+    }
+
+    /**
+     * Adds a value to the bucket containing the date.
+     * Dates outside the range are ignored.
+     *
+     * @param date the date
+     * @param value the amount to add
+     */
+    public void add(LocalDate date, long value) {
+        long epochDay = date.toEpochDay();
+        if (epochDay < firstDay || epochDay > lastDay) {
+            return;
+        }
+        totals[(int) (key(epochDay) - firstKey)] += value;
+    }
+
+    /**
+     * @return number of buckets
+     */
+    public int size() {
+        return totals.length;
+    }
+
+    /**
+     * @param index the bucket index
+     * @return the bucket total
+     */
+    public long total(int index) {
+        return totals[index];
+    }
+
+    /**
+     * @param index the bucket index
+     * @return first day of the bucket, clipped to the range
+     */
+    public LocalDate bucketStart(int index) {
+        long start = switch (granularity) {
+            case DAY -> firstDay + index;
+            case WEEK -> firstDay + 7L * index;
+            case MONTH -> firstDayOfMonth(firstKey + index);
+            case QUARTER -> firstDayOfMonth((firstKey + index) * 3);
+        };
+        return LocalDate.ofEpochDay(Math.max(start, firstDay));
+    }
+
+    /**
+     * @param index the bucket index
+     * @return last day of the bucket, clipped to the range
+     */
+    public LocalDate bucketEnd(int index) {
+        long end = index + 1 < totals.length
+                ? bucketStart(index + 1).toEpochDay() - 1
+                : lastDay;
+        return LocalDate.ofEpochDay(end);
+    }
+
+    /**
+     * @param index the bucket index
+     * @return chart label for the bucket
+     */
+    public String label(int index) {
+        LocalDate start = bucketStart(index);
+        return switch (granularity) {
+            case DAY -> start.format(DAY_FORMAT);
+            case WEEK -> start.format(DAY_FORMAT) + " - " + bucketEnd(index).format(DAY_FORMAT);
+            case MONTH -> start.format(MONTH_FORMAT);
+            case QUARTER -> "Q" + ((start.getMonthValue() - 1) / 3 + 1) + " " + start.getYear();
+        };
+    }
+
+    /**
+     * @return labels of all buckets, in order
+     */
+    public List<String> labels() {
+        List<String> labels = new ArrayList<>(totals.length);
+        for (int i = 0; i < totals.length; i++) {
+            labels.add(label(i));
+        }
+        return labels;
+    }
+
+    /**
+     * @return totals of all buckets as chart values, in order
+     */
+    public List<Integer> values() {
+        List<Integer> values = new ArrayList<>(totals.length);
+        for (long total : totals) {
+            values.add((int) Math.min(total, Integer.MAX_VALUE));
+        }
+        return values;
+    }
+
+    /**
+     * Monotonic bucket key for an epoch day; consecutive buckets have consecutive keys.
+     */
+    private long key(long epochDay) {
+        return switch (granularity) {
+            case DAY -> epochDay;
+            case WEEK -> Math.floorDiv(epochDay - firstDay, 7);
+            case MONTH -> monthIndex(epochDay);
+            case QUARTER -> Math.floorDiv(monthIndex(epochDay), 3);
+        };
+    }
+
+    /**
+     * Converts an epoch day to year * 12 + (month - 1) without allocating a LocalDate.
+     */
+    static long monthIndex(long epochDay) {
+        return EpochDays.monthIndex(epochDay);
+    }
+
+    private static long firstDayOfMonth(long monthIndex) {
+        return EpochDays.firstDayOfMonth(monthIndex);
+    }
+}
@@ -2,8 +2,11 @@ package com.ctoblue.plan91.application.usecase.habit;
 
 import com.ctoblue.plan91.adapter.out.persistence.entity.HabitEntity;
 import com.ctoblue.plan91.adapter.out.persistence.repository.HabitJpaRepository;
+import com.ctoblue.plan91.adapter.out.persistence.repository.RoutineJpaRepository;
+import com.ctoblue.plan91.application.usecase.analytics.PractitionerDataChangedEvent;
 import com.ctoblue.plan91.domain.habit.NumericConfig;
 import com.ctoblue.plan91.domain.habit.TrackingType;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -19,15 +22,23 @@ import java.util.UUID;
  *   <li>Updates only the fields provided in the command</li>
  *   <li>Validates numeric configuration if changed</li>
  *   <li>Validates visibility rules</li>
+ *   <li>Invalidates analytics of every practitioner with a routine on the habit</li>
  * </ul>
  */
 @Service
 public class EditHabitUseCase {
 
     private final HabitJpaRepository habitRepository;
+    private final RoutineJpaRepository routineRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public EditHabitUseCase(HabitJpaRepository habitRepository) {
+    public EditHabitUseCase(
+            HabitJpaRepository habitRepository,
+            RoutineJpaRepository routineRepository,
+            ApplicationEventPublisher eventPublisher) {
         this.habitRepository = habitRepository;
+        this.routineRepository = routineRepository;
+        this.eventPublisher = eventPublisher;
     }
 
     /**
@@ -102,7 +113,14 @@ public class EditHabitUseCase {
         // 7. Update timestamp
         habit.setUpdatedAt(Instant.now());
 
-        // 8. Save and return
-        return habitRepository.save(habit);
+        // 8. Save
+        HabitEntity saved = habitRepository.save(habit);
+
+        // 9. Habit names show up in analytics; invalidate everyone practicing it
+        for (UUID practitionerId : routineRepository.findPractitionerIdsByHabitId(habitId)) {
+            eventPublisher.publishEvent(new PractitionerDataChangedEvent(practitionerId));
+        }
+
+        return saved;
     }
 }
@@ -0,0 +1,297 @@
+package com.ctoblue.plan91.application.usecase.routine;
+
+import com.ctoblue.plan91.adapter.out.persistence.entity.HabitEntryEntity;
+import com.ctoblue.plan91.adapter.out.persistence.entity.RoutineEntity;
+import com.ctoblue.plan91.adapter.out.persistence.mapper.RoutineMapper;
+import com.ctoblue.plan91.adapter.out.persistence.repository.HabitEntryJpaRepository;
+import com.ctoblue.plan91.adapter.out.persistence.repository.PractitionerDailyCompletionJpaRepository;
+import com.ctoblue.plan91.adapter.out.persistence.repository.RoutineJpaRepository;
+import com.ctoblue.plan91.application.usecase.analytics.PractitionerDataChangedEvent;
+import com.ctoblue.plan91.domain.routine.CompletionBitmap;
+import com.ctoblue.plan91.domain.routine.HabitStreak;
+import com.ctoblue.plan91.domain.routine.Routine;
+import com.ctoblue.plan91.domain.routine.service.StreakRebuilder;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+
+/**
+ * Use case for completing several habit entries in one request (the dashboard's "today" list).
+ *
+ * <p>Each item goes through {@link Routine#recordCompletion} exactly as in
+ * {@link CompleteEntryUseCase}, but the whole batch shares one transaction:
+ * <ul>
+ *   <li>All routines are loaded with one IN query</li>
+ *   <li>Dates already completed are found with one query instead of per item</li>
+ *   <li>Entries are inserted, and changed routines updated, as JDBC batches at flush</li>
+ *   <li>The daily rollup is bumped once per practitioner and date</li>
+ * </ul>
+ *
+ * <p>An item that cannot be completed (unknown routine, inactive, not an expected day,
+ * already completed...) is reported as failed and the rest of the batch still goes through.
+ * Items are applied in date order so a routine's streak sees its completions in sequence;
+ * an item dated before a routine's stored last completion rebuilds the streak as in
+ * {@link CompleteEntryUseCase}.
+ *
+ * <p>A completion committed by another request while the batch runs fails the batch's version
+ * check on that routine (or, for an entry written without touching the routine, its unique key).
+ * The batch is then retried in a fresh transaction, as in {@link CompleteEntryUseCase}, up to
+ * {@value RetryingTransaction#MAX_ATTEMPTS} times; the retry sees the concurrent entry and
+ * reports that item as already completed while the rest go through.
+ */
+@Service
+public class CompleteEntriesUseCase {
+
+    /** Largest batch accepted in one request. */
+    public static final int MAX_BATCH_SIZE = 100;
+
+    private final RoutineJpaRepository routineRepository;
+    private final HabitEntryJpaRepository entryRepository;
+    private final PractitionerDailyCompletionJpaRepository dailyCompletionRepository;
+    private final RoutineMapper routineMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final RetryingTransaction retryingTransaction;
+    private final StreakRebuilder streakRebuilder = new StreakRebuilder();
+
+    public CompleteEntriesUseCase(
+            RoutineJpaRepository routineRepository,
+            HabitEntryJpaRepository entryRepository,
+            PractitionerDailyCompletionJpaRepository dailyCompletionRepository,
+            RoutineMapper routineMapper,
+            ApplicationEventPublisher eventPublisher,
+            RetryingTransaction retryingTransaction) {
+        this.routineRepository = routineRepository;
+        this.entryRepository = entryRepository;
+        this.dailyCompletionRepository = dailyCompletionRepository;
+        this.routineMapper = routineMapper;
+        this.eventPublisher = eventPublisher;
+        this.retryingTransaction = retryingTransaction;
+    }
+
+    /**
+     * Completes a batch of habit entries, retrying if a routine was completed concurrently.
+     *
+     * @param commands the completions, in request order
+     * @return one result per command, in request order
+     * @throws IllegalArgumentException if the batch is empty or larger than {@link #MAX_BATCH_SIZE}
+     * @throws OptimisticLockingFailureException if routines kept changing for every attempt
+     */
+    public List<EntryResult> execute(List<CompleteEntryCommand> commands) {
+        if (commands == null || commands.isEmpty()) {
+            throw new IllegalArgumentException("Batch cannot be empty");
+        }
+        if (commands.size() > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("Batch cannot exceed " + MAX_BATCH_SIZE + " entries");
+        }
+
+        return retryingTransaction.execute(status -> complete(commands));
+    }
+
+    /**
+     * Completes a batch in the current transaction. Callers that own the transaction, such as
+     * {@link SyncEntriesUseCase}, retry it themselves on {@link OptimisticLockingFailureException}.
+     */
+    List<EntryResult> complete(List<CompleteEntryCommand> commands) {
+        EntryResult[] results = new EntryResult[commands.size()];
+
+        // 1. Parse routine IDs; malformed ones fail up front
+        UUID[] routineIds = new UUID[commands.size()];
+        for (int i = 0; i < commands.size(); i++) {
+            try {
+                routineIds[i] = UUID.fromString(commands.get(i).routineId());
+            } catch (IllegalArgumentException | NullPointerException e) {
+                results[i] = EntryResult.failed(i, commands.get(i), "Invalid routine ID: " + commands.get(i).routineId());
+            }
+        }
+
+        // 2. Load all routines in one query
+        Set<UUID> ids = new HashSet<>();
+        Set<LocalDate> dates = new HashSet<>();
+        for (int i = 0; i < commands.size(); i++) {
+            if (routineIds[i] != null) {
+                ids.add(routineIds[i]);
+                dates.add(commands.get(i).date());
+            }
+        }
+        Map<UUID, PendingRoutine> routines = new HashMap<>();
+        if (!ids.isEmpty()) {
+            for (RoutineEntity entity : routineRepository.findAllById(ids)) {
+                routines.put(entity.getId(), new PendingRoutine(entity));
+            }
+            // 3. Dates already completed, so duplicates fail per item instead of at flush
+            for (HabitEntryJpaRepository.RoutineDate taken : entryRepository.findDatesByRoutineIdInAndDateIn(ids, dates)) {
+                PendingRoutine pending = routines.get(taken.getRoutineId());
+                if (pending != null) {
+                    pending.completedDates.add(taken.getDate());
+                }
+            }
+        }
+
+        // 4. Apply completions in date order (stable, so same-date items keep request order)
+        Integer[] order = new Integer[commands.size()];
+        Arrays.setAll(order, i -> i);
+        Arrays.sort(order, Comparator.comparing(i -> commands.get(i).date()));
+
+        List<HabitEntryEntity> entries = new ArrayList<>();
+        Map<UUID, Map<LocalDate, Integer>> rollup = new LinkedHashMap<>();
+        for (int i : order) {
+            if (results[i] != null) {
+                continue;
+            }
+            CompleteEntryCommand command = commands.get(i);
+            PendingRoutine pending = routines.get(routineIds[i]);
+            if (pending == null) {
+                results[i] = EntryResult.failed(i, command, "Routine not found: " + command.routineId());
+                continue;
+            }
+            if (!pending.completedDates.add(command.date())) {
+                results[i] = EntryResult.alreadyCompleted(i, command);
+                continue;
+            }
+            try {
+                pending.recordCompletion(command.date());
+            } catch (IllegalArgumentException | IllegalStateException e) {
+                pending.completedDates.remove(command.date());
+                results[i] = EntryResult.failed(i, command, e.getMessage());
+                continue;
+            }
+
+            HabitEntryEntity entry = HabitEntryEntity.builder()
+                    .routine(pending.entity)
+                    .date(command.date())
+                    .completed(true)
+                    .value(command.value())
+                    .notes(command.notes())
+                    .createdAt(Instant.now())
+                    .updatedAt(Instant.now())
+                    .build();
+            entries.add(entry);
+            results[i] = EntryResult.completed(i, command, entry);
+            rollup.computeIfAbsent(pending.entity.getPractitioner().getId(), p -> new TreeMap<>())
+                    .merge(command.date(), 1, Integer::sum);
+        }
+
+        if (entries.isEmpty()) {
+            return List.of(results);
+        }
+
+        // 5. Copy new streaks onto the managed routines; dirty checking writes them at flush
+        for (PendingRoutine pending : routines.values()) {
+            if (pending.changed) {
+                routineMapper.updateState(pending.routine, pending.entity);
+                routineMapper.setCompletionBitmap(pending.entity, pending.bitmap);
+            }
+        }
+        // Routines first, so concurrent writers queue on their row locks (see CompleteEntryUseCase)
+        routineRepository.flush();
+
+        // 6. Insert entries; the flush sends inserts and updates as JDBC batches
+        try {
+            entryRepository.saveAll(entries);
+            entryRepository.flush();
+        } catch (DataIntegrityViolationException e) {
+            if (CompleteEntryUseCase.isDuplicateEntry(e)) {
+                // Completed concurrently: retried like a version conflict, then reported per item
+                throw new OptimisticLockingFailureException("Entries were completed concurrently", e);
+            }
+            throw e;
+        }
+
+        // 7. Update daily completion rollups (same transaction) and invalidate analytics once committed
+        rollup.forEach((practitionerId, counts) -> {
+            counts.forEach((date, count) -> dailyCompletionRepository.addCompletions(practitionerId, date, count));
+            eventPublisher.publishEvent(new PractitionerDataChangedEvent(practitionerId));
+        });
+
+        return List.of(results);
+    }
+
+    /**
+     * A loaded routine and the completions applied to it so far.
+     */
+    private final class PendingRoutine {
+        private final RoutineEntity entity;
+        private final Routine routine;
+        private final Set<LocalDate> completedDates = new HashSet<>();
+        private CompletionBitmap bitmap;
+        private boolean changed;
+
+        private PendingRoutine(RoutineEntity entity) {
+            this.entity = entity;
+            this.routine = routineMapper.toDomain(entity);
+            this.bitmap = routineMapper.toCompletionBitmap(entity);
+        }
+
+        /**
+         * Records a completion on the domain routine, marks it in the bitmap and corrects the streak.
+         * A day outside the bitmap drops it, so readers fall back to habit_entries.
+         */
+        private void recordCompletion(LocalDate date) {
+            HabitStreak before = routine.getStreak();
+            routine.recordCompletion(date);
+            changed = true;
+            if (bitmap != null) {
+                int offset = CompletionBitmap.offsetOf(entity.getStartDate(), date);
+                bitmap = CompletionBitmap.inRange(offset) ? bitmap.withCompleted(offset) : null;
+            }
+            CompletionBitmap marked = bitmap;
+            routine.replaceStreak(streakRebuilder.afterCompletion(before, routine.getRecurrenceRule(),
+                    routine.getStartDate(), routine.getExpectedEndDate(), date,
+                    () -> CompleteEntryUseCase.entryDays(entryRepository, entity, marked, completedDates)));
+        }
+    }
+
+    // DTOs
+
+    /**
+     * Outcome of one item of a batch.
+     *
+     * @param index position of the item in the request
+     * @param routineId the routine, as sent
+     * @param date the completion date
+     * @param entry the created entry (null if the item failed)
+     * @param error why the item failed (null if it was completed)
+     * @param alreadyCompleted whether it failed only because the routine already has an entry
+     *        for the date, so resending it can never succeed
+     */
+    public record EntryResult(
+            int index,
+            String routineId,
+            LocalDate date,
+            HabitEntryEntity entry,
+            String error,
+            boolean alreadyCompleted
+    ) {
+        static EntryResult completed(int index, CompleteEntryCommand command, HabitEntryEntity entry) {
+            return new EntryResult(index, command.routineId(), command.date(), entry, null, false);
+        }
+
+        static EntryResult failed(int index, CompleteEntryCommand command, String error) {
+            return new EntryResult(index, command.routineId(), command.date(), null, error, false);
+        }
+
+        static EntryResult alreadyCompleted(int index, CompleteEntryCommand command) {
+            return new EntryResult(index, command.routineId(), command.date(), null,
+                    "Already completed on " + command.date(), true);
+        }
+
+        public boolean isCompleted() {
+            return entry != null;
+        }
+    }
+}
@@ -4,14 +4,28 @@ import com.ctoblue.plan91.adapter.out.persistence.entity.HabitEntryEntity;
 import com.ctoblue.plan91.adapter.out.persistence.entity.RoutineEntity;
 import com.ctoblue.plan91.adapter.out.persistence.mapper.RoutineMapper;
 import com.ctoblue.plan91.adapter.out.persistence.repository.HabitEntryJpaRepository;
+import com.ctoblue.plan91.adapter.out.persistence.repository.PractitionerDailyCompletionJpaRepository;
 import com.ctoblue.plan91.adapter.out.persistence.repository.RoutineJpaRepository;
+import com.ctoblue.plan91.application.usecase.analytics.PractitionerDataChangedEvent;
+import com.ctoblue.plan91.domain.routine.CompletionBitmap;
+import com.ctoblue.plan91.domain.routine.HabitStreak;
 import com.ctoblue.plan91.domain.routine.Routine;
-import com.ctoblue.plan91.domain.routine.RoutineId;
+import com.ctoblue.plan91.domain.routine.service.StreakRebuilder;
+import com.ctoblue.plan91.domain.shared.EpochDays;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
 import java.util.UUID;
+import java.util.stream.IntStream;
 
 /**
  * Use case for completing a daily habit entry.
@@ -20,56 +34,87 @@ import java.util.UUID;
  * <ul>
  *   <li>Records the completion in habit_entries table</li>
  *   <li>Updates the routine's streak tracking</li>
- *   <li>Handles the one-strike rule</li>
+ *   <li>Handles the one-strike rule, for missed days since the last completion</li>
+ *   <li>Rebuilds the streak when a date before the last completion is backfilled</li>
+ *   <li>Sets the day's bit in the routine's completion bitmap</li>
+ *   <li>Bumps the practitioner's daily completion rollup</li>
+ *   <li>Announces the change so cached analytics are dropped</li>
  * </ul>
+ *
+ * <p>The routine is loaded once and updated in place, so a completion costs one SELECT,
+ * the entry INSERT, one routine UPDATE from dirty checking and the rollup upsert.
+ * A second completion on the same date is rejected by the
+ * {@value HabitEntryEntity#UNIQUE_ROUTINE_DATE} constraint rather than a pre-check.
+ * A backfill rebuilds from the bitmap, or from one more SELECT of entry dates for a routine without one.
+ *
+ * <p>Two devices completing the same routine at once both read the same streak. The routine's
+ * version column makes the second UPDATE fail instead of overwriting the first, and the whole
+ * transaction is retried against the fresh streak by {@link RetryingTransaction}.
  */
 @Service
 public class CompleteEntryUseCase {
 
     private final RoutineJpaRepository routineRepository;
     private final HabitEntryJpaRepository entryRepository;
+    private final PractitionerDailyCompletionJpaRepository dailyCompletionRepository;
     private final RoutineMapper routineMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final RetryingTransaction retryingTransaction;
+    private final StreakRebuilder streakRebuilder = new StreakRebuilder();
 
     public CompleteEntryUseCase(
             RoutineJpaRepository routineRepository,
             HabitEntryJpaRepository entryRepository,
-            RoutineMapper routineMapper) {
+            PractitionerDailyCompletionJpaRepository dailyCompletionRepository,
+            RoutineMapper routineMapper,
+            ApplicationEventPublisher eventPublisher,
+            RetryingTransaction retryingTransaction) {
         this.routineRepository = routineRepository;
         this.entryRepository = entryRepository;
+        this.dailyCompletionRepository = dailyCompletionRepository;
         this.routineMapper = routineMapper;
+        this.eventPublisher = eventPublisher;
+        this.retryingTransaction = retryingTransaction;
     }
 
     /**
-     * Completes a habit entry.
+     * Completes a habit entry, retrying if the routine was updated concurrently.
      *
      * @param command the completion command
      * @return the created entry entity
      * @throws IllegalArgumentException if routine not found or already completed today
+     * @throws OptimisticLockingFailureException if the routine kept changing for every attempt
      */
-    @Transactional
     public HabitEntryEntity execute(CompleteEntryCommand command) {
-        // 1. Validate routine exists
+        return retryingTransaction.execute(status -> complete(command));
+    }
+
+    /**
+     * Completes a habit entry in the current transaction.
+     */
+    private HabitEntryEntity complete(CompleteEntryCommand command) {
+        // 1. Validate routine exists (managed from here on)
         UUID routineId = UUID.fromString(command.routineId());
         RoutineEntity routineEntity = routineRepository.findById(routineId)
                 .orElseThrow(() -> new IllegalArgumentException("Routine not found: " + routineId));
 
-        // 2. Check if already completed on this date
-        if (entryRepository.existsByRoutineIdAndDate(routineId, command.date())) {
-            throw new IllegalArgumentException("Already completed on " + command.date());
-        }
-
-        // 3. Convert to domain and record completion
+        // 2. Convert to domain and record completion, then correct the streak for gaps and backfills
         Routine routine = routineMapper.toDomain(routineEntity);
+        HabitStreak before = routine.getStreak();
         routine.recordCompletion(command.date());
+        CompletionBitmap bitmap = nextBitmap(routineEntity, command);
+        routine.replaceStreak(streakRebuilder.afterCompletion(before, routine.getRecurrenceRule(),
+                routine.getStartDate(), routine.getExpectedEndDate(), command.date(),
+                () -> entryDays(entryRepository, routineEntity, bitmap, Set.of(command.date()))));
 
-        // 4. Update routine entity with new streak
-        RoutineEntity updatedRoutine = routineMapper.toEntity(routine);
-        updatedRoutine.setId(routineEntity.getId());
-        updatedRoutine.setHabit(routineEntity.getHabit());
-        updatedRoutine.setPractitioner(routineEntity.getPractitioner());
-        routineRepository.save(updatedRoutine);
+        // 3. Copy the new streak onto the managed entity; dirty checking writes it at flush.
+        // Flushed before the entry so a concurrent completion waits on this row and then fails
+        // its version check, rather than deadlocking against the entry's foreign-key lock.
+        routineMapper.updateState(routine, routineEntity);
+        routineMapper.setCompletionBitmap(routineEntity, bitmap);
+        routineRepository.flush();
 
-        // 5. Create habit entry
+        // 4. Create habit entry
         HabitEntryEntity entry = HabitEntryEntity.builder()
                 .routine(routineEntity)
                 .date(command.date())
@@ -80,7 +125,71 @@ public class CompleteEntryUseCase {
                 .updatedAt(Instant.now())
                 .build();
 
-        // 6. Save and return
-        return entryRepository.save(entry);
+        // 5. Save entry, flushing so a duplicate date surfaces here
+        HabitEntryEntity saved;
+        try {
+            saved = entryRepository.saveAndFlush(entry);
+        } catch (DataIntegrityViolationException e) {
+            if (isDuplicateEntry(e)) {
+                throw new IllegalArgumentException("Already completed on " + command.date());
+            }
+            throw e;
+        }
+
+        // 6. Update daily completion rollup (same transaction)
+        UUID practitionerId = routineEntity.getPractitioner().getId();
+        dailyCompletionRepository.incrementCompletions(practitionerId, command.date());
+
+        // 7. Invalidate analytics once committed
+        eventPublisher.publishEvent(new PractitionerDataChangedEvent(practitionerId));
+
+        return saved;
+    }
+
+    /**
+     * Checks whether a write failed on the one-entry-per-routine-and-date constraint.
+     * MySQL reports the key qualified with its table, so the name is matched as a suffix.
+     */
+    static boolean isDuplicateEntry(DataIntegrityViolationException e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation && violation.getConstraintName() != null) {
+                return violation.getConstraintName().toLowerCase(Locale.ROOT)
+                        .endsWith(HabitEntryEntity.UNIQUE_ROUTINE_DATE);
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Epoch days of a routine's entries, including completions not yet inserted, ascending.
+     * Read from the routine's bitmap when it has one (already marked with the pending days),
+     * otherwise from habit_entries.
+     */
+    static int[] entryDays(HabitEntryJpaRepository entryRepository, RoutineEntity routineEntity,
+                           CompletionBitmap bitmap, Collection<LocalDate> pending) {
+        if (bitmap != null) {
+            return bitmap.completedEpochDays(routineEntity.getStartDate());
+        }
+        return IntStream.concat(
+                        entryRepository.findDatesByRoutineIdIn(List.of(routineEntity.getId())).stream()
+                                .mapToInt(row -> EpochDays.of(row.getDate())),
+                        pending.stream().mapToInt(EpochDays::of))
+                .sorted()
+                .distinct()
+                .toArray();
+    }
+
+    /**
+     * Marks the completed day in the routine's bitmap.
+     * Returns null (no bitmap) if the routine has none or the day falls outside it,
+     * so readers fall back to habit_entries.
+     */
+    private CompletionBitmap nextBitmap(RoutineEntity routineEntity, CompleteEntryCommand command) {
+        CompletionBitmap bitmap = routineMapper.toCompletionBitmap(routineEntity);
+        int offset = CompletionBitmap.offsetOf(routineEntity.getStartDate(), command.date());
+        if (bitmap == null || !CompletionBitmap.inRange(offset)) {
+            return null;
+        }
+        return bitmap.withCompleted(offset);
     }
 }
@@ -0,0 +1,146 @@
+package com.ctoblue.plan91.application.usecase.routine;
+
+import com.ctoblue.plan91.adapter.out.persistence.entity.RoutineEntity;
+import com.ctoblue.plan91.adapter.out.persistence.mapper.RoutineMapper;
+import com.ctoblue.plan91.adapter.out.persistence.repository.HabitEntryJpaRepository;
+import com.ctoblue.plan91.adapter.out.persistence.repository.RoutineJpaRepository;
+import com.ctoblue.plan91.domain.routine.RoutineId;
+import com.ctoblue.plan91.domain.routine.RoutineStatus;
+import com.ctoblue.plan91.domain.routine.service.BulkProgressEvaluator;
+import com.ctoblue.plan91.domain.routine.service.ProgressReport;
+import com.ctoblue.plan91.domain.shared.EpochDays;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.BiConsumer;
+
+/**
+ * Use case for evaluating the progress of every active routine, for nightly reports and exports.
+ *
+ * <p>Routines are read in ID order, one chunk at a time, each with its entry dates from a
+ * single query. Each chunk is evaluated in parallel by {@link BulkProgressEvaluator}. Reports
+ * are handed to the caller as they are produced. There is deliberately no surrounding
+ * transaction, so each chunk's entities are released before the next is read and memory
+ * stays bounded by the chunk size.
+ */
+@Service
+public class EvaluateRoutineProgressUseCase {
+
+    static final int CHUNK_SIZE = 500;
+
+    private final RoutineJpaRepository routineRepository;
+    private final HabitEntryJpaRepository entryRepository;
+    private final RoutineMapper routineMapper;
+    private final BulkProgressEvaluator evaluator = new BulkProgressEvaluator();
+
+    public EvaluateRoutineProgressUseCase(
+            RoutineJpaRepository routineRepository,
+            HabitEntryJpaRepository entryRepository,
+            RoutineMapper routineMapper) {
+        this.routineRepository = routineRepository;
+        this.entryRepository = entryRepository;
+        this.routineMapper = routineMapper;
+    }
+
+    /**
+     * Evaluates every active routine as of a date.
+     *
+     * @param asOfDate compute progress up to this date (inclusive)
+     * @param sink receives each routine's report, on the calling thread
+     * @return totals and throughput of the run
+     */
+    public BulkProgressSummary execute(LocalDate asOfDate, BiConsumer<RoutineId, ProgressReport> sink) {
+        long started = System.nanoTime();
+        int routines = 0;
+        int onTrack = 0;
+
+        List<RoutineEntity> chunk = routineRepository.findByStatusOrderByIdAsc(
+                RoutineStatus.ACTIVE, Limit.of(CHUNK_SIZE));
+        while (!chunk.isEmpty()) {
+            Map<RoutineId, ProgressReport> reports = evaluator.evaluate(toBatch(chunk), asOfDate);
+            for (Map.Entry<RoutineId, ProgressReport> report : reports.entrySet()) {
+                sink.accept(report.getKey(), report.getValue());
+                if (report.getValue().onTrack()) {
+                    onTrack++;
+                }
+            }
+            routines += reports.size();
+
+            if (chunk.size() < CHUNK_SIZE) {
+                break;
+            }
+            UUID lastId = chunk.get(chunk.size() - 1).getId();
+            chunk = routineRepository.findByStatusAndIdGreaterThanOrderByIdAsc(
+                    RoutineStatus.ACTIVE, lastId, Limit.of(CHUNK_SIZE));
+        }
+
+        return new BulkProgressSummary(routines, onTrack, Duration.ofNanos(System.nanoTime() - started));
+    }
+
+    private List<BulkProgressEvaluator.RoutineEntries> toBatch(List<RoutineEntity> chunk) {
+        Map<UUID, int[]> entryDays = entryDaysByRoutine(entryRepository, chunk);
+
+        List<BulkProgressEvaluator.RoutineEntries> batch = new ArrayList<>(chunk.size());
+        for (RoutineEntity routine : chunk) {
+            batch.add(new BulkProgressEvaluator.RoutineEntries(
+                    routineMapper.toDomain(routine),
+                    entryDays.getOrDefault(routine.getId(), new int[0])));
+        }
+        return batch;
+    }
+
+    /**
+     * Loads the entry days of a chunk of routines with one query, as ascending epoch days per routine.
+     * Routines without entries are absent from the map.
+     */
+    static Map<UUID, int[]> entryDaysByRoutine(HabitEntryJpaRepository entryRepository, List<RoutineEntity> chunk) {
+        List<UUID> routineIds = new ArrayList<>(chunk.size());
+        for (RoutineEntity routine : chunk) {
+            routineIds.add(routine.getId());
+        }
+
+        // Rows arrive grouped by routine and ordered by date, so each array is already ascending
+        Map<UUID, int[]> entryDays = new HashMap<>(chunk.size() * 2);
+        List<HabitEntryJpaRepository.RoutineDate> rows = entryRepository.findDatesByRoutineIdIn(routineIds);
+        int from = 0;
+        while (from < rows.size()) {
+            UUID routineId = rows.get(from).getRoutineId();
+            int to = from;
+            while (to < rows.size() && rows.get(to).getRoutineId().equals(routineId)) {
+                to++;
+            }
+            int[] days = new int[to - from];
+            for (int i = from; i < to; i++) {
+                days[i - from] = EpochDays.of(rows.get(i).getDate());
+            }
+            entryDays.put(routineId, days);
+            from = to;
+        }
+        return entryDays;
+    }
+
+    /**
+     * Totals of a bulk evaluation.
+     *
+     * @param routines routines evaluated
+     * @param onTrack routines on track
+     * @param elapsed wall time of the run, including database reads
+     */
+    public record BulkProgressSummary(int routines, int onTrack, Duration elapsed) {
+
+        /**
+         * Returns routines evaluated per second of wall time.
+         */
+        public double routinesPerSecond() {
+            long nanos = elapsed.toNanos();
+            return nanos == 0 ? 0 : routines * 1_000_000_000.0 / nanos;
+        }
+    }
+}
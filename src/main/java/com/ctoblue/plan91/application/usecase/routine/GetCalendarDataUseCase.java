@@ -2,37 +2,52 @@ package com.ctoblue.plan91.application.usecase.routine;
 
 import com.ctoblue.plan91.adapter.out.persistence.entity.HabitEntryEntity;
 import com.ctoblue.plan91.adapter.out.persistence.entity.RoutineEntity;
+import com.ctoblue.plan91.adapter.out.persistence.mapper.RoutineMapper;
 import com.ctoblue.plan91.adapter.out.persistence.repository.HabitEntryJpaRepository;
 import com.ctoblue.plan91.adapter.out.persistence.repository.RoutineJpaRepository;
+import com.ctoblue.plan91.domain.routine.CompletionBitmap;
+import com.ctoblue.plan91.domain.routine.RecurrenceRule;
+import com.ctoblue.plan91.domain.routine.service.RecurrenceCalculatorService;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.time.YearMonth;
-import java.util.ArrayList;
+import java.time.temporal.ChronoUnit;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
 /**
  * Use case for getting calendar data for a routine.
  *
- * <p>Returns all entries for a specific month, along with scheduled days
- * based on the routine's recurrence pattern.
+ * <p>Returns all entries for a specific month (or an arbitrary range, e.g. the whole
+ * 91-day cycle), along with scheduled days based on the routine's recurrence pattern.
+ * The month's completed-day count comes from the routine's completion bitmap when it has one.
+ * Only completions on scheduled days are counted, so the completion rate never exceeds 100%.
  *
  * <p>Epic 07: Routine Progress & Visualization
  */
 @Service
 public class GetCalendarDataUseCase {
 
+    /** Longest range served in one request. */
+    public static final int MAX_RANGE_DAYS = 366;
+
     private final RoutineJpaRepository routineRepository;
     private final HabitEntryJpaRepository entryRepository;
+    private final RoutineMapper routineMapper;
+    private final RecurrenceCalculatorService recurrenceCalculator = new RecurrenceCalculatorService();
 
     public GetCalendarDataUseCase(
             RoutineJpaRepository routineRepository,
-            HabitEntryJpaRepository entryRepository) {
+            HabitEntryJpaRepository entryRepository,
+            RoutineMapper routineMapper) {
         this.routineRepository = routineRepository;
         this.entryRepository = entryRepository;
+        this.routineMapper = routineMapper;
     }
 
     /**
@@ -55,30 +70,26 @@ public class GetCalendarDataUseCase {
         RoutineEntity routine = routineRepository.findById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Routine not found: " + routineId));
 
-        // 3. Get entries for this month
+        // 3. Get entries for this month (values and notes are shown per day)
         List<HabitEntryEntity> entries = entryRepository.findByRoutineIdAndDateBetween(id, firstDay, lastDay);
 
         // 4. Calculate scheduled days for this month based on recurrence
         List<LocalDate> scheduledDays = calculateScheduledDays(routine, firstDay, lastDay);
 
         // 5. Calculate stats
-        long completedDays = entries.stream().filter(HabitEntryEntity::getCompleted).count();
+        CompletionBitmap bitmap = routineMapper.toCompletionBitmap(routine);
+        long completedDays = bitmap != null
+                ? scheduledDays.stream()
+                        .filter(day -> bitmap.isCompleted(CompletionBitmap.offsetOf(routine.getStartDate(), day)))
+                        .count()
+                : countCompletedOnScheduledDays(entries, scheduledDays);
         double completionRate = scheduledDays.isEmpty() ? 0 : (completedDays * 100.0) / scheduledDays.size();
 
         // 6. Build calendar data
-        List<CalendarEntry> calendarEntries = entries.stream()
-                .map(e -> new CalendarEntry(
-                        e.getDate(),
-                        e.getCompleted(),
-                        e.getValue(),
-                        e.getNotes()
-                ))
-                .collect(Collectors.toList());
-
         return new CalendarData(
                 routineId,
                 yearMonth,
-                calendarEntries,
+                toCalendarEntries(entries),
                 scheduledDays,
                 new MonthStats(
                         ym.lengthOfMonth(),
@@ -89,28 +100,94 @@ public class GetCalendarDataUseCase {
     }
 
     /**
-     * Calculates which days in the month are scheduled based on recurrence rule.
-     * Simplified version - returns all days in range for now.
-     * TODO: Implement full recurrence pattern logic (DAILY, WEEKDAYS, SPECIFIC_DAYS, etc.)
+     * Gets calendar data for a routine over a date range, in one query.
+     *
+     * <p>The range is clipped to the routine's cycle before reading entries, so asking for
+     * a cycle's start and expected end returns everything the calendar can show for it.
+     *
+     * @param routineId the routine's ID
+     * @param from first day of the range (inclusive)
+     * @param to last day of the range (inclusive)
+     * @return calendar data for the range
+     * @throws IllegalArgumentException if routine not found, or the range is inverted or
+     *         longer than {@link #MAX_RANGE_DAYS}
      */
-    private List<LocalDate> calculateScheduledDays(RoutineEntity routine, LocalDate start, LocalDate end) {
-        List<LocalDate> scheduled = new ArrayList<>();
+    @Transactional(readOnly = true)
+    public CalendarRange executeRange(String routineId, LocalDate from, LocalDate to) {
+        // 1. Validate range
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("From date must be before or equal to to date");
+        }
+        long totalDays = ChronoUnit.DAYS.between(from, to) + 1;
+        if (totalDays > MAX_RANGE_DAYS) {
+            throw new IllegalArgumentException("Calendar range cannot exceed " + MAX_RANGE_DAYS + " days");
+        }
+
+        // 2. Get routine
+        UUID id = UUID.fromString(routineId);
+        RoutineEntity routine = routineRepository.findById(id)
+                .orElseThrow(() -> new IllegalArgumentException("Routine not found: " + routineId));
+
+        // 3. Get entries for the part of the range inside the cycle
+        LocalDate first = from.isBefore(routine.getStartDate()) ? routine.getStartDate() : from;
+        LocalDate last = to.isAfter(routine.getExpectedEndDate()) ? routine.getExpectedEndDate() : to;
+        List<HabitEntryEntity> entries = first.isAfter(last)
+                ? List.of()
+                : entryRepository.findByRoutineIdAndDateBetween(id, first, last);
+
+        // 4. Scheduled days and stats
+        List<LocalDate> scheduledDays = calculateScheduledDays(routine, from, to);
+        int completedDays = countCompletedOnScheduledDays(entries, scheduledDays);
+        double completionRate = scheduledDays.isEmpty() ? 0 : (completedDays * 100.0) / scheduledDays.size();
+
+        return new CalendarRange(
+                routineId,
+                from,
+                to,
+                toCalendarEntries(entries),
+                scheduledDays,
+                new RangeStats((int) totalDays, scheduledDays.size(), completedDays, completionRate)
+        );
+    }
 
-        // Only include days within the routine's active period
+    /**
+     * Calculates which days in a range are scheduled, from the routine's recurrence rule,
+     * limited to the routine's active period.
+     */
+    private List<LocalDate> calculateScheduledDays(RoutineEntity routine, LocalDate start, LocalDate end) {
         LocalDate routineStart = routine.getStartDate();
         LocalDate routineEnd = routine.getExpectedEndDate();
 
-        LocalDate current = start.isBefore(routineStart) ? routineStart : start;
+        LocalDate first = start.isBefore(routineStart) ? routineStart : start;
         LocalDate last = end.isAfter(routineEnd) ? routineEnd : end;
-
-        while (!current.isAfter(last)) {
-            // TODO: Check if current day matches recurrence pattern
-            // For now, include all days (assumes DAILY recurrence)
-            scheduled.add(current);
-            current = current.plusDays(1);
+        if (first.isAfter(last)) {
+            return List.of();
         }
 
-        return scheduled;
+        RecurrenceRule rule = routineMapper.toRecurrenceRule(routine.getRecurrenceRule());
+        return recurrenceCalculator.findExpectedDates(rule, first, last);
+    }
+
+    /**
+     * Counts completed entries on scheduled days only; an extra completion on an
+     * unscheduled day would otherwise push the rate past 100%.
+     */
+    private static int countCompletedOnScheduledDays(List<HabitEntryEntity> entries, List<LocalDate> scheduledDays) {
+        Set<LocalDate> scheduled = new HashSet<>(scheduledDays);
+        return (int) entries.stream()
+                .filter(e -> e.getCompleted() && scheduled.contains(e.getDate()))
+                .count();
+    }
+
+    private static List<CalendarEntry> toCalendarEntries(List<HabitEntryEntity> entries) {
+        return entries.stream()
+                .map(e -> new CalendarEntry(
+                        e.getDate(),
+                        e.getCompleted(),
+                        e.getValue(),
+                        e.getNotes()
+                ))
+                .collect(Collectors.toList());
     }
 
     // DTOs
@@ -135,4 +212,20 @@ public class GetCalendarDataUseCase {
             int completedDays,
             double completionRate
     ) {}
+
+    public record CalendarRange(
+            String routineId,
+            LocalDate from,
+            LocalDate to,
+            List<CalendarEntry> entries,
+            List<LocalDate> scheduledDays,
+            RangeStats stats
+    ) {}
+
+    public record RangeStats(
+            int totalDays,
+            int scheduledDays,
+            int completedDays,
+            double completionRate
+    ) {}
 }
@@ -1,9 +1,13 @@
 package com.ctoblue.plan91.application.usecase.routine;
 
-import com.ctoblue.plan91.adapter.out.persistence.entity.HabitEntryEntity;
 import com.ctoblue.plan91.adapter.out.persistence.entity.RoutineEntity;
+import com.ctoblue.plan91.adapter.out.persistence.mapper.RoutineMapper;
 import com.ctoblue.plan91.adapter.out.persistence.repository.HabitEntryJpaRepository;
 import com.ctoblue.plan91.adapter.out.persistence.repository.RoutineJpaRepository;
+import com.ctoblue.plan91.domain.routine.CompletionBitmap;
+import com.ctoblue.plan91.domain.routine.RecurrenceRule;
+import com.ctoblue.plan91.domain.routine.service.WeeklyQuotaEvaluator;
+import com.ctoblue.plan91.domain.shared.EpochDays;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -15,6 +19,10 @@ import java.util.UUID;
 /**
  * Use case for getting routine progress analytics and statistics.
  *
+ * <p>Answers from the routine's completion bitmap when it has one,
+ * otherwise counts its habit entries. Pace of flexible TIMES_PER_WEEK_X routines is
+ * judged against their weekly quota rather than one completion per day.
+ *
  * <p>Epic 07: Routine Progress & Visualization
  */
 @Service
@@ -22,12 +30,16 @@ public class GetRoutineAnalyticsUseCase {
 
     private final RoutineJpaRepository routineRepository;
     private final HabitEntryJpaRepository entryRepository;
+    private final RoutineMapper routineMapper;
+    private final WeeklyQuotaEvaluator weeklyQuotaEvaluator = new WeeklyQuotaEvaluator();
 
     public GetRoutineAnalyticsUseCase(
             RoutineJpaRepository routineRepository,
-            HabitEntryJpaRepository entryRepository) {
+            HabitEntryJpaRepository entryRepository,
+            RoutineMapper routineMapper) {
         this.routineRepository = routineRepository;
         this.entryRepository = entryRepository;
+        this.routineMapper = routineMapper;
     }
 
     /**
@@ -44,21 +56,23 @@ public class GetRoutineAnalyticsUseCase {
         RoutineEntity routine = routineRepository.findById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Routine not found: " + routineId));
 
-        // 2. Get all entries for this routine
-        List<HabitEntryEntity> entries = entryRepository.findByRoutineIdOrderByDateAsc(id);
+        // 2. Count completed days (bitmap when present, entries otherwise)
+        CompletionBitmap bitmap = routineMapper.toCompletionBitmap(routine);
+        int daysCompleted = bitmap != null
+                ? bitmap.count()
+                : (int) entryRepository.countByRoutineId(id);
 
         // 3. Calculate analytics
-        return calculateAnalytics(routine, entries);
+        return calculateAnalytics(routine, daysCompleted, bitmap);
     }
 
-    private RoutineAnalytics calculateAnalytics(RoutineEntity routine, List<HabitEntryEntity> entries) {
+    private RoutineAnalytics calculateAnalytics(RoutineEntity routine, int daysCompleted, CompletionBitmap bitmap) {
         LocalDate today = LocalDate.now();
         LocalDate startDate = routine.getStartDate();
         LocalDate endDate = routine.getExpectedEndDate();
 
         // Progress metrics
         int totalDays = 91;
-        int daysCompleted = entries.size();
         double percentage = (daysCompleted * 100.0) / totalDays;
         int daysRemaining = totalDays - daysCompleted;
 
@@ -77,8 +91,19 @@ public class GetRoutineAnalyticsUseCase {
         // Consistency score (A+ to F based on completion rate)
         String consistencyScore = calculateConsistencyScore(completionRate);
 
-        // Pace calculation
-        String pace = calculatePace(daysCompleted, daysElapsed, totalDays);
+        // Pace calculation (flexible routines against their weekly quota)
+        RecurrenceRule rule = routineMapper.toRecurrenceRule(routine.getRecurrenceRule());
+        String pace;
+        if (rule.isFlexibleWeekly()) {
+            int[] entryDays = bitmap != null
+                    ? bitmap.completedEpochDays(startDate)
+                    : loadEntryDays(routine.getId());
+            WeeklyQuotaEvaluator.WeeklyQuota quota = weeklyQuotaEvaluator.evaluate(
+                    rule, startDate, endDate, entryDays, today);
+            pace = calculatePace(quota.completedDays(), quota.expectedDays());
+        } else {
+            pace = calculatePace(daysCompleted, daysElapsed);  // Should complete once per day
+        }
 
         // Days until completion
         long daysUntilCompletion = ChronoUnit.DAYS.between(today, endDate);
@@ -112,17 +137,21 @@ public class GetRoutineAnalyticsUseCase {
         return "F";
     }
 
-    private String calculatePace(int completed, long elapsed, int total) {
-        if (elapsed == 0) return "on_track";
-
-        double expectedCompleted = (double) elapsed;  // Should complete once per day
-        double actual = completed;
+    private String calculatePace(double completed, double expected) {
+        if (expected == 0) return "on_track";
 
-        if (actual >= expectedCompleted * 0.95) return "on_track";
-        if (actual >= expectedCompleted * 0.80) return "slightly_behind";
+        if (completed >= expected * 0.95) return "on_track";
+        if (completed >= expected * 0.80) return "slightly_behind";
         return "behind";
     }
 
+    private int[] loadEntryDays(UUID routineId) {
+        // Ordered by date, so the days are already ascending
+        return entryRepository.findDatesByRoutineIdIn(List.of(routineId)).stream()
+                .mapToInt(row -> EpochDays.of(row.getDate()))
+                .toArray();
+    }
+
     // DTOs
 
     public record RoutineAnalytics(
@@ -8,6 +8,7 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 /**
@@ -19,6 +20,7 @@ import java.util.UUID;
  *   <li>Getting active routines</li>
  *   <li>Getting routines scheduled for a specific date</li>
  *   <li>Getting a single routine by ID</li>
+ *   <li>Finding a routine's owner</li>
  * </ul>
  */
 @Service
@@ -93,4 +95,15 @@ public class QueryRoutinesUseCase {
         return routineRepository.findByIdWithRelations(id)
                 .orElseThrow(() -> new IllegalArgumentException("Routine not found: " + routineId));
     }
+
+    /**
+     * Finds the practitioner that owns a routine.
+     *
+     * @param routineId the routine's ID
+     * @return the practitioner's ID, or empty if the routine does not exist
+     */
+    @Transactional(readOnly = true)
+    public Optional<UUID> findPractitionerId(String routineId) {
+        return routineRepository.findPractitionerIdById(UUID.fromString(routineId));
+    }
 }
@@ -0,0 +1,166 @@
+package com.ctoblue.plan91.application.usecase.routine;
+
+import com.ctoblue.plan91.adapter.out.persistence.entity.RoutineEntity;
+import com.ctoblue.plan91.adapter.out.persistence.mapper.RoutineMapper;
+import com.ctoblue.plan91.adapter.out.persistence.repository.HabitEntryJpaRepository;
+import com.ctoblue.plan91.adapter.out.persistence.repository.RoutineJpaRepository;
+import com.ctoblue.plan91.application.usecase.analytics.PractitionerDataChangedEvent;
+import com.ctoblue.plan91.domain.routine.HabitStreak;
+import com.ctoblue.plan91.domain.routine.Routine;
+import com.ctoblue.plan91.domain.routine.RoutineStatus;
+import com.ctoblue.plan91.domain.routine.service.StreakRebuilder;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Use case for repairing the streak of every routine from its entries (admin bulk repair).
+ *
+ * <p>Streaks written before completions were gap- and backfill-aware, or by imports and sample
+ * data, may be wrong. Each routine's streak is recomputed by {@link StreakRebuilder} and written
+ * back only if it differs. Routines of every status are read in ID order, one chunk at a time,
+ * each with its entry dates from a single query, as in {@link EvaluateRoutineProgressUseCase}.
+ *
+ * <p>Status is reconciled with the rebuilt streak the same way completions decide it. An ACTIVE
+ * routine whose entries reach its target days is completed. An ACTIVE routine whose entries
+ * miss more expected days than its one strike is not abandoned, since a later backfill may
+ * still fill the gap (see {@link StreakRebuilder}); it is reported in the summary instead, so
+ * an operator can review it.
+ *
+ * <p>Each chunk is repaired in its own transaction, so memory and lock time stay bounded by the
+ * chunk size. A completion racing a chunk fails its version check; the chunk is then re-read and
+ * repaired again, up to {@value RetryingTransaction#MAX_ATTEMPTS} times. Practitioners with a
+ * repaired routine are announced once per chunk, so their cached analytics are dropped when it commits.
+ */
+@Service
+public class RebuildStreaksUseCase {
+
+    static final int CHUNK_SIZE = 500;
+
+    private static final int[] NO_DAYS = new int[0];
+
+    private final RoutineJpaRepository routineRepository;
+    private final HabitEntryJpaRepository entryRepository;
+    private final RoutineMapper routineMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final RetryingTransaction retryingTransaction;
+    private final StreakRebuilder streakRebuilder = new StreakRebuilder();
+
+    public RebuildStreaksUseCase(
+            RoutineJpaRepository routineRepository,
+            HabitEntryJpaRepository entryRepository,
+            RoutineMapper routineMapper,
+            ApplicationEventPublisher eventPublisher,
+            RetryingTransaction retryingTransaction) {
+        this.routineRepository = routineRepository;
+        this.entryRepository = entryRepository;
+        this.routineMapper = routineMapper;
+        this.eventPublisher = eventPublisher;
+        this.retryingTransaction = retryingTransaction;
+    }
+
+    /**
+     * Rebuilds the streak of every routine.
+     *
+     * @return totals of the run
+     */
+    public RebuildSummary execute() {
+        long started = System.nanoTime();
+        int routines = 0;
+        int repaired = 0;
+        int completed = 0;
+        List<UUID> strikesExhausted = new ArrayList<>();
+
+        UUID lastId = null;
+        while (true) {
+            UUID afterId = lastId;
+            ChunkResult chunk = retryingTransaction.execute(status -> repair(afterId));
+            routines += chunk.routines();
+            repaired += chunk.repaired();
+            completed += chunk.completed();
+            strikesExhausted.addAll(chunk.strikesExhausted());
+            if (chunk.routines() < CHUNK_SIZE) {
+                break;
+            }
+            lastId = chunk.lastId();
+        }
+
+        return new RebuildSummary(routines, repaired, completed, strikesExhausted,
+                Duration.ofNanos(System.nanoTime() - started));
+    }
+
+    /**
+     * Repairs one chunk in the current transaction; dirty checking writes the changed routines at commit.
+     */
+    private ChunkResult repair(UUID afterId) {
+        List<RoutineEntity> chunk = afterId == null
+                ? routineRepository.findAllByOrderByIdAsc(Limit.of(CHUNK_SIZE))
+                : routineRepository.findByIdGreaterThanOrderByIdAsc(afterId, Limit.of(CHUNK_SIZE));
+        if (chunk.isEmpty()) {
+            return new ChunkResult(0, 0, 0, List.of(), afterId);
+        }
+
+        Map<UUID, int[]> entryDays = EvaluateRoutineProgressUseCase.entryDaysByRoutine(entryRepository, chunk);
+        int repaired = 0;
+        int completed = 0;
+        List<UUID> strikesExhausted = new ArrayList<>();
+        Set<UUID> practitioners = new LinkedHashSet<>();
+        for (RoutineEntity entity : chunk) {
+            Routine routine = routineMapper.toDomain(entity);
+            int[] days = entryDays.getOrDefault(entity.getId(), NO_DAYS);
+            HabitStreak rebuilt = streakRebuilder.rebuild(routine.getRecurrenceRule(), routine.getStartDate(),
+                    routine.getExpectedEndDate(), days);
+            boolean changed = false;
+            if (!rebuilt.equals(routine.getStreak())) {
+                routine.replaceStreak(rebuilt);
+                repaired++;
+                changed = true;
+            }
+            if (routine.completeIfTargetReached()) {
+                completed++;
+                changed = true;
+            } else if (routine.getStatus() == RoutineStatus.ACTIVE && streakRebuilder.countMisses(
+                    routine.getRecurrenceRule(), routine.getStartDate(), routine.getExpectedEndDate(), days) > 1) {
+                strikesExhausted.add(entity.getId());
+            }
+            if (changed) {
+                routineMapper.updateState(routine, entity);
+                practitioners.add(entity.getPractitioner().getId());
+            }
+        }
+
+        // Invalidate analytics of the affected practitioners once this chunk commits
+        practitioners.forEach(id -> eventPublisher.publishEvent(new PractitionerDataChangedEvent(id)));
+
+        return new ChunkResult(chunk.size(), repaired, completed, strikesExhausted,
+                chunk.get(chunk.size() - 1).getId());
+    }
+
+    /**
+     * Outcome of one chunk.
+     */
+    private record ChunkResult(int routines, int repaired, int completed, List<UUID> strikesExhausted, UUID lastId) {
+    }
+
+    /**
+     * Totals of a bulk rebuild.
+     *
+     * @param routines routines scanned
+     * @param repaired routines whose stored streak was wrong and has been rewritten
+     * @param completed ACTIVE routines whose entries reach their target days, now COMPLETED
+     * @param strikesExhausted IDs of ACTIVE routines whose entries miss more than one expected
+     *                         day, left ACTIVE for review
+     * @param elapsed wall time of the run, including database reads and writes
+     */
+    public record RebuildSummary(int routines, int repaired, int completed, List<UUID> strikesExhausted,
+                                 Duration elapsed) {
+    }
+}
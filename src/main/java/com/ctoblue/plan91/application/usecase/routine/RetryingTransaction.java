@@ -0,0 +1,70 @@
+package com.ctoblue.plan91.application.usecase.routine;
+
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Runs work in its own transaction, retrying it in a fresh one when it loses a race on a
+ * routine's version column.
+ *
+ * <p>Shared by every writer of routine streaks ({@link CompleteEntryUseCase},
+ * {@link CompleteEntriesUseCase}, {@link SyncEntriesUseCase}, {@link RebuildStreaksUseCase}),
+ * so they all give up after the same {@value #MAX_ATTEMPTS} attempts.
+ *
+ * <p>Between attempts it waits a random time below a bound that doubles each attempt, starting
+ * at {@value #BASE_BACKOFF_MILLIS} ms. Writers that collided then retry at different moments
+ * instead of racing again straight away.
+ */
+@Component
+public class RetryingTransaction {
+
+    /** Attempts before a version conflict is given up on. */
+    static final int MAX_ATTEMPTS = 5;
+
+    /** Upper bound of the wait after the first conflict; doubled after each later one. */
+    static final long BASE_BACKOFF_MILLIS = 10;
+
+    private final TransactionTemplate transactionTemplate;
+
+    public RetryingTransaction(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Runs the action in a new transaction, retrying it on a version conflict.
+     *
+     * @param action the work; rerun from scratch on each attempt, so it must re-read what it updates
+     * @return the action's result
+     * @throws OptimisticLockingFailureException if the action conflicted on every attempt
+     */
+    public <T> T execute(TransactionCallback<T> action) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(action);
+            } catch (OptimisticLockingFailureException e) {
+                if (attempt >= MAX_ATTEMPTS) {
+                    throw e;
+                }
+                backOff(attempt, e);
+            }
+        }
+    }
+
+    /**
+     * Sleeps a random time before the next attempt. An interrupted wait gives up with the conflict.
+     */
+    private static void backOff(int attempt, OptimisticLockingFailureException conflict) {
+        long bound = BASE_BACKOFF_MILLIS << (attempt - 1);
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(1, bound + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw conflict;
+        }
+    }
+}
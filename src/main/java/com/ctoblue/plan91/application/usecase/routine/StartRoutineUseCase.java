@@ -3,22 +3,23 @@ package com.ctoblue.plan91.application.usecase.routine;
 import com.ctoblue.plan91.adapter.out.persistence.entity.HabitEntity;
 import com.ctoblue.plan91.adapter.out.persistence.entity.HabitPractitionerEntity;
 import com.ctoblue.plan91.adapter.out.persistence.entity.RoutineEntity;
+import com.ctoblue.plan91.adapter.out.persistence.mapper.RecurrenceRuleCache;
 import com.ctoblue.plan91.adapter.out.persistence.mapper.RoutineMapper;
 import com.ctoblue.plan91.adapter.out.persistence.repository.HabitJpaRepository;
 import com.ctoblue.plan91.adapter.out.persistence.repository.HabitPractitionerJpaRepository;
 import com.ctoblue.plan91.adapter.out.persistence.repository.RoutineJpaRepository;
+import com.ctoblue.plan91.application.usecase.analytics.PractitionerDataChangedEvent;
 import com.ctoblue.plan91.domain.habit.HabitId;
 import com.ctoblue.plan91.domain.habitpractitioner.HabitPractitionerId;
-import com.ctoblue.plan91.domain.routine.DayOfWeek;
+import com.ctoblue.plan91.domain.routine.CompletionBitmap;
 import com.ctoblue.plan91.domain.routine.RecurrenceRule;
 import com.ctoblue.plan91.domain.routine.RecurrenceType;
 import com.ctoblue.plan91.domain.routine.Routine;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.Set;
 import java.util.UUID;
-import java.util.stream.Collectors;
 
 /**
  * Use case for starting a new 91-day routine.
@@ -33,16 +34,19 @@ public class StartRoutineUseCase {
     private final HabitJpaRepository habitRepository;
     private final HabitPractitionerJpaRepository practitionerRepository;
     private final RoutineMapper routineMapper;
+    private final ApplicationEventPublisher eventPublisher;
 
     public StartRoutineUseCase(
             RoutineJpaRepository routineRepository,
             HabitJpaRepository habitRepository,
             HabitPractitionerJpaRepository practitionerRepository,
-            RoutineMapper routineMapper) {
+            RoutineMapper routineMapper,
+            ApplicationEventPublisher eventPublisher) {
         this.routineRepository = routineRepository;
         this.habitRepository = habitRepository;
         this.practitionerRepository = practitionerRepository;
         this.routineMapper = routineMapper;
+        this.eventPublisher = eventPublisher;
     }
 
     /**
@@ -82,42 +86,34 @@ public class StartRoutineUseCase {
         // 6. Set relationships (mapper ignores these)
         routineEntity.setHabit(habit);
         routineEntity.setPractitioner(practitioner);
+        if (CompletionBitmap.supports(routine.getTargetDays())) {
+            routineMapper.setCompletionBitmap(routineEntity, CompletionBitmap.empty());
+        }
 
-        // 7. Save and return
-        return routineRepository.save(routineEntity);
+        // 7. Save
+        RoutineEntity saved = routineRepository.save(routineEntity);
+
+        // 8. Invalidate analytics once committed
+        eventPublisher.publishEvent(new PractitionerDataChangedEvent(practitionerId));
+
+        return saved;
     }
 
     /**
-     * Builds a RecurrenceRule from the command.
+     * Builds a RecurrenceRule from the command, shared through {@link RecurrenceRuleCache}.
      */
     private RecurrenceRule buildRecurrenceRule(StartRoutineCommand command) {
         RecurrenceType type = command.recurrenceType();
 
-        return switch (type) {
-            case DAILY -> RecurrenceRule.daily();
-            case WEEKDAYS -> RecurrenceRule.weekdays();
-            case WEEKENDS -> RecurrenceRule.weekends();
-            case SPECIFIC_DAYS -> {
-                if (command.specificDays() == null || command.specificDays().isEmpty()) {
-                    throw new IllegalArgumentException("Specific days required for SPECIFIC_DAYS recurrence");
-                }
-                Set<DayOfWeek> days = command.specificDays().stream()
-                        .map(DayOfWeek::valueOf)
-                        .collect(Collectors.toSet());
-                yield RecurrenceRule.specificDays(days);
-            }
-            case NTH_DAY_OF_MONTH -> {
-                if (command.nthDay() == null || command.nthWeek() == null) {
-                    throw new IllegalArgumentException("nthDay and nthWeek required for NTH_DAY_OF_MONTH recurrence");
-                }
-                DayOfWeek day = DayOfWeek.valueOf(command.nthDay());
-                yield RecurrenceRule.nthDayOfMonth(day, command.nthWeek());
-            }
-            case TIMES_PER_WEEK_1 -> RecurrenceRule.timesPerWeek(1);
-            case TIMES_PER_WEEK_3 -> RecurrenceRule.timesPerWeek(3);
-            case TIMES_PER_WEEK_4 -> RecurrenceRule.timesPerWeek(4);
-            case TIMES_PER_WEEK_5 -> RecurrenceRule.timesPerWeek(5);
-            case TIMES_PER_WEEK_6 -> RecurrenceRule.timesPerWeek(6);
-        };
+        if (type == RecurrenceType.SPECIFIC_DAYS
+                && (command.specificDays() == null || command.specificDays().isEmpty())) {
+            throw new IllegalArgumentException("Specific days required for SPECIFIC_DAYS recurrence");
+        }
+        if (type == RecurrenceType.NTH_DAY_OF_MONTH
+                && (command.nthDay() == null || command.nthWeek() == null)) {
+            throw new IllegalArgumentException("nthDay and nthWeek required for NTH_DAY_OF_MONTH recurrence");
+        }
+
+        return RecurrenceRuleCache.fromDayNames(type, command.specificDays(), command.nthDay(), command.nthWeek());
     }
 }
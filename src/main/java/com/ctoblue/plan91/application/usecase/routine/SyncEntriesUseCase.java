@@ -0,0 +1,208 @@
+package com.ctoblue.plan91.application.usecase.routine;
+
+import com.ctoblue.plan91.adapter.out.persistence.entity.EntrySyncKeyEntity;
+import com.ctoblue.plan91.adapter.out.persistence.repository.EntrySyncKeyJpaRepository;
+import com.ctoblue.plan91.application.usecase.routine.CompleteEntriesUseCase.EntryResult;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Use case for replaying completions queued by an offline (PWA) client.
+ *
+ * <p>Each completion carries a client-generated idempotency key. A key seen before is answered
+ * with the entry it created, so a client can resend its whole queue after a dropped connection.
+ * New completions go through {@link CompleteEntriesUseCase} (date order per routine, batched
+ * writes) and their keys are recorded in the same transaction. A completion whose routine
+ * already has an entry for the date (sent under another key, or from another device) is
+ * answered {@link SyncStatus#ALREADY_COMPLETED}, so the client drops it instead of resending.
+ *
+ * <p>Callers stream a queue through in chunks of at most {@link #CHUNK_SIZE}, one transaction
+ * each, so memory stays bounded however long the queue is. A queue recorded in date order
+ * therefore stays in date order across chunks.
+ *
+ * <p>A chunk that loses a race with another completion is retried in a fresh transaction, up to
+ * {@value RetryingTransaction#MAX_ATTEMPTS} times, keys and entries together.
+ */
+@Service
+public class SyncEntriesUseCase {
+
+    /** Largest chunk synced in one transaction. */
+    public static final int CHUNK_SIZE = CompleteEntriesUseCase.MAX_BATCH_SIZE;
+
+    private final CompleteEntriesUseCase completeEntriesUseCase;
+    private final EntrySyncKeyJpaRepository syncKeyRepository;
+    private final RetryingTransaction retryingTransaction;
+
+    public SyncEntriesUseCase(
+            CompleteEntriesUseCase completeEntriesUseCase,
+            EntrySyncKeyJpaRepository syncKeyRepository,
+            RetryingTransaction retryingTransaction) {
+        this.completeEntriesUseCase = completeEntriesUseCase;
+        this.syncKeyRepository = syncKeyRepository;
+        this.retryingTransaction = retryingTransaction;
+    }
+
+    /**
+     * Syncs one chunk of queued completions.
+     *
+     * @param commands the completions, in queue order
+     * @return one result per command, in queue order
+     * @throws IllegalArgumentException if the chunk is empty or larger than {@link #CHUNK_SIZE}
+     * @throws OptimisticLockingFailureException if routines kept changing for every attempt
+     */
+    public List<SyncResult> execute(List<SyncEntryCommand> commands) {
+        if (commands == null || commands.isEmpty()) {
+            throw new IllegalArgumentException("Chunk cannot be empty");
+        }
+        if (commands.size() > CHUNK_SIZE) {
+            throw new IllegalArgumentException("Chunk cannot exceed " + CHUNK_SIZE + " entries");
+        }
+
+        return retryingTransaction.execute(status -> sync(commands));
+    }
+
+    /**
+     * Syncs one chunk in the current transaction.
+     */
+    private List<SyncResult> sync(List<SyncEntryCommand> commands) {
+        SyncResult[] results = new SyncResult[commands.size()];
+
+        // 1. Validate keys and dates; a key repeated within the chunk follows its first occurrence
+        UUID[] keys = new UUID[commands.size()];
+        Map<UUID, Integer> firstIndex = new HashMap<>();
+        for (int i = 0; i < commands.size(); i++) {
+            SyncEntryCommand command = commands.get(i);
+            try {
+                keys[i] = UUID.fromString(command.idempotencyKey());
+            } catch (IllegalArgumentException | NullPointerException e) {
+                results[i] = SyncResult.failed(command, "Invalid idempotency key: " + command.idempotencyKey());
+                continue;
+            }
+            if (command.date() == null) {
+                results[i] = SyncResult.failed(command, "Date is required");
+                continue;
+            }
+            firstIndex.putIfAbsent(keys[i], i);
+        }
+
+        // 2. Keys already synced are answered with the entry they created (one IN query)
+        Map<UUID, UUID> synced = new HashMap<>();
+        if (!firstIndex.isEmpty()) {
+            for (EntrySyncKeyEntity key : syncKeyRepository.findAllById(firstIndex.keySet())) {
+                synced.put(key.getIdempotencyKey(), key.getEntryId());
+            }
+        }
+
+        // 3. Complete the rest as one batch
+        List<Integer> pending = new ArrayList<>();
+        List<CompleteEntryCommand> completions = new ArrayList<>();
+        for (int i = 0; i < commands.size(); i++) {
+            if (results[i] != null || firstIndex.get(keys[i]) != i) {
+                continue;
+            }
+            UUID entryId = synced.get(keys[i]);
+            if (entryId != null) {
+                results[i] = SyncResult.duplicate(commands.get(i), entryId);
+            } else {
+                pending.add(i);
+                completions.add(commands.get(i).toCompleteEntryCommand());
+            }
+        }
+
+        if (!completions.isEmpty()) {
+            List<EntryResult> completed = completeEntriesUseCase.complete(completions);
+            List<EntrySyncKeyEntity> newKeys = new ArrayList<>();
+            for (int j = 0; j < completed.size(); j++) {
+                int i = pending.get(j);
+                EntryResult result = completed.get(j);
+                if (result.isCompleted()) {
+                    UUID entryId = result.entry().getId();
+                    newKeys.add(EntrySyncKeyEntity.builder().idempotencyKey(keys[i]).entryId(entryId).build());
+                    results[i] = SyncResult.created(commands.get(i), entryId);
+                } else if (result.alreadyCompleted()) {
+                    results[i] = SyncResult.alreadyCompleted(commands.get(i), result.error());
+                } else {
+                    results[i] = SyncResult.failed(commands.get(i), result.error());
+                }
+            }
+            // 4. Record keys in the same transaction as their entries
+            if (!newKeys.isEmpty()) {
+                syncKeyRepository.saveAll(newKeys);
+            }
+        }
+
+        // 5. Repeats within the chunk get their first occurrence's outcome
+        for (int i = 0; i < commands.size(); i++) {
+            if (results[i] == null) {
+                SyncResult first = results[firstIndex.get(keys[i])];
+                results[i] = switch (first.status()) {
+                    case FAILED -> SyncResult.failed(commands.get(i), first.error());
+                    case ALREADY_COMPLETED -> SyncResult.alreadyCompleted(commands.get(i), first.error());
+                    case CREATED, DUPLICATE -> SyncResult.duplicate(commands.get(i), first.entryId());
+                };
+            }
+        }
+
+        return List.of(results);
+    }
+
+    // DTOs
+
+    /**
+     * What happened to a queued completion.
+     */
+    public enum SyncStatus {
+        /** Completed now */
+        CREATED,
+        /** Key already synced; nothing written */
+        DUPLICATE,
+        /** Date already completed under another key; nothing written, and the client drops it */
+        ALREADY_COMPLETED,
+        /** Could not be completed; the key is not recorded, so a resend is tried again */
+        FAILED
+    }
+
+    /**
+     * Outcome of one queued completion.
+     *
+     * @param idempotencyKey the key, as sent
+     * @param status what happened
+     * @param entryId the entry created for the key (null if failed or already completed)
+     * @param error why it was not completed (null if created or duplicate)
+     */
+    public record SyncResult(
+            String idempotencyKey,
+            SyncStatus status,
+            UUID entryId,
+            String error
+    ) {
+        static SyncResult created(SyncEntryCommand command, UUID entryId) {
+            return new SyncResult(command.idempotencyKey(), SyncStatus.CREATED, entryId, null);
+        }
+
+        static SyncResult duplicate(SyncEntryCommand command, UUID entryId) {
+            return new SyncResult(command.idempotencyKey(), SyncStatus.DUPLICATE, entryId, null);
+        }
+
+        static SyncResult alreadyCompleted(SyncEntryCommand command, String error) {
+            return new SyncResult(command.idempotencyKey(), SyncStatus.ALREADY_COMPLETED, null, error);
+        }
+
+        static SyncResult failed(SyncEntryCommand command, String error) {
+            return new SyncResult(command.idempotencyKey(), SyncStatus.FAILED, null, error);
+        }
+
+        /**
+         * Returns a failure for a completion whose whole chunk could not be synced.
+         */
+        public static SyncResult chunkFailed(String idempotencyKey, String error) {
+            return new SyncResult(idempotencyKey, SyncStatus.FAILED, null, error);
+        }
+    }
+}
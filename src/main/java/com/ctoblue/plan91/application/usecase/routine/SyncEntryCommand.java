@@ -0,0 +1,31 @@
+package com.ctoblue.plan91.application.usecase.routine;
+
+import java.time.LocalDate;
+
+/**
+ * Command to replay a completion queued by an offline client.
+ *
+ * <p>Unlike {@link CompleteEntryCommand}, the date is not defaulted: a completion
+ * replayed days later must keep the date it was recorded on.
+ *
+ * @param idempotencyKey client-generated UUID identifying the queued completion
+ * @param routineId the routine to complete
+ * @param date the date of completion (required)
+ * @param value numeric value for numeric habits (null for boolean)
+ * @param notes optional notes about the completion
+ */
+public record SyncEntryCommand(
+        String idempotencyKey,
+        String routineId,
+        LocalDate date,
+        Integer value,
+        String notes
+) {
+
+    /**
+     * Returns the completion to apply for this command.
+     */
+    public CompleteEntryCommand toCompleteEntryCommand() {
+        return new CompleteEntryCommand(routineId, date, value, notes);
+    }
+}
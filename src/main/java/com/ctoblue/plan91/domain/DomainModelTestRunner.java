@@ -60,6 +60,14 @@ public class DomainModelTestRunner {
             com.ctoblue.plan91.domain.routine.RecurrenceRule.main(new String[]{}));
         totalTests++;
 
+        passedTests += runTest("EpochDays", () ->
+            com.ctoblue.plan91.domain.shared.EpochDays.main(new String[]{}));
+        totalTests++;
+
+        passedTests += runTest("EpochDaySet", () ->
+            com.ctoblue.plan91.domain.shared.EpochDaySet.main(new String[]{}));
+        totalTests++;
+
         // Aggregates
         System.out.println("\n━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━");
         System.out.println("AGGREGATES");
@@ -96,6 +104,18 @@ public class DomainModelTestRunner {
             com.ctoblue.plan91.domain.routine.service.RoutineProgressService.main(new String[]{}));
         totalTests++;
 
+        passedTests += runTest("WeeklyQuotaEvaluator", () ->
+            com.ctoblue.plan91.domain.routine.service.WeeklyQuotaEvaluator.main(new String[]{}));
+        totalTests++;
+
+        passedTests += runTest("BulkProgressEvaluator", () ->
+            com.ctoblue.plan91.domain.routine.service.BulkProgressEvaluator.main(new String[]{}));
+        totalTests++;
+
+        passedTests += runTest("StreakRebuilder", () ->
+            com.ctoblue.plan91.domain.routine.service.StreakRebuilder.main(new String[]{}));
+        totalTests++;
+
         // Comprehensive Tests
         System.out.println("\n━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━");
         System.out.println("COMPREHENSIVE END-TO-END TESTS");
@@ -0,0 +1,290 @@
+package com.ctoblue.plan91.domain.routine;
+
+import com.ctoblue.plan91.domain.shared.EpochDays;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Value object holding a routine's completion history as a 128-bit bitmap.
+ *
+ * <p>Bit {@code n} is set when the routine was completed on {@code startDate + n days}.
+ * Bits 0-63 live in {@code low}, bits 64-127 in {@code high}. A default 91-day routine
+ * fits with room to spare, so counts and runs are answered with {@link Long#bitCount}
+ * and shifts instead of reading habit_entries.
+ *
+ * <p>Routines longer than {@link #CAPACITY} days have no bitmap; callers fall back to
+ * the entries table.
+ */
+public record CompletionBitmap(long low, long high) {
+
+    /**
+     * Number of days the bitmap can represent.
+     */
+    public static final int CAPACITY = 128;
+
+    private static final CompletionBitmap EMPTY = new CompletionBitmap(0L, 0L);
+
+    /**
+     * Returns a bitmap with no completions.
+     *
+     * @return the empty bitmap
+     */
+    public static CompletionBitmap empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Creates a bitmap from its persisted words.
+     *
+     * @param low bits 0-63, may be null
+     * @param high bits 64-127, may be null
+     * @return the bitmap, or null if either word is missing
+     */
+    public static CompletionBitmap ofNullable(Long low, Long high) {
+        if (low == null || high == null) {
+            return null;
+        }
+        return new CompletionBitmap(low, high);
+    }
+
+    /**
+     * Checks whether a routine of the given length fits in a bitmap.
+     *
+     * @param targetDays the routine's target days
+     * @return true if every day of the cycle has a bit
+     */
+    public static boolean supports(int targetDays) {
+        return targetDays >= 1 && targetDays <= CAPACITY;
+    }
+
+    /**
+     * Day offset of a date relative to the routine start.
+     *
+     * @param startDate the routine's start date
+     * @param date the date
+     * @return days since start (negative before start)
+     */
+    public static int offsetOf(LocalDate startDate, LocalDate date) {
+        return (int) ChronoUnit.DAYS.between(startDate, date);
+    }
+
+    /**
+     * Checks whether a day offset has a bit in this bitmap.
+     *
+     * @param offset day offset from start
+     * @return true if 0 &lt;= offset &lt; CAPACITY
+     */
+    public static boolean inRange(int offset) {
+        return offset >= 0 && offset < CAPACITY;
+    }
+
+    /**
+     * Returns a new bitmap with the given day marked completed.
+     *
+     * @param offset day offset from start
+     * @return a new bitmap
+     * @throws IllegalArgumentException if the offset is out of range
+     */
+    public CompletionBitmap withCompleted(int offset) {
+        requireInRange(offset);
+        if (offset < 64) {
+            return new CompletionBitmap(low | (1L << offset), high);
+        }
+        return new CompletionBitmap(low, high | (1L << (offset - 64)));
+    }
+
+    /**
+     * Returns a new bitmap with the given date marked completed.
+     *
+     * @param startDate the routine's start date
+     * @param date the completion date
+     * @return a new bitmap
+     * @throws IllegalArgumentException if the date is outside the bitmap
+     */
+    public CompletionBitmap withCompleted(LocalDate startDate, LocalDate date) {
+        return withCompleted(offsetOf(startDate, date));
+    }
+
+    /**
+     * Checks whether the given day is completed.
+     *
+     * @param offset day offset from start
+     * @return true if completed; false for offsets outside the bitmap
+     */
+    public boolean isCompleted(int offset) {
+        if (!inRange(offset)) {
+            return false;
+        }
+        return offset < 64
+                ? (low >>> offset & 1L) != 0
+                : (high >>> (offset - 64) & 1L) != 0;
+    }
+
+    /**
+     * Total number of completed days.
+     *
+     * @return the completion count
+     */
+    public int count() {
+        return Long.bitCount(low) + Long.bitCount(high);
+    }
+
+    /**
+     * Number of completed days between two offsets, both inclusive.
+     * Offsets are clamped to the bitmap.
+     *
+     * @param fromOffset first day offset
+     * @param toOffset last day offset
+     * @return the completion count in range
+     */
+    public int countBetween(int fromOffset, int toOffset) {
+        return Long.bitCount(low & wordMask(fromOffset, toOffset))
+                + Long.bitCount(high & wordMask(fromOffset - 64, toOffset - 64));
+    }
+
+    /**
+     * Number of completed days between two dates, both inclusive.
+     *
+     * @param startDate the routine's start date
+     * @param from first date
+     * @param to last date
+     * @return the completion count in range
+     */
+    public int countBetween(LocalDate startDate, LocalDate from, LocalDate to) {
+        return countBetween(offsetOf(startDate, from), offsetOf(startDate, to));
+    }
+
+    /**
+     * Completed days as ascending epoch days.
+     *
+     * @param startDate the routine's start date
+     * @return epoch day of each completed day
+     */
+    public int[] completedEpochDays(LocalDate startDate) {
+        int first = EpochDays.of(startDate);
+        int[] days = new int[count()];
+        int i = 0;
+        for (long word = low; word != 0; word &= word - 1) {
+            days[i++] = first + Long.numberOfTrailingZeros(word);
+        }
+        for (long word = high; word != 0; word &= word - 1) {
+            days[i++] = first + 64 + Long.numberOfTrailingZeros(word);
+        }
+        return days;
+    }
+
+    /**
+     * Length of the run of consecutive completed days ending at the given day.
+     *
+     * @param offset day offset the run ends on
+     * @return consecutive completed days, 0 if that day is not completed
+     */
+    public int runEndingAt(int offset) {
+        if (!inRange(offset)) {
+            return 0;
+        }
+        if (offset < 64) {
+            return Long.numberOfLeadingZeros(~(low << (63 - offset)));
+        }
+        int highRun = Long.numberOfLeadingZeros(~(high << (127 - offset)));
+        if (highRun < offset - 63) {
+            return highRun;
+        }
+        return highRun + Long.numberOfLeadingZeros(~low);
+    }
+
+    /**
+     * Mask for one 64-bit word selecting bits from..to (inclusive, word-relative).
+     */
+    private static long wordMask(int from, int to) {
+        int a = Math.max(from, 0);
+        int b = Math.min(to, 63);
+        if (a > b) {
+            return 0L;
+        }
+        return (-1L >>> (63 - (b - a))) << a;
+    }
+
+    private static void requireInRange(int offset) {
+        if (!inRange(offset)) {
+            throw new IllegalArgumentException(
+                    "Day offset must be between 0 and " + (CAPACITY - 1) + ", got: " + offset);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "CompletionBitmap{count=" + count() + "}";
+    }
+
+    /**
+     * Standalone test method (ADR-004: Domain model testing with main()).
+     */
+    public static void main(String[] args) {
+        System.out.println("Testing CompletionBitmap...\n");
+
+        // Test 1: Empty bitmap
+        CompletionBitmap empty = CompletionBitmap.empty();
+        assert empty.count() == 0;
+        assert !empty.isCompleted(0);
+        System.out.println("✓ Test 1: Empty bitmap: " + empty);
+
+        // Test 2: Set bits in both words
+        CompletionBitmap bitmap = empty.withCompleted(0).withCompleted(63).withCompleted(64).withCompleted(90);
+        assert bitmap.count() == 4;
+        assert bitmap.isCompleted(63) && bitmap.isCompleted(64) && bitmap.isCompleted(90);
+        assert !bitmap.isCompleted(1);
+        System.out.println("✓ Test 2: Bits across words: " + bitmap);
+
+        // Test 3: Range counts
+        assert bitmap.countBetween(0, 127) == 4;
+        assert bitmap.countBetween(1, 62) == 0;
+        assert bitmap.countBetween(63, 64) == 2;
+        assert bitmap.countBetween(-10, 0) == 1;
+        assert bitmap.countBetween(91, 500) == 0;
+        System.out.println("✓ Test 3: Range counts");
+
+        // Test 4: Dates
+        LocalDate start = LocalDate.of(2026, 1, 1);
+        CompletionBitmap byDate = empty.withCompleted(start, LocalDate.of(2026, 2, 1));
+        assert byDate.isCompleted(31);
+        assert byDate.countBetween(start, LocalDate.of(2026, 2, 1), LocalDate.of(2026, 2, 28)) == 1;
+        System.out.println("✓ Test 4: Date offsets");
+
+        // Test 5: Runs, including one crossing the word boundary
+        CompletionBitmap run = empty;
+        for (int i = 60; i <= 70; i++) {
+            run = run.withCompleted(i);
+        }
+        assert run.runEndingAt(70) == 11;
+        assert run.runEndingAt(62) == 3;
+        assert run.runEndingAt(71) == 0;
+        assert new CompletionBitmap(-1L, -1L).runEndingAt(127) == 128;
+        assert new CompletionBitmap(-1L, 0L).runEndingAt(63) == 64;
+        System.out.println("✓ Test 5: Runs ending at a day");
+
+        // Test 6: Out of range
+        try {
+            empty.withCompleted(CAPACITY);
+            assert false : "Should throw for offset past capacity";
+        } catch (IllegalArgumentException e) {
+            System.out.println("✓ Test 6: Out of range validation works: " + e.getMessage());
+        }
+
+        // Test 7: Nullable factory and supports
+        assert CompletionBitmap.ofNullable(null, 0L) == null;
+        assert CompletionBitmap.ofNullable(1L, 0L).count() == 1;
+        assert supports(91) && supports(128) && !supports(129);
+        System.out.println("✓ Test 7: Factory and capacity");
+
+        // Test 8: Completed days back as ascending epoch days, across both words
+        int[] completedDays = bitmap.completedEpochDays(start);
+        assert completedDays.length == 4;
+        assert completedDays[0] == start.toEpochDay() && completedDays[2] == start.plusDays(64).toEpochDay();
+        assert completedDays[3] == start.plusDays(90).toEpochDay();
+        System.out.println("✓ Test 8: Completed epoch days");
+
+        System.out.println("\n✅ All CompletionBitmap tests passed!");
+    }
+}
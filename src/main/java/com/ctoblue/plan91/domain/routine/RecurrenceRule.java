@@ -1,6 +1,9 @@
 package com.ctoblue.plan91.domain.routine;
 
 import java.time.LocalDate;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
 import java.util.Objects;
 import java.util.Set;
 
@@ -16,6 +19,12 @@ import java.util.Set;
  *   <li>NTH_DAY_OF_MONTH - Nth weekday of month (e.g., first Monday)</li>
  *   <li>TIMES_PER_WEEK_X - Flexible: complete X times per week on any days</li>
  * </ul>
+ *
+ * <p>Expected weekdays are evaluated against {@link #weekdayMask()}: bit {@code i} is set when
+ * weekday {@code i} (0 = Monday ... 6 = Sunday, the ordinal of both DayOfWeek enums) can be
+ * expected. NTH_DAY_OF_MONTH sets only {@code nthDay}'s bit and is further narrowed by
+ * {@code nthWeek}. The mask is derived from the components, not one of them; specific days
+ * are held in a set backed by their mask, so reading it costs no iteration.
  */
 public record RecurrenceRule(
         RecurrenceType type,
@@ -24,6 +33,12 @@ public record RecurrenceRule(
         Integer nthWeek
 ) {
 
+    /** Mask with every weekday set. */
+    public static final int ALL_DAYS = 0b1111111;
+
+    private static final int WEEKDAYS_MASK = 0b0011111;
+    private static final int WEEKENDS_MASK = 0b1100000;
+
     /**
      * Compact constructor with validation.
      */
@@ -34,8 +49,8 @@ public record RecurrenceRule(
             if (specificDays == null || specificDays.isEmpty()) {
                 throw new IllegalArgumentException("SPECIFIC_DAYS requires at least one day");
             }
-            // Make defensive copy
-            specificDays = Set.copyOf(specificDays);
+            // Make defensive copy, backed by the days' mask
+            specificDays = DaySet.of(specificDays);
         } else {
             // Other types shouldn't have specificDays
             if (specificDays != null) {
@@ -56,6 +71,79 @@ public record RecurrenceRule(
         }
     }
 
+    /**
+     * Returns the weekdays this rule can expect, bit 0 = Monday ... bit 6 = Sunday.
+     */
+    public int weekdayMask() {
+        return switch (type) {
+            case WEEKDAYS -> WEEKDAYS_MASK;
+            case WEEKENDS -> WEEKENDS_MASK;
+            case SPECIFIC_DAYS -> ((DaySet) specificDays).mask;
+            case NTH_DAY_OF_MONTH -> 1 << nthDay.ordinal();
+            // Flexible weekly types: any day is valid for completion
+            case DAILY, TIMES_PER_WEEK_1, TIMES_PER_WEEK_3, TIMES_PER_WEEK_4,
+                 TIMES_PER_WEEK_5, TIMES_PER_WEEK_6 -> ALL_DAYS;
+        };
+    }
+
+    /**
+     * Immutable set of weekdays stored as their mask. Equal to, and hashed like, any other
+     * set of the same days.
+     */
+    private static final class DaySet extends AbstractSet<DayOfWeek> {
+
+        private static final DayOfWeek[] DAYS = DayOfWeek.values();
+
+        private final int mask;
+
+        private DaySet(int mask) {
+            this.mask = mask;
+        }
+
+        static DaySet of(Set<DayOfWeek> days) {
+            if (days instanceof DaySet daySet) {
+                return daySet;
+            }
+            int mask = 0;
+            for (DayOfWeek day : days) {
+                mask |= 1 << Objects.requireNonNull(day, "specificDays cannot contain null").ordinal();
+            }
+            return new DaySet(mask);
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            return o instanceof DayOfWeek day && (mask >>> day.ordinal() & 1) != 0;
+        }
+
+        @Override
+        public int size() {
+            return Integer.bitCount(mask);
+        }
+
+        @Override
+        public Iterator<DayOfWeek> iterator() {
+            return new Iterator<>() {
+                private int remaining = mask;
+
+                @Override
+                public boolean hasNext() {
+                    return remaining != 0;
+                }
+
+                @Override
+                public DayOfWeek next() {
+                    if (remaining == 0) {
+                        throw new NoSuchElementException();
+                    }
+                    int index = Integer.numberOfTrailingZeros(remaining);
+                    remaining &= remaining - 1;
+                    return DAYS[index];
+                }
+            };
+        }
+    }
+
     /**
      * Creates a daily recurrence (every day).
      */
@@ -121,42 +209,22 @@ public record RecurrenceRule(
      * @return true if the habit is expected on this date
      */
     public boolean isExpectedOn(LocalDate date) {
-        return switch (type) {
-            case DAILY -> true;
-
-            case WEEKDAYS -> {
-                java.time.DayOfWeek javaDay = date.getDayOfWeek();
-                yield javaDay != java.time.DayOfWeek.SATURDAY &&
-                      javaDay != java.time.DayOfWeek.SUNDAY;
-            }
-
-            case WEEKENDS -> {
-                java.time.DayOfWeek javaDay = date.getDayOfWeek();
-                yield javaDay == java.time.DayOfWeek.SATURDAY ||
-                      javaDay == java.time.DayOfWeek.SUNDAY;
-            }
-
-            case SPECIFIC_DAYS -> {
-                DayOfWeek ourDay = convertFromJavaDay(date.getDayOfWeek());
-                yield specificDays.contains(ourDay);
-            }
-
-            case NTH_DAY_OF_MONTH -> {
-                // Check if this is the Nth occurrence of the specified day in the month
-                DayOfWeek ourDay = convertFromJavaDay(date.getDayOfWeek());
-                if (!ourDay.equals(nthDay)) {
-                    yield false;
-                }
-
-                // Calculate which week of the month this is
-                int weekOfMonth = (date.getDayOfMonth() - 1) / 7 + 1;
-                yield weekOfMonth == nthWeek;
-            }
+        return isExpectedOn(date.getDayOfWeek().ordinal(), date.getDayOfMonth());
+    }
 
-            // Flexible weekly types: any day is valid for completion
-            case TIMES_PER_WEEK_1, TIMES_PER_WEEK_3, TIMES_PER_WEEK_4,
-                 TIMES_PER_WEEK_5, TIMES_PER_WEEK_6 -> true;
-        };
+    /**
+     * Same as {@link #isExpectedOn(LocalDate)} for callers that already track the weekday.
+     *
+     * @param weekdayIndex 0 = Monday ... 6 = Sunday
+     * @param dayOfMonth the day of the month (1-31)
+     * @return true if the habit is expected on this date
+     */
+    public boolean isExpectedOn(int weekdayIndex, int dayOfMonth) {
+        if ((weekdayMask() >>> weekdayIndex & 1) == 0) {
+            return false;
+        }
+        // Nth occurrence of the weekday: days 1-7 are the first, 8-14 the second, ...
+        return type != RecurrenceType.NTH_DAY_OF_MONTH || (dayOfMonth - 1) / 7 + 1 == nthWeek;
     }
 
     /**
@@ -188,13 +256,6 @@ public record RecurrenceRule(
         };
     }
 
-    /**
-     * Converts java.time.DayOfWeek to our domain DayOfWeek enum.
-     */
-    private DayOfWeek convertFromJavaDay(java.time.DayOfWeek javaDay) {
-        return DayOfWeek.valueOf(javaDay.name());
-    }
-
     /**
      * Standalone test method (ADR-004: Domain model testing with main()).
      */
@@ -329,6 +390,44 @@ public record RecurrenceRule(
         assert daily1.equals(daily2);
         System.out.println("✓ Test 15: Equality works");
 
+        // Test 16: Compiled weekday mask
+        assert daily.weekdayMask() == ALL_DAYS;
+        assert weekdays.weekdayMask() == 0b0011111;
+        assert weekends.weekdayMask() == 0b1100000;
+        assert mwf.weekdayMask() == 0b0010101;
+        assert firstMonday.weekdayMask() == 0b0000001;
+        assert RecurrenceRule.timesPerWeek(3).weekdayMask() == ALL_DAYS;
+        System.out.println("✓ Test 16: Weekday mask is derived from the rule");
+
+        // Test 17: Mask evaluation agrees with the calendar over a year
+        for (LocalDate d = LocalDate.of(2026, 1, 1); d.getYear() == 2026; d = d.plusDays(1)) {
+            java.time.DayOfWeek javaDay = d.getDayOfWeek();
+            boolean weekend = javaDay == java.time.DayOfWeek.SATURDAY || javaDay == java.time.DayOfWeek.SUNDAY;
+            assert weekdays.isExpectedOn(d) == !weekend;
+            assert weekends.isExpectedOn(d) == weekend;
+            assert mwf.isExpectedOn(d) == (javaDay == java.time.DayOfWeek.MONDAY
+                    || javaDay == java.time.DayOfWeek.WEDNESDAY || javaDay == java.time.DayOfWeek.FRIDAY);
+            assert thirdFriday.isExpectedOn(d) == (javaDay == java.time.DayOfWeek.FRIDAY
+                    && d.getDayOfMonth() >= 15 && d.getDayOfMonth() <= 21);
+        }
+        System.out.println("✓ Test 17: Mask evaluation matches the calendar");
+
+        // Test 18: Mask-backed days behave as a plain set; the mask is not a component
+        assert mwf.specificDays().equals(Set.of(DayOfWeek.MONDAY, DayOfWeek.WEDNESDAY, DayOfWeek.FRIDAY));
+        assert mwf.specificDays().hashCode() == Set.of(DayOfWeek.MONDAY, DayOfWeek.WEDNESDAY, DayOfWeek.FRIDAY).hashCode();
+        assert mwf.specificDays().size() == 3 && !mwf.specificDays().contains(DayOfWeek.TUESDAY);
+        assert mwf.equals(RecurrenceRule.specificDays(new java.util.HashSet<>(
+                Set.of(DayOfWeek.FRIDAY, DayOfWeek.MONDAY, DayOfWeek.WEDNESDAY))));
+        assert RecurrenceRule.class.getRecordComponents().length == 4;
+        assert !mwf.toString().contains("weekdayMask");
+        try {
+            mwf.specificDays().add(DayOfWeek.SUNDAY);
+            assert false : "specificDays should be immutable";
+        } catch (UnsupportedOperationException expected) {
+            // immutable
+        }
+        System.out.println("✓ Test 18: Specific days are a mask-backed immutable set");
+
         System.out.println("\n✅ All RecurrenceRule tests passed!");
     }
 }
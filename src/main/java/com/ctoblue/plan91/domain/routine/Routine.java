@@ -224,6 +224,35 @@ public class Routine {
         }
     }
 
+    /**
+     * Replaces the streak with one recomputed from the routine's entries
+     * (see {@link com.ctoblue.plan91.domain.routine.service.StreakRebuilder}).
+     * Status is left as is.
+     *
+     * @param rebuilt the recomputed streak
+     */
+    public void replaceStreak(HabitStreak rebuilt) {
+        streak = Objects.requireNonNull(rebuilt, "Streak cannot be null");
+        updatedAt = Instant.now();
+    }
+
+    /**
+     * Completes an ACTIVE routine whose streak already counts the target completions, as
+     * {@link #recordCompletion} would have. Used after {@link #replaceStreak}, when replayed
+     * entries reach the target that out-of-order completions missed.
+     *
+     * @return true if the routine was completed by this call
+     */
+    public boolean completeIfTargetReached() {
+        if (status != RoutineStatus.ACTIVE || streak.totalCompletions() < targetDays) {
+            return false;
+        }
+        status = RoutineStatus.COMPLETED;
+        completedAt = streak.lastCompletionDate();
+        updatedAt = Instant.now();
+        return true;
+    }
+
     /**
      * Pauses the routine.
      *
@@ -583,6 +612,16 @@ public class Routine {
         assert shortRoutine.isCompleted() : "Should be completed after 5 completions";
         System.out.println("✓ Test 22: Custom target completion works");
 
+        // Test 23: A replaced streak at the target completes the routine, once
+        Routine rebuiltRoutine = Routine.start(habitId, practitionerId, daily, startDate, 5);
+        assert !rebuiltRoutine.completeIfTargetReached();
+        rebuiltRoutine.replaceStreak(new HabitStreak(5, 5, 5, false, null, startDate.plusDays(4)));
+        assert rebuiltRoutine.getStatus() == RoutineStatus.ACTIVE;
+        assert rebuiltRoutine.completeIfTargetReached();
+        assert rebuiltRoutine.isCompleted() && rebuiltRoutine.getCompletedAt().equals(startDate.plusDays(4));
+        assert !rebuiltRoutine.completeIfTargetReached();
+        System.out.println("✓ Test 23: Rebuilt streak at target completes the routine");
+
         System.out.println("\n✅ All Routine tests passed!");
     }
 }
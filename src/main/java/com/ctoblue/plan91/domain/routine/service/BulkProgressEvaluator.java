@@ -0,0 +1,143 @@
+package com.ctoblue.plan91.domain.routine.service;
+
+import com.ctoblue.plan91.domain.routine.Routine;
+import com.ctoblue.plan91.domain.routine.RoutineId;
+
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+
+/**
+ * Domain service that computes progress reports for many routines at once.
+ *
+ * <p>Routines are independent, so a batch is split across a fork-join pool and each
+ * routine gets one {@link RoutineProgressService#computeReport single-pass report}.
+ * Callers control memory by passing bounded batches (e.g. one page of routines).
+ *
+ * <p>This is a domain service (not application service) - pure domain logic with no infrastructure dependencies.
+ */
+public class BulkProgressEvaluator {
+
+    private final RoutineProgressService progressService;
+    private final ForkJoinPool pool;
+
+    /**
+     * Creates an evaluator that runs on the common fork-join pool.
+     */
+    public BulkProgressEvaluator() {
+        this(new RoutineProgressService(), ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Creates an evaluator that runs on the given pool.
+     *
+     * @param progressService computes each routine's report
+     * @param pool the pool batches are split across
+     */
+    public BulkProgressEvaluator(RoutineProgressService progressService, ForkJoinPool pool) {
+        this.progressService = Objects.requireNonNull(progressService, "ProgressService cannot be null");
+        this.pool = Objects.requireNonNull(pool, "Pool cannot be null");
+    }
+
+    /**
+     * Computes a progress report for every routine in a batch.
+     *
+     * @param batch routines with their entry dates
+     * @param asOfDate compute progress up to this date (inclusive)
+     * @return report per routine, in batch order
+     */
+    public Map<RoutineId, ProgressReport> evaluate(List<RoutineEntries> batch, LocalDate asOfDate) {
+        if (batch == null) {
+            throw new IllegalArgumentException("Batch cannot be null");
+        }
+        if (asOfDate == null) {
+            throw new IllegalArgumentException("AsOfDate cannot be null");
+        }
+
+        // A parallel stream started from inside the pool runs on that pool
+        return pool.submit(() -> batch.parallelStream().collect(Collectors.toMap(
+                entries -> entries.routine().getId(),
+                entries -> progressService.computeReport(entries.routine(), entries.entryDays(), asOfDate),
+                (first, second) -> {
+                    throw new IllegalArgumentException("Routine appears twice in batch");
+                },
+                LinkedHashMap::new
+        ))).join();
+    }
+
+    /**
+     * A routine with the dates of its entries, as ascending epoch days.
+     *
+     * @param routine the routine
+     * @param entryDays entry dates ({@link LocalDate#toEpochDay()}), ascending
+     */
+    public record RoutineEntries(Routine routine, int[] entryDays) {
+
+        public RoutineEntries {
+            Objects.requireNonNull(routine, "Routine cannot be null");
+            Objects.requireNonNull(entryDays, "EntryDays cannot be null");
+            for (int i = 1; i < entryDays.length; i++) {
+                if (entryDays[i] < entryDays[i - 1]) {
+                    throw new IllegalArgumentException("Entry days must be ascending");
+                }
+            }
+        }
+    }
+
+    /**
+     * Standalone test method (ADR-004: Domain model testing with main()).
+     */
+    public static void main(String[] args) {
+        System.out.println("Testing BulkProgressEvaluator...\n");
+
+        RoutineProgressService progressService = new RoutineProgressService();
+        BulkProgressEvaluator evaluator = new BulkProgressEvaluator(progressService, new ForkJoinPool(4));
+        LocalDate start = LocalDate.of(2026, 2, 1);  // Sunday
+        LocalDate asOf = LocalDate.of(2026, 3, 31);
+
+        // Test 1: Bulk reports equal one-at-a-time reports, in batch order
+        java.util.Random random = new java.util.Random(91);
+        List<RoutineEntries> batch = new java.util.ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            Routine routine = Routine.start(
+                    com.ctoblue.plan91.domain.habit.HabitId.generate(),
+                    com.ctoblue.plan91.domain.habitpractitioner.HabitPractitionerId.generate(),
+                    i % 2 == 0
+                            ? com.ctoblue.plan91.domain.routine.RecurrenceRule.daily()
+                            : com.ctoblue.plan91.domain.routine.RecurrenceRule.weekdays(),
+                    start.plusDays(i % 10)
+            );
+            int[] days = java.util.stream.IntStream.rangeClosed((int) start.toEpochDay(), (int) asOf.toEpochDay())
+                    .filter(day -> random.nextDouble() < 0.9)
+                    .toArray();
+            batch.add(new RoutineEntries(routine, days));
+        }
+        Map<RoutineId, ProgressReport> reports = evaluator.evaluate(batch, asOf);
+        assert reports.size() == 200;
+        int index = 0;
+        for (Map.Entry<RoutineId, ProgressReport> report : reports.entrySet()) {
+            RoutineEntries entries = batch.get(index++);
+            assert report.getKey().equals(entries.routine().getId()) : "Should keep batch order";
+            assert report.getValue().equals(progressService.computeReport(entries.routine(), entries.entryDays(), asOf));
+        }
+        System.out.println("✓ Test 1: Bulk reports match single reports in batch order");
+
+        // Test 2: Unsorted entry days are rejected
+        try {
+            new RoutineEntries(batch.get(0).routine(), new int[]{3, 1});
+            assert false : "Should throw for unsorted entry days";
+        } catch (IllegalArgumentException e) {
+            System.out.println("✓ Test 2: Unsorted entry days rejected: " + e.getMessage());
+        }
+
+        // Test 3: Empty batch
+        assert evaluator.evaluate(List.of(), asOf).isEmpty();
+        System.out.println("✓ Test 3: Empty batch yields no reports");
+
+        System.out.println("\n✅ All BulkProgressEvaluator tests passed!");
+    }
+}
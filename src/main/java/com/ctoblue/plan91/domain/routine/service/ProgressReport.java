@@ -0,0 +1,40 @@
+package com.ctoblue.plan91.domain.routine.service;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Value object with a routine's progress as of a date, computed in one pass by
+ * {@link RoutineProgressService#computeReport}.
+ *
+ * @param asOfDate the date the report was computed up to (inclusive)
+ * @param expectedDays expected dates from the routine start up to asOfDate
+ * @param completedDays expected dates that have an entry
+ * @param missedDays expected dates without an entry, ascending
+ * @param complianceRate completedDays / expectedDays as a percentage (100 when nothing is expected yet)
+ * @param overallProgress progress toward the 91-day goal as a percentage (0-100)
+ * @param onTrack true if there are no missed days, or one covered by the used strike
+ */
+public record ProgressReport(
+        LocalDate asOfDate,
+        int expectedDays,
+        int completedDays,
+        List<LocalDate> missedDays,
+        double complianceRate,
+        double overallProgress,
+        boolean onTrack
+) {
+
+    public ProgressReport {
+        Objects.requireNonNull(asOfDate, "AsOfDate cannot be null");
+        missedDays = List.copyOf(missedDays);
+    }
+
+    /**
+     * Returns the number of missed days.
+     */
+    public int missedCount() {
+        return missedDays.size();
+    }
+}
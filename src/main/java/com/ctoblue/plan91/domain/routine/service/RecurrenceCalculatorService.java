@@ -2,19 +2,27 @@ package com.ctoblue.plan91.domain.routine.service;
 
 import com.ctoblue.plan91.domain.routine.DayOfWeek;
 import com.ctoblue.plan91.domain.routine.RecurrenceRule;
+import com.ctoblue.plan91.domain.routine.RecurrenceType;
+import com.ctoblue.plan91.domain.shared.EpochDays;
 
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.Spliterators;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Domain service for calculating expected dates based on recurrence rules.
  *
  * <p>Stateless service that provides operations for:
  * <ul>
- *   <li>Finding all expected dates in a range</li>
+ *   <li>Finding all expected dates in a range, eagerly or as a lazy stream</li>
  *   <li>Finding next/previous expected dates</li>
  *   <li>Counting expected dates</li>
  * </ul>
@@ -36,40 +44,66 @@ public class RecurrenceCalculatorService {
             LocalDate startDate,
             LocalDate endDate
     ) {
-        if (recurrenceRule == null) {
-            throw new IllegalArgumentException("RecurrenceRule cannot be null");
-        }
-        if (startDate == null) {
-            throw new IllegalArgumentException("Start date cannot be null");
-        }
-        if (endDate == null) {
-            throw new IllegalArgumentException("End date cannot be null");
-        }
-        if (startDate.isAfter(endDate)) {
-            throw new IllegalArgumentException("Start date must be before or equal to end date");
-        }
+        validateRange(recurrenceRule, startDate, endDate);
 
-        List<LocalDate> expectedDates = new ArrayList<>();
-        LocalDate current = startDate;
+        int firstDay = EpochDays.of(startDate);
+        int lastDay = EpochDays.of(endDate);
+        List<LocalDate> expectedDates = new ArrayList<>(countExpectedDays(recurrenceRule, firstDay, lastDay));
+        new ExpectedDaySpliterator(recurrenceRule, firstDay, lastDay)
+                .forEachRemaining((int day) -> expectedDates.add(EpochDays.toDate(day)));
+        return expectedDates;
+    }
 
-        while (!current.isAfter(endDate)) {
-            if (recurrenceRule.isExpectedOn(current)) {
-                expectedDates.add(current);
-            }
-            current = current.plusDays(1);
-        }
+    /**
+     * Lazily streams the expected dates in a range, in ascending order.
+     *
+     * <p>Dates are computed on demand, so callers that stop early (e.g. at the first miss)
+     * do not pay for the rest of the range.
+     *
+     * @param recurrenceRule the recurrence rule
+     * @param startDate the start date (inclusive)
+     * @param endDate the end date (inclusive)
+     * @return stream of expected dates, ordered ascending
+     */
+    public Stream<LocalDate> streamExpectedDates(
+            RecurrenceRule recurrenceRule,
+            LocalDate startDate,
+            LocalDate endDate
+    ) {
+        return expectedEpochDays(recurrenceRule, startDate, endDate).mapToObj(EpochDays::toDate);
+    }
 
-        return expectedDates;
+    /**
+     * Lazily streams the expected dates in a range as epoch days, in ascending order.
+     *
+     * <p>The primitive form of {@link #streamExpectedDates}, for callers that merge against
+     * other epoch-day sequences without creating LocalDate instances.
+     *
+     * @param recurrenceRule the recurrence rule
+     * @param startDate the start date (inclusive)
+     * @param endDate the end date (inclusive)
+     * @return stream of epoch days ({@link LocalDate#toEpochDay()}), ordered ascending
+     */
+    public IntStream expectedEpochDays(
+            RecurrenceRule recurrenceRule,
+            LocalDate startDate,
+            LocalDate endDate
+    ) {
+        validateRange(recurrenceRule, startDate, endDate);
+        return StreamSupport.intStream(
+                new ExpectedDaySpliterator(recurrenceRule, EpochDays.of(startDate), EpochDays.of(endDate)), false);
     }
 
     /**
      * Finds the next expected date after a given date.
      *
-     * <p>Searches up to 60 days ahead (reasonable limit).
+     * <p>Computed directly: weekday-based rules pick the next set bit of the weekday mask,
+     * NTH_DAY_OF_MONTH takes this month's occurrence or, if already past, next month's.
+     * Every rule recurs at least monthly, so the result is always present.
      *
      * @param recurrenceRule the recurrence rule
      * @param afterDate find next expected date after this
-     * @return the next expected date, or empty if none within 60 days
+     * @return the next expected date
      */
     public Optional<LocalDate> findNextExpectedDate(
             RecurrenceRule recurrenceRule,
@@ -82,27 +116,51 @@ public class RecurrenceCalculatorService {
             throw new IllegalArgumentException("After date cannot be null");
         }
 
-        LocalDate searchLimit = afterDate.plusDays(60);
-        LocalDate current = afterDate.plusDays(1);
+        long afterDay = afterDate.toEpochDay();
+        return Optional.of(EpochDays.toDate(
+                nextExpectedDay(recurrenceRule, afterDay, EpochDays.monthIndex(afterDay))));
+    }
 
-        while (!current.isAfter(searchLimit)) {
-            if (recurrenceRule.isExpectedOn(current)) {
-                return Optional.of(current);
-            }
-            current = current.plusDays(1);
+    /**
+     * Finds the next expected date after a given date for each of several rules,
+     * e.g. to show the next due date of every active routine.
+     *
+     * @param recurrenceRules the recurrence rules
+     * @param afterDate find next expected dates after this
+     * @return the next expected date of each rule, in the same order as {@code recurrenceRules}
+     */
+    public List<LocalDate> findNextExpectedDates(
+            List<RecurrenceRule> recurrenceRules,
+            LocalDate afterDate
+    ) {
+        if (recurrenceRules == null) {
+            throw new IllegalArgumentException("RecurrenceRules cannot be null");
+        }
+        if (afterDate == null) {
+            throw new IllegalArgumentException("After date cannot be null");
         }
 
-        return Optional.empty();
+        long afterDay = afterDate.toEpochDay();
+        long monthIndex = EpochDays.monthIndex(afterDay);
+
+        List<LocalDate> nextDates = new ArrayList<>(recurrenceRules.size());
+        for (RecurrenceRule rule : recurrenceRules) {
+            if (rule == null) {
+                throw new IllegalArgumentException("RecurrenceRule cannot be null");
+            }
+            nextDates.add(EpochDays.toDate(nextExpectedDay(rule, afterDay, monthIndex)));
+        }
+        return nextDates;
     }
 
     /**
      * Finds the previous expected date before a given date.
      *
-     * <p>Searches up to 60 days back (reasonable limit).
+     * <p>Computed the same way as {@link #findNextExpectedDate}, searching backwards.
      *
      * @param recurrenceRule the recurrence rule
      * @param beforeDate find previous expected date before this
-     * @return the previous expected date, or empty if none within 60 days
+     * @return the previous expected date
      */
     public Optional<LocalDate> findPreviousExpectedDate(
             RecurrenceRule recurrenceRule,
@@ -115,22 +173,69 @@ public class RecurrenceCalculatorService {
             throw new IllegalArgumentException("Before date cannot be null");
         }
 
-        LocalDate searchLimit = beforeDate.minusDays(60);
-        LocalDate current = beforeDate.minusDays(1);
+        long beforeDay = beforeDate.toEpochDay();
+        if (recurrenceRule.type() != RecurrenceType.NTH_DAY_OF_MONTH) {
+            return Optional.of(EpochDays.toDate(beforeDay - 1 - daysBackToMask(recurrenceRule.weekdayMask(), beforeDay - 1)));
+        }
 
-        while (!current.isBefore(searchLimit)) {
-            if (recurrenceRule.isExpectedOn(current)) {
-                return Optional.of(current);
-            }
-            current = current.minusDays(1);
+        long monthIndex = EpochDays.monthIndex(beforeDay);
+        long occurrence = nthOccurrence(recurrenceRule, monthIndex);
+        if (occurrence >= beforeDay) {
+            occurrence = nthOccurrence(recurrenceRule, monthIndex - 1);
         }
+        return Optional.of(EpochDays.toDate(occurrence));
+    }
 
-        return Optional.empty();
+    /**
+     * Epoch day of the first expected date after {@code afterDay}, which falls in month {@code monthIndex}.
+     */
+    private static long nextExpectedDay(RecurrenceRule rule, long afterDay, long monthIndex) {
+        if (rule.type() != RecurrenceType.NTH_DAY_OF_MONTH) {
+            return afterDay + 1 + daysAheadToMask(rule.weekdayMask(), afterDay + 1);
+        }
+
+        long occurrence = nthOccurrence(rule, monthIndex);
+        if (occurrence <= afterDay) {
+            occurrence = nthOccurrence(rule, monthIndex + 1);
+        }
+        return occurrence;
+    }
+
+    /**
+     * Days from {@code fromDay} forward to the first weekday in the mask (0 if {@code fromDay} is in it).
+     */
+    private static int daysAheadToMask(int mask, long fromDay) {
+        int doubled = mask | (mask << 7);   // lets the search wrap past Sunday
+        return Integer.numberOfTrailingZeros(doubled >>> EpochDays.weekdayIndex(fromDay));
+    }
+
+    /**
+     * Days from {@code fromDay} back to the last weekday in the mask (0 if {@code fromDay} is in it).
+     */
+    private static int daysBackToMask(int mask, long fromDay) {
+        int top = EpochDays.weekdayIndex(fromDay) + 7;   // fromDay's bit in the upper copy
+        int doubled = (mask | (mask << 7)) & ((1 << (top + 1)) - 1);
+        return top - (31 - Integer.numberOfLeadingZeros(doubled));
+    }
+
+    /**
+     * Epoch day of the rule's Nth weekday in a month ({@link EpochDays#monthIndex}).
+     * With nthWeek at most 4 it is always in the month.
+     */
+    private static long nthOccurrence(RecurrenceRule rule, long monthIndex) {
+        long monthStart = EpochDays.firstDayOfMonth(monthIndex);
+        return monthStart
+                + Math.floorMod(rule.nthDay().ordinal() - EpochDays.weekdayIndex(monthStart), 7)
+                + (rule.nthWeek() - 1) * 7L;
     }
 
     /**
      * Counts how many expected dates fall in a range.
      *
+     * <p>Computed arithmetically rather than by walking the range: weekday-based rules count
+     * full weeks plus a remainder mask (O(1)), NTH_DAY_OF_MONTH checks one date per month
+     * (O(months)). No dates are allocated.
+     *
      * @param recurrenceRule the recurrence rule
      * @param startDate the start date (inclusive)
      * @param endDate the end date (inclusive)
@@ -141,7 +246,127 @@ public class RecurrenceCalculatorService {
             LocalDate startDate,
             LocalDate endDate
     ) {
-        return findExpectedDates(recurrenceRule, startDate, endDate).size();
+        validateRange(recurrenceRule, startDate, endDate);
+        return countExpectedDays(recurrenceRule, startDate.toEpochDay(), endDate.toEpochDay());
+    }
+
+    private static int countExpectedDays(RecurrenceRule rule, long firstDay, long lastDay) {
+        if (rule.type() == RecurrenceType.NTH_DAY_OF_MONTH) {
+            return countNthDayOfMonth(rule, firstDay, lastDay);
+        }
+        return countByWeekdayMask(rule.weekdayMask(), firstDay, lastDay);
+    }
+
+    /**
+     * Counts days in [firstDay, lastDay] whose weekday is in the mask:
+     * full weeks contribute bitCount(mask) each, the remaining 0-6 days are a window of the mask.
+     */
+    private static int countByWeekdayMask(int mask, long firstDay, long lastDay) {
+        long days = lastDay - firstDay + 1;
+        long fullWeeks = days / 7;
+        int remainder = (int) (days % 7);
+
+        int startIndex = EpochDays.weekdayIndex(firstDay);
+        int doubled = mask | (mask << 7);   // lets the window wrap past Sunday
+        int window = (doubled >>> startIndex) & ((1 << remainder) - 1);
+
+        return Math.toIntExact(fullWeeks * Integer.bitCount(mask) + Integer.bitCount(window));
+    }
+
+    /**
+     * Counts the Nth weekday of each month in the range, one check per month.
+     */
+    private static int countNthDayOfMonth(RecurrenceRule rule, long firstDay, long lastDay) {
+        long lastMonth = EpochDays.monthIndex(lastDay);
+
+        int count = 0;
+        for (long month = EpochDays.monthIndex(firstDay); month <= lastMonth; month++) {
+            long occurrence = nthOccurrence(rule, month);
+            if (occurrence >= firstDay && occurrence <= lastDay) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static void validateRange(RecurrenceRule recurrenceRule, LocalDate startDate, LocalDate endDate) {
+        if (recurrenceRule == null) {
+            throw new IllegalArgumentException("RecurrenceRule cannot be null");
+        }
+        if (startDate == null) {
+            throw new IllegalArgumentException("Start date cannot be null");
+        }
+        if (endDate == null) {
+            throw new IllegalArgumentException("End date cannot be null");
+        }
+        if (startDate.isAfter(endDate)) {
+            throw new IllegalArgumentException("Start date must be before or equal to end date");
+        }
+    }
+
+    /**
+     * Walks the expected epoch days of a range one at a time.
+     *
+     * <p>Weekday-based rules jump straight to the next set bit of the weekday mask;
+     * NTH_DAY_OF_MONTH steps one month per date. Nothing is allocated per date.
+     */
+    private static final class ExpectedDaySpliterator extends Spliterators.AbstractIntSpliterator {
+
+        private static final int CHARACTERISTICS =
+                ORDERED | DISTINCT | SORTED | NONNULL | IMMUTABLE;
+
+        private final RecurrenceRule rule;
+        private final long lastDay;
+        private final boolean nthDayOfMonth;
+
+        private long cursor;        // first day not yet examined
+        private long monthIndex;    // NTH_DAY_OF_MONTH: month not yet examined
+
+        ExpectedDaySpliterator(RecurrenceRule rule, int firstDay, int lastDay) {
+            super((long) lastDay - firstDay + 1, CHARACTERISTICS);
+            this.rule = rule;
+            this.cursor = firstDay;
+            this.lastDay = lastDay;
+            this.nthDayOfMonth = rule.type() == RecurrenceType.NTH_DAY_OF_MONTH;
+            this.monthIndex = EpochDays.monthIndex(firstDay);
+        }
+
+        @Override
+        public boolean tryAdvance(IntConsumer action) {
+            long next = nthDayOfMonth ? nextNthOccurrence() : nextMaskDay();
+            if (next > lastDay) {
+                cursor = lastDay + 1;
+                return false;
+            }
+            action.accept((int) next);
+            return true;
+        }
+
+        @Override
+        public Comparator<? super Integer> getComparator() {
+            return null;   // natural order
+        }
+
+        private long nextMaskDay() {
+            if (cursor > lastDay) {
+                return cursor;
+            }
+            long next = cursor + daysAheadToMask(rule.weekdayMask(), cursor);
+            cursor = next + 1;
+            return next;
+        }
+
+        private long nextNthOccurrence() {
+            long next;
+            do {
+                if (cursor > lastDay) {
+                    return cursor;
+                }
+                next = nthOccurrence(rule, monthIndex++);
+            } while (next < cursor);   // only possible in the first month
+            cursor = next + 1;
+            return next;
+        }
     }
 
     /**
@@ -284,6 +509,42 @@ public class RecurrenceCalculatorService {
         assert thirdFridays.size() == 2 : "Should have 2 third Fridays in Feb and March";
         System.out.println("✓ Test 18: NTH_DAY_OF_MONTH across months works");
 
+        // Test 19: Arithmetic count matches the walk over a long range
+        LocalDate longStart = LocalDate.of(2025, 12, 3);
+        LocalDate longEnd = LocalDate.of(2027, 3, 17);
+        for (RecurrenceRule rule : List.of(daily, weekdays, weekends, mwf, firstMonday, thirdFriday)) {
+            int walked = service.findExpectedDates(rule, longStart, longEnd).size();
+            int counted = service.countExpectedDates(rule, longStart, longEnd);
+            assert walked == counted : rule + ": walked " + walked + ", counted " + counted;
+        }
+        System.out.println("✓ Test 19: countExpectedDates matches findExpectedDates");
+
+        // Test 20: Next/previous NTH_DAY_OF_MONTH across a month boundary (no scan limit)
+        RecurrenceRule fourthMonday = RecurrenceRule.nthDayOfMonth(DayOfWeek.MONDAY, 4);
+        assert service.findNextExpectedDate(fourthMonday, LocalDate.of(2026, 1, 26)).get()
+                .equals(LocalDate.of(2026, 2, 23));
+        assert service.findPreviousExpectedDate(fourthMonday, LocalDate.of(2026, 1, 26)).get()
+                .equals(LocalDate.of(2025, 12, 22));
+        assert service.findNextExpectedDate(fourthMonday, LocalDate.of(2025, 12, 31)).get()
+                .equals(LocalDate.of(2026, 1, 26));
+        System.out.println("✓ Test 20: NTH_DAY_OF_MONTH next/previous cross month and year");
+
+        // Test 21: Batch next expected dates keep input order
+        List<LocalDate> nextDates = service.findNextExpectedDates(
+                List.of(daily, weekdays, weekends, firstMonday), LocalDate.of(2026, 1, 9));  // Fri
+        assert nextDates.equals(List.of(
+                LocalDate.of(2026, 1, 10), LocalDate.of(2026, 1, 12),
+                LocalDate.of(2026, 1, 10), LocalDate.of(2026, 2, 2))) : nextDates;
+        System.out.println("✓ Test 21: findNextExpectedDates works for many rules");
+
+        // Test 22: Lazy stream yields the same dates and can stop early
+        assert service.streamExpectedDates(mwf, febStart, febEnd).toList()
+                .equals(service.findExpectedDates(mwf, febStart, febEnd));
+        assert service.expectedEpochDays(firstMonday, febStart, LocalDate.of(2026, 12, 31)).count() == 11;
+        assert service.streamExpectedDates(weekdays, febStart, LocalDate.of(3026, 1, 1)).findFirst().get()
+                .equals(LocalDate.of(2026, 2, 2));  // Feb 1 is a Sunday
+        System.out.println("✓ Test 22: streamExpectedDates/expectedEpochDays are lazy and ordered");
+
         System.out.println("\n✅ All RecurrenceCalculatorService tests passed!");
     }
 }
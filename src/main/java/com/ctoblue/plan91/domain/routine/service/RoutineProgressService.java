@@ -2,51 +2,64 @@ package com.ctoblue.plan91.domain.routine.service;
 
 import com.ctoblue.plan91.domain.habitentry.HabitEntry;
 import com.ctoblue.plan91.domain.routine.Routine;
+import com.ctoblue.plan91.domain.shared.EpochDaySet;
+import com.ctoblue.plan91.domain.shared.EpochDays;
 
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Set;
-import java.util.stream.Collectors;
+import java.util.PrimitiveIterator;
 
 /**
  * Domain service for calculating routine progress and statistics.
  *
  * <p>Stateless service that provides operations for:
  * <ul>
+ *   <li>Computing a full progress report in one pass</li>
  *   <li>Calculating compliance rates</li>
  *   <li>Finding missed days</li>
  *   <li>Calculating overall progress</li>
  *   <li>Checking if routine is on track</li>
  * </ul>
  *
+ * <p>Flexible TIMES_PER_WEEK_X routines have no fixed days; they are scored per ISO week
+ * against their quota by {@link WeeklyQuotaEvaluator}, so a 3x/week routine completed on
+ * any three days of a week has no missed days.
+ *
  * <p>This is a domain service (not application service) - pure domain logic with no infrastructure dependencies.
  */
 public class RoutineProgressService {
 
     private final RecurrenceCalculatorService recurrenceCalculator;
+    private final WeeklyQuotaEvaluator weeklyQuotaEvaluator;
 
     /**
      * Creates a new RoutineProgressService.
      */
     public RoutineProgressService() {
         this.recurrenceCalculator = new RecurrenceCalculatorService();
+        this.weeklyQuotaEvaluator = new WeeklyQuotaEvaluator();
     }
 
     /**
-     * Calculates the compliance rate for a routine up to a given date.
+     * Computes compliance, expected and missed days, on-track status and overall progress
+     * in one pass.
      *
-     * <p>Compliance rate = (completed days / expected days) * 100
+     * <p>Expected dates are streamed from the recurrence rule and merge-joined with the entry
+     * dates in date order, so each is visited once. Entries already sorted by date (as
+     * repositories return them) are not re-sorted; entries off the schedule or outside the
+     * range are ignored. Before the routine starts nothing is expected. Flexible weekly
+     * routines are scored per week instead (see {@link WeeklyQuotaEvaluator}).
      *
      * @param routine the routine
      * @param entries the habit entries for this routine
-     * @param upToDate calculate compliance up to this date (inclusive)
-     * @return compliance rate as percentage (0-100)
+     * @param asOfDate compute progress up to this date (inclusive)
+     * @return the progress report
      */
-    public double calculateComplianceRate(
+    public ProgressReport computeReport(
             Routine routine,
             List<HabitEntry> entries,
-            LocalDate upToDate
+            LocalDate asOfDate
     ) {
         if (routine == null) {
             throw new IllegalArgumentException("Routine cannot be null");
@@ -54,36 +67,156 @@ public class RoutineProgressService {
         if (entries == null) {
             throw new IllegalArgumentException("Entries cannot be null");
         }
-        if (upToDate == null) {
-            throw new IllegalArgumentException("UpToDate cannot be null");
+        if (asOfDate == null) {
+            throw new IllegalArgumentException("AsOfDate cannot be null");
         }
 
-        int expectedDays = countExpectedDays(routine, upToDate);
-        if (expectedDays == 0) {
-            return 100.0;  // No days expected yet, perfect compliance
+        return computeReport(routine, sortedEpochDays(entries), asOfDate);
+    }
+
+    /**
+     * Same as {@link #computeReport(Routine, List, LocalDate)} for entry dates already
+     * given as ascending epoch days (see {@link BulkProgressEvaluator.RoutineEntries}).
+     */
+    ProgressReport computeReport(Routine routine, int[] entryDays, LocalDate asOfDate) {
+        if (routine.getRecurrenceRule().isFlexibleWeekly()) {
+            WeeklyQuotaEvaluator.WeeklyQuota quota = weeklyQuotaEvaluator.evaluate(
+                    routine.getRecurrenceRule(),
+                    routine.getStartDate(),
+                    routine.getExpectedEndDate(),
+                    entryDays,
+                    asOfDate
+            );
+            return report(routine, asOfDate, quota.expectedDays(), quota.completedDays(), quota.missedDays());
         }
 
-        // Count completed days (entries that fall on expected dates)
-        Set<LocalDate> entryDates = entries.stream()
-                .map(HabitEntry::getDate)
-                .collect(Collectors.toSet());
+        Walk walk = walk(routine, entryDays, asOfDate, Integer.MAX_VALUE);
+        return report(routine, asOfDate, walk.expectedDays(), walk.completedDays(), walk.missedDays());
+    }
 
-        List<LocalDate> expectedDates = recurrenceCalculator.findExpectedDates(
-                routine.getRecurrenceRule(),
-                routine.getStartDate(),
-                upToDate
+    /**
+     * Merge-joins the expected dates of a fixed schedule with the entry days in date order,
+     * stopping as soon as {@code missLimit} missed days have been found.
+     */
+    private Walk walk(Routine routine, int[] entryDays, LocalDate asOfDate, int missLimit) {
+        int expectedDays = 0;
+        int completedDays = 0;
+        List<LocalDate> missedDays = new ArrayList<>();
+
+        if (!asOfDate.isBefore(routine.getStartDate())) {
+            PrimitiveIterator.OfInt expected = recurrenceCalculator.expectedEpochDays(
+                    routine.getRecurrenceRule(),
+                    routine.getStartDate(),
+                    asOfDate
+            ).iterator();
+
+            int e = 0;
+            while (expected.hasNext() && missedDays.size() < missLimit) {
+                int day = expected.nextInt();
+                expectedDays++;
+                while (e < entryDays.length && entryDays[e] < day) {
+                    e++;   // entry on an unscheduled day
+                }
+                if (e < entryDays.length && entryDays[e] == day) {
+                    completedDays++;
+                } else {
+                    missedDays.add(EpochDays.toDate(day));
+                }
+            }
+        }
+
+        return new Walk(expectedDays, completedDays, missedDays);
+    }
+
+    /**
+     * Counts of a merge walk; complete only if it was not stopped early.
+     */
+    private record Walk(int expectedDays, int completedDays, List<LocalDate> missedDays) {
+    }
+
+    private static ProgressReport report(
+            Routine routine,
+            LocalDate asOfDate,
+            int expectedDays,
+            int completedDays,
+            List<LocalDate> missedDays
+    ) {
+        double complianceRate = expectedDays == 0
+                ? 100.0   // No days expected yet, perfect compliance
+                : (completedDays * 100.0) / expectedDays;
+
+        boolean onTrack = missedDays.isEmpty()
+                || (missedDays.size() == 1 && routine.getStreak().hasUsedStrike());
+
+        return new ProgressReport(
+                asOfDate,
+                expectedDays,
+                completedDays,
+                missedDays,
+                complianceRate,
+                overallProgress(routine),
+                onTrack
         );
+    }
 
-        long completedCount = expectedDates.stream()
-                .filter(entryDates::contains)
-                .count();
+    /**
+     * Entry dates as ascending epoch days. Entries out of order are put in order through
+     * an {@link EpochDaySet} over their span, in linear time.
+     */
+    private static int[] sortedEpochDays(List<HabitEntry> entries) {
+        int[] days = new int[entries.size()];
+        boolean sorted = true;
+        int min = Integer.MAX_VALUE;
+        int max = Integer.MIN_VALUE;
+        int i = 0;
+        for (HabitEntry entry : entries) {
+            int day = EpochDays.of(entry.getDate());
+            if (i > 0 && day < days[i - 1]) {
+                sorted = false;
+            }
+            days[i++] = day;
+            min = Math.min(min, day);
+            max = Math.max(max, day);
+        }
+        if (sorted) {
+            return days;
+        }
 
-        return (completedCount * 100.0) / expectedDays;
+        EpochDaySet set = new EpochDaySet(min, max);
+        for (int day : days) {
+            set.add(day);
+        }
+        return set.toArray();
+    }
+
+    /**
+     * Calculates the compliance rate for a routine up to a given date.
+     *
+     * <p>Compliance rate = (completed days / expected days) * 100
+     *
+     * @param routine the routine
+     * @param entries the habit entries for this routine
+     * @param upToDate calculate compliance up to this date (inclusive)
+     * @return compliance rate as percentage (0-100)
+     * @see #computeReport
+     */
+    public double calculateComplianceRate(
+            Routine routine,
+            List<HabitEntry> entries,
+            LocalDate upToDate
+    ) {
+        if (upToDate == null) {
+            throw new IllegalArgumentException("UpToDate cannot be null");
+        }
+        return computeReport(routine, entries, upToDate).complianceRate();
     }
 
     /**
      * Calculates how many days were expected from start to a given date.
      *
+     * <p>Counted arithmetically, without the entries a full report needs. For flexible
+     * weekly routines this is the quota already owed with nothing completed.
+     *
      * @param routine the routine
      * @param upToDate calculate expected days up to this date (inclusive)
      * @return number of expected days based on recurrence rule
@@ -96,6 +229,16 @@ public class RoutineProgressService {
             throw new IllegalArgumentException("UpToDate cannot be null");
         }
 
+        if (routine.getRecurrenceRule().isFlexibleWeekly()) {
+            return weeklyQuotaEvaluator.evaluate(
+                    routine.getRecurrenceRule(),
+                    routine.getStartDate(),
+                    routine.getExpectedEndDate(),
+                    new int[0],
+                    upToDate
+            ).expectedDays();
+        }
+
         LocalDate start = routine.getStartDate();
         LocalDate effectiveEnd = upToDate.isBefore(start) ? start : upToDate;
 
@@ -123,6 +266,10 @@ public class RoutineProgressService {
             throw new IllegalArgumentException("Entries cannot be null");
         }
 
+        return overallProgress(routine);
+    }
+
+    private static double overallProgress(Routine routine) {
         // Use streak's total completions for accurate count
         int totalCompletions = routine.getStreak().totalCompletions();
 
@@ -138,35 +285,17 @@ public class RoutineProgressService {
      * @param entries the habit entries
      * @param upToDate check for misses up to this date (inclusive)
      * @return list of dates that were expected but missed
+     * @see #computeReport
      */
     public List<LocalDate> findMissedDays(
             Routine routine,
             List<HabitEntry> entries,
             LocalDate upToDate
     ) {
-        if (routine == null) {
-            throw new IllegalArgumentException("Routine cannot be null");
-        }
-        if (entries == null) {
-            throw new IllegalArgumentException("Entries cannot be null");
-        }
         if (upToDate == null) {
             throw new IllegalArgumentException("UpToDate cannot be null");
         }
-
-        Set<LocalDate> entryDates = entries.stream()
-                .map(HabitEntry::getDate)
-                .collect(Collectors.toSet());
-
-        List<LocalDate> expectedDates = recurrenceCalculator.findExpectedDates(
-                routine.getRecurrenceRule(),
-                routine.getStartDate(),
-                upToDate
-        );
-
-        return expectedDates.stream()
-                .filter(date -> !entryDates.contains(date))
-                .collect(Collectors.toList());
+        return computeReport(routine, entries, upToDate).missedDays();
     }
 
     /**
@@ -178,6 +307,9 @@ public class RoutineProgressService {
      *   <li>It has used its strike for the only missed day</li>
      * </ul>
      *
+     * <p>Agrees with {@link ProgressReport#onTrack()}, but only whether there are zero, one
+     * or more misses matters, so the walk stops at the first miss the strike does not cover.
+     *
      * @param routine the routine
      * @param entries the habit entries
      * @param asOfDate check status as of this date
@@ -198,17 +330,13 @@ public class RoutineProgressService {
             throw new IllegalArgumentException("AsOfDate cannot be null");
         }
 
-        List<LocalDate> missedDays = findMissedDays(routine, entries, asOfDate);
-
-        if (missedDays.isEmpty()) {
-            return true;  // No missed days, on track
-        }
-
-        if (missedDays.size() == 1 && routine.getStreak().hasUsedStrike()) {
-            return true;  // One miss, but strike used
+        if (routine.getRecurrenceRule().isFlexibleWeekly()) {
+            return computeReport(routine, sortedEpochDays(entries), asOfDate).onTrack();
         }
 
-        return false;  // Has unexcused missed days
+        int allowedMisses = routine.getStreak().hasUsedStrike() ? 1 : 0;
+        Walk walk = walk(routine, sortedEpochDays(entries), asOfDate, allowedMisses + 1);
+        return walk.missedDays().size() <= allowedMisses;
     }
 
     /**
@@ -390,6 +518,72 @@ public class RoutineProgressService {
         assert cappedProgress == 100.0 : "Progress should cap at 100%, got: " + cappedProgress;
         System.out.println("✓ Test 15: Overall progress caps at 100%");
 
+        // Test 16: One report agrees with the individual views, entries in any order
+        List<com.ctoblue.plan91.domain.habitentry.HabitEntry> shuffled = new ArrayList<>(partialEntries);
+        java.util.Collections.reverse(shuffled);
+        shuffled.add(com.ctoblue.plan91.domain.habitentry.HabitEntry.recordBoolean(
+                routine.getId(), LocalDate.of(2026, 2, 1), null));  // Sun - not scheduled
+        ProgressReport report = service.computeReport(routine, shuffled, endFirstWeek);
+        assert report.expectedDays() == 5;
+        assert report.completedDays() == 3;
+        assert report.missedDays().equals(List.of(LocalDate.of(2026, 2, 3), LocalDate.of(2026, 2, 5)));
+        assert report.complianceRate() == 60.0;
+        assert !report.onTrack();
+        assert report.overallProgress() == service.calculateOverallProgress(routine, shuffled);
+        System.out.println("✓ Test 16: computeReport matches the individual calculations");
+
+        // Test 17: Report before the routine starts expects nothing
+        ProgressReport early = service.computeReport(routine, noEntries, start.minusDays(5));
+        assert early.expectedDays() == 0 && early.missedDays().isEmpty() && early.onTrack();
+        assert early.complianceRate() == 100.0;
+        System.out.println("✓ Test 17: Report before start date is empty and on track");
+
+        // Test 18: 3x/week routine on any three days of each week has no misses
+        Routine flexible = Routine.start(
+                com.ctoblue.plan91.domain.habit.HabitId.generate(),
+                com.ctoblue.plan91.domain.habitpractitioner.HabitPractitionerId.generate(),
+                com.ctoblue.plan91.domain.routine.RecurrenceRule.timesPerWeek(3),
+                LocalDate.of(2026, 2, 2)   // Monday
+        );
+        List<com.ctoblue.plan91.domain.habitentry.HabitEntry> flexibleEntries = new ArrayList<>();
+        for (LocalDate date : List.of(LocalDate.of(2026, 2, 2), LocalDate.of(2026, 2, 3), LocalDate.of(2026, 2, 8),
+                LocalDate.of(2026, 2, 10), LocalDate.of(2026, 2, 12), LocalDate.of(2026, 2, 13))) {
+            flexibleEntries.add(com.ctoblue.plan91.domain.habitentry.HabitEntry.recordBoolean(
+                    flexible.getId(), date, null));
+        }
+        LocalDate twoWeeks = LocalDate.of(2026, 2, 15);
+        ProgressReport flexibleReport = service.computeReport(flexible, flexibleEntries, twoWeeks);
+        assert flexibleReport.expectedDays() == 6 && flexibleReport.completedDays() == 6 : flexibleReport;
+        assert flexibleReport.missedDays().isEmpty() && flexibleReport.onTrack();
+        assert service.countExpectedDays(flexible, twoWeeks) == 6;
+        System.out.println("✓ Test 18: 3x/week routine scored per week, no false misses");
+
+        // Test 19: A short flexible week is missed once per completion it lacks
+        List<LocalDate> flexibleMissed = service.findMissedDays(flexible, flexibleEntries.subList(0, 5), twoWeeks);
+        assert flexibleMissed.equals(List.of(LocalDate.of(2026, 2, 15))) : flexibleMissed;
+        assert service.calculateComplianceRate(flexible, flexibleEntries.subList(0, 5), twoWeeks) == 5 * 100.0 / 6;
+        System.out.println("✓ Test 19: Flexible shortfall dated on the week's last open day");
+
+        // Test 20: isOnTrack stops early but agrees with the full report
+        Routine longRoutine = Routine.start(
+                com.ctoblue.plan91.domain.habit.HabitId.generate(),
+                com.ctoblue.plan91.domain.habitpractitioner.HabitPractitionerId.generate(),
+                com.ctoblue.plan91.domain.routine.RecurrenceRule.daily(),
+                start
+        );
+        LocalDate endOfRoutine = longRoutine.getExpectedEndDate();
+        for (List<com.ctoblue.plan91.domain.habitentry.HabitEntry> entries :
+                List.of(noEntries, allEntries, strikeEntries, manyMisses)) {
+            assert service.isOnTrack(longRoutine, entries, endOfRoutine)
+                    == service.computeReport(longRoutine, entries, endOfRoutine).onTrack();
+            assert service.isOnTrack(strikeRoutine, entries, endFirstWeek)
+                    == service.computeReport(strikeRoutine, entries, endFirstWeek).onTrack();
+        }
+        assert service.isOnTrack(longRoutine, noEntries, start.minusDays(1));
+        assert !service.isOnTrack(longRoutine, noEntries, start);
+        assert !service.isOnTrack(flexible, flexibleEntries.subList(0, 5), twoWeeks);
+        System.out.println("✓ Test 20: isOnTrack early exit agrees with computeReport");
+
         System.out.println("\n✅ All RoutineProgressService tests passed!");
     }
 }
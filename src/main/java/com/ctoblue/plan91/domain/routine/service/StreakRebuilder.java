@@ -0,0 +1,410 @@
+package com.ctoblue.plan91.domain.routine.service;
+
+import com.ctoblue.plan91.domain.routine.DayOfWeek;
+import com.ctoblue.plan91.domain.routine.HabitStreak;
+import com.ctoblue.plan91.domain.routine.RecurrenceRule;
+import com.ctoblue.plan91.domain.shared.EpochDays;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Domain service that recomputes a routine's {@link HabitStreak} from its entry dates.
+ *
+ * <p>{@link HabitStreak#incrementStreak} assumes completions arrive in date order with no gaps,
+ * so a backfilled day or an import leaves the counters wrong. This service replays the entries
+ * in one ascending pass instead, applying the one-strike rule to the days between them:
+ * <ul>
+ *   <li>An entry on an expected day extends the current streak</li>
+ *   <li>An entry on any other day counts toward the total only</li>
+ *   <li>The first expected day without an entry uses the strike; the streak is kept</li>
+ *   <li>Every later expected day without an entry resets the current streak</li>
+ * </ul>
+ * Flexible TIMES_PER_WEEK_X routines have no expected days; their misses are the shortfall
+ * days dated by {@link WeeklyQuotaEvaluator}.
+ *
+ * <p>Misses are counted up to the last entry only, so a streak describes the routine as of its
+ * last completion. That is the point {@link #resume} continues from: a completion after it only
+ * scans the gap since, which is counted arithmetically rather than day by day.
+ *
+ * <p>{@link #countMisses} counts the expected days the same replay misses, so callers can tell
+ * when it crosses the second miss that {@link com.ctoblue.plan91.domain.routine.Routine#recordMiss}
+ * abandons on.
+ *
+ * <p>Status is deliberately not decided here, unlike {@link com.ctoblue.plan91.domain.routine.Routine#recordMiss},
+ * which abandons the routine on its second miss. A replayed second miss only resets the streak:
+ * rebuilds run over history that can still change, since a backfilled or offline-synced entry
+ * may later fill the gap, while abandonment cannot be undone. Pause history is not stored, so
+ * paused days are scanned like any other.
+ *
+ * <p>This is a domain service (not application service) - pure domain logic with no infrastructure dependencies.
+ */
+public class StreakRebuilder {
+
+    private final RecurrenceCalculatorService calculator = new RecurrenceCalculatorService();
+    private final WeeklyQuotaEvaluator weeklyQuotaEvaluator = new WeeklyQuotaEvaluator();
+
+    /**
+     * Recomputes a streak from all of a routine's entries.
+     *
+     * @param rule the routine's recurrence rule
+     * @param startDate the routine's start date
+     * @param endDate the routine's expected end date; no misses are counted after it
+     * @param entryDays entry dates ({@link LocalDate#toEpochDay()}), ascending; days before
+     *                  the start and repeated days are skipped
+     * @return the streak as of the last entry
+     * @throws IllegalArgumentException if an argument is null
+     */
+    public HabitStreak rebuild(RecurrenceRule rule, LocalDate startDate, LocalDate endDate, int[] entryDays) {
+        validate(rule, startDate, endDate);
+        if (entryDays == null) {
+            throw new IllegalArgumentException("EntryDays cannot be null");
+        }
+        return rule.isFlexibleWeekly()
+                ? rebuildFlexible(rule, startDate, endDate, entryDays)
+                : rebuildFixed(rule, startDate, endDate, entryDays);
+    }
+
+    /**
+     * Counts the expected days without an entry, up to the last entry, that {@link #rebuild}
+     * replays as misses: the first would use the strike, every later one resets the streak.
+     *
+     * @param rule the routine's recurrence rule
+     * @param startDate the routine's start date
+     * @param endDate the routine's expected end date; no misses are counted after it
+     * @param entryDays entry dates ({@link LocalDate#toEpochDay()}), ascending
+     * @return the number of missed expected days
+     * @throws IllegalArgumentException if an argument is null
+     */
+    public int countMisses(RecurrenceRule rule, LocalDate startDate, LocalDate endDate, int[] entryDays) {
+        validate(rule, startDate, endDate);
+        if (entryDays == null) {
+            throw new IllegalArgumentException("EntryDays cannot be null");
+        }
+        int from = EpochDays.of(startDate);   // first day not scanned yet
+        if (rule.isFlexibleWeekly()) {
+            int lastEntry = entryDays.length == 0 ? from - 1 : entryDays[entryDays.length - 1];
+            return lastEntry < from ? 0 : weeklyQuotaEvaluator
+                    .evaluate(rule, startDate, endDate, entryDays, EpochDays.toDate(lastEntry))
+                    .missedDays().size();
+        }
+        int lastDay = EpochDays.of(endDate);
+        int misses = 0;
+        for (int day : entryDays) {
+            if (day < from) {
+                continue;
+            }
+            int to = Math.min(day - 1, lastDay);
+            if (to >= from) {
+                misses += calculator.countExpectedDates(rule, EpochDays.toDate(from), EpochDays.toDate(to));
+            }
+            from = day + 1;
+        }
+        return misses;
+    }
+
+    /**
+     * Checks whether a completion can be appended to a streak without a rebuild: the rule has
+     * fixed expected days and the date is after everything the streak has already counted.
+     *
+     * @param streak the current streak
+     * @param rule the routine's recurrence rule
+     * @param date the completion date
+     * @return true if {@link #resume} applies
+     */
+    public boolean canResume(HabitStreak streak, RecurrenceRule rule, LocalDate date) {
+        LocalDate scannedThrough = scannedThrough(streak);
+        return !rule.isFlexibleWeekly() && (scannedThrough == null || date.isAfter(scannedThrough));
+    }
+
+    /**
+     * Appends one completion to a streak, scanning only the days since its last completion.
+     * Gives the same streak as a {@link #rebuild} with the date added.
+     *
+     * @param streak the current streak
+     * @param rule the routine's recurrence rule
+     * @param startDate the routine's start date
+     * @param endDate the routine's expected end date
+     * @param date the completion date
+     * @return the streak as of the date
+     * @throws IllegalArgumentException if the completion cannot be appended (see {@link #canResume})
+     */
+    public HabitStreak resume(HabitStreak streak, RecurrenceRule rule, LocalDate startDate, LocalDate endDate,
+                              LocalDate date) {
+        validate(rule, startDate, endDate);
+        if (streak == null || date == null) {
+            throw new IllegalArgumentException("Streak and date cannot be null");
+        }
+        if (!canResume(streak, rule, date)) {
+            throw new IllegalArgumentException("Cannot resume streak at " + date + ", rebuild it instead");
+        }
+        if (date.isBefore(startDate)) {
+            return streak;
+        }
+
+        LocalDate scannedThrough = scannedThrough(streak);
+        int from = scannedThrough == null ? EpochDays.of(startDate)
+                : Math.max(EpochDays.of(scannedThrough) + 1, EpochDays.of(startDate));
+        int day = EpochDays.of(date);
+        streak = missExpectedDays(streak, rule, from, Math.min(day - 1, EpochDays.of(endDate)));
+        return complete(streak, rule, date);
+    }
+
+    /**
+     * Returns a routine's streak after a completion was recorded, resuming from the previous
+     * streak when possible and otherwise rebuilding from the routine's entries.
+     *
+     * @param before the streak before the completion
+     * @param rule the routine's recurrence rule
+     * @param startDate the routine's start date
+     * @param endDate the routine's expected end date
+     * @param date the completion date
+     * @param entryDays supplies all entry days including the new one, ascending; only called for a rebuild
+     * @return the corrected streak
+     */
+    public HabitStreak afterCompletion(HabitStreak before, RecurrenceRule rule, LocalDate startDate,
+                                       LocalDate endDate, LocalDate date, Supplier<int[]> entryDays) {
+        if (canResume(before, rule, date)) {
+            return resume(before, rule, startDate, endDate, date);
+        }
+        return rebuild(rule, startDate, endDate, entryDays.get());
+    }
+
+    private HabitStreak rebuildFixed(RecurrenceRule rule, LocalDate startDate, LocalDate endDate, int[] entryDays) {
+        int lastDay = EpochDays.of(endDate);
+        int from = EpochDays.of(startDate);   // first day not scanned yet
+        HabitStreak streak = HabitStreak.initial();
+        for (int day : entryDays) {
+            if (day < from) {
+                continue;
+            }
+            streak = missExpectedDays(streak, rule, from, Math.min(day - 1, lastDay));
+            streak = complete(streak, rule, EpochDays.toDate(day));
+            from = day + 1;
+        }
+        return streak;
+    }
+
+    private HabitStreak rebuildFlexible(RecurrenceRule rule, LocalDate startDate, LocalDate endDate, int[] entryDays) {
+        int from = EpochDays.of(startDate);
+        int lastEntry = entryDays.length == 0 ? from - 1 : entryDays[entryDays.length - 1];
+        if (lastEntry < from) {
+            return HabitStreak.initial();
+        }
+
+        List<LocalDate> missedDays = weeklyQuotaEvaluator
+                .evaluate(rule, startDate, endDate, entryDays, EpochDays.toDate(lastEntry))
+                .missedDays();
+        int missed = 0;
+        HabitStreak streak = HabitStreak.initial();
+        for (int day : entryDays) {
+            if (day < from) {
+                continue;
+            }
+            // Shortfall days never have an entry, so each falls strictly between two entries
+            while (missed < missedDays.size() && EpochDays.of(missedDays.get(missed)) < day) {
+                streak = miss(streak, missedDays.get(missed++), 1);
+            }
+            streak = complete(streak, rule, EpochDays.toDate(day));
+            from = day + 1;
+        }
+        return streak;
+    }
+
+    /**
+     * Applies the misses of every expected day in [fromDay, toDay], counted without walking the range.
+     */
+    private HabitStreak missExpectedDays(HabitStreak streak, RecurrenceRule rule, int fromDay, int toDay) {
+        if (toDay < fromDay) {
+            return streak;
+        }
+        LocalDate from = EpochDays.toDate(fromDay);
+        int missed = calculator.countExpectedDates(rule, from, EpochDays.toDate(toDay));
+        if (missed == 0) {
+            return streak;
+        }
+        LocalDate firstMiss = calculator.findNextExpectedDate(rule, from.minusDays(1)).orElseThrow();
+        return miss(streak, firstMiss, missed);
+    }
+
+    /**
+     * Applies {@code count} misses, the first on {@code firstMiss}: the strike if still unused, then resets.
+     */
+    private static HabitStreak miss(HabitStreak streak, LocalDate firstMiss, int count) {
+        if (!streak.hasUsedStrike()) {
+            streak = streak.useStrike(firstMiss);
+            count--;
+        }
+        return count > 0 ? streak.resetStreak() : streak;
+    }
+
+    private static HabitStreak complete(HabitStreak streak, RecurrenceRule rule, LocalDate date) {
+        if (rule.isExpectedOn(date)) {
+            return streak.incrementStreak(date);
+        }
+        return new HabitStreak(
+                streak.currentStreak(),
+                streak.longestStreak(),
+                streak.totalCompletions() + 1,
+                streak.hasUsedStrike(),
+                streak.strikeDate(),
+                date
+        );
+    }
+
+    /**
+     * Last day a streak has accounted for: its last completion, or a later strike recorded as a miss.
+     */
+    private static LocalDate scannedThrough(HabitStreak streak) {
+        LocalDate last = streak.lastCompletionDate();
+        LocalDate strike = streak.strikeDate();
+        if (last == null || (strike != null && strike.isAfter(last))) {
+            return strike;
+        }
+        return last;
+    }
+
+    private static void validate(RecurrenceRule rule, LocalDate startDate, LocalDate endDate) {
+        if (rule == null) {
+            throw new IllegalArgumentException("RecurrenceRule cannot be null");
+        }
+        if (startDate == null || endDate == null) {
+            throw new IllegalArgumentException("Start and end dates cannot be null");
+        }
+    }
+
+    /**
+     * Standalone test method (ADR-004: Domain model testing with main()).
+     */
+    public static void main(String[] args) {
+        System.out.println("Testing StreakRebuilder...\n");
+
+        StreakRebuilder rebuilder = new StreakRebuilder();
+        RecurrenceRule daily = RecurrenceRule.daily();
+        LocalDate start = LocalDate.of(2026, 2, 2);  // Monday
+        LocalDate end = start.plusDays(90);
+
+        // Test 1: Consecutive entries match the incremental streak
+        HabitStreak consecutive = rebuilder.rebuild(daily, start, end, offsets(start, 0, 1, 2));
+        HabitStreak incremented = HabitStreak.initial()
+                .incrementStreak(start).incrementStreak(start.plusDays(1)).incrementStreak(start.plusDays(2));
+        assert consecutive.equals(incremented) : consecutive;
+        System.out.println("✓ Test 1: Consecutive entries: " + consecutive);
+
+        // Test 2: First gap uses the strike and keeps the streak
+        HabitStreak oneGap = rebuilder.rebuild(daily, start, end, offsets(start, 0, 1, 3, 4));
+        assert oneGap.currentStreak() == 4 && oneGap.totalCompletions() == 4;
+        assert oneGap.hasUsedStrike() && oneGap.strikeDate().equals(start.plusDays(2));
+        System.out.println("✓ Test 2: One gap uses the strike: " + oneGap);
+
+        // Test 3: A later gap resets the current streak, longest is kept
+        HabitStreak twoGaps = rebuilder.rebuild(daily, start, end, offsets(start, 0, 1, 3, 5, 6));
+        assert twoGaps.currentStreak() == 2 && twoGaps.longestStreak() == 3;
+        assert twoGaps.totalCompletions() == 5 && twoGaps.strikeDate().equals(start.plusDays(2));
+        HabitStreak wideGap = rebuilder.rebuild(daily, start, end, offsets(start, 0, 4));
+        assert wideGap.currentStreak() == 1 && wideGap.longestStreak() == 1 : wideGap;
+        System.out.println("✓ Test 3: Second miss resets: " + twoGaps);
+
+        // Test 4: Only expected days are misses; off-schedule entries count toward the total only
+        HabitStreak weekdays = rebuilder.rebuild(RecurrenceRule.weekdays(), start, end,
+                offsets(start, 0, 1, 2, 3, 4, 5, 7));
+        assert weekdays.currentStreak() == 6 && weekdays.totalCompletions() == 7;
+        assert !weekdays.hasUsedStrike() : weekdays;
+        System.out.println("✓ Test 4: Weekends are not misses, a Saturday entry is total only: " + weekdays);
+
+        // Test 5: Resuming entry by entry gives the same streak as a rebuild
+        RecurrenceRule nth = RecurrenceRule.nthDayOfMonth(DayOfWeek.MONDAY, 1);
+        for (RecurrenceRule rule : List.of(daily, RecurrenceRule.weekdays(), nth)) {
+            int[] days = offsets(start, 0, 1, 3, 7, 8, 9, 20, 28, 35, 63);
+            HabitStreak resumed = HabitStreak.initial();
+            for (int i = 0; i < days.length; i++) {
+                LocalDate date = EpochDays.toDate(days[i]);
+                assert rebuilder.canResume(resumed, rule, date);
+                resumed = rebuilder.resume(resumed, rule, start, end, date);
+                int[] prefix = Arrays.copyOf(days, i + 1);
+                assert resumed.equals(rebuilder.rebuild(rule, start, end, prefix)) : rule + " " + date;
+            }
+        }
+        System.out.println("✓ Test 5: Resume matches rebuild for daily, weekdays and nth-day rules");
+
+        // Test 6: A backfill cannot resume; afterCompletion rebuilds from the entries
+        HabitStreak beforeBackfill = rebuilder.rebuild(daily, start, end, offsets(start, 0, 2));
+        assert !rebuilder.canResume(beforeBackfill, daily, start.plusDays(1));
+        HabitStreak backfilled = rebuilder.afterCompletion(beforeBackfill, daily, start, end, start.plusDays(1),
+                () -> offsets(start, 0, 1, 2));
+        assert backfilled.currentStreak() == 3 && !backfilled.hasUsedStrike() : backfilled;
+        HabitStreak appended = rebuilder.afterCompletion(beforeBackfill, daily, start, end, start.plusDays(3),
+                () -> { throw new AssertionError("Should resume without loading entries"); });
+        assert appended.currentStreak() == 3 && appended.totalCompletions() == 3;
+        System.out.println("✓ Test 6: Backfill rebuilds, in-order completion resumes: " + backfilled);
+
+        // Test 7: Flexible weekly misses are the week's shortfall days
+        RecurrenceRule threePerWeek = RecurrenceRule.timesPerWeek(3);
+        HabitStreak flexible = rebuilder.rebuild(threePerWeek, start, end, offsets(start, 0, 7, 8, 9));
+        assert flexible.strikeDate().equals(LocalDate.of(2026, 2, 7)) : flexible;   // Sat of week 1
+        assert flexible.currentStreak() == 3 && flexible.longestStreak() == 3;
+        assert flexible.totalCompletions() == 4;
+        assert !rebuilder.canResume(flexible, threePerWeek, start.plusDays(10));
+        System.out.println("✓ Test 7: 1 of 3 in week 1 strikes Sat and resets Sun: " + flexible);
+
+        // Test 8: Entries before the start and repeated days are skipped
+        HabitStreak skipped = rebuilder.rebuild(daily, start, end, offsets(start, -2, 0, 0, 1));
+        assert skipped.equals(rebuilder.rebuild(daily, start, end, offsets(start, 0, 1)));
+        assert rebuilder.rebuild(daily, start, end, new int[0]).equals(HabitStreak.initial());
+        System.out.println("✓ Test 8: Pre-start and repeated days skipped");
+
+        // Test 9: Validation
+        try {
+            rebuilder.rebuild(null, start, end, new int[0]);
+            assert false : "Should throw for null rule";
+        } catch (IllegalArgumentException e) {
+            System.out.println("✓ Test 9: Null rule rejected: " + e.getMessage());
+        }
+        try {
+            rebuilder.resume(beforeBackfill, daily, start, end, start.plusDays(1));
+            assert false : "Should throw for backfill";
+        } catch (IllegalArgumentException e) {
+            System.out.println("✓ Test 9: Resume before last completion rejected: " + e.getMessage());
+        }
+
+        // Test 10: A replayed second miss resets without abandoning, and a backfill undoes it,
+        // where recordMiss abandons for good
+        com.ctoblue.plan91.domain.routine.Routine live = com.ctoblue.plan91.domain.routine.Routine.start(
+                com.ctoblue.plan91.domain.habit.HabitId.generate(),
+                com.ctoblue.plan91.domain.habitpractitioner.HabitPractitionerId.generate(),
+                daily,
+                start
+        );
+        live.recordCompletion(start);
+        live.recordMiss(start.plusDays(1));
+        live.recordMiss(start.plusDays(2));
+        assert live.getStatus() == com.ctoblue.plan91.domain.routine.RoutineStatus.ABANDONED;
+        HabitStreak replayed = rebuilder.rebuild(daily, start, end, offsets(start, 0, 3));
+        assert replayed.currentStreak() == 1 && replayed.hasUsedStrike() : replayed;
+        HabitStreak gapFilled = rebuilder.rebuild(daily, start, end, offsets(start, 0, 1, 2, 3));
+        assert gapFilled.currentStreak() == 4 && !gapFilled.hasUsedStrike() : gapFilled;
+        System.out.println("✓ Test 10: Replayed second miss resets only; backfilling the gap restores: " + gapFilled);
+
+        // Test 11: Misses are counted up to the last entry, as the rebuild replays them
+        assert rebuilder.countMisses(daily, start, end, offsets(start)) == 0;
+        assert rebuilder.countMisses(daily, start, end, offsets(start, 0, 1, 2)) == 0;
+        assert rebuilder.countMisses(daily, start, end, offsets(start, 0, 2)) == 1;
+        assert rebuilder.countMisses(daily, start, end, offsets(start, 0, 3)) == 2;
+        assert rebuilder.countMisses(daily, start, end, offsets(start, 2, 4, 9)) == 2 + 1 + 4;
+        RecurrenceRule weekdaysOnly = RecurrenceRule.weekdays();
+        assert rebuilder.countMisses(weekdaysOnly, start, end, offsets(start, 0, 7)) == 4;  // Tue-Fri, not the weekend
+        System.out.println("✓ Test 11: Missed expected days counted up to the last entry");
+
+        System.out.println("\n✅ All StreakRebuilder tests passed!");
+    }
+
+    private static int[] offsets(LocalDate start, int... offsets) {
+        int[] days = new int[offsets.length];
+        for (int i = 0; i < offsets.length; i++) {
+            days[i] = EpochDays.of(start) + offsets[i];
+        }
+        return days;
+    }
+}
@@ -0,0 +1,246 @@
+package com.ctoblue.plan91.domain.routine.service;
+
+import com.ctoblue.plan91.domain.routine.RecurrenceRule;
+import com.ctoblue.plan91.domain.shared.EpochDays;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Domain service that scores flexible TIMES_PER_WEEK_X routines week by week.
+ *
+ * <p>A flexible routine may be completed on any day, so it has no missed <em>days</em>, only
+ * ISO weeks (Monday-Sunday) that fall short of {@link RecurrenceRule#getTimesPerWeek()}.
+ * Entries are bucketed into one counter per week of the routine's lifespan and each week is
+ * scored once, so evaluation is O(weeks + entries) however the entries are spread.
+ *
+ * <p>Scoring rules:
+ * <ul>
+ *   <li>A week only partly inside the lifespan owes at most one completion per day it has there</li>
+ *   <li>Completions beyond a week's quota earn no credit in other weeks</li>
+ *   <li>The week in progress owes only what can no longer be made up in its remaining days</li>
+ *   <li>Each shortfall is dated on the latest days of its week without an entry</li>
+ * </ul>
+ *
+ * <p>This is a domain service (not application service) - pure domain logic with no infrastructure dependencies.
+ */
+public class WeeklyQuotaEvaluator {
+
+    /**
+     * Scores a flexible routine's entries up to a date.
+     *
+     * @param rule the routine's recurrence rule, a TIMES_PER_WEEK_X type
+     * @param startDate the routine's start date
+     * @param endDate the routine's expected end date
+     * @param entryDays entry dates ({@link LocalDate#toEpochDay()}), ascending
+     * @param asOfDate score up to this date (inclusive)
+     * @return the weekly score
+     * @throws IllegalArgumentException if the rule is not flexible weekly or an argument is null
+     */
+    public WeeklyQuota evaluate(
+            RecurrenceRule rule,
+            LocalDate startDate,
+            LocalDate endDate,
+            int[] entryDays,
+            LocalDate asOfDate
+    ) {
+        if (rule == null) {
+            throw new IllegalArgumentException("RecurrenceRule cannot be null");
+        }
+        if (!rule.isFlexibleWeekly()) {
+            throw new IllegalArgumentException("Not a flexible weekly rule: " + rule.type());
+        }
+        if (startDate == null || endDate == null) {
+            throw new IllegalArgumentException("Start and end dates cannot be null");
+        }
+        if (entryDays == null) {
+            throw new IllegalArgumentException("EntryDays cannot be null");
+        }
+        if (asOfDate == null) {
+            throw new IllegalArgumentException("AsOfDate cannot be null");
+        }
+
+        int firstDay = EpochDays.of(startDate);
+        int lifespanEnd = EpochDays.of(endDate);
+        int lastDay = Math.min(EpochDays.of(asOfDate), lifespanEnd);
+        if (lastDay < firstDay) {
+            return WeeklyQuota.EMPTY;
+        }
+
+        // One 7-bit counter per ISO week: bit d set = an entry on weekday d
+        long weekBase = EpochDays.weekStart(firstDay);
+        byte[] weekDays = new byte[(int) ((lastDay - weekBase) / 7) + 1];
+        for (int day : entryDays) {
+            if (day >= firstDay && day <= lastDay) {
+                long offset = day - weekBase;
+                weekDays[(int) (offset / 7)] |= (byte) (1 << (offset % 7));
+            }
+        }
+
+        int quota = rule.getTimesPerWeek();
+        int expected = 0;
+        int completed = 0;
+        int weeksMet = 0;
+        List<LocalDate> missedDays = new ArrayList<>();
+
+        for (int week = 0; week < weekDays.length; week++) {
+            long weekStart = weekBase + week * 7L;
+            long open = Math.max(weekStart, firstDay);
+            long close = Math.min(weekStart + 6, lifespanEnd);
+
+            int weekQuota = (int) Math.min(quota, close - open + 1);
+            int done = Integer.bitCount(weekDays[week]);
+            int remaining = (int) Math.max(0, close - lastDay);
+            int missed = Math.max(0, weekQuota - done - remaining);
+
+            completed += Math.min(done, weekQuota);
+            expected += Math.min(done, weekQuota) + missed;
+            if (done >= weekQuota) {
+                weeksMet++;
+            }
+            if (missed > 0) {
+                addMissedDays(missedDays, weekDays[week], weekStart, open, Math.min(close, lastDay), missed);
+            }
+        }
+
+        return new WeeklyQuota(weekDays.length, weeksMet, expected, completed, missedDays);
+    }
+
+    /**
+     * Dates a week's shortfall on its latest days in [open, close] without an entry, ascending.
+     */
+    private static void addMissedDays(List<LocalDate> missedDays, int mask, long weekStart, long open, long close, int missed) {
+        long[] days = new long[missed];
+        int found = 0;
+        for (long day = close; day >= open && found < missed; day--) {
+            if ((mask & (1 << (day - weekStart))) == 0) {
+                days[missed - 1 - found++] = day;
+            }
+        }
+        for (long day : days) {
+            missedDays.add(EpochDays.toDate(day));
+        }
+    }
+
+    /**
+     * Result of scoring a flexible routine.
+     *
+     * @param weeks ISO weeks scored, including the one in progress
+     * @param weeksMet weeks whose quota is already met
+     * @param expectedDays completions owed so far: met quota plus shortfall that can no longer be made up
+     * @param completedDays completions credited toward a week's quota
+     * @param missedDays one date per completion that can no longer be made up, ascending
+     */
+    public record WeeklyQuota(
+            int weeks,
+            int weeksMet,
+            int expectedDays,
+            int completedDays,
+            List<LocalDate> missedDays
+    ) {
+
+        static final WeeklyQuota EMPTY = new WeeklyQuota(0, 0, 0, 0, List.of());
+
+        public WeeklyQuota {
+            Objects.requireNonNull(missedDays, "MissedDays cannot be null");
+            missedDays = List.copyOf(missedDays);
+        }
+
+        /**
+         * Returns the number of completions that can no longer be made up.
+         */
+        public int missedCount() {
+            return missedDays.size();
+        }
+
+        /**
+         * Returns completedDays / expectedDays as a percentage (100 when nothing is owed yet).
+         */
+        public double complianceRate() {
+            return expectedDays == 0 ? 100.0 : (completedDays * 100.0) / expectedDays;
+        }
+    }
+
+    /**
+     * Standalone test method (ADR-004: Domain model testing with main()).
+     */
+    public static void main(String[] args) {
+        System.out.println("Testing WeeklyQuotaEvaluator...\n");
+
+        WeeklyQuotaEvaluator evaluator = new WeeklyQuotaEvaluator();
+        RecurrenceRule threePerWeek = RecurrenceRule.timesPerWeek(3);
+        LocalDate start = LocalDate.of(2026, 2, 2);  // Monday
+        LocalDate end = start.plusDays(90);
+
+        // Test 1: Three completions on any days meet the week, no false misses
+        int[] mwf = days(LocalDate.of(2026, 2, 2), LocalDate.of(2026, 2, 4), LocalDate.of(2026, 2, 6));
+        WeeklyQuota met = evaluator.evaluate(threePerWeek, start, end, mwf, LocalDate.of(2026, 2, 8));
+        assert met.weeks() == 1 && met.weeksMet() == 1;
+        assert met.expectedDays() == 3 && met.completedDays() == 3;
+        assert met.missedDays().isEmpty() && met.complianceRate() == 100.0;
+        System.out.println("✓ Test 1: 3 completions meet a 3x/week quota");
+
+        // Test 2: Shortfall in a closed week is dated on its last open days
+        LocalDate secondMonday = LocalDate.of(2026, 2, 9);
+        int[] once = days(secondMonday);
+        WeeklyQuota shortWeek = evaluator.evaluate(threePerWeek, secondMonday, secondMonday.plusDays(90), once,
+                LocalDate.of(2026, 2, 15));
+        assert shortWeek.expectedDays() == 3 && shortWeek.completedDays() == 1;
+        assert shortWeek.missedDays().equals(List.of(LocalDate.of(2026, 2, 14), LocalDate.of(2026, 2, 15)))
+                : shortWeek.missedDays();
+        System.out.println("✓ Test 2: 1 of 3 leaves 2 misses on Sat and Sun");
+
+        // Test 3: The week in progress owes nothing that can still be made up
+        WeeklyQuota midWeek = evaluator.evaluate(threePerWeek, start, end, new int[0], LocalDate.of(2026, 2, 4));
+        assert midWeek.expectedDays() == 0 && midWeek.missedDays().isEmpty() : midWeek;
+        WeeklyQuota friday = evaluator.evaluate(threePerWeek, start, end, new int[0], LocalDate.of(2026, 2, 6));
+        assert friday.missedDays().equals(List.of(LocalDate.of(2026, 2, 6))) : friday;
+        System.out.println("✓ Test 3: In-progress week only misses what Sat+Sun cannot cover");
+
+        // Test 4: Extra completions do not carry into the next week
+        int[] heavyThenNone = days(LocalDate.of(2026, 2, 2), LocalDate.of(2026, 2, 3), LocalDate.of(2026, 2, 4),
+                LocalDate.of(2026, 2, 5), LocalDate.of(2026, 2, 6));
+        WeeklyQuota twoWeeks = evaluator.evaluate(threePerWeek, start, end, heavyThenNone, LocalDate.of(2026, 2, 15));
+        assert twoWeeks.weeks() == 2 && twoWeeks.weeksMet() == 1;
+        assert twoWeeks.expectedDays() == 6 && twoWeeks.completedDays() == 3;
+        assert twoWeeks.complianceRate() == 50.0;
+        System.out.println("✓ Test 4: Surplus is not credited to other weeks");
+
+        // Test 5: A partial first week owes at most one per day it has
+        LocalDate saturday = LocalDate.of(2026, 2, 7);
+        WeeklyQuota partial = evaluator.evaluate(threePerWeek, saturday, saturday.plusDays(90), new int[0],
+                LocalDate.of(2026, 2, 8));
+        assert partial.expectedDays() == 2 && partial.missedCount() == 2;
+        System.out.println("✓ Test 5: Sat-Sun first week owes 2");
+
+        // Test 6: Before start, nothing is owed
+        assert evaluator.evaluate(threePerWeek, start, end, mwf, start.minusDays(1)).equals(WeeklyQuota.EMPTY);
+        System.out.println("✓ Test 6: Empty before start");
+
+        // Test 7: Lifespan end clips the last week
+        WeeklyQuota whole = evaluator.evaluate(threePerWeek, start, end, new int[0], end.plusDays(30));
+        assert whole.weeks() == 13 : whole.weeks();
+        assert whole.expectedDays() == 13 * 3 : whole.expectedDays();   // 91 days = 13 full ISO weeks
+        System.out.println("✓ Test 7: 91-day lifespan is 13 weeks of 3");
+
+        // Test 8: Only flexible rules are accepted
+        try {
+            evaluator.evaluate(RecurrenceRule.daily(), start, end, new int[0], start);
+            assert false : "Should throw for daily rule";
+        } catch (IllegalArgumentException e) {
+            System.out.println("✓ Test 8: Rule validation works: " + e.getMessage());
+        }
+
+        System.out.println("\n✅ All WeeklyQuotaEvaluator tests passed!");
+    }
+
+    private static int[] days(LocalDate... dates) {
+        int[] days = new int[dates.length];
+        for (int i = 0; i < dates.length; i++) {
+            days[i] = EpochDays.of(dates[i]);
+        }
+        return days;
+    }
+}
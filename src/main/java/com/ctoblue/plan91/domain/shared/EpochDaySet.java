@@ -0,0 +1,161 @@
+package com.ctoblue.plan91.domain.shared;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * Mutable set of epoch days within a fixed range, one bit per day.
+ *
+ * <p>Replaces {@code Set<LocalDate>} and sort-then-dedupe of date lists in range
+ * computations: adding and testing a day is a shift and a mask, and the days come back
+ * out ascending. A year of days fits in six longs. Not thread-safe.
+ */
+public final class EpochDaySet {
+
+    private final int firstDay;
+    private final int lastDay;
+    private final long[] words;
+    private int size;
+
+    /**
+     * Creates an empty set that can hold days in [firstDay, lastDay].
+     *
+     * @param firstDay first epoch day of the range (inclusive)
+     * @param lastDay last epoch day of the range (inclusive)
+     * @throws IllegalArgumentException if the range is inverted
+     */
+    public EpochDaySet(int firstDay, int lastDay) {
+        if (firstDay > lastDay) {
+            throw new IllegalArgumentException("First day must be before or equal to last day");
+        }
+        this.firstDay = firstDay;
+        this.lastDay = lastDay;
+        this.words = new long[(int) (((long) lastDay - firstDay) / 64 + 1)];
+    }
+
+    /**
+     * Adds a day. Days outside the range are ignored.
+     *
+     * @param epochDay the day
+     * @return true if the day was in range and not already present
+     */
+    public boolean add(int epochDay) {
+        if (epochDay < firstDay || epochDay > lastDay) {
+            return false;
+        }
+        int offset = epochDay - firstDay;
+        long bit = 1L << offset;
+        int word = offset >>> 6;
+        if ((words[word] & bit) != 0) {
+            return false;
+        }
+        words[word] |= bit;
+        size++;
+        return true;
+    }
+
+    /**
+     * Checks whether a day is in the set.
+     *
+     * @param epochDay the day
+     * @return true if present (always false outside the range)
+     */
+    public boolean contains(int epochDay) {
+        if (epochDay < firstDay || epochDay > lastDay) {
+            return false;
+        }
+        int offset = epochDay - firstDay;
+        return (words[offset >>> 6] & (1L << offset)) != 0;
+    }
+
+    /**
+     * Returns the number of days in the set.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns true if no days are in the set.
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Passes each day in the set to an action, in ascending order.
+     *
+     * @param action receives each epoch day
+     */
+    public void forEach(IntConsumer action) {
+        for (int w = 0; w < words.length; w++) {
+            long word = words[w];
+            while (word != 0) {
+                action.accept(firstDay + (w << 6) + Long.numberOfTrailingZeros(word));
+                word &= word - 1;   // clear lowest set bit
+            }
+        }
+    }
+
+    /**
+     * Returns the days in the set as an ascending array.
+     */
+    public int[] toArray() {
+        int[] days = new int[size];
+        int[] i = {0};
+        forEach(day -> days[i[0]++] = day);
+        return days;
+    }
+
+    @Override
+    public String toString() {
+        return "EpochDaySet" + Arrays.toString(toArray());
+    }
+
+    /**
+     * Standalone test method (ADR-004: Domain model testing with main()).
+     */
+    public static void main(String[] args) {
+        System.out.println("Testing EpochDaySet...\n");
+
+        int first = (int) EpochDays.of(2026, 1, 1);
+        int last = (int) EpochDays.of(2026, 12, 31);
+
+        // Test 1: Empty set
+        EpochDaySet set = new EpochDaySet(first, last);
+        assert set.isEmpty() && set.size() == 0;
+        assert !set.contains(first);
+        assert set.toArray().length == 0;
+        System.out.println("✓ Test 1: Empty set");
+
+        // Test 2: Add in any order, duplicates and out-of-range days ignored
+        assert set.add(first + 100);
+        assert set.add(first);
+        assert set.add(last);
+        assert set.add(first + 63) && set.add(first + 64);   // word boundary
+        assert !set.add(first + 100);
+        assert !set.add(first - 1) && !set.add(last + 1);
+        assert set.size() == 5;
+        assert set.contains(first + 64) && !set.contains(first + 65) && !set.contains(last + 1);
+        System.out.println("✓ Test 2: Add and contains: " + set.size() + " days");
+
+        // Test 3: Days come back ascending
+        assert Arrays.equals(set.toArray(), new int[]{first, first + 63, first + 64, first + 100, last});
+        System.out.println("✓ Test 3: toArray is ascending");
+
+        // Test 4: Single-day and negative ranges
+        EpochDaySet single = new EpochDaySet(-5, -5);
+        assert single.add(-5) && single.contains(-5) && !single.contains(-4);
+        System.out.println("✓ Test 4: Single-day range before the epoch");
+
+        // Test 5: Inverted range
+        try {
+            new EpochDaySet(last, first);
+            assert false : "Should throw for inverted range";
+        } catch (IllegalArgumentException e) {
+            System.out.println("✓ Test 5: Inverted range validation works: " + e.getMessage());
+        }
+
+        System.out.println("\n✅ All EpochDaySet tests passed!");
+    }
+}
@@ -0,0 +1,153 @@
+package com.ctoblue.plan91.domain.shared;
+
+import java.time.LocalDate;
+
+/**
+ * Calendar arithmetic on epoch days ({@link LocalDate#toEpochDay()}) held as primitives.
+ *
+ * <p>Domain services walk date ranges as {@code int} epoch days and only convert to
+ * {@link LocalDate} at their API edge, so a range computation allocates nothing per day.
+ * All methods use the proleptic Gregorian calendar, as LocalDate does.
+ */
+public final class EpochDays {
+
+    private EpochDays() {
+    }
+
+    /**
+     * Returns the epoch day of a date.
+     *
+     * @param date the date
+     * @return days since 1970-01-01
+     * @throws ArithmeticException if the date is outside the int range (about ±5.8 million years)
+     */
+    public static int of(LocalDate date) {
+        return Math.toIntExact(date.toEpochDay());
+    }
+
+    /**
+     * Returns the epoch day of a year, month and day, without creating a LocalDate.
+     * Uses the days-from-civil algorithm (H. Hinnant); the date is not validated.
+     *
+     * @param year the proleptic year
+     * @param month the month (1-12)
+     * @param day the day of month (1-31)
+     * @return days since 1970-01-01
+     */
+    public static long of(int year, int month, int day) {
+        long y = month <= 2 ? year - 1 : year;
+        long era = Math.floorDiv(y, 400);
+        long yearOfEra = y - era * 400;
+        long dayOfYear = (153L * (month + (month > 2 ? -3 : 9)) + 2) / 5 + day - 1;
+        long dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146_097 + dayOfEra - 719_468;
+    }
+
+    /**
+     * Returns the date of an epoch day.
+     *
+     * @param epochDay days since 1970-01-01
+     * @return the date
+     */
+    public static LocalDate toDate(long epochDay) {
+        return LocalDate.ofEpochDay(epochDay);
+    }
+
+    /**
+     * Weekday index (0 = Monday ... 6 = Sunday) of an epoch day, the bit order of
+     * weekday masks. 1970-01-01 was a Thursday.
+     *
+     * @param epochDay days since 1970-01-01
+     * @return the weekday index
+     */
+    public static int weekdayIndex(long epochDay) {
+        return (int) Math.floorMod(epochDay + 3, 7L);
+    }
+
+    /**
+     * ISO day of week (1 = Monday ... 7 = Sunday) of an epoch day.
+     *
+     * @param epochDay days since 1970-01-01
+     * @return the ISO day of week
+     */
+    public static int isoDayOfWeek(long epochDay) {
+        return weekdayIndex(epochDay) + 1;
+    }
+
+    /**
+     * Epoch day of the Monday starting the ISO week that contains an epoch day.
+     *
+     * @param epochDay days since 1970-01-01
+     * @return the Monday on or before epochDay
+     */
+    public static long weekStart(long epochDay) {
+        return epochDay - weekdayIndex(epochDay);
+    }
+
+    /**
+     * Converts an epoch day to year * 12 + (month - 1) without creating a LocalDate.
+     * Uses the civil-from-days algorithm (H. Hinnant).
+     *
+     * @param epochDay days since 1970-01-01
+     * @return the month index
+     */
+    public static long monthIndex(long epochDay) {
+        long z = epochDay + 719_468;
+        long era = Math.floorDiv(z, 146_097);
+        long dayOfEra = z - era * 146_097;
+        long yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36_524 - dayOfEra / 146_096) / 365;
+        long dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        long shiftedMonth = (5 * dayOfYear + 2) / 153;   // 0 = March
+        long month = shiftedMonth < 10 ? shiftedMonth + 3 : shiftedMonth - 9;
+        long year = yearOfEra + era * 400 + (month <= 2 ? 1 : 0);
+        return year * 12 + (month - 1);
+    }
+
+    /**
+     * Epoch day of the first day of a month index (see {@link #monthIndex}).
+     *
+     * @param monthIndex year * 12 + (month - 1)
+     * @return days since 1970-01-01
+     */
+    public static long firstDayOfMonth(long monthIndex) {
+        return of((int) Math.floorDiv(monthIndex, 12), (int) Math.floorMod(monthIndex, 12) + 1, 1);
+    }
+
+    /**
+     * Standalone test method (ADR-004: Domain model testing with main()).
+     */
+    public static void main(String[] args) {
+        System.out.println("Testing EpochDays...\n");
+
+        // Test 1: Round trip through LocalDate
+        LocalDate date = LocalDate.of(2026, 2, 1);
+        assert of(date) == date.toEpochDay();
+        assert toDate(of(date)).equals(date);
+        assert of(2026, 2, 1) == date.toEpochDay();
+        System.out.println("✓ Test 1: Epoch day round trip: " + of(date));
+
+        // Test 2: Civil conversions agree with LocalDate across leap years and centuries
+        for (LocalDate d = LocalDate.of(1896, 1, 1); d.getYear() < 2104; d = d.plusDays(1)) {
+            long day = d.toEpochDay();
+            assert of(d.getYear(), d.getMonthValue(), d.getDayOfMonth()) == day : d;
+            assert monthIndex(day) == d.getYear() * 12L + d.getMonthValue() - 1 : d;
+            assert isoDayOfWeek(day) == d.getDayOfWeek().getValue() : d;
+        }
+        System.out.println("✓ Test 2: Civil arithmetic matches LocalDate 1896-2103");
+
+        // Test 3: Weekdays, including before the epoch
+        assert weekdayIndex(0) == 3;                       // Thu 1970-01-01
+        assert weekdayIndex(-1) == 2;                      // Wed 1969-12-31
+        assert weekdayIndex(of(2026, 2, 2)) == 0;          // Mon
+        assert weekStart(of(2026, 2, 1)) == of(2026, 1, 26);
+        assert weekStart(of(2026, 2, 2)) == of(2026, 2, 2);
+        System.out.println("✓ Test 3: Weekday index and ISO week start");
+
+        // Test 4: First day of month
+        assert firstDayOfMonth(monthIndex(of(2024, 2, 29))) == of(2024, 2, 1);
+        assert firstDayOfMonth(-1) == of(-1, 12, 1);
+        System.out.println("✓ Test 4: First day of month");
+
+        System.out.println("\n✅ All EpochDays tests passed!");
+    }
+}
@@ -0,0 +1,29 @@
+-- V10: Add completion bitmap to routines
+--
+-- 128-bit bitmap of completed days split across two signed BIGINT words:
+-- bit n of completion_bits_low is day n after start_date (n < 64),
+-- bit n of completion_bits_high is day 64 + n.
+-- Maintained by CompleteEntryUseCase and read by the calendar and routine analytics
+-- instead of scanning habit_entries. NULL for routines longer than 128 days.
+
+ALTER TABLE routines
+    ADD COLUMN completion_bits_low  BIGINT NULL COMMENT 'Completed days 0-63 since start_date (bitmap)',
+    ADD COLUMN completion_bits_high BIGINT NULL COMMENT 'Completed days 64-127 since start_date (bitmap)';
+
+-- Backfill from existing entries
+UPDATE routines r
+SET completion_bits_low = (
+        SELECT CAST(BIT_OR(1 << DATEDIFF(e.date, r.start_date)) AS SIGNED)
+        FROM habit_entries e
+        WHERE e.routine_id = r.id
+          AND e.completed = TRUE
+          AND DATEDIFF(e.date, r.start_date) BETWEEN 0 AND 63
+    ),
+    completion_bits_high = (
+        SELECT CAST(BIT_OR(1 << (DATEDIFF(e.date, r.start_date) - 64)) AS SIGNED)
+        FROM habit_entries e
+        WHERE e.routine_id = r.id
+          AND e.completed = TRUE
+          AND DATEDIFF(e.date, r.start_date) BETWEEN 64 AND 127
+    )
+WHERE r.target_days <= 128;
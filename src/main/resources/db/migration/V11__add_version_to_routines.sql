@@ -0,0 +1,8 @@
+-- V11: Add optimistic lock version to routines
+--
+-- Incremented on every routine UPDATE. Two devices completing the same routine
+-- at once both read the same streak; the second UPDATE now matches no row and
+-- CompleteEntryUseCase retries it against the fresh streak instead of overwriting it.
+
+ALTER TABLE routines
+    ADD COLUMN version BIGINT NOT NULL DEFAULT 0 COMMENT 'Optimistic lock version';
@@ -0,0 +1,18 @@
+-- V12: Create entry_sync_keys table (offline sync idempotency)
+--
+-- One row per completion replayed through POST /api/entries/sync, keyed on the
+-- client-generated UUID of the queued completion. A replayed key is answered with
+-- the entry it created instead of being completed again.
+-- Two 16-byte columns per row; rows go away with their entry.
+
+CREATE TABLE entry_sync_keys (
+    idempotency_key     BINARY(16)      PRIMARY KEY COMMENT 'Client-generated UUID of a queued completion',
+    entry_id            BINARY(16)      NOT NULL COMMENT 'FK to habit_entries created for this key',
+
+    -- Constraints
+    CONSTRAINT fk_entry_sync_keys_entry
+        FOREIGN KEY (entry_id) REFERENCES habit_entries(id)
+        ON DELETE CASCADE
+
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci
+  COMMENT='Idempotency keys of completions synced from offline clients';
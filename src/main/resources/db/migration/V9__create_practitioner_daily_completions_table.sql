@@ -0,0 +1,31 @@
+-- V9: Create practitioner_daily_completions rollup table
+--
+-- Pre-aggregated count of completed entries per practitioner per day.
+-- Maintained by CompleteEntryUseCase in the same transaction as the entry insert,
+-- and read by the heatmap and completion-trend analytics instead of scanning habit_entries.
+
+CREATE TABLE practitioner_daily_completions (
+    practitioner_id     BINARY(16)      NOT NULL COMMENT 'FK to habit_practitioners',
+    date                DATE            NOT NULL COMMENT 'The day being counted',
+    completion_count    INT             NOT NULL DEFAULT 0 COMMENT 'Completed entries across all routines on this day',
+
+    PRIMARY KEY (practitioner_id, date),
+
+    -- Constraints
+    CONSTRAINT fk_daily_completions_practitioner
+        FOREIGN KEY (practitioner_id) REFERENCES habit_practitioners(id)
+        ON DELETE CASCADE,
+
+    CONSTRAINT chk_daily_completions_count
+        CHECK (completion_count >= 0)
+
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci
+  COMMENT='Daily completion rollup per practitioner (analytics read model)';
+
+-- Backfill from existing entries
+INSERT INTO practitioner_daily_completions (practitioner_id, date, completion_count)
+SELECT r.practitioner_id, e.date, COUNT(*)
+FROM habit_entries e
+JOIN routines r ON r.id = e.routine_id
+WHERE e.completed = TRUE
+GROUP BY r.practitioner_id, e.date;
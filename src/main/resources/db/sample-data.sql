@@ -369,6 +369,15 @@ FROM (
     UNION SELECT 16 UNION SELECT 17 UNION SELECT 18 UNION SELECT 19 UNION SELECT 20
 ) days;
 
+-- Refresh the daily completion rollup for the sample practitioner
+DELETE FROM practitioner_daily_completions WHERE practitioner_id = @practitioner_id;
+INSERT INTO practitioner_daily_completions (practitioner_id, date, completion_count)
+SELECT r.practitioner_id, e.date, COUNT(*)
+FROM habit_entries e
+JOIN routines r ON r.id = e.routine_id
+WHERE r.practitioner_id = @practitioner_id AND e.completed = TRUE
+GROUP BY r.practitioner_id, e.date;
+
 -- Display summary
 SELECT
     CONCAT(hp.first_name, ' ', hp.last_name) as 'Practitioner',
@@ -6,16 +6,56 @@
  * - Color coding: green (completed), red (missed), blue outline (scheduled)
  * - Month navigation (previous/next)
  * - Tooltip showing entry details
+ * - Optional cycle prefetch: months of the routine's cycle are loaded in one request
+ *   and paged through without refetching; the prefetch is dropped and reloaded when an
+ *   entry of the routine is completed (in this tab or another) or the page is restored
+ *   from the back/forward cache
  */
 
+/** Window event (and localStorage key, for other tabs) announcing a completed entry. */
+const ENTRY_COMPLETED_EVENT = 'plan91:entry-completed';
+
 class RoutineCalendar {
-    constructor(containerId, routineId) {
+    /**
+     * @param {string} containerId element to render into
+     * @param {string} routineId the routine
+     * @param {{startDate: string, expectedEndDate: string}} [cycle] routine dates; enables prefetch
+     */
+    constructor(containerId, routineId, cycle) {
         this.container = document.getElementById(containerId);
         this.routineId = routineId;
         this.currentYearMonth = this.getCurrentYearMonth();
         this.calendarData = null;
+        this.cycle = cycle;
+        this.cycleData = null;
 
         this.render();
+        this.cycleLoaded = cycle ? this.loadCycleData(cycle) : Promise.resolve();
+        this.loadCalendarData();
+
+        window.addEventListener(ENTRY_COMPLETED_EVENT, event => this.onEntryCompleted(event.detail));
+        window.addEventListener('storage', event => {
+            if (event.key === ENTRY_COMPLETED_EVENT && event.newValue) {
+                this.onEntryCompleted(JSON.parse(event.newValue));
+            }
+        });
+        window.addEventListener('pageshow', event => {
+            if (event.persisted) this.refresh();
+        });
+    }
+
+    onEntryCompleted(detail) {
+        if (detail && detail.routineId === this.routineId) {
+            this.refresh();
+        }
+    }
+
+    /**
+     * Drops the prefetched cycle and reloads the current month, so new completions show.
+     */
+    refresh() {
+        this.cycleData = null;
+        this.cycleLoaded = this.cycle ? this.loadCycleData(this.cycle) : Promise.resolve();
         this.loadCalendarData();
     }
 
@@ -26,7 +66,72 @@ class RoutineCalendar {
         return `${year}-${month}`;
     }
 
+    /**
+     * Loads every month the cycle touches in one range request.
+     * Falls back to per-month requests if it fails.
+     */
+    async loadCycleData(cycle) {
+        const [startYear, startMonth] = cycle.startDate.split('-').map(Number);
+        const [endYear, endMonth] = cycle.expectedEndDate.split('-').map(Number);
+        const from = `${startYear}-${String(startMonth).padStart(2, '0')}-01`;
+        const to = this.formatDate(new Date(endYear, endMonth, 0));
+
+        try {
+            const response = await fetch(`/api/routines/${this.routineId}/calendar?from=${from}&to=${to}`);
+            if (response.ok) {
+                this.cycleData = await response.json();
+            }
+        } catch (error) {
+            console.error('Error prefetching calendar cycle:', error);
+        }
+    }
+
+    formatDate(date) {
+        const year = date.getFullYear();
+        const month = String(date.getMonth() + 1).padStart(2, '0');
+        const day = String(date.getDate()).padStart(2, '0');
+        return `${year}-${month}-${day}`;
+    }
+
+    /**
+     * Builds the month view from the prefetched cycle, or null if the month is not covered.
+     */
+    monthFromCycle(yearMonth) {
+        if (!this.cycleData) return null;
+
+        const [year, month] = yearMonth.split('-').map(Number);
+        const first = `${yearMonth}-01`;
+        const last = this.formatDate(new Date(year, month, 0));
+        if (first < this.cycleData.from || last > this.cycleData.to) return null;
+
+        const inMonth = date => date >= first && date <= last;
+        const entries = this.cycleData.entries.filter(entry => inMonth(entry.date));
+        const scheduledDays = this.cycleData.scheduledDays.filter(inMonth);
+        const scheduledSet = new Set(scheduledDays);
+        const completedDays = entries.filter(entry => entry.completed && scheduledSet.has(entry.date)).length;
+
+        return {
+            routineId: this.routineId,
+            yearMonth,
+            entries,
+            scheduledDays,
+            stats: {
+                totalDays: new Date(year, month, 0).getDate(),
+                completedDays,
+                completionRate: scheduledDays.length ? (completedDays * 100) / scheduledDays.length : 0
+            }
+        };
+    }
+
     async loadCalendarData() {
+        await this.cycleLoaded;
+        const cached = this.monthFromCycle(this.currentYearMonth);
+        if (cached) {
+            this.calendarData = cached;
+            this.renderCalendar();
+            return;
+        }
+
         try {
             const response = await fetch(`/api/routines/${this.routineId}/calendar?yearMonth=${this.currentYearMonth}`);
             if (!response.ok) {
@@ -79,7 +79,71 @@ function updateRoutinesList() {
         return;
     }
 
-    routinesContainer.innerHTML = routines.map((routine, index) => createRoutineCard(routine, index)).join('');
+    routinesContainer.innerHTML = createCompleteAllBar()
+        + routines.map((routine, index) => createRoutineCard(routine, index)).join('');
+}
+
+/**
+ * Yes/no routines still open today; these can be checked off together without the modal.
+ */
+function pendingBooleanRoutines() {
+    const today = new Date().toISOString().split('T')[0];
+    return routines.filter(routine =>
+        routine.lastCompletionDate !== today && (routine.trackingType || 'BOOLEAN') === 'BOOLEAN');
+}
+
+function createCompleteAllBar() {
+    const pending = pendingBooleanRoutines();
+    if (pending.length < 2) return '';
+
+    return `
+        <div class="bg-white rounded-xl shadow-md p-4 flex flex-col md:flex-row md:items-center md:justify-between gap-3">
+            <p id="complete-all-message" class="text-gray-700 text-sm md:text-base">${pending.length} routines left for today</p>
+            <button onclick="completeAllToday(this)"
+                    class="text-base px-6 py-3 whitespace-nowrap rounded-lg font-semibold transition-colors duration-200"
+                    style="background-color: #10b981; color: white;"
+                    onmouseover="this.style.backgroundColor='#059669'"
+                    onmouseout="this.style.backgroundColor='#10b981'">
+                ✓ Mark All Complete
+            </button>
+        </div>
+    `;
+}
+
+/**
+ * Completes every pending yes/no routine for today in one batch request.
+ */
+async function completeAllToday(button) {
+    const date = new Date().toISOString().split('T')[0];
+    const entries = pendingBooleanRoutines().map(routine => ({ routineId: routine.id, date }));
+    if (entries.length === 0) return;
+
+    button.disabled = true;
+    try {
+        const response = await secureFetch('/api/entries/batch', {
+            method: 'POST',
+            body: JSON.stringify({ entries })
+        });
+        if (!response.ok) {
+            throw new Error('Failed to complete entries');
+        }
+
+        const batch = await response.json();
+        batch.results
+            .filter(result => result.completed)
+            .forEach(result => announceEntryCompleted(result.routineId, result.date));
+
+        await loadDashboardData();
+        if (batch.failed > 0) {
+            const message = document.getElementById('complete-all-message');
+            if (message) {
+                message.textContent = `${batch.completed} completed, ${batch.failed} could not be completed`;
+            }
+        }
+    } catch (error) {
+        console.error('Error completing entries:', error);
+        button.disabled = false;
+    }
 }
 
 function createRoutineCard(routine, index) {
@@ -345,6 +409,8 @@ function createCompleteEntryModal() {
             });
 
             if (response.ok) {
+                announceEntryCompleted(data.routineId, data.date);
+
                 // Update the button appearance
                 if (currentCompleteButton) {
                     currentCompleteButton.innerHTML = '✓ Marked! Well done!';
@@ -386,6 +452,20 @@ function createCompleteEntryModal() {
     });
 }
 
+/**
+ * Tells open calendars (this tab and others) that an entry was completed, so they drop
+ * any prefetched data for the routine.
+ */
+function announceEntryCompleted(routineId, date) {
+    const detail = { routineId, date, at: Date.now() };
+    window.dispatchEvent(new CustomEvent('plan91:entry-completed', { detail }));
+    try {
+        localStorage.setItem('plan91:entry-completed', JSON.stringify(detail));
+    } catch (error) {
+        // Storage disabled: other tabs refresh on their next navigation
+    }
+}
+
 function showModalError(message) {
     const errorDiv = document.getElementById('modalErrorMessage');
     if (errorDiv) {
@@ -0,0 +1,89 @@
+package com.ctoblue.plan91.adapter.in.web.controller;
+
+import com.ctoblue.plan91.application.usecase.analytics.PractitionerDataChangedEvent;
+import com.ctoblue.plan91.application.usecase.analytics.PractitionerDataVersions;
+import com.ctoblue.plan91.application.usecase.routine.QueryRoutinesUseCase;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+/**
+ * Checks ETag revalidation against the practitioner data version.
+ */
+class ConditionalReadsTest {
+
+    private final PractitionerDataVersions versions = new PractitionerDataVersions();
+    private final QueryRoutinesUseCase queryRoutinesUseCase = mock(QueryRoutinesUseCase.class);
+    private final ConditionalReads conditionalReads = new ConditionalReads(versions, queryRoutinesUseCase);
+
+    private final UUID practitionerId = UUID.randomUUID();
+
+    @Test
+    void matchingEtagIsNotModifiedUntilDataChanges() {
+        MockHttpServletResponse first = new MockHttpServletResponse();
+        assertThat(conditionalReads.notModified(get(null, first), practitionerId.toString())).isFalse();
+        String etag = first.getHeader(HttpHeaders.ETAG);
+        assertThat(etag).startsWith("\"").doesNotStartWith("W/");
+        assertThat(first.getHeader(HttpHeaders.CACHE_CONTROL)).isEqualTo("private, no-cache");
+
+        MockHttpServletResponse repeat = new MockHttpServletResponse();
+        assertThat(conditionalReads.notModified(get(etag, repeat), practitionerId.toString())).isTrue();
+        assertThat(repeat.getStatus()).isEqualTo(304);
+
+        versions.onPractitionerDataChanged(new PractitionerDataChangedEvent(practitionerId));
+
+        MockHttpServletResponse changed = new MockHttpServletResponse();
+        assertThat(conditionalReads.notModified(get(etag, changed), practitionerId.toString())).isFalse();
+        assertThat(changed.getHeader(HttpHeaders.ETAG)).isNotEqualTo(etag);
+    }
+
+    @Test
+    void otherPractitionersChangesDoNotAffectEtag() {
+        MockHttpServletResponse first = new MockHttpServletResponse();
+        conditionalReads.notModified(get(null, first), practitionerId.toString());
+
+        versions.bump(UUID.randomUUID());
+
+        assertThat(conditionalReads.notModified(
+                get(first.getHeader(HttpHeaders.ETAG), new MockHttpServletResponse()),
+                practitionerId.toString())).isTrue();
+    }
+
+    @Test
+    void routineOwnerIsLookedUpOnce() {
+        UUID routineId = UUID.randomUUID();
+        when(queryRoutinesUseCase.findPractitionerId(routineId.toString())).thenReturn(Optional.of(practitionerId));
+
+        MockHttpServletResponse first = new MockHttpServletResponse();
+        assertThat(conditionalReads.routineNotModified(get(null, first), routineId.toString())).isFalse();
+        assertThat(conditionalReads.routineNotModified(
+                get(first.getHeader(HttpHeaders.ETAG), new MockHttpServletResponse()),
+                routineId.toString())).isTrue();
+
+        verify(queryRoutinesUseCase, times(1)).findPractitionerId(routineId.toString());
+    }
+
+    @Test
+    void unknownRoutineIsAlwaysModified() {
+        when(queryRoutinesUseCase.findPractitionerId(anyString())).thenReturn(Optional.empty());
+
+        assertThat(conditionalReads.routineNotModified(
+                get("\"anything\"", new MockHttpServletResponse()), UUID.randomUUID().toString())).isFalse();
+    }
+
+    private static ServletWebRequest get(String ifNoneMatch, MockHttpServletResponse response) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/analytics/heatmap");
+        if (ifNoneMatch != null) {
+            request.addHeader(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+        }
+        return new ServletWebRequest(request, response);
+    }
+}
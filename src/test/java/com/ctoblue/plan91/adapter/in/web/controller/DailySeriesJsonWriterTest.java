@@ -0,0 +1,115 @@
+package com.ctoblue.plan91.adapter.in.web.controller;
+
+import com.ctoblue.plan91.adapter.out.persistence.entity.PractitionerDailyCompletionEntity;
+import com.ctoblue.plan91.adapter.out.persistence.entity.PractitionerDailyCompletionId;
+import com.ctoblue.plan91.application.usecase.analytics.DailyCompletionSeries;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks the streamed heatmap, trend and compact JSON against LocalDate formatting.
+ */
+class DailySeriesJsonWriterTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final DailySeriesJsonWriter writer = new DailySeriesJsonWriter(objectMapper);
+
+    private final UUID practitionerId = UUID.randomUUID();
+    private final LocalDate start = LocalDate.of(2023, 12, 30);
+    private final LocalDate end = LocalDate.of(2025, 3, 2);   // crosses a leap day
+
+    private final DailyCompletionSeries series = DailyCompletionSeries.of(start, end, List.of(
+            row(LocalDate.of(2024, 1, 1), 4),
+            row(LocalDate.of(2024, 2, 29), 1),
+            row(LocalDate.of(2024, 3, 1), 1),
+            row(LocalDate.of(2025, 3, 2), 2)
+    ));
+
+    @Test
+    void heatmapHasOneRecordPerDayWithIsoDateAndWeekday() throws IOException {
+        JsonNode json = objectMapper.readTree(write(out -> writer.writeHeatmap(series, out)));
+
+        JsonNode days = json.get("days");
+        assertThat(days).hasSize(series.length());
+        for (int i = 0; i < days.size(); i++) {
+            LocalDate date = start.plusDays(i);
+            JsonNode day = days.get(i);
+            assertThat(day.get("date").asText()).isEqualTo(date.toString());
+            assertThat(day.get("dayOfWeek").asInt()).isEqualTo(date.getDayOfWeek().getValue());
+            assertThat(day.get("count").asInt()).isEqualTo(series.countAt(i));
+            assertThat(day.get("intensity").asInt()).isEqualTo(series.intensityAt(i));
+        }
+        assertThat(days.get(2).get("intensity").asInt()).isEqualTo(4);
+        assertThat(json.get("totalCompletions").asInt()).isEqualTo(8);
+        assertThat(json.get("maxCompletions").asInt()).isEqualTo(4);
+    }
+
+    @Test
+    void trendLabelsMatchShortMonthFormat() throws IOException {
+        JsonNode json = objectMapper.readTree(write(out -> writer.writeTrend(series, out)));
+
+        DateTimeFormatter format = DateTimeFormatter.ofPattern("MMM dd", Locale.ENGLISH);
+        JsonNode labels = json.get("labels");
+        assertThat(labels).hasSize(series.length());
+        for (int i = 0; i < labels.size(); i++) {
+            assertThat(labels.get(i).asText()).isEqualTo(start.plusDays(i).format(format));
+            assertThat(json.get("data").get(i).asInt()).isEqualTo(series.countAt(i));
+        }
+    }
+
+    @Test
+    void compactRunsDecodeToTheSameCounts() throws IOException {
+        JsonNode json = objectMapper.readTree(write(out -> writer.writeCompact(series, out)));
+
+        assertThat(json.get("startDate").asText()).isEqualTo("2023-12-30");
+        assertThat(json.get("days").asInt()).isEqualTo(series.length());
+
+        JsonNode runs = json.get("runs");
+        int day = 0;
+        for (int i = 0; i < runs.size(); i += 2) {
+            int count = runs.get(i).asInt();
+            int length = runs.get(i + 1).asInt();
+            for (int j = 0; j < length; j++, day++) {
+                assertThat(series.countAt(day)).isEqualTo(count);
+            }
+        }
+        assertThat(day).isEqualTo(series.length());
+        assertThat(runs).hasSize(2 * 6);
+    }
+
+    @Test
+    void emptySeriesWritesEmptyArrays() throws IOException {
+        DailyCompletionSeries empty = DailyCompletionSeries.empty(start);
+
+        assertThat(write(out -> writer.writeHeatmap(empty, out)))
+                .isEqualTo("{\"days\":[],\"totalCompletions\":0,\"maxCompletions\":0}");
+        assertThat(write(out -> writer.writeTrend(empty, out)))
+                .isEqualTo("{\"labels\":[],\"data\":[]}");
+    }
+
+    private PractitionerDailyCompletionEntity row(LocalDate date, int count) {
+        return new PractitionerDailyCompletionEntity(new PractitionerDailyCompletionId(practitionerId, date), count);
+    }
+
+    private static String write(Body body) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        body.writeTo(out);
+        return out.toString();
+    }
+
+    @FunctionalInterface
+    private interface Body {
+        void writeTo(ByteArrayOutputStream out) throws IOException;
+    }
+}
@@ -0,0 +1,78 @@
+package com.ctoblue.plan91.adapter.out.persistence.mapper;
+
+import com.ctoblue.plan91.domain.routine.DayOfWeek;
+import com.ctoblue.plan91.domain.routine.RecurrenceRule;
+import com.ctoblue.plan91.domain.routine.RecurrenceType;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Checks that equal rules map to one shared, correct instance, however their days are spelled.
+ */
+class RecurrenceRuleCacheTest {
+
+    @Test
+    void sameColumnsReturnSameInstance() {
+        RecurrenceRule first = RecurrenceRuleCache.fromColumns(RecurrenceType.SPECIFIC_DAYS, "FRIDAY,MONDAY", null, null);
+        RecurrenceRule second = RecurrenceRuleCache.fromColumns(RecurrenceType.SPECIFIC_DAYS, "FRIDAY,MONDAY", null, null);
+
+        assertThat(second).isSameAs(first);
+        assertThat(first).isEqualTo(RecurrenceRule.specificDays(Set.of(DayOfWeek.MONDAY, DayOfWeek.FRIDAY)));
+    }
+
+    @Test
+    void requestDayNamesShareTheStoredInstance() {
+        RecurrenceRule stored = RecurrenceRuleCache.fromColumns(RecurrenceType.SPECIFIC_DAYS, "TUESDAY,THURSDAY", null, null);
+
+        assertThat(RecurrenceRuleCache.fromDayNames(RecurrenceType.SPECIFIC_DAYS, List.of("TUESDAY", "THURSDAY"), null, null))
+                .isSameAs(stored);
+    }
+
+    @Test
+    void everyOrderingAndSpacingOfTheSameDaysSharesOneInstance() {
+        RecurrenceRule sorted = RecurrenceRuleCache.fromColumns(RecurrenceType.SPECIFIC_DAYS, "MONDAY,WEDNESDAY", null, null);
+
+        assertThat(RecurrenceRuleCache.fromColumns(RecurrenceType.SPECIFIC_DAYS, "WEDNESDAY, MONDAY", null, null))
+                .isSameAs(sorted);
+        assertThat(RecurrenceRuleCache.fromColumns(RecurrenceType.SPECIFIC_DAYS, " MONDAY,,WEDNESDAY ", null, null))
+                .isSameAs(sorted);
+        assertThat(RecurrenceRuleCache.fromDayNames(RecurrenceType.SPECIFIC_DAYS, List.of("WEDNESDAY", " MONDAY"), null, null))
+                .isSameAs(sorted);
+    }
+
+    @Test
+    void emptyDaySetIsRejected() {
+        assertThatThrownBy(() -> RecurrenceRuleCache.fromColumns(RecurrenceType.SPECIFIC_DAYS, " , ", null, null))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void columnsThatDoNotApplyAreIgnored() {
+        assertThat(RecurrenceRuleCache.fromColumns(RecurrenceType.DAILY, "MONDAY", "MONDAY", 2))
+                .isSameAs(RecurrenceRuleCache.fromColumns(RecurrenceType.DAILY, null, null, null))
+                .isEqualTo(RecurrenceRule.daily());
+        assertThat(RecurrenceRuleCache.fromColumns(RecurrenceType.NTH_DAY_OF_MONTH, "MONDAY", "SATURDAY", 3))
+                .isEqualTo(RecurrenceRule.nthDayOfMonth(DayOfWeek.SATURDAY, 3));
+    }
+
+    @Test
+    void unknownDayNameIsRejected() {
+        assertThatThrownBy(() -> RecurrenceRuleCache.fromColumns(RecurrenceType.SPECIFIC_DAYS, "MONDAY,FUNDAY", null, null))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void dayNamesAreTrimmedAndUnmodifiable() {
+        Set<String> names = RecurrenceRuleCache.dayNames("MONDAY, FRIDAY");
+
+        assertThat(names).containsExactlyInAnyOrder("MONDAY", "FRIDAY");
+        assertThat(RecurrenceRuleCache.dayNames("MONDAY, FRIDAY")).isSameAs(names);
+        assertThatThrownBy(() -> names.add("SUNDAY")).isInstanceOf(UnsupportedOperationException.class);
+        assertThat(RecurrenceRuleCache.dayNames(" ")).isNull();
+    }
+}
@@ -0,0 +1,100 @@
+package com.ctoblue.plan91.application.usecase.analytics;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks AnalyticsCache hits, expiry, size eviction and per-practitioner invalidation.
+ */
+class AnalyticsCacheTest {
+
+    private final AtomicLong now = new AtomicLong();
+    private final AnalyticsCache cache = new AnalyticsCache(Duration.ofMinutes(5), 2, now::get);
+
+    private final UUID alice = UUID.randomUUID();
+    private final UUID bob = UUID.randomUUID();
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    void servesRepeatedRequestsFromCache() {
+        assertThat(load(alice, "statistics", 1)).isEqualTo(1);
+        assertThat(load(alice, "statistics", 1)).isEqualTo(1);
+        assertThat(load(alice, "statistics", 2)).isEqualTo(2);   // different params
+
+        assertThat(loads).hasValue(2);
+        assertThat(cache.stats().hits()).isEqualTo(1);
+        assertThat(cache.stats().misses()).isEqualTo(2);
+    }
+
+    @Test
+    void expiresAfterTtl() {
+        load(alice, "statistics", 1);
+        now.addAndGet(Duration.ofMinutes(5).toNanos());
+        load(alice, "statistics", 1);
+
+        assertThat(loads).hasValue(2);
+        assertThat(cache.stats().evictions()).isEqualTo(1);
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedWhenFull() {
+        load(alice, "statistics", 1);
+        load(alice, "habits", 1);
+        load(alice, "statistics", 1);   // touch, habits is now eldest
+        load(alice, "heatmap", 1);
+
+        assertThat(cache.stats().size()).isEqualTo(2);
+        assertThat(cache.stats().evictions()).isEqualTo(1);
+
+        load(alice, "statistics", 1);
+        assertThat(loads).hasValue(3);
+    }
+
+    @Test
+    void invalidatesOnlyTheChangedPractitioner() {
+        load(alice, "statistics", 1);
+        load(bob, "statistics", 1);
+
+        cache.onPractitionerDataChanged(new PractitionerDataChangedEvent(alice));
+        load(alice, "statistics", 1);
+        load(bob, "statistics", 1);
+
+        assertThat(loads).hasValue(3);
+        assertThat(cache.stats().invalidations()).isEqualTo(1);
+    }
+
+    @Test
+    void doesNotStoreResultComputedDuringAChange() {
+        cache.get(alice.toString(), "statistics", List.of(), () -> {
+            cache.invalidate(alice);   // write commits while we compute
+            return loads.incrementAndGet();
+        });
+        load(alice, "statistics", 0);
+
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void zeroMaxEntriesDisablesCaching() {
+        AnalyticsCache disabled = new AnalyticsCache(Duration.ofMinutes(5), 0, now::get);
+        disabled.get(alice.toString(), "statistics", List.of(), loads::incrementAndGet);
+        disabled.get(alice.toString(), "statistics", List.of(), loads::incrementAndGet);
+
+        assertThat(loads).hasValue(2);
+        assertThat(disabled.stats().size()).isZero();
+    }
+
+    private int load(UUID practitionerId, String view, int param) {
+        return cache.get(practitionerId.toString(), view, List.of(param), () -> {
+            loads.incrementAndGet();
+            return param;
+        });
+    }
+}
@@ -0,0 +1,145 @@
+package com.ctoblue.plan91.application.usecase.analytics;
+
+import com.ctoblue.plan91.adapter.out.persistence.repository.HabitEntryJpaRepository;
+import com.ctoblue.plan91.adapter.out.persistence.repository.RoutineJpaRepository;
+import com.ctoblue.plan91.domain.routine.RoutineStatus;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.offset;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Checks GetPractitionerStatisticsUseCase calls a constant number of repository queries,
+ * including when composed with GetHabitAnalyticsUseCase over one snapshot, and computes
+ * the statistics from their rows. Habit analytics on its own skips the entry aggregate. The SQL statements actually sent are counted by
+ * {@link PractitionerStatisticsStatementCountTest}.
+ */
+class GetPractitionerStatisticsUseCaseTest {
+
+    private final RoutineJpaRepository routineRepository = mock(RoutineJpaRepository.class);
+    private final HabitEntryJpaRepository entryRepository = mock(HabitEntryJpaRepository.class);
+    private final PractitionerSnapshotLoader snapshotLoader =
+            new PractitionerSnapshotLoader(routineRepository, entryRepository);
+    private final GetPractitionerStatisticsUseCase useCase = new GetPractitionerStatisticsUseCase(snapshotLoader);
+
+    private final UUID practitionerId = UUID.randomUUID();
+
+    @ParameterizedTest
+    @ValueSource(ints = {0, 1, 40})
+    void callsTwoRepositoryQueriesRegardlessOfRoutineCount(int routineCount) {
+        List<RoutineJpaRepository.RoutineSummary> routines = new ArrayList<>();
+        for (int i = 0; i < routineCount; i++) {
+            routines.add(new Summary(UUID.randomUUID(), "Read", RoutineStatus.ACTIVE, LocalDate.now().minusDays(9), 5, 8, 10));
+        }
+        when(routineRepository.findSummariesByPractitionerId(practitionerId)).thenReturn(routines);
+        when(entryRepository.summarizeActivity(eq(practitionerId), any(), any(), any()))
+                .thenReturn(new Activity(3, 12, 20));
+
+        useCase.execute(practitionerId.toString());
+
+        verify(routineRepository, times(1)).findSummariesByPractitionerId(practitionerId);
+        verify(entryRepository, times(1)).summarizeActivity(eq(practitionerId), any(), any(), any());
+        verifyNoMoreInteractions(routineRepository, entryRepository);
+    }
+
+    @Test
+    void computesStatisticsFromSummariesAndActivity() {
+        LocalDate today = LocalDate.now();
+        when(routineRepository.findSummariesByPractitionerId(practitionerId)).thenReturn(List.of(
+                new Summary(UUID.randomUUID(), "Read", RoutineStatus.ACTIVE, today.minusDays(9), 4, 6, 8),      // 10 days elapsed
+                new Summary(UUID.randomUUID(), "Read", RoutineStatus.ACTIVE, today.minusDays(19), 7, 7, 12),    // 20 days elapsed
+                new Summary(UUID.randomUUID(), "Read", RoutineStatus.COMPLETED, today.minusDays(200), 0, 91, 91),
+                new Summary(UUID.randomUUID(), "Read", RoutineStatus.ABANDONED, today.minusDays(50), 0, 3, 5)
+        ));
+        when(entryRepository.summarizeActivity(
+                practitionerId, today.minusDays(7), today.minusDays(30), today))
+                .thenReturn(new Activity(6, 18, 40));
+
+        GetPractitionerStatisticsUseCase.PractitionerStatistics stats = useCase.execute(practitionerId.toString());
+
+        assertThat(stats.routines()).isEqualTo(new GetPractitionerStatisticsUseCase.RoutinesSummary(2, 4, 1));
+        assertThat(stats.streaks()).isEqualTo(new GetPractitionerStatisticsUseCase.StreaksSummary(7, 91, 116));
+        assertThat(stats.activity()).isEqualTo(new GetPractitionerStatisticsUseCase.ActivitySummary(6, 18, 40));
+        assertThat(stats.overallCompletionRate()).isCloseTo(20 * 100.0 / 30, offset(0.001));
+        assertThat(stats.consistencyScore()).isEqualTo("C+");
+    }
+
+    @Test
+    void composedUseCasesShareOneSnapshot() {
+        UUID habitId = UUID.randomUUID();
+        when(routineRepository.findSummariesByPractitionerId(practitionerId)).thenReturn(List.of(
+                new Summary(habitId, "Read", RoutineStatus.ACTIVE, LocalDate.now().minusDays(9), 4, 6, 8),
+                new Summary(habitId, "Read", RoutineStatus.COMPLETED, LocalDate.now().minusDays(200), 0, 91, 91)
+        ));
+        when(entryRepository.summarizeActivity(eq(practitionerId), any(), any(), any()))
+                .thenReturn(new Activity(3, 12, 20));
+
+        PractitionerSnapshot snapshot = snapshotLoader.load(practitionerId.toString());
+        GetPractitionerStatisticsUseCase.PractitionerStatistics stats = useCase.execute(snapshot);
+        GetHabitAnalyticsUseCase.HabitAnalyticsSummary habits =
+                new GetHabitAnalyticsUseCase(snapshotLoader).execute(snapshot);
+
+        assertThat(stats.routines().total()).isEqualTo(2);
+        assertThat(habits.habits()).singleElement().satisfies(h -> {
+            assertThat(h.habitName()).isEqualTo("Read");
+            assertThat(h.totalRoutines()).isEqualTo(2);
+            assertThat(h.totalCompletions()).isEqualTo(99);
+        });
+        verify(routineRepository, times(1)).findSummariesByPractitionerId(practitionerId);
+        verify(entryRepository, times(1)).summarizeActivity(eq(practitionerId), any(), any(), any());
+        verifyNoMoreInteractions(routineRepository, entryRepository);
+    }
+
+    @Test
+    void habitAnalyticsAloneReadsOnlyRoutineSummaries() {
+        when(routineRepository.findSummariesByPractitionerId(practitionerId)).thenReturn(List.of(
+                new Summary(UUID.randomUUID(), "Read", RoutineStatus.ACTIVE, LocalDate.now().minusDays(9), 4, 6, 8)));
+
+        GetHabitAnalyticsUseCase.HabitAnalyticsSummary habits =
+                new GetHabitAnalyticsUseCase(snapshotLoader).execute(practitionerId.toString());
+
+        assertThat(habits.habits()).singleElement()
+                .satisfies(h -> assertThat(h.avgCompletionRate()).isCloseTo(80.0, offset(0.001)));
+        verify(routineRepository, times(1)).findSummariesByPractitionerId(practitionerId);
+        verifyNoMoreInteractions(routineRepository);
+        verifyNoInteractions(entryRepository);
+    }
+
+    private record Summary(
+            UUID habitId,
+            String habitName,
+            RoutineStatus status,
+            LocalDate startDate,
+            int currentStreak,
+            int longestStreak,
+            int totalCompletions
+    ) implements RoutineJpaRepository.RoutineSummary {
+        public UUID getHabitId() { return habitId; }
+        public String getHabitName() { return habitName; }
+        public RoutineStatus getStatus() { return status; }
+        public LocalDate getStartDate() { return startDate; }
+        public int getCurrentStreak() { return currentStreak; }
+        public int getLongestStreak() { return longestStreak; }
+        public int getTotalCompletions() { return totalCompletions; }
+    }
+
+    private record Activity(
+            long last7Days,
+            long last30Days,
+            long totalDaysPracticed
+    ) implements HabitEntryJpaRepository.ActivityCounts {
+        public long getLast7Days() { return last7Days; }
+        public long getLast30Days() { return last30Days; }
+        public long getTotalDaysPracticed() { return totalDaysPracticed; }
+    }
+}
@@ -0,0 +1,157 @@
+package com.ctoblue.plan91.application.usecase.analytics;
+
+import com.ctoblue.plan91.adapter.out.persistence.entity.HabitEntity;
+import com.ctoblue.plan91.adapter.out.persistence.entity.HabitEntryEntity;
+import com.ctoblue.plan91.adapter.out.persistence.entity.HabitPractitionerEntity;
+import com.ctoblue.plan91.adapter.out.persistence.entity.RecurrenceRuleEmbeddable;
+import com.ctoblue.plan91.adapter.out.persistence.entity.RoutineEntity;
+import com.ctoblue.plan91.adapter.out.persistence.entity.UserEntity;
+import com.ctoblue.plan91.domain.habit.TrackingType;
+import com.ctoblue.plan91.domain.routine.RecurrenceType;
+import com.ctoblue.plan91.domain.routine.RoutineStatus;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Counts the SQL statements practitioner statistics actually prepare against MySQL, from
+ * Hibernate's statistics: two, however many routines and entries the practitioner has,
+ * and still two when habit analytics are computed from the same snapshot. Habit analytics
+ * on its own reads the routine summaries only, one statement.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import({PractitionerSnapshotLoader.class, GetPractitionerStatisticsUseCase.class, GetHabitAnalyticsUseCase.class})
+class PractitionerStatisticsStatementCountTest {
+
+    @Autowired
+    private PractitionerSnapshotLoader snapshotLoader;
+
+    @Autowired
+    private GetPractitionerStatisticsUseCase statisticsUseCase;
+
+    @Autowired
+    private GetHabitAnalyticsUseCase habitAnalyticsUseCase;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private HabitPractitionerEntity practitioner;
+    private HabitEntity habit;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        String email = "statistics-" + UUID.randomUUID() + "@plan91.test";
+        UserEntity user = entityManager.persist(UserEntity.builder()
+                .email(email)
+                .passwordHash("not-a-real-hash")
+                .build());
+        practitioner = entityManager.persist(HabitPractitionerEntity.builder()
+                .user(user)
+                .firstName("Statement")
+                .lastName("Counter")
+                .email(email)
+                .originalTimezone("UTC")
+                .build());
+        habit = entityManager.persist(HabitEntity.builder()
+                .creator(practitioner)
+                .name("Read")
+                .trackingType(TrackingType.BOOLEAN)
+                .build());
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {0, 1, 40})
+    void preparesTwoStatementsRegardlessOfRoutineCount(int routineCount) {
+        LocalDate today = LocalDate.now();
+        for (int i = 0; i < routineCount; i++) {
+            RoutineEntity routine = persistRoutine(today.minusDays(9));
+            persistEntry(routine, today.minusDays(i % 9));
+        }
+        startMeasuring();
+
+        GetPractitionerStatisticsUseCase.PractitionerStatistics stats =
+                statisticsUseCase.execute(practitioner.getId().toString());
+
+        assertThat(stats.routines().total()).isEqualTo(routineCount);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    @Test
+    void composedUseCasesShareTwoStatements() {
+        LocalDate today = LocalDate.now();
+        persistEntry(persistRoutine(today.minusDays(9)), today);
+        persistRoutine(today.minusDays(30));
+        startMeasuring();
+
+        PractitionerSnapshot snapshot = snapshotLoader.load(practitioner.getId().toString());
+        statisticsUseCase.execute(snapshot);
+        GetHabitAnalyticsUseCase.HabitAnalyticsSummary habits = habitAnalyticsUseCase.execute(snapshot);
+
+        assertThat(habits.habits()).singleElement()
+                .satisfies(h -> assertThat(h.totalRoutines()).isEqualTo(2));
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    @Test
+    void habitAnalyticsAlonePreparesOneStatement() {
+        LocalDate today = LocalDate.now();
+        persistEntry(persistRoutine(today.minusDays(9)), today);
+        startMeasuring();
+
+        GetHabitAnalyticsUseCase.HabitAnalyticsSummary habits =
+                habitAnalyticsUseCase.execute(practitioner.getId().toString());
+
+        assertThat(habits.habits()).singleElement()
+                .satisfies(h -> assertThat(h.totalRoutines()).isEqualTo(1));
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    /**
+     * Writes the fixtures and empties the persistence context, so every read goes to the database.
+     */
+    private void startMeasuring() {
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+    }
+
+    private RoutineEntity persistRoutine(LocalDate startDate) {
+        return entityManager.persist(RoutineEntity.builder()
+                .habit(habit)
+                .practitioner(practitioner)
+                .recurrenceRule(RecurrenceRuleEmbeddable.builder().type(RecurrenceType.DAILY).build())
+                .startDate(startDate)
+                .expectedEndDate(startDate.plusDays(90))
+                .status(RoutineStatus.ACTIVE)
+                .build());
+    }
+
+    private void persistEntry(RoutineEntity routine, LocalDate date) {
+        entityManager.persist(HabitEntryEntity.builder()
+                .routine(routine)
+                .date(date)
+                .build());
+    }
+}
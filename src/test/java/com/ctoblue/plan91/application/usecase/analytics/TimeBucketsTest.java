@@ -0,0 +1,92 @@
+package com.ctoblue.plan91.application.usecase.analytics;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Checks TimeBuckets boundaries, labels and the epoch-day month arithmetic.
+ */
+class TimeBucketsTest {
+
+    @Test
+    void monthIndexMatchesLocalDate() {
+        for (long day = LocalDate.of(1899, 1, 1).toEpochDay(); day <= LocalDate.of(2101, 1, 1).toEpochDay(); day++) {
+            LocalDate date = LocalDate.ofEpochDay(day);
+            assertThat(TimeBuckets.monthIndex(day))
+                    .as(date.toString())
+                    .isEqualTo(date.getYear() * 12L + date.getMonthValue() - 1);
+        }
+    }
+
+    @Test
+    void weeksAreAnchoredAtStartAndLastWeekIsClipped() {
+        TimeBuckets buckets = TimeBuckets.of(TimeBuckets.Granularity.WEEK,
+                LocalDate.of(2025, 1, 1), LocalDate.of(2025, 1, 16));
+        buckets.add(LocalDate.of(2025, 1, 1), 2);
+        buckets.add(LocalDate.of(2025, 1, 7), 1);
+        buckets.add(LocalDate.of(2025, 1, 8), 3);
+        buckets.add(LocalDate.of(2025, 1, 16), 4);
+        buckets.add(LocalDate.of(2025, 1, 17), 100);   // outside the range
+
+        assertThat(buckets.labels()).containsExactly("Jan 01 - Jan 07", "Jan 08 - Jan 14", "Jan 15 - Jan 16");
+        assertThat(buckets.values()).containsExactly(3, 3, 4);
+    }
+
+    @Test
+    void monthsFollowTheCalendar() {
+        TimeBuckets buckets = TimeBuckets.of(TimeBuckets.Granularity.MONTH,
+                LocalDate.of(2024, 12, 20), LocalDate.of(2025, 3, 5));
+        buckets.add(LocalDate.of(2024, 12, 31), 1);
+        buckets.add(LocalDate.of(2025, 1, 1), 2);
+        buckets.add(LocalDate.of(2025, 2, 28), 5);
+        buckets.add(LocalDate.of(2025, 3, 5), 1);
+
+        assertThat(buckets.labels()).containsExactly("Dec 2024", "Jan 2025", "Feb 2025", "Mar 2025");
+        assertThat(buckets.values()).containsExactly(1, 2, 5, 1);
+        assertThat(buckets.bucketStart(0)).isEqualTo(LocalDate.of(2024, 12, 20));
+        assertThat(buckets.bucketEnd(2)).isEqualTo(LocalDate.of(2025, 2, 28));
+        assertThat(buckets.bucketEnd(3)).isEqualTo(LocalDate.of(2025, 3, 5));
+    }
+
+    @Test
+    void quartersFollowTheCalendar() {
+        TimeBuckets buckets = TimeBuckets.of(TimeBuckets.Granularity.QUARTER,
+                LocalDate.of(2024, 11, 1), LocalDate.of(2025, 7, 1));
+        buckets.add(LocalDate.of(2024, 12, 31), 1);
+        buckets.add(LocalDate.of(2025, 3, 31), 2);
+        buckets.add(LocalDate.of(2025, 4, 1), 3);
+        buckets.add(LocalDate.of(2025, 7, 1), 4);
+
+        assertThat(buckets.labels()).containsExactly("Q4 2024", "Q1 2025", "Q2 2025", "Q3 2025");
+        assertThat(buckets.values()).containsExactly(1, 2, 3, 4);
+    }
+
+    @Test
+    void daysAreOneBucketEach() {
+        TimeBuckets buckets = TimeBuckets.of(TimeBuckets.Granularity.DAY,
+                LocalDate.of(2025, 2, 27), LocalDate.of(2025, 3, 1));
+        buckets.add(LocalDate.of(2025, 2, 28), 7);
+
+        assertThat(buckets.labels()).containsExactly("Feb 27", "Feb 28", "Mar 01");
+        assertThat(buckets.values()).isEqualTo(List.of(0, 7, 0));
+    }
+
+    @Test
+    void parsesGranularityIgnoringCase() {
+        assertThat(TimeBuckets.Granularity.parse(" quarter ")).isEqualTo(TimeBuckets.Granularity.QUARTER);
+        assertThatThrownBy(() -> TimeBuckets.Granularity.parse("fortnight"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void rejectsInvertedRange() {
+        assertThatThrownBy(() -> TimeBuckets.of(TimeBuckets.Granularity.DAY,
+                LocalDate.of(2025, 1, 2), LocalDate.of(2025, 1, 1)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,204 @@
+package com.ctoblue.plan91.application.usecase.routine;
+
+import com.ctoblue.plan91.adapter.out.persistence.entity.HabitEntryEntity;
+import com.ctoblue.plan91.adapter.out.persistence.entity.RoutineEntity;
+import com.ctoblue.plan91.adapter.out.persistence.mapper.RoutineMapper;
+import com.ctoblue.plan91.adapter.out.persistence.repository.HabitEntryJpaRepository;
+import com.ctoblue.plan91.adapter.out.persistence.repository.PractitionerDailyCompletionJpaRepository;
+import com.ctoblue.plan91.adapter.out.persistence.repository.RoutineJpaRepository;
+import com.ctoblue.plan91.application.usecase.analytics.PractitionerDataChangedEvent;
+import com.ctoblue.plan91.application.usecase.routine.CompleteEntriesUseCase.EntryResult;
+import com.ctoblue.plan91.domain.routine.RoutineStatus;
+import org.hibernate.exception.ConstraintViolationException;
+import org.junit.jupiter.api.Test;
+import org.mapstruct.factory.Mappers;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+import static com.ctoblue.plan91.application.usecase.routine.RoutineFixtures.*;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+/**
+ * Pins CompleteEntriesUseCase at one routine query, one completed-dates query and one
+ * batched save however many items are sent, with failures reported per item, including
+ * items completed concurrently by another request.
+ */
+class CompleteEntriesUseCaseTest {
+
+    private final RoutineJpaRepository routineRepository = mock(RoutineJpaRepository.class);
+    private final HabitEntryJpaRepository entryRepository = mock(HabitEntryJpaRepository.class);
+    private final PractitionerDailyCompletionJpaRepository dailyCompletionRepository =
+            mock(PractitionerDailyCompletionJpaRepository.class);
+    private final ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+    private final CompleteEntriesUseCase useCase = new CompleteEntriesUseCase(
+            routineRepository, entryRepository, dailyCompletionRepository,
+            Mappers.getMapper(RoutineMapper.class), eventPublisher,
+            new RetryingTransaction(transactionManager));
+
+    private final LocalDate start = LocalDate.of(2026, 2, 2);
+    private final UUID practitionerId = UUID.randomUUID();
+
+    @Test
+    void completesManyRoutinesWithBatchedQueries() {
+        RoutineEntity first = routine(RoutineStatus.ACTIVE);
+        RoutineEntity second = routine(RoutineStatus.ACTIVE);
+        when(routineRepository.findAllById(anyCollection())).thenReturn(List.of(first, second));
+        LocalDate today = start.plusDays(3);
+
+        List<EntryResult> results = useCase.execute(List.of(
+                command(first, today),
+                command(second, today),
+                command(first, start.plusDays(2))));
+
+        assertThat(results).allMatch(EntryResult::isCompleted);
+        assertThat(results).extracting(EntryResult::index).containsExactly(0, 1, 2);
+        assertThat(first.getStreak().getTotalCompletions()).isEqualTo(2);
+        assertThat(first.getStreak().getLastCompletionDate()).isEqualTo(today);
+        assertThat(first.getCompletionBitsLow()).isEqualTo(0b1100L);
+        assertThat(second.getStreak().getTotalCompletions()).isEqualTo(1);
+
+        verify(routineRepository, times(1)).findAllById(anyCollection());
+        verify(routineRepository, times(1)).flush();
+        verify(entryRepository, times(1)).findDatesByRoutineIdInAndDateIn(anyCollection(), anyCollection());
+        verify(entryRepository, times(1)).saveAll(any());
+        verify(entryRepository, times(1)).flush();
+        verify(dailyCompletionRepository).addCompletions(practitionerId, start.plusDays(2), 1);
+        verify(dailyCompletionRepository).addCompletions(practitionerId, today, 2);
+        verifyNoMoreInteractions(routineRepository, entryRepository, dailyCompletionRepository);
+        verify(eventPublisher, times(1)).publishEvent(new PractitionerDataChangedEvent(practitionerId));
+    }
+
+    @Test
+    void reportsFailedItemsWithoutFailingTheBatch() {
+        RoutineEntity active = routine(RoutineStatus.ACTIVE);
+        RoutineEntity paused = routine(RoutineStatus.PAUSED);
+        RoutineEntity done = routine(RoutineStatus.ACTIVE);
+        LocalDate today = start.plusDays(3);
+        when(routineRepository.findAllById(anyCollection())).thenReturn(List.of(active, paused, done));
+        when(entryRepository.findDatesByRoutineIdInAndDateIn(anyCollection(), anyCollection()))
+                .thenReturn(List.of(routineDate(done.getId(), today)));
+
+        List<EntryResult> results = useCase.execute(List.of(
+                command(active, today),
+                command(paused, today),
+                command(done, today),
+                new CompleteEntryCommand(UUID.randomUUID().toString(), today, null, null),
+                new CompleteEntryCommand("not-a-uuid", today, null, null),
+                command(active, today)));
+
+        assertThat(results).extracting(EntryResult::isCompleted)
+                .containsExactly(true, false, false, false, false, false);
+        assertThat(results.get(1).error()).contains("ACTIVE");
+        assertThat(results.get(2).error()).isEqualTo("Already completed on " + today);
+        assertThat(results).extracting(EntryResult::alreadyCompleted)
+                .containsExactly(false, false, true, false, false, true);
+        assertThat(results.get(3).error()).startsWith("Routine not found");
+        assertThat(results.get(4).error()).startsWith("Invalid routine ID");
+        assertThat(results.get(5).error()).isEqualTo("Already completed on " + today);
+        assertThat(paused.getStreak().getTotalCompletions()).isZero();
+        assertThat(done.getStreak().getTotalCompletions()).isZero();
+
+        verify(dailyCompletionRepository).addCompletions(practitionerId, today, 1);
+    }
+
+    @Test
+    void writesNothingWhenEveryItemFails() {
+        RoutineEntity paused = routine(RoutineStatus.PAUSED);
+        when(routineRepository.findAllById(anyCollection())).thenReturn(List.of(paused));
+
+        List<EntryResult> results = useCase.execute(List.of(command(paused, start)));
+
+        assertThat(results).noneMatch(EntryResult::isCompleted);
+        verify(entryRepository, never()).saveAll(any());
+        verifyNoInteractions(dailyCompletionRepository, eventPublisher);
+    }
+
+    @Test
+    void retriesVersionConflictInAFreshTransaction() {
+        RoutineEntity loaded = routine(RoutineStatus.ACTIVE);
+        // Each attempt reads the routine afresh, as after a rollback
+        when(routineRepository.findAllById(anyCollection())).thenAnswer(call -> List.of(reloaded(loaded)));
+        doThrow(new ObjectOptimisticLockingFailureException(RoutineEntity.class, loaded.getId()))
+                .doNothing()
+                .when(routineRepository).flush();
+
+        List<EntryResult> results = useCase.execute(List.of(command(loaded, start)));
+
+        assertThat(results).allMatch(EntryResult::isCompleted);
+        verify(routineRepository, times(2)).findAllById(anyCollection());
+        verify(transactionManager, times(1)).rollback(any());
+        verify(transactionManager, times(1)).commit(any());
+        verify(dailyCompletionRepository, times(1)).addCompletions(practitionerId, start, 1);
+    }
+
+    @Test
+    void reportsConcurrentDuplicatePerItemAfterRetry() {
+        RoutineEntity raced = routine(RoutineStatus.ACTIVE);
+        RoutineEntity other = routine(RoutineStatus.ACTIVE);
+        when(routineRepository.findAllById(anyCollection()))
+                .thenAnswer(call -> List.of(reloaded(raced), reloaded(other)));
+        // The first attempt misses an entry committed meanwhile; the retry sees it
+        when(entryRepository.findDatesByRoutineIdInAndDateIn(anyCollection(), anyCollection()))
+                .thenReturn(List.of())
+                .thenReturn(List.of(routineDate(raced.getId(), start)));
+        doThrow(new DataIntegrityViolationException("duplicate",
+                new ConstraintViolationException("Duplicate entry", new SQLException(),
+                        "habit_entries." + HabitEntryEntity.UNIQUE_ROUTINE_DATE)))
+                .doNothing()
+                .when(entryRepository).flush();
+
+        List<EntryResult> results = useCase.execute(List.of(command(raced, start), command(other, start)));
+
+        assertThat(results).extracting(EntryResult::isCompleted).containsExactly(false, true);
+        assertThat(results.get(0).error()).isEqualTo("Already completed on " + start);
+        verify(transactionManager, times(1)).rollback(any());
+        verify(transactionManager, times(1)).commit(any());
+        verify(dailyCompletionRepository, times(1)).addCompletions(practitionerId, start, 1);
+    }
+
+    @Test
+    void givesUpAfterMaxAttempts() {
+        RoutineEntity loaded = routine(RoutineStatus.ACTIVE);
+        when(routineRepository.findAllById(anyCollection())).thenAnswer(call -> List.of(reloaded(loaded)));
+        ObjectOptimisticLockingFailureException conflict =
+                new ObjectOptimisticLockingFailureException(RoutineEntity.class, loaded.getId());
+        doThrow(conflict).when(routineRepository).flush();
+
+        assertThatThrownBy(() -> useCase.execute(List.of(command(loaded, start)))).isSameAs(conflict);
+
+        verify(routineRepository, times(RetryingTransaction.MAX_ATTEMPTS)).findAllById(anyCollection());
+        verifyNoInteractions(dailyCompletionRepository, eventPublisher);
+    }
+
+    @Test
+    void rejectsOversizedBatch() {
+        RoutineEntity routine = routine(RoutineStatus.ACTIVE);
+        List<CompleteEntryCommand> commands = Collections.nCopies(
+                CompleteEntriesUseCase.MAX_BATCH_SIZE + 1, command(routine, start));
+
+        assertThatThrownBy(() -> useCase.execute(commands))
+                .isInstanceOf(IllegalArgumentException.class);
+        verifyNoInteractions(routineRepository, entryRepository);
+    }
+
+    private RoutineEntity routine(RoutineStatus status) {
+        return dailyRoutine(practitionerId, start).status(status).build();
+    }
+
+    private static CompleteEntryCommand command(RoutineEntity routine, LocalDate date) {
+        return new CompleteEntryCommand(routine.getId().toString(), date, null, null);
+    }
+}
@@ -0,0 +1,175 @@
+package com.ctoblue.plan91.application.usecase.routine;
+
+import com.ctoblue.plan91.adapter.out.persistence.entity.HabitEntity;
+import com.ctoblue.plan91.adapter.out.persistence.entity.HabitPractitionerEntity;
+import com.ctoblue.plan91.adapter.out.persistence.entity.RoutineEntity;
+import com.ctoblue.plan91.adapter.out.persistence.entity.UserEntity;
+import com.ctoblue.plan91.adapter.out.persistence.mapper.RoutineMapper;
+import com.ctoblue.plan91.adapter.out.persistence.repository.HabitEntryJpaRepository;
+import com.ctoblue.plan91.adapter.out.persistence.repository.HabitJpaRepository;
+import com.ctoblue.plan91.adapter.out.persistence.repository.HabitPractitionerJpaRepository;
+import com.ctoblue.plan91.adapter.out.persistence.repository.RoutineJpaRepository;
+import com.ctoblue.plan91.adapter.out.persistence.repository.UserJpaRepository;
+import com.ctoblue.plan91.domain.habit.TrackingType;
+import com.ctoblue.plan91.domain.routine.HabitStreak;
+import com.ctoblue.plan91.domain.routine.RecurrenceRule;
+import com.ctoblue.plan91.domain.routine.RecurrenceType;
+import com.ctoblue.plan91.domain.routine.service.StreakRebuilder;
+import com.ctoblue.plan91.domain.shared.EpochDays;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Hammers one routine with completions from many threads, as several devices would,
+ * and checks that no streak update is lost to a concurrent writer or to out-of-order arrival.
+ *
+ * <p>Each send calls the use case once, so only its own retry absorbs conflicts. Concurrency is
+ * bounded to {@value #THREADS} writers, which the retry's jittered backoff over
+ * {@value RetryingTransaction#MAX_ATTEMPTS} attempts is meant to absorb: every date must be
+ * completed exactly once, with no conflict reaching the caller.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class CompleteEntryConcurrencyTest {
+
+    private static final int THREADS = 4;
+    private static final int DISTINCT_DATES = 30;
+    private static final int SENDS_PER_DATE = 2;
+
+    @Autowired
+    private CompleteEntryUseCase completeEntryUseCase;
+
+    @Autowired
+    private StartRoutineUseCase startRoutineUseCase;
+
+    @Autowired
+    private UserJpaRepository userRepository;
+
+    @Autowired
+    private HabitPractitionerJpaRepository practitionerRepository;
+
+    @Autowired
+    private HabitJpaRepository habitRepository;
+
+    @Autowired
+    private RoutineJpaRepository routineRepository;
+
+    @Autowired
+    private HabitEntryJpaRepository entryRepository;
+
+    @Autowired
+    private RoutineMapper routineMapper;
+
+    private enum Outcome { COMPLETED, DUPLICATE, CONFLICT }
+
+    private record Send(LocalDate date, Outcome outcome) {
+    }
+
+    @Test
+    void concurrentCompletionsOfOneRoutineAreAllCounted() throws Exception {
+        LocalDate start = LocalDate.now();
+        UUID routineId = startDailyRoutine(start);
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch go = new CountDownLatch(1);
+        List<Future<Send>> futures = new ArrayList<>();
+        List<Send> sends = new ArrayList<>();
+        try {
+            for (int i = 0; i < DISTINCT_DATES * SENDS_PER_DATE; i++) {
+                LocalDate date = start.plusDays(i % DISTINCT_DATES);
+                futures.add(executor.submit(() -> {
+                    go.await();
+                    return new Send(date, complete(routineId, date));
+                }));
+            }
+            go.countDown();
+
+            for (Future<Send> future : futures) {
+                sends.add(future.get(60, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        int[] completedDays = sends.stream()
+                .filter(send -> send.outcome() == Outcome.COMPLETED)
+                .mapToInt(send -> EpochDays.of(send.date()))
+                .sorted()
+                .toArray();
+        int completed = completedDays.length;
+
+        // Every date completed exactly once; its twin is answered as a duplicate, never a conflict
+        assertThat(sends).noneMatch(send -> send.outcome() == Outcome.CONFLICT);
+        assertThat(completedDays).doesNotHaveDuplicates();
+        assertThat(completed).isEqualTo(DISTINCT_DATES);
+        assertThat(sends).filteredOn(send -> send.outcome() == Outcome.DUPLICATE)
+                .hasSize(DISTINCT_DATES * (SENDS_PER_DATE - 1));
+
+        RoutineEntity routine = routineRepository.findById(routineId).orElseThrow();
+        assertThat(entryRepository.countByRoutineId(routineId)).isEqualTo(DISTINCT_DATES);
+        assertThat(routine.getVersion()).isEqualTo((long) DISTINCT_DATES);
+
+        // Dates land out of order, yet the stored streak is the one rebuilt from all of them
+        HabitStreak expected = new StreakRebuilder().rebuild(RecurrenceRule.daily(),
+                routine.getStartDate(), routine.getExpectedEndDate(), completedDays);
+        assertThat(routineMapper.toDomain(routine).getStreak()).isEqualTo(expected);
+        assertThat(routine.getStreak().getTotalCompletions()).isEqualTo(DISTINCT_DATES);
+        assertThat(routine.getStreak().getCurrentStreak()).isEqualTo(DISTINCT_DATES);
+    }
+
+    /**
+     * Completes one date with a single call, reporting a conflict that outlasted the use
+     * case's own retries instead of resending, so the test can fail on it.
+     */
+    private Outcome complete(UUID routineId, LocalDate date) {
+        try {
+            completeEntryUseCase.execute(new CompleteEntryCommand(routineId.toString(), date, null, null));
+            return Outcome.COMPLETED;
+        } catch (IllegalArgumentException e) {
+            assertThat(e.getMessage()).startsWith("Already completed on");
+            return Outcome.DUPLICATE;
+        } catch (OptimisticLockingFailureException e) {
+            return Outcome.CONFLICT;
+        }
+    }
+
+    private UUID startDailyRoutine(LocalDate start) {
+        String email = "concurrency-" + UUID.randomUUID() + "@plan91.test";
+        UserEntity user = userRepository.save(UserEntity.builder()
+                .email(email)
+                .passwordHash("not-a-real-hash")
+                .build());
+        HabitPractitionerEntity practitioner = practitionerRepository.save(HabitPractitionerEntity.builder()
+                .user(user)
+                .firstName("Concurrent")
+                .lastName("Tester")
+                .email(email)
+                .originalTimezone("UTC")
+                .build());
+        HabitEntity habit = habitRepository.save(HabitEntity.builder()
+                .creator(practitioner)
+                .name("Stretch")
+                .trackingType(TrackingType.BOOLEAN)
+                .build());
+
+        RoutineEntity routine = startRoutineUseCase.execute(new StartRoutineCommand(
+                practitioner.getId().toString(), habit.getId().toString(),
+                RecurrenceType.DAILY, null, null, null, start, null));
+        return routine.getId();
+    }
+}
@@ -0,0 +1,155 @@
+package com.ctoblue.plan91.application.usecase.routine;
+
+import com.ctoblue.plan91.adapter.out.persistence.entity.HabitEntity;
+import com.ctoblue.plan91.adapter.out.persistence.entity.HabitEntryEntity;
+import com.ctoblue.plan91.adapter.out.persistence.entity.HabitPractitionerEntity;
+import com.ctoblue.plan91.adapter.out.persistence.entity.HabitStreakEmbeddable;
+import com.ctoblue.plan91.adapter.out.persistence.entity.RecurrenceRuleEmbeddable;
+import com.ctoblue.plan91.adapter.out.persistence.entity.RoutineEntity;
+import com.ctoblue.plan91.adapter.out.persistence.entity.UserEntity;
+import com.ctoblue.plan91.adapter.out.persistence.mapper.RoutineMapper;
+import com.ctoblue.plan91.domain.habit.TrackingType;
+import com.ctoblue.plan91.domain.routine.RecurrenceType;
+import com.ctoblue.plan91.domain.routine.RoutineStatus;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mapstruct.factory.Mappers;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Counts the SQL statements a completion actually prepares against MySQL, from Hibernate's
+ * statistics. A completion costs four: the routine SELECT, the routine UPDATE, the entry
+ * INSERT and the rollup upsert. The fourth keeps practitioner_daily_completions current in
+ * the same transaction, so analytics read one row per day instead of aggregating entries.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import(CompleteEntryUseCase.class)
+class CompleteEntryStatementCountTest {
+
+    @TestConfiguration
+    static class MapperConfig {
+        @Bean
+        RoutineMapper routineMapper() {
+            return Mappers.getMapper(RoutineMapper.class);
+        }
+    }
+
+    @Autowired
+    private CompleteEntryUseCase useCase;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private final LocalDate start = LocalDate.of(2026, 2, 2);
+    private Statistics statistics;
+    private RoutineEntity routine;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        routine = persistDailyRoutine();
+    }
+
+    @Test
+    void completionPreparesFourStatements() {
+        long statements = measure(start.plusDays(1));
+
+        assertThat(statements).isEqualTo(4);
+    }
+
+    @Test
+    void backfillWithBitmapPreparesFourStatements() {
+        persistEntry(start);
+        persistEntry(start.plusDays(2));
+        routine.setStreak(new HabitStreakEmbeddable(2, 2, 2, true, start.plusDays(1), start.plusDays(2)));
+        routine.setCompletionBitsLow(0b101L);
+
+        long statements = measure(start.plusDays(1));
+
+        assertThat(statements).isEqualTo(4);
+    }
+
+    @Test
+    void backfillWithoutBitmapReadsEntryDatesOnce() {
+        persistEntry(start);
+        persistEntry(start.plusDays(2));
+        routine.setStreak(new HabitStreakEmbeddable(2, 2, 2, true, start.plusDays(1), start.plusDays(2)));
+        routine.setCompletionBitsLow(null);
+        routine.setCompletionBitsHigh(null);
+
+        long statements = measure(start.plusDays(1));
+
+        assertThat(statements).isEqualTo(5);
+    }
+
+    /**
+     * Writes the fixtures, empties the persistence context so the routine is read from the
+     * database, then completes the date and returns the statements it prepared.
+     */
+    private long measure(LocalDate date) {
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+
+        useCase.execute(new CompleteEntryCommand(routine.getId().toString(), date, null, null));
+
+        return statistics.getPrepareStatementCount();
+    }
+
+    private RoutineEntity persistDailyRoutine() {
+        String email = "statements-" + UUID.randomUUID() + "@plan91.test";
+        UserEntity user = entityManager.persist(UserEntity.builder()
+                .email(email)
+                .passwordHash("not-a-real-hash")
+                .build());
+        HabitPractitionerEntity practitioner = entityManager.persist(HabitPractitionerEntity.builder()
+                .user(user)
+                .firstName("Statement")
+                .lastName("Counter")
+                .email(email)
+                .originalTimezone("UTC")
+                .build());
+        HabitEntity habit = entityManager.persist(HabitEntity.builder()
+                .creator(practitioner)
+                .name("Stretch")
+                .trackingType(TrackingType.BOOLEAN)
+                .build());
+        return entityManager.persist(RoutineEntity.builder()
+                .habit(habit)
+                .practitioner(practitioner)
+                .recurrenceRule(RecurrenceRuleEmbeddable.builder().type(RecurrenceType.DAILY).build())
+                .startDate(start)
+                .expectedEndDate(start.plusDays(90))
+                .completionBitsLow(0L)
+                .completionBitsHigh(0L)
+                .status(RoutineStatus.ACTIVE)
+                .build());
+    }
+
+    private void persistEntry(LocalDate date) {
+        entityManager.persist(HabitEntryEntity.builder()
+                .routine(routine)
+                .date(date)
+                .build());
+    }
+}
@@ -0,0 +1,188 @@
+package com.ctoblue.plan91.application.usecase.routine;
+
+import com.ctoblue.plan91.adapter.out.persistence.entity.HabitEntryEntity;
+import com.ctoblue.plan91.adapter.out.persistence.entity.HabitStreakEmbeddable;
+import com.ctoblue.plan91.adapter.out.persistence.entity.RoutineEntity;
+import com.ctoblue.plan91.adapter.out.persistence.mapper.RoutineMapper;
+import com.ctoblue.plan91.adapter.out.persistence.repository.HabitEntryJpaRepository;
+import com.ctoblue.plan91.adapter.out.persistence.repository.PractitionerDailyCompletionJpaRepository;
+import com.ctoblue.plan91.adapter.out.persistence.repository.RoutineJpaRepository;
+import com.ctoblue.plan91.application.usecase.analytics.PractitionerDataChangedEvent;
+import com.ctoblue.plan91.domain.routine.RoutineStatus;
+import org.hibernate.exception.ConstraintViolationException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mapstruct.factory.Mappers;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static com.ctoblue.plan91.application.usecase.routine.RoutineFixtures.*;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Checks the repository calls CompleteEntryUseCase makes per completion: one read, one
+ * entry insert and one rollup upsert. The routine is updated in place, so its UPDATE comes
+ * from dirty checking at flush rather than a merge of a detached copy. Version conflicts are
+ * retried, and a backfilled date rebuilds the streak instead of incrementing it. The SQL
+ * statements actually sent are counted by {@link CompleteEntryStatementCountTest}.
+ */
+class CompleteEntryUseCaseTest {
+
+    private final RoutineJpaRepository routineRepository = mock(RoutineJpaRepository.class);
+    private final HabitEntryJpaRepository entryRepository = mock(HabitEntryJpaRepository.class);
+    private final PractitionerDailyCompletionJpaRepository dailyCompletionRepository =
+            mock(PractitionerDailyCompletionJpaRepository.class);
+    private final ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+    private final CompleteEntryUseCase useCase = new CompleteEntryUseCase(
+            routineRepository, entryRepository, dailyCompletionRepository,
+            Mappers.getMapper(RoutineMapper.class), eventPublisher,
+            new RetryingTransaction(transactionManager));
+
+    private final LocalDate start = LocalDate.of(2026, 2, 2);
+    private final UUID practitionerId = UUID.randomUUID();
+    private RoutineEntity routine;
+
+    @BeforeEach
+    void setUp() {
+        routine = dailyRoutine(practitionerId, start).build();
+        when(routineRepository.findById(routine.getId())).thenReturn(Optional.of(routine));
+    }
+
+    @Test
+    void updatesManagedRoutineWithOneReadOneInsertAndOneUpsert() {
+        when(entryRepository.saveAndFlush(any())).thenAnswer(call -> call.getArgument(0));
+
+        HabitEntryEntity entry = useCase.execute(command(start.plusDays(1)));
+
+        assertThat(entry.getRoutine()).isSameAs(routine);
+        assertThat(routine.getStreak().getTotalCompletions()).isEqualTo(1);
+        assertThat(routine.getStreak().getLastCompletionDate()).isEqualTo(start.plusDays(1));
+        assertThat(routine.getCompletionBitsLow()).isEqualTo(0b10L);
+
+        verify(routineRepository, times(1)).findById(routine.getId());
+        verify(routineRepository, times(1)).flush();
+        verify(entryRepository, times(1)).saveAndFlush(any());
+        verify(dailyCompletionRepository, times(1)).incrementCompletions(practitionerId, start.plusDays(1));
+        verifyNoMoreInteractions(routineRepository, entryRepository, dailyCompletionRepository);
+        verify(eventPublisher).publishEvent(new PractitionerDataChangedEvent(practitionerId));
+    }
+
+    @Test
+    void backfillRebuildsStreakFromBitmap() {
+        completedOnDaysZeroAndTwo();
+        routine.setCompletionBitsLow(0b101L);
+        when(entryRepository.saveAndFlush(any())).thenAnswer(call -> call.getArgument(0));
+
+        useCase.execute(command(start.plusDays(1)));
+
+        assertThat(routine.getStreak().getCurrentStreak()).isEqualTo(3);
+        assertThat(routine.getStreak().getTotalCompletions()).isEqualTo(3);
+        assertThat(routine.getStreak().getHasUsedStrike()).isFalse();
+        assertThat(routine.getStreak().getLastCompletionDate()).isEqualTo(start.plusDays(2));
+        verify(entryRepository, never()).findDatesByRoutineIdIn(any());
+    }
+
+    @Test
+    void backfillWithoutBitmapRebuildsFromEntryDates() {
+        completedOnDaysZeroAndTwo();
+        routine.setCompletionBitsLow(null);
+        routine.setCompletionBitsHigh(null);
+        when(entryRepository.findDatesByRoutineIdIn(List.of(routine.getId())))
+                .thenReturn(List.of(routineDate(routine.getId(), start),
+                        routineDate(routine.getId(), start.plusDays(2))));
+        when(entryRepository.saveAndFlush(any())).thenAnswer(call -> call.getArgument(0));
+
+        useCase.execute(command(start.plusDays(1)));
+
+        assertThat(routine.getStreak().getCurrentStreak()).isEqualTo(3);
+        assertThat(routine.getStreak().getHasUsedStrike()).isFalse();
+        verify(entryRepository, times(1)).findDatesByRoutineIdIn(List.of(routine.getId()));
+    }
+
+    @Test
+    void completionAfterTwoMissesResetsWithoutAbandoning() {
+        routine.setStreak(new HabitStreakEmbeddable(1, 1, 1, false, null, start));
+        routine.setCompletionBitsLow(0b1L);
+        when(entryRepository.saveAndFlush(any())).thenAnswer(call -> call.getArgument(0));
+
+        useCase.execute(command(start.plusDays(3)));
+
+        assertThat(routine.getStreak().getCurrentStreak()).isEqualTo(1);
+        assertThat(routine.getStreak().getHasUsedStrike()).isTrue();
+        assertThat(routine.getStatus()).isEqualTo(RoutineStatus.ACTIVE);
+    }
+
+    @Test
+    void translatesUniqueConstraintViolationToAlreadyCompleted() {
+        when(entryRepository.saveAndFlush(any())).thenThrow(new DataIntegrityViolationException("duplicate",
+                new ConstraintViolationException("Duplicate entry", new SQLException(),
+                        "habit_entries." + HabitEntryEntity.UNIQUE_ROUTINE_DATE)));
+
+        assertThatThrownBy(() -> useCase.execute(command(start)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Already completed on " + start);
+
+        verifyNoInteractions(dailyCompletionRepository, eventPublisher);
+    }
+
+    @Test
+    void rethrowsOtherIntegrityViolations() {
+        DataIntegrityViolationException other = new DataIntegrityViolationException("fk",
+                new ConstraintViolationException("Cannot add row", new SQLException(), "fk_habit_entries_routine"));
+        when(entryRepository.saveAndFlush(any())).thenThrow(other);
+
+        assertThatThrownBy(() -> useCase.execute(command(start))).isSameAs(other);
+    }
+
+    @Test
+    void retriesVersionConflictInAFreshTransaction() {
+        // Each attempt reads the routine afresh, as after a rollback
+        when(routineRepository.findById(routine.getId())).thenAnswer(call -> Optional.of(reloaded(routine)));
+        when(entryRepository.saveAndFlush(any()))
+                .thenThrow(new ObjectOptimisticLockingFailureException(RoutineEntity.class, routine.getId()))
+                .thenAnswer(call -> call.getArgument(0));
+
+        useCase.execute(command(start));
+
+        verify(routineRepository, times(2)).findById(routine.getId());
+        verify(transactionManager, times(1)).rollback(any());
+        verify(transactionManager, times(1)).commit(any());
+        verify(dailyCompletionRepository, times(1)).incrementCompletions(practitionerId, start);
+    }
+
+    @Test
+    void givesUpAfterMaxAttempts() {
+        when(routineRepository.findById(routine.getId())).thenAnswer(call -> Optional.of(reloaded(routine)));
+        ObjectOptimisticLockingFailureException conflict =
+                new ObjectOptimisticLockingFailureException(RoutineEntity.class, routine.getId());
+        when(entryRepository.saveAndFlush(any())).thenThrow(conflict);
+
+        assertThatThrownBy(() -> useCase.execute(command(start))).isSameAs(conflict);
+
+        verify(routineRepository, times(RetryingTransaction.MAX_ATTEMPTS)).findById(routine.getId());
+        verifyNoInteractions(dailyCompletionRepository, eventPublisher);
+    }
+
+    /**
+     * Completed on the start date and two days later; the day between used the strike.
+     */
+    private void completedOnDaysZeroAndTwo() {
+        routine.setStreak(new HabitStreakEmbeddable(2, 2, 2, true, start.plusDays(1), start.plusDays(2)));
+    }
+
+    private CompleteEntryCommand command(LocalDate date) {
+        return new CompleteEntryCommand(routine.getId().toString(), date, null, null);
+    }
+}
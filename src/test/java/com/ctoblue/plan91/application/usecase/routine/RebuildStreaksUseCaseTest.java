@@ -0,0 +1,160 @@
+package com.ctoblue.plan91.application.usecase.routine;
+
+import com.ctoblue.plan91.adapter.out.persistence.entity.HabitStreakEmbeddable;
+import com.ctoblue.plan91.adapter.out.persistence.entity.RoutineEntity;
+import com.ctoblue.plan91.adapter.out.persistence.mapper.RoutineMapper;
+import com.ctoblue.plan91.adapter.out.persistence.repository.HabitEntryJpaRepository;
+import com.ctoblue.plan91.adapter.out.persistence.repository.RoutineJpaRepository;
+import com.ctoblue.plan91.application.usecase.analytics.PractitionerDataChangedEvent;
+import com.ctoblue.plan91.application.usecase.routine.RebuildStreaksUseCase.RebuildSummary;
+import com.ctoblue.plan91.domain.routine.RoutineStatus;
+import org.junit.jupiter.api.Test;
+import org.mapstruct.factory.Mappers;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static com.ctoblue.plan91.application.usecase.routine.RoutineFixtures.*;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+/**
+ * Checks that the bulk repair rewrites only wrong streaks, reconciles completion status, reports
+ * routines past their strike, reads each chunk's entries with one query, announces only
+ * practitioners whose data changed, and re-reads a chunk that lost a race with a completion.
+ */
+class RebuildStreaksUseCaseTest {
+
+    private final RoutineJpaRepository routineRepository = mock(RoutineJpaRepository.class);
+    private final HabitEntryJpaRepository entryRepository = mock(HabitEntryJpaRepository.class);
+    private final ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+    private final RebuildStreaksUseCase useCase = new RebuildStreaksUseCase(
+            routineRepository, entryRepository, Mappers.getMapper(RoutineMapper.class),
+            eventPublisher, new RetryingTransaction(transactionManager));
+
+    private final LocalDate start = LocalDate.of(2026, 2, 2);
+    private final Instant loaded = Instant.parse("2026-02-10T00:00:00Z");
+
+    @Test
+    void rewritesOnlyWrongStreaks() {
+        // Days 0-2 completed, day 1 backfilled after day 2: stored as a 2-day streak with the strike used
+        RoutineEntity backfilled = routine(new HabitStreakEmbeddable(2, 2, 3, true, start.plusDays(1), start.plusDays(2)));
+        RoutineEntity correct = routine(new HabitStreakEmbeddable(1, 1, 1, false, null, start));
+        when(routineRepository.findAllByOrderByIdAsc(Limit.of(RebuildStreaksUseCase.CHUNK_SIZE)))
+                .thenReturn(List.of(backfilled, correct));
+        when(entryRepository.findDatesByRoutineIdIn(anyCollection())).thenReturn(List.of(
+                routineDate(backfilled.getId(), start), routineDate(backfilled.getId(), start.plusDays(1)),
+                routineDate(backfilled.getId(), start.plusDays(2)), routineDate(correct.getId(), start)));
+
+        RebuildSummary summary = useCase.execute();
+
+        assertThat(summary.routines()).isEqualTo(2);
+        assertThat(summary.repaired()).isEqualTo(1);
+        assertThat(summary.completed()).isZero();
+        assertThat(summary.strikesExhausted()).isEmpty();
+        assertThat(backfilled.getStreak().getCurrentStreak()).isEqualTo(3);
+        assertThat(backfilled.getStreak().getHasUsedStrike()).isFalse();
+        assertThat(backfilled.getUpdatedAt()).isAfter(loaded);
+        assertThat(correct.getUpdatedAt()).isEqualTo(loaded);
+
+        verify(routineRepository, times(1)).findAllByOrderByIdAsc(any());
+        verify(entryRepository, times(1)).findDatesByRoutineIdIn(anyCollection());
+        verifyNoMoreInteractions(routineRepository, entryRepository);
+        verify(transactionManager, times(1)).commit(any());
+        verify(eventPublisher).publishEvent(new PractitionerDataChangedEvent(backfilled.getPractitioner().getId()));
+        verifyNoMoreInteractions(eventPublisher);
+    }
+
+    @Test
+    void reportsButDoesNotAbandonRoutinesPastTheirStrike() {
+        // Days 0 and 3 completed: day 1 uses the strike, day 2 resets, as a second recordMiss would
+        RoutineEntity gapped = routine(new HabitStreakEmbeddable(2, 2, 2, false, null, start.plusDays(3)));
+        when(routineRepository.findAllByOrderByIdAsc(any())).thenReturn(List.of(gapped));
+        when(entryRepository.findDatesByRoutineIdIn(anyCollection())).thenReturn(List.of(
+                routineDate(gapped.getId(), start), routineDate(gapped.getId(), start.plusDays(3))));
+
+        RebuildSummary summary = useCase.execute();
+
+        assertThat(summary.repaired()).isEqualTo(1);
+        assertThat(gapped.getStreak().getCurrentStreak()).isEqualTo(1);
+        assertThat(gapped.getStreak().getHasUsedStrike()).isTrue();
+        // Not abandoned: a later backfill of day 1 or 2 can still restore the streak
+        assertThat(gapped.getStatus()).isEqualTo(RoutineStatus.ACTIVE);
+        assertThat(summary.strikesExhausted()).containsExactly(gapped.getId());
+    }
+
+    @Test
+    void completesRoutinesWhoseEntriesReachTheTarget() {
+        // Five days completed against a five-day target, stored before the last two were backfilled
+        RoutineEntity reached = dailyRoutine(UUID.randomUUID(), start)
+                .targetDays(5)
+                .streak(new HabitStreakEmbeddable(3, 3, 3, false, null, start.plusDays(2)))
+                .createdAt(loaded)
+                .updatedAt(loaded)
+                .build();
+        when(routineRepository.findAllByOrderByIdAsc(any())).thenReturn(List.of(reached));
+        List<HabitEntryJpaRepository.RoutineDate> rows = new ArrayList<>();
+        for (int day = 0; day < 5; day++) {
+            rows.add(routineDate(reached.getId(), start.plusDays(day)));
+        }
+        when(entryRepository.findDatesByRoutineIdIn(anyCollection())).thenReturn(rows);
+
+        RebuildSummary summary = useCase.execute();
+
+        assertThat(summary.repaired()).isEqualTo(1);
+        assertThat(summary.completed()).isEqualTo(1);
+        assertThat(reached.getStatus()).isEqualTo(RoutineStatus.COMPLETED);
+        assertThat(reached.getCompletedAt()).isEqualTo(start.plusDays(4));
+        verify(eventPublisher).publishEvent(new PractitionerDataChangedEvent(reached.getPractitioner().getId()));
+    }
+
+    @Test
+    void pagesThroughFullChunksByLastId() {
+        List<RoutineEntity> full = new ArrayList<>();
+        for (int i = 0; i < RebuildStreaksUseCase.CHUNK_SIZE; i++) {
+            full.add(routine(new HabitStreakEmbeddable(0, 0, 0, false, null, null)));
+        }
+        UUID lastId = full.get(full.size() - 1).getId();
+        when(routineRepository.findAllByOrderByIdAsc(any())).thenReturn(full);
+        when(routineRepository.findByIdGreaterThanOrderByIdAsc(eq(lastId), any())).thenReturn(List.of());
+
+        RebuildSummary summary = useCase.execute();
+
+        assertThat(summary.routines()).isEqualTo(RebuildStreaksUseCase.CHUNK_SIZE);
+        assertThat(summary.repaired()).isZero();
+        verify(transactionManager, times(2)).commit(any());
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void retriesChunkAfterVersionConflict() {
+        RoutineEntity routine = routine(new HabitStreakEmbeddable(0, 0, 0, false, null, null));
+        when(routineRepository.findAllByOrderByIdAsc(any())).thenReturn(List.of(routine));
+        doThrow(new ObjectOptimisticLockingFailureException(RoutineEntity.class, routine.getId()))
+                .doNothing()
+                .when(transactionManager).commit(any());
+
+        RebuildSummary summary = useCase.execute();
+
+        assertThat(summary.routines()).isEqualTo(1);
+        verify(routineRepository, times(2)).findAllByOrderByIdAsc(any());
+    }
+
+    private RoutineEntity routine(HabitStreakEmbeddable streak) {
+        return dailyRoutine(UUID.randomUUID(), start)
+                .streak(streak)
+                .createdAt(loaded)
+                .updatedAt(loaded)
+                .build();
+    }
+}
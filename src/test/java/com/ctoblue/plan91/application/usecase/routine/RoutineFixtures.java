@@ -0,0 +1,79 @@
+package com.ctoblue.plan91.application.usecase.routine;
+
+import com.ctoblue.plan91.adapter.out.persistence.entity.HabitEntity;
+import com.ctoblue.plan91.adapter.out.persistence.entity.HabitEntryEntity;
+import com.ctoblue.plan91.adapter.out.persistence.entity.HabitPractitionerEntity;
+import com.ctoblue.plan91.adapter.out.persistence.entity.HabitStreakEmbeddable;
+import com.ctoblue.plan91.adapter.out.persistence.entity.RecurrenceRuleEmbeddable;
+import com.ctoblue.plan91.adapter.out.persistence.entity.RoutineEntity;
+import com.ctoblue.plan91.adapter.out.persistence.repository.HabitEntryJpaRepository;
+import com.ctoblue.plan91.domain.routine.RecurrenceType;
+import com.ctoblue.plan91.domain.routine.RoutineStatus;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Detached entities and query rows shared by the routine use case tests, which mock the repositories.
+ */
+final class RoutineFixtures {
+
+    private RoutineFixtures() {
+    }
+
+    /**
+     * An active daily routine of the practitioner, loaded with a new ID, an empty streak and an
+     * empty completion bitmap. Callers override any field before building.
+     */
+    static RoutineEntity.RoutineEntityBuilder dailyRoutine(UUID practitionerId, LocalDate start) {
+        Instant now = Instant.now();
+        return RoutineEntity.builder()
+                .id(UUID.randomUUID())
+                .habit(HabitEntity.builder().id(UUID.randomUUID()).build())
+                .practitioner(HabitPractitionerEntity.builder().id(practitionerId).build())
+                .recurrenceRule(RecurrenceRuleEmbeddable.builder().type(RecurrenceType.DAILY).build())
+                .startDate(start)
+                .expectedEndDate(start.plusDays(90))
+                .streak(new HabitStreakEmbeddable(0, 0, 0, false, null, null))
+                .completionBitsLow(0L)
+                .completionBitsHigh(0L)
+                .status(RoutineStatus.ACTIVE)
+                .createdAt(now)
+                .updatedAt(now);
+    }
+
+    /**
+     * A fresh copy of the routine with the same ID and status, as a retry reads it after a rollback.
+     */
+    static RoutineEntity reloaded(RoutineEntity routine) {
+        return dailyRoutine(routine.getPractitioner().getId(), routine.getStartDate())
+                .id(routine.getId())
+                .status(routine.getStatus())
+                .build();
+    }
+
+    /**
+     * A saved entry for the date.
+     */
+    static HabitEntryEntity savedEntry(LocalDate date) {
+        return HabitEntryEntity.builder().id(UUID.randomUUID()).date(date).build();
+    }
+
+    /**
+     * A row of {@link HabitEntryJpaRepository#findDatesByRoutineIdIn}.
+     */
+    static HabitEntryJpaRepository.RoutineDate routineDate(UUID routineId, LocalDate date) {
+        return new HabitEntryJpaRepository.RoutineDate() {
+            @Override
+            public UUID getRoutineId() {
+                return routineId;
+            }
+
+            @Override
+            public LocalDate getDate() {
+                return date;
+            }
+        };
+    }
+}
@@ -0,0 +1,163 @@
+package com.ctoblue.plan91.application.usecase.routine;
+
+import com.ctoblue.plan91.adapter.out.persistence.entity.EntrySyncKeyEntity;
+import com.ctoblue.plan91.adapter.out.persistence.repository.EntrySyncKeyJpaRepository;
+import com.ctoblue.plan91.application.usecase.routine.CompleteEntriesUseCase.EntryResult;
+import com.ctoblue.plan91.application.usecase.routine.SyncEntriesUseCase.SyncResult;
+import com.ctoblue.plan91.application.usecase.routine.SyncEntriesUseCase.SyncStatus;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static com.ctoblue.plan91.application.usecase.routine.RoutineFixtures.savedEntry;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+/**
+ * Checks that replayed idempotency keys are answered without completing again, and that
+ * only new completions reach CompleteEntriesUseCase, as one batch.
+ */
+class SyncEntriesUseCaseTest {
+
+    private final CompleteEntriesUseCase completeEntriesUseCase = mock(CompleteEntriesUseCase.class);
+    private final EntrySyncKeyJpaRepository syncKeyRepository = mock(EntrySyncKeyJpaRepository.class);
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+    private final SyncEntriesUseCase useCase = new SyncEntriesUseCase(
+            completeEntriesUseCase, syncKeyRepository, new RetryingTransaction(transactionManager));
+
+    private final String routineId = UUID.randomUUID().toString();
+    private final LocalDate date = LocalDate.of(2026, 2, 2);
+
+    @Test
+    void completesNewKeysAndAnswersReplayedOnes() {
+        String synced = UUID.randomUUID().toString();
+        String fresh = UUID.randomUUID().toString();
+        UUID syncedEntry = UUID.randomUUID();
+        when(syncKeyRepository.findAllById(anyCollection())).thenReturn(List.of(
+                EntrySyncKeyEntity.builder().idempotencyKey(UUID.fromString(synced)).entryId(syncedEntry).build()));
+        when(completeEntriesUseCase.complete(anyList())).thenAnswer(call -> completeAll(call.getArgument(0)));
+
+        List<SyncResult> results = useCase.execute(List.of(
+                command(synced, date),
+                command(fresh, date.plusDays(1)),
+                command(fresh, date.plusDays(1))));
+
+        assertThat(results).extracting(SyncResult::status)
+                .containsExactly(SyncStatus.DUPLICATE, SyncStatus.CREATED, SyncStatus.DUPLICATE);
+        assertThat(results.get(0).entryId()).isEqualTo(syncedEntry);
+        assertThat(results.get(2).entryId()).isEqualTo(results.get(1).entryId());
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<CompleteEntryCommand>> completions = ArgumentCaptor.forClass(List.class);
+        verify(completeEntriesUseCase, times(1)).complete(completions.capture());
+        assertThat(completions.getValue()).extracting(CompleteEntryCommand::date).containsExactly(date.plusDays(1));
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<EntrySyncKeyEntity>> keys = ArgumentCaptor.forClass(List.class);
+        verify(syncKeyRepository).saveAll(keys.capture());
+        assertThat(keys.getValue()).singleElement()
+                .satisfies(key -> {
+                    assertThat(key.getIdempotencyKey()).isEqualTo(UUID.fromString(fresh));
+                    assertThat(key.getEntryId()).isEqualTo(results.get(1).entryId());
+                    assertThat(key.isNew()).isTrue();
+                });
+    }
+
+    @Test
+    void failedCompletionsAreNotRecorded() {
+        when(syncKeyRepository.findAllById(anyCollection())).thenReturn(List.of());
+        when(completeEntriesUseCase.complete(anyList())).thenAnswer(call -> {
+            List<CompleteEntryCommand> commands = call.getArgument(0);
+            return List.of(new EntryResult(0, commands.get(0).routineId(), commands.get(0).date(), null,
+                    "Not an expected day", false));
+        });
+
+        List<SyncResult> results = useCase.execute(List.of(command(UUID.randomUUID().toString(), date)));
+
+        assertThat(results).singleElement().satisfies(result -> {
+            assertThat(result.status()).isEqualTo(SyncStatus.FAILED);
+            assertThat(result.error()).isEqualTo("Not an expected day");
+        });
+        verify(syncKeyRepository, never()).saveAll(any());
+    }
+
+    @Test
+    void dateCompletedUnderAnotherKeyIsTerminal() {
+        String key = UUID.randomUUID().toString();
+        when(syncKeyRepository.findAllById(anyCollection())).thenReturn(List.of());
+        when(completeEntriesUseCase.complete(anyList())).thenAnswer(call -> {
+            List<CompleteEntryCommand> commands = call.getArgument(0);
+            return List.of(new EntryResult(0, commands.get(0).routineId(), commands.get(0).date(), null,
+                    "Already completed on " + date, true));
+        });
+
+        List<SyncResult> results = useCase.execute(List.of(command(key, date), command(key, date)));
+
+        assertThat(results).extracting(SyncResult::status)
+                .containsExactly(SyncStatus.ALREADY_COMPLETED, SyncStatus.ALREADY_COMPLETED);
+        assertThat(results.get(0).error()).isEqualTo("Already completed on " + date);
+        verify(syncKeyRepository, never()).saveAll(any());
+    }
+
+    @Test
+    void retriesChunkAfterVersionConflict() {
+        when(syncKeyRepository.findAllById(anyCollection())).thenReturn(List.of());
+        when(completeEntriesUseCase.complete(anyList()))
+                .thenThrow(new ObjectOptimisticLockingFailureException("routines", routineId))
+                .thenAnswer(call -> completeAll(call.getArgument(0)));
+
+        List<SyncResult> results = useCase.execute(List.of(command(UUID.randomUUID().toString(), date)));
+
+        assertThat(results).extracting(SyncResult::status).containsExactly(SyncStatus.CREATED);
+        verify(completeEntriesUseCase, times(2)).complete(anyList());
+        verify(syncKeyRepository, times(1)).saveAll(any());
+        verify(transactionManager, times(1)).commit(any());
+    }
+
+    @Test
+    void rejectsBadKeysAndMissingDatesWithoutWriting() {
+        List<SyncResult> results = useCase.execute(List.of(
+                command("not-a-uuid", date),
+                command(null, date),
+                command(UUID.randomUUID().toString(), null)));
+
+        assertThat(results).extracting(SyncResult::status).containsOnly(SyncStatus.FAILED);
+        assertThat(results.get(2).error()).isEqualTo("Date is required");
+        verifyNoInteractions(completeEntriesUseCase, syncKeyRepository);
+    }
+
+    @Test
+    void replayedChunkWritesNothing() {
+        String key = UUID.randomUUID().toString();
+        when(syncKeyRepository.findAllById(anyCollection())).thenReturn(List.of(
+                EntrySyncKeyEntity.builder().idempotencyKey(UUID.fromString(key)).entryId(UUID.randomUUID()).build()));
+
+        List<SyncResult> results = useCase.execute(List.of(command(key, date)));
+
+        assertThat(results).extracting(SyncResult::status).containsExactly(SyncStatus.DUPLICATE);
+        verifyNoInteractions(completeEntriesUseCase);
+        verify(syncKeyRepository, never()).saveAll(any());
+    }
+
+    private SyncEntryCommand command(String key, LocalDate date) {
+        return new SyncEntryCommand(key, routineId, date, null, null);
+    }
+
+    private static List<EntryResult> completeAll(List<CompleteEntryCommand> commands) {
+        List<EntryResult> results = new ArrayList<>();
+        for (int i = 0; i < commands.size(); i++) {
+            CompleteEntryCommand command = commands.get(i);
+            results.add(new EntryResult(i, command.routineId(), command.date(), savedEntry(command.date()), null, false));
+        }
+        return results;
+    }
+}
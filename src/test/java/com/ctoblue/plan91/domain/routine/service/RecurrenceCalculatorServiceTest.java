@@ -0,0 +1,196 @@
+package com.ctoblue.plan91.domain.routine.service;
+
+import com.ctoblue.plan91.domain.routine.DayOfWeek;
+import com.ctoblue.plan91.domain.routine.RecurrenceRule;
+import com.ctoblue.plan91.domain.routine.RecurrenceType;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks the arithmetic counting, the expected-day spliterator and next/previous lookups
+ * against an independent reference: the original date-by-date walk, which decides each day
+ * from the rule's components with java.time rather than through the compiled weekday mask.
+ */
+class RecurrenceCalculatorServiceTest {
+
+    private final RecurrenceCalculatorService service = new RecurrenceCalculatorService();
+
+    @Test
+    void countAndDatesMatchReferenceWalkOverRandomRanges() {
+        Random random = new Random(91);
+        List<RecurrenceRule> rules = rules(random);
+        LocalDate origin = LocalDate.of(2023, 1, 1);
+
+        for (int i = 0; i < 2_000; i++) {
+            RecurrenceRule rule = rules.get(random.nextInt(rules.size()));
+            LocalDate start = origin.plusDays(random.nextInt(4 * 365));
+            LocalDate end = start.plusDays(random.nextInt(i % 10 == 0 ? 800 : 40));
+            List<LocalDate> walked = referenceWalk(rule, start, end);
+
+            assertThat(service.findExpectedDates(rule, start, end)).as("%s from %s to %s", rule, start, end)
+                    .isEqualTo(walked);
+            assertThat(service.countExpectedDates(rule, start, end)).as("%s from %s to %s", rule, start, end)
+                    .isEqualTo(walked.size());
+        }
+    }
+
+    @Test
+    void everyRuleMatchesReferenceWalkOverEdgeRanges() {
+        LocalDate leapFebruary = LocalDate.of(2024, 2, 1);
+        List<LocalDate[]> ranges = List.of(
+                new LocalDate[]{leapFebruary, leapFebruary},                            // single day
+                new LocalDate[]{leapFebruary, leapFebruary.plusDays(6)},                // one week
+                new LocalDate[]{LocalDate.of(2024, 1, 29), LocalDate.of(2024, 3, 3)},   // across a leap day
+                new LocalDate[]{LocalDate.of(2023, 12, 25), LocalDate.of(2025, 1, 6)},  // across two year ends
+                new LocalDate[]{LocalDate.of(1999, 12, 1), LocalDate.of(2000, 3, 31)}); // century leap year
+
+        for (RecurrenceRule rule : rules(new Random(91))) {
+            for (LocalDate[] range : ranges) {
+                List<LocalDate> walked = referenceWalk(rule, range[0], range[1]);
+
+                assertThat(service.findExpectedDates(rule, range[0], range[1]))
+                        .as("%s from %s to %s", rule, range[0], range[1]).isEqualTo(walked);
+                assertThat(service.countExpectedDates(rule, range[0], range[1]))
+                        .as("%s from %s to %s", rule, range[0], range[1]).isEqualTo(walked.size());
+            }
+        }
+    }
+
+    @Test
+    void nextAndPreviousMatchDayByDayScan() {
+        Random random = new Random(91);
+        List<RecurrenceRule> rules = rules(random);
+        LocalDate origin = LocalDate.of(2023, 1, 1);
+
+        for (int i = 0; i < 2_000; i++) {
+            RecurrenceRule rule = rules.get(random.nextInt(rules.size()));
+            LocalDate date = origin.plusDays(random.nextInt(4 * 365));
+
+            LocalDate next = date.plusDays(1);
+            while (!referenceIsExpectedOn(rule, next)) {
+                next = next.plusDays(1);
+            }
+            LocalDate previous = date.minusDays(1);
+            while (!referenceIsExpectedOn(rule, previous)) {
+                previous = previous.minusDays(1);
+            }
+
+            assertThat(service.findNextExpectedDate(rule, date)).as("next %s after %s", rule, date).contains(next);
+            assertThat(service.findPreviousExpectedDate(rule, date)).as("previous %s before %s", rule, date).contains(previous);
+        }
+    }
+
+    @Test
+    void lazyStreamMatchesDayByDayWalk() {
+        Random random = new Random(91);
+        List<RecurrenceRule> rules = rules(random);
+        LocalDate origin = LocalDate.of(2023, 1, 1);
+
+        for (int i = 0; i < 500; i++) {
+            RecurrenceRule rule = rules.get(random.nextInt(rules.size()));
+            LocalDate start = origin.plusDays(random.nextInt(4 * 365));
+            LocalDate end = start.plusDays(random.nextInt(120));
+
+            List<LocalDate> walked = referenceWalk(rule, start, end);
+
+            assertThat(service.streamExpectedDates(rule, start, end).toList()).as("%s from %s", rule, start).isEqualTo(walked);
+            assertThat(service.expectedEpochDays(rule, start, end).mapToObj(LocalDate::ofEpochDay).toList()).isEqualTo(walked);
+        }
+    }
+
+    @Test
+    void lazyStreamCanStopEarlyOnLongRanges() {
+        LocalDate start = LocalDate.of(2025, 1, 1);
+
+        assertThat(service.streamExpectedDates(RecurrenceRule.weekdays(), start, start.plusYears(1000)).limit(3))
+                .containsExactly(LocalDate.of(2025, 1, 1), LocalDate.of(2025, 1, 2), LocalDate.of(2025, 1, 3));
+    }
+
+    @Test
+    void batchNextMatchesSingleLookups() {
+        List<RecurrenceRule> rules = rules(new Random(91));
+        LocalDate date = LocalDate.of(2025, 8, 28);
+
+        List<LocalDate> expected = rules.stream()
+                .map(rule -> service.findNextExpectedDate(rule, date).orElseThrow())
+                .toList();
+        assertThat(service.findNextExpectedDates(rules, date)).isEqualTo(expected);
+    }
+
+    @Test
+    void singleDayRangeCountsThatDay() {
+        RecurrenceRule sundays = RecurrenceRule.specificDays(Set.of(DayOfWeek.SUNDAY));
+        LocalDate sunday = LocalDate.of(2025, 1, 5);
+
+        assertThat(service.countExpectedDates(sundays, sunday, sunday)).isEqualTo(1);
+        assertThat(service.countExpectedDates(sundays, sunday.plusDays(1), sunday.plusDays(1))).isZero();
+    }
+
+    /**
+     * The original findExpectedDates: one LocalDate at a time, inclusive of both ends.
+     */
+    private static List<LocalDate> referenceWalk(RecurrenceRule rule, LocalDate start, LocalDate end) {
+        List<LocalDate> walked = new ArrayList<>();
+        for (LocalDate day = start; !day.isAfter(end); day = day.plusDays(1)) {
+            if (referenceIsExpectedOn(rule, day)) {
+                walked.add(day);
+            }
+        }
+        return walked;
+    }
+
+    /**
+     * The original RecurrenceRule.isExpectedOn, from the rule's components rather than its weekday mask.
+     */
+    private static boolean referenceIsExpectedOn(RecurrenceRule rule, LocalDate date) {
+        java.time.DayOfWeek javaDay = date.getDayOfWeek();
+        DayOfWeek day = DayOfWeek.valueOf(javaDay.name());
+        return switch (rule.type()) {
+            case DAILY, TIMES_PER_WEEK_1, TIMES_PER_WEEK_3, TIMES_PER_WEEK_4,
+                 TIMES_PER_WEEK_5, TIMES_PER_WEEK_6 -> true;
+            case WEEKDAYS -> javaDay != java.time.DayOfWeek.SATURDAY && javaDay != java.time.DayOfWeek.SUNDAY;
+            case WEEKENDS -> javaDay == java.time.DayOfWeek.SATURDAY || javaDay == java.time.DayOfWeek.SUNDAY;
+            case SPECIFIC_DAYS -> rule.specificDays().contains(day);
+            case NTH_DAY_OF_MONTH -> day == rule.nthDay() && (date.getDayOfMonth() - 1) / 7 + 1 == rule.nthWeek();
+        };
+    }
+
+    private static List<RecurrenceRule> rules(Random random) {
+        List<RecurrenceRule> rules = new ArrayList<>();
+        for (RecurrenceType type : RecurrenceType.values()) {
+            switch (type) {
+                case SPECIFIC_DAYS -> {
+                    for (int i = 0; i < 10; i++) {
+                        Set<DayOfWeek> days = EnumSet.noneOf(DayOfWeek.class);
+                        for (DayOfWeek day : DayOfWeek.values()) {
+                            if (random.nextBoolean()) {
+                                days.add(day);
+                            }
+                        }
+                        if (days.isEmpty()) {
+                            days.add(DayOfWeek.WEDNESDAY);
+                        }
+                        rules.add(RecurrenceRule.specificDays(days));
+                    }
+                }
+                case NTH_DAY_OF_MONTH -> {
+                    for (DayOfWeek day : DayOfWeek.values()) {
+                        for (int week = 1; week <= 4; week++) {
+                            rules.add(RecurrenceRule.nthDayOfMonth(day, week));
+                        }
+                    }
+                }
+                default -> rules.add(new RecurrenceRule(type, null, null, null));
+            }
+        }
+        return rules;
+    }
+}
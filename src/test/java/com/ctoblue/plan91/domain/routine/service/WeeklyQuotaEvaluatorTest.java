@@ -0,0 +1,114 @@
+package com.ctoblue.plan91.domain.routine.service;
+
+import com.ctoblue.plan91.domain.routine.RecurrenceRule;
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks the week-bucketed quota scoring against grouping dates by ISO week.
+ */
+class WeeklyQuotaEvaluatorTest {
+
+    private final WeeklyQuotaEvaluator evaluator = new WeeklyQuotaEvaluator();
+
+    @Test
+    void matchesGroupingByIsoWeek() {
+        Random random = new Random(91);
+        LocalDate origin = LocalDate.of(2024, 1, 1);
+
+        for (int i = 0; i < 2_000; i++) {
+            RecurrenceRule rule = RecurrenceRule.timesPerWeek(new int[]{1, 3, 4, 5, 6}[random.nextInt(5)]);
+            LocalDate start = origin.plusDays(random.nextInt(2 * 365));
+            LocalDate end = start.plusDays(90);
+            LocalDate asOf = start.plusDays(random.nextInt(120) - 10);
+
+            TreeSet<LocalDate> entries = new TreeSet<>();
+            for (LocalDate d = start.minusDays(3); !d.isAfter(end.plusDays(3)); d = d.plusDays(1)) {
+                if (random.nextInt(10) < 5) {
+                    entries.add(d);
+                }
+            }
+            int[] entryDays = entries.stream().mapToInt(d -> (int) d.toEpochDay()).toArray();
+
+            WeeklyQuotaEvaluator.WeeklyQuota quota = evaluator.evaluate(rule, start, end, entryDays, asOf);
+            Expected expected = groupByWeek(rule.getTimesPerWeek(), start, end, entries, asOf);
+
+            String context = rule + " " + start + " as of " + asOf;
+            assertThat(quota.expectedDays()).as(context).isEqualTo(expected.owed);
+            assertThat(quota.completedDays()).as(context).isEqualTo(expected.credited);
+            assertThat(quota.missedCount()).as(context).isEqualTo(expected.owed - expected.credited);
+            assertThat(quota.missedDays()).as(context)
+                    .isSorted()
+                    .doesNotHaveDuplicates()
+                    .allSatisfy(d -> assertThat(entries).doesNotContain(d))
+                    .allSatisfy(d -> assertThat(d).isBetween(start, asOf));
+        }
+    }
+
+    @Test
+    void meetingEveryWeeksQuotaOnRandomDaysNeverMisses() {
+        Random random = new Random(7);
+        RecurrenceRule rule = RecurrenceRule.timesPerWeek(3);
+        LocalDate start = LocalDate.of(2026, 2, 2);   // Monday
+        LocalDate end = start.plusDays(90);
+
+        List<Integer> days = new ArrayList<>();
+        for (LocalDate week = start; week.isBefore(end); week = week.plusWeeks(1)) {
+            TreeSet<Integer> picked = new TreeSet<>();
+            while (picked.size() < 3) {
+                picked.add(random.nextInt(7));
+            }
+            for (int offset : picked) {
+                days.add((int) week.plusDays(offset).toEpochDay());
+            }
+        }
+        int[] entryDays = days.stream().mapToInt(Integer::intValue).toArray();
+
+        WeeklyQuotaEvaluator.WeeklyQuota quota = evaluator.evaluate(rule, start, end, entryDays, end);
+
+        assertThat(quota.missedDays()).isEmpty();
+        assertThat(quota.weeksMet()).isEqualTo(13);
+        assertThat(quota.complianceRate()).isEqualTo(100.0);
+    }
+
+    private record Expected(int owed, int credited) {}
+
+    private static Expected groupByWeek(int timesPerWeek, LocalDate start, LocalDate end,
+                                        TreeSet<LocalDate> entries, LocalDate asOf) {
+        LocalDate last = asOf.isBefore(end) ? asOf : end;
+        TreeMap<LocalDate, int[]> weeks = new TreeMap<>();   // monday -> {lifespan days, done, remaining}
+        for (LocalDate d = start; !d.isAfter(end); d = d.plusDays(1)) {
+            LocalDate monday = d.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            if (monday.isAfter(last)) {
+                break;
+            }
+            int[] week = weeks.computeIfAbsent(monday, m -> new int[3]);
+            week[0]++;
+            if (d.isAfter(last)) {
+                week[2]++;
+            } else if (entries.contains(d)) {
+                week[1]++;
+            }
+        }
+
+        int owed = 0;
+        int credited = 0;
+        for (int[] week : weeks.values()) {
+            int weekQuota = Math.min(timesPerWeek, week[0]);
+            int done = Math.min(week[1], weekQuota);
+            credited += done;
+            owed += done + Math.max(0, weekQuota - week[1] - week[2]);
+        }
+        return new Expected(owed, credited);
+    }
+}